@@ -0,0 +1,255 @@
+package com.peliculas.recomendador.algorithm;
+
+import com.peliculas.recomendador.model.GrafoPeliculas;
+import com.peliculas.recomendador.model.Pelicula;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * BFS PARALELO con OPTIMIZACIÓN DE DIRECCIÓN (top-down / bottom-up)
+ * Para vecindarios GRANDES (profundidad alta): el grafo tiene diámetro chico y
+ * en 2-3 niveles la frontera cubre casi todo
+ *
+ * POR NIVELES (level-synchronous), fronteras como BITMAPS (1 bit por nodo):
+ * - TOP-DOWN: cada nodo de la frontera marca a sus vecinos no visitados
+ *   (conviene con frontera chica)
+ * - BOTTOM-UP: cada nodo NO visitado busca ALGÚN vecino en la frontera y corta
+ *   al encontrarlo (conviene con frontera grande: se revisan muchas menos aristas)
+ *
+ * CAMBIO DE DIRECCIÓN (heurística de Beamer):
+ * - top-down -> bottom-up si aristas de la frontera > aristas sin explorar / ALFA
+ * - bottom-up -> top-down si nodos de la frontera < nodos / BETA
+ *
+ * PARALELISMO: cada nivel se reparte en rangos de palabras del bitmap entre los
+ * workers del ForkJoinPool común (fork-join)
+ *
+ * COMPLEJIDAD: O(V + E) trabajo total, O(niveles × (V + E) / P) con P núcleos
+ * Usa el mismo grafo de saltos que AlgoritmoBusqueda (películas + géneros,
+ * con a lo sumo "maxPorGenero" películas alcanzables desde cada género)
+ * Ese grafo es dirigido en los géneros: bottom-up busca entre los PREDECESORES
+ */
+@Component
+public class AlgoritmoBFSParalelo {
+
+    private static final int ALFA = 14;
+    private static final int BETA = 24;
+    private static final int PALABRAS_POR_TAREA = 64;  // 4096 nodos por tarea
+
+    /**
+     * Películas relacionadas hasta "profundidad" saltos, las más cercanas primero
+     * COMPLEJIDAD: O(V + E) repartido entre los núcleos + O(profundidad × V) para juntar el resultado
+     */
+    public List<Pelicula> relacionadas(GrafoPeliculas grafo, Long peliculaOrigen,
+                                      int profundidad, int limite, int maxPorGenero) {
+        List<Pelicula> resultado = new ArrayList<>();
+        int origen = grafo.indice(peliculaOrigen);
+        if (origen < 0 || limite <= 0) {
+            return resultado;
+        }
+
+        int[] niveles = niveles(grafo, origen, profundidad, maxPorGenero);
+
+        // Nivel por nivel: primero las más cercanas - O(profundidad × V)
+        for (int nivel = 1; nivel <= profundidad && resultado.size() < limite; nivel++) {
+            for (int i = 0; i < grafo.cantidad() && resultado.size() < limite; i++) {
+                if (niveles[i] == nivel) {
+                    resultado.add(grafo.pelicula(i));
+                }
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Distancia en saltos desde el origen a cada nodo del grafo de saltos
+     * (0..n-1 películas, n..n+G-1 géneros); -1 si no se alcanza en "profundidad"
+     */
+    public int[] niveles(GrafoPeliculas grafo, int origen, int profundidad, int maxPorGenero) {
+        int total = grafo.cantidadNodosSalto();
+        int palabras = (total + 63) >>> 6;
+
+        int[] niveles = new int[total];
+        Arrays.fill(niveles, -1);
+        niveles[origen] = 0;
+
+        AtomicLongArray visitados = new AtomicLongArray(palabras);
+        visitados.set(origen >>> 6, 1L << origen);
+        long[] frontera = new long[palabras];
+        frontera[origen >>> 6] = 1L << origen;
+
+        // Aristas de los nodos todavía sin visitar (para la heurística)
+        long aristasSinExplorar = 0;
+        for (int v = 0; v < total; v++) {
+            aristasSinExplorar += grafo.gradoSalto(v, maxPorGenero);
+        }
+        long aristasFrontera = grafo.gradoSalto(origen, maxPorGenero);
+        aristasSinExplorar -= aristasFrontera;
+        int nodosFrontera = 1;
+        boolean bottomUp = false;
+
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        for (int nivel = 1; nivel <= profundidad && nodosFrontera > 0; nivel++) {
+            // ========================================
+            // ELEGIR DIRECCIÓN
+            // ========================================
+            if (!bottomUp && aristasFrontera > aristasSinExplorar / ALFA) {
+                bottomUp = true;
+            } else if (bottomUp && nodosFrontera < total / BETA) {
+                bottomUp = false;
+            }
+
+            AtomicLongArray siguiente = new AtomicLongArray(palabras);
+            LongAdder nuevos = new LongAdder();
+            LongAdder aristasNuevas = new LongAdder();
+            Nivel tarea = new Nivel(grafo, maxPorGenero, frontera, siguiente, visitados, niveles, nivel,
+                bottomUp, nuevos, aristasNuevas, 0, palabras);
+            pool.invoke(tarea);
+
+            frontera = new long[palabras];
+            for (int w = 0; w < palabras; w++) {
+                frontera[w] = siguiente.get(w);
+            }
+            nodosFrontera = nuevos.intValue();
+            aristasFrontera = aristasNuevas.sum();
+            aristasSinExplorar -= aristasFrontera;
+        }
+
+        return niveles;
+    }
+
+    /**
+     * Un nivel del BFS sobre un rango de palabras del bitmap [desde, hasta)
+     * Se divide en mitades hasta PALABRAS_POR_TAREA (fork-join)
+     */
+    private static final class Nivel extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final GrafoPeliculas grafo;
+        private final int maxPorGenero;
+        private final long[] frontera;
+        private final AtomicLongArray siguiente;
+        private final AtomicLongArray visitados;
+        private final int[] niveles;
+        private final int nivel;
+        private final boolean bottomUp;
+        private final LongAdder nuevos;
+        private final LongAdder aristasNuevas;
+        private final int desde;
+        private final int hasta;
+
+        Nivel(GrafoPeliculas grafo, int maxPorGenero, long[] frontera, AtomicLongArray siguiente, AtomicLongArray visitados,
+              int[] niveles, int nivel, boolean bottomUp, LongAdder nuevos, LongAdder aristasNuevas,
+              int desde, int hasta) {
+            this.grafo = grafo;
+            this.maxPorGenero = maxPorGenero;
+            this.frontera = frontera;
+            this.siguiente = siguiente;
+            this.visitados = visitados;
+            this.niveles = niveles;
+            this.nivel = nivel;
+            this.bottomUp = bottomUp;
+            this.nuevos = nuevos;
+            this.aristasNuevas = aristasNuevas;
+            this.desde = desde;
+            this.hasta = hasta;
+        }
+
+        @Override
+        protected void compute() {
+            if (hasta - desde > PALABRAS_POR_TAREA) {
+                int medio = (desde + hasta) >>> 1;
+                invokeAll(
+                    new Nivel(grafo, maxPorGenero, frontera, siguiente, visitados, niveles, nivel, bottomUp, nuevos, aristasNuevas, desde, medio),
+                    new Nivel(grafo, maxPorGenero, frontera, siguiente, visitados, niveles, nivel, bottomUp, nuevos, aristasNuevas, medio, hasta));
+                return;
+            }
+
+            if (bottomUp) {
+                abajoHaciaArriba();
+            } else {
+                arribaHaciaAbajo();
+            }
+        }
+
+        /**
+         * TOP-DOWN: los nodos de la frontera de este rango marcan a sus vecinos
+         * Varias tareas pueden llegar al mismo vecino: gana la que lo marca primero (CAS)
+         */
+        private void arribaHaciaAbajo() {
+            long[] conteo = new long[2];  // nodos nuevos, aristas de los nodos nuevos
+            for (int w = desde; w < hasta; w++) {
+                for (long resto = frontera[w]; resto != 0; resto &= resto - 1) {
+                    int nodo = (w << 6) | Long.numberOfTrailingZeros(resto);
+                    grafo.paraCadaVecinoSalto(nodo, maxPorGenero, vecino -> {
+                        if (marcarSiNoEsta(visitados, vecino)) {
+                            niveles[vecino] = nivel;
+                            marcarSiNoEsta(siguiente, vecino);
+                            conteo[0]++;
+                            conteo[1] += grafo.gradoSalto(vecino, maxPorGenero);
+                        }
+                        return true;
+                    });
+                }
+            }
+            nuevos.add(conteo[0]);
+            aristasNuevas.add(conteo[1]);
+        }
+
+        /**
+         * BOTTOM-UP: los nodos NO visitados de este rango buscan un predecesor en la frontera
+         * Cada tarea escribe solo sus propias palabras: no hay competencia
+         */
+        private void abajoHaciaArriba() {
+            int total = niveles.length;
+            long contados = 0;
+            long aristas = 0;
+            for (int w = desde; w < hasta; w++) {
+                long sinVisitar = ~visitados.get(w);
+                for (long resto = sinVisitar; resto != 0; resto &= resto - 1) {
+                    int nodo = (w << 6) | Long.numberOfTrailingZeros(resto);
+                    if (nodo >= total) {
+                        break;
+                    }
+                    // Corta en el PRIMER predecesor de la frontera
+                    boolean enFrontera = !grafo.paraCadaPredecesorSalto(nodo, maxPorGenero,
+                        vecino -> (frontera[vecino >>> 6] & (1L << vecino)) == 0);
+                    if (enFrontera) {
+                        niveles[nodo] = nivel;
+                        marcarSiNoEsta(visitados, nodo);
+                        marcarSiNoEsta(siguiente, nodo);
+                        contados++;
+                        aristas += grafo.gradoSalto(nodo, maxPorGenero);
+                    }
+                }
+            }
+            nuevos.add(contados);
+            aristasNuevas.add(aristas);
+        }
+    }
+
+    /**
+     * Pone el bit con CAS
+     * @return true si el bit no estaba (este hilo lo marcó)
+     */
+    private static boolean marcarSiNoEsta(AtomicLongArray bitmap, int nodo) {
+        int w = nodo >>> 6;
+        long bit = 1L << nodo;
+        while (true) {
+            long actual = bitmap.get(w);
+            if ((actual & bit) != 0) {
+                return false;
+            }
+            if (bitmap.compareAndSet(w, actual, actual | bit)) {
+                return true;
+            }
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.peliculas.recomendador.algorithm;
 
+import com.peliculas.recomendador.model.DiccionarioGeneros;
 import com.peliculas.recomendador.model.Pelicula;
 import com.peliculas.recomendador.model.Genero;
 import org.springframework.stereotype.Component;
@@ -16,18 +17,47 @@ public class AlgoritmoBacktracking {
     
     /**
      * Encuentra todas las combinaciones de N películas de diferentes géneros
+     * 
+     * Los géneros deseados se codifican con un diccionario local (0..k-1):
+     * cada película pasa a ser una MÁSCARA de los géneros deseados que tiene
+     * y los géneros usados son otra máscara (sin Set<String> ni comparar textos)
+     * A lo sumo 64 géneros deseados distintos (la máscara es un solo long)
      */
     public List<List<Pelicula>> mixGeneros(List<Pelicula> peliculas, List<String> generosDeseados) {
         List<List<Pelicula>> resultados = new ArrayList<>();
         List<Pelicula> combinacionActual = new ArrayList<>();
-        Set<String> generosUsados = new HashSet<>();
+        
+        DiccionarioGeneros diccionario = new DiccionarioGeneros();
+        for (String genero : generosDeseados) {
+            diccionario.registrar(genero);
+        }
+        if (diccionario.cantidad() > DiccionarioGeneros.BITS_POR_PALABRA) {
+            throw new IllegalArgumentException(
+                "A lo sumo " + DiccionarioGeneros.BITS_POR_PALABRA + " géneros deseados distintos");
+        }
+        long objetivo = diccionario.mascaraDeNombres(generosDeseados)[0];
+        
+        // Máscara de géneros DESEADOS de cada película: O(N × g) una sola vez
+        long[] generosPelicula = new long[peliculas.size()];
+        for (int i = 0; i < generosPelicula.length; i++) {
+            Set<Genero> generos = peliculas.get(i).getGeneros();
+            if (generos != null) {
+                for (Genero genero : generos) {
+                    int id = diccionario.idDe(genero.getNombre());
+                    if (id >= 0) {
+                        generosPelicula[i] |= 1L << id;
+                    }
+                }
+            }
+        }
         
         backtrackMixGeneros(
             peliculas, 
-            generosDeseados, 
+            generosPelicula, 
+            objetivo, 
             0, 
             combinacionActual, 
-            generosUsados, 
+            0L, 
             resultados
         );
         
@@ -36,14 +66,15 @@ public class AlgoritmoBacktracking {
     
     private void backtrackMixGeneros(
             List<Pelicula> peliculas,
-            List<String> generosDeseados,
+            long[] generosPelicula,
+            long objetivo,
             int indicePelicula,
             List<Pelicula> combinacionActual,
-            Set<String> generosUsados,
+            long generosUsados,
             List<List<Pelicula>> resultados) {
         
         // CASO BASE: Ya tenemos una película de cada género deseado
-        if (generosUsados.size() == generosDeseados.size()) {
+        if (generosUsados == objetivo) {
             resultados.add(new ArrayList<>(combinacionActual));
             return;
         }
@@ -55,38 +86,35 @@ public class AlgoritmoBacktracking {
         
         Pelicula peliculaActual = peliculas.get(indicePelicula);
         
-        // OPCIÓN 1: Incluir esta película si tiene un género que necesitamos
-        if (peliculaActual.getGeneros() != null) {
-            for (Genero genero : peliculaActual.getGeneros()) {
-                // Si el género está en la lista deseada y aún no lo hemos usado
-                if (generosDeseados.contains(genero.getNombre()) && 
-                    !generosUsados.contains(genero.getNombre())) {
-                    
-                    // Agregar película y marcar género como usado
-                    combinacionActual.add(peliculaActual);
-                    generosUsados.add(genero.getNombre());
-                    
-                    // RECURSIÓN: Buscar siguiente película
-                    backtrackMixGeneros(
-                        peliculas, 
-                        generosDeseados, 
-                        indicePelicula + 1, 
-                        combinacionActual, 
-                        generosUsados, 
-                        resultados
-                    );
-                    
-                    // BACKTRACK: Deshacer la elección
-                    combinacionActual.remove(combinacionActual.size() - 1);
-                    generosUsados.remove(genero.getNombre());
-                }
-            }
+        // OPCIÓN 1: Incluir esta película por cada género deseado que aún no usamos
+        long disponibles = generosPelicula[indicePelicula] & ~generosUsados;
+        while (disponibles != 0) {
+            long genero = Long.lowestOneBit(disponibles);
+            disponibles &= disponibles - 1;
+            
+            // Agregar película y marcar género como usado
+            combinacionActual.add(peliculaActual);
+            
+            // RECURSIÓN: Buscar siguiente película
+            backtrackMixGeneros(
+                peliculas, 
+                generosPelicula, 
+                objetivo, 
+                indicePelicula + 1, 
+                combinacionActual, 
+                generosUsados | genero, 
+                resultados
+            );
+            
+            // BACKTRACK: Deshacer la elección (la máscara se pasa por valor)
+            combinacionActual.remove(combinacionActual.size() - 1);
         }
         
         // OPCIÓN 2: NO incluir esta película (probar con la siguiente)
         backtrackMixGeneros(
             peliculas, 
-            generosDeseados, 
+            generosPelicula, 
+            objetivo, 
             indicePelicula + 1, 
             combinacionActual, 
             generosUsados, 
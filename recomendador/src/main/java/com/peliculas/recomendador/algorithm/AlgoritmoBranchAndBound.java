@@ -1,5 +1,6 @@
 package com.peliculas.recomendador.algorithm;
 
+import com.peliculas.recomendador.model.ColumnasAtributos;
 import com.peliculas.recomendador.model.Pelicula;
 import com.peliculas.recomendador.model.ResultadoBB;
 import org.springframework.stereotype.Component;
@@ -22,6 +23,9 @@ import java.util.*;
  * 1. Relajación fraccional para calcular bound optimista
  * 2. PriorityQueue para explorar nodos más prometedores primero
  * 3. Poda cuando bound ≤ mejor solución actual
+ *
+ * DATOS: duración y rating se leen de ColumnasAtributos (sin valor = 0)
+ * - El árbol recorre ÍNDICES ordenados por ratio; la Pelicula solo se toca al elegirla
  */
 @Component
 public class AlgoritmoBranchAndBound {
@@ -56,7 +60,11 @@ public class AlgoritmoBranchAndBound {
      * - Árbol binario de decisiones: incluir/no incluir cada película
      */
     public ResultadoBB maratonOptimo(List<Pelicula> peliculas, int tiempoMaximo) {
-        if (peliculas == null || peliculas.isEmpty() || tiempoMaximo <= 0) {
+        return maratonOptimo(ColumnasAtributos.de(peliculas), tiempoMaximo);
+    }
+    
+    public ResultadoBB maratonOptimo(ColumnasAtributos atributos, int tiempoMaximo) {
+        if (atributos.cantidad() == 0 || tiempoMaximo <= 0) {
             return new ResultadoBB(new ArrayList<>(), 0, 0.0, 0, 0);
         }
         
@@ -68,12 +76,8 @@ public class AlgoritmoBranchAndBound {
         // PASO 1: ORDENAR POR RATIO - O(n log n)
         // ========================================
         // Ordenar por ratio rating/duración para heurística greedy en bound
-        List<Pelicula> peliculasOrdenadas = new ArrayList<>(peliculas);
-        peliculasOrdenadas.sort((p1, p2) -> {
-            double ratio1 = p1.getPromedioRating() / Math.max(p1.getDuracion(), 1);
-            double ratio2 = p2.getPromedioRating() / Math.max(p2.getDuracion(), 1);
-            return Double.compare(ratio2, ratio1);  // Descendente
-        });
+        int[] orden = ordenPorRatio(atributos);
+        ColumnasAtributos.Vista vista = atributos.vista();
         
         // ========================================
         // PASO 2: INICIALIZAR ESTRUCTURAS - O(n)
@@ -85,7 +89,7 @@ public class AlgoritmoBranchAndBound {
         
         // Nodo inicial (raíz del árbol de decisión)
         Nodo raiz = new Nodo(0, 0.0, 0, new ArrayList<>());
-        raiz.cotaSuperior = calcularCotaSuperior(peliculasOrdenadas, 0, 0.0, 0, tiempoMaximo);  // O(n)
+        raiz.cotaSuperior = calcularCotaSuperior(atributos, orden, 0, 0.0, 0, tiempoMaximo);  // O(n)
         cola.offer(raiz);  // O(log 1) = O(1)
         
         // Mejor solución encontrada hasta ahora
@@ -109,7 +113,7 @@ public class AlgoritmoBranchAndBound {
             }
             
             // Si llegamos al final del árbol
-            if (actual.nivel >= peliculasOrdenadas.size()) {
+            if (actual.nivel >= orden.length) {
                 if (actual.puntuacionActual > mejorPuntuacion) {
                     mejorPuntuacion = actual.puntuacionActual;
                     mejorSeleccion = new ArrayList<>(actual.peliculas);
@@ -118,25 +122,26 @@ public class AlgoritmoBranchAndBound {
                 continue;
             }
             
-            Pelicula peliculaActual = peliculasOrdenadas.get(actual.nivel);
+            ColumnasAtributos.Vista peliculaActual = vista.en(orden[actual.nivel]);
             
             // ========================================
             // OPCIÓN 1: INCLUIR la película (rama izquierda)
             // ========================================
-            if (actual.tiempoActual + peliculaActual.getDuracion() <= tiempoMaximo) {
+            if (actual.tiempoActual + peliculaActual.duracion() <= tiempoMaximo) {
                 List<Pelicula> nuevaSeleccion = new ArrayList<>(actual.peliculas);
-                nuevaSeleccion.add(peliculaActual);
+                nuevaSeleccion.add(peliculaActual.pelicula());
                 
                 Nodo nodoIncluir = new Nodo(
                     actual.nivel + 1,
-                    actual.puntuacionActual + peliculaActual.getPromedioRating(),
-                    actual.tiempoActual + peliculaActual.getDuracion(),
+                    actual.puntuacionActual + peliculaActual.rating(),
+                    actual.tiempoActual + peliculaActual.duracion(),
                     nuevaSeleccion
                 );
                 
                 // O(n): Calcular bound para el nuevo nodo
                 nodoIncluir.cotaSuperior = calcularCotaSuperior(
-                    peliculasOrdenadas,
+                    atributos,
+                    orden,
                     actual.nivel + 1,
                     nodoIncluir.puntuacionActual,
                     nodoIncluir.tiempoActual,
@@ -170,7 +175,8 @@ public class AlgoritmoBranchAndBound {
             
             // O(n): Calcular bound
             nodoExcluir.cotaSuperior = calcularCotaSuperior(
-                peliculasOrdenadas,
+                atributos,
+                orden,
                 actual.nivel + 1,
                 nodoExcluir.puntuacionActual,
                 nodoExcluir.tiempoActual,
@@ -202,25 +208,26 @@ public class AlgoritmoBranchAndBound {
      * RELAJACIÓN FRACCIONAL: Permite tomar FRACCIONES de películas (imposible en realidad)
      * Esto da una estimación OPTIMISTA que sirve para podar
      */
-    private double calcularCotaSuperior(List<Pelicula> peliculas, int indiceActual, 
+    private double calcularCotaSuperior(ColumnasAtributos atributos, int[] orden, int indiceActual, 
                                        double puntuacionActual, int tiempoActual, 
                                        int tiempoMaximo) {
         double cotaSuperior = puntuacionActual;
         int tiempoDisponible = tiempoMaximo - tiempoActual;
         
         // O(n): Intentar agregar películas completas o fraccionales
-        for (int i = indiceActual; i < peliculas.size() && tiempoDisponible > 0; i++) {
-            Pelicula pelicula = peliculas.get(i);
+        for (int i = indiceActual; i < orden.length && tiempoDisponible > 0; i++) {
+            int duracion = atributos.duracionOCero(orden[i]);
+            double rating = atributos.ratingOCero(orden[i]);
             
-            if (pelicula.getDuracion() <= tiempoDisponible) {
+            if (duracion <= tiempoDisponible) {
                 // Agregar película COMPLETA
-                cotaSuperior += pelicula.getPromedioRating();  // O(1)
-                tiempoDisponible -= pelicula.getDuracion();  // O(1)
+                cotaSuperior += rating;  // O(1)
+                tiempoDisponible -= duracion;  // O(1)
             } else {
                 // RELAJACIÓN FRACCIONAL: agregar PROPORCIÓN de la película
                 // Esto es OPTIMISTA (imposible en realidad) pero válido para el bound
-                double fraccion = (double) tiempoDisponible / pelicula.getDuracion();
-                cotaSuperior += pelicula.getPromedioRating() * fraccion;  // O(1)
+                double fraccion = (double) tiempoDisponible / duracion;
+                cotaSuperior += rating * fraccion;  // O(1)
                 break;  // Ya no cabe más
             }
         }
@@ -231,17 +238,185 @@ public class AlgoritmoBranchAndBound {
     
     /**
      * B&B con restricción de cantidad mínima de películas
-     * COMPLEJIDAD: O(2^n) como maratonOptimo
+     * Busca el ÓPTIMO real entre los maratones con al menos N películas
+     * 
+     * COMPLEJIDAD: O(2^n) como maratonOptimo, con poda adicional por cantidad
+     * 
+     * PODA POR CANTIDAD (además de la poda por rating):
+     * 1. Faltan más películas de las que quedan por decidir
+     * 2. Ni siquiera las películas MÁS CORTAS que faltan entran en el tiempo restante
      */
     public ResultadoBB maratonConMinimo(List<Pelicula> peliculas, int tiempoMaximo, int minimoePeliculas) {
-        ResultadoBB resultado = maratonOptimo(peliculas, tiempoMaximo);  // O(2^n)
+        return maratonConMinimo(ColumnasAtributos.de(peliculas), tiempoMaximo, minimoePeliculas);
+    }
+    
+    public ResultadoBB maratonConMinimo(ColumnasAtributos atributos, int tiempoMaximo, int minimoePeliculas) {
+        if (minimoePeliculas <= 0) {
+            return maratonOptimo(atributos, tiempoMaximo);  // Sin restricción real
+        }
+        
+        if (atributos.cantidad() < minimoePeliculas || tiempoMaximo <= 0) {
+            return sinMaratonConMinimo(minimoePeliculas, 0, 0);
+        }
+        
+        nodosExplorados = 0;
+        nodosPodados = 0;
+        
+        // ========================================
+        // PASO 1: ORDENAR POR RATIO - O(n log n)
+        // ========================================
+        int[] orden = ordenPorRatio(atributos);
+        ColumnasAtributos.Vista vista = atributos.vista();
         
-        if (resultado.getPeliculasOptimas().size() < minimoePeliculas) {
-            // Si no alcanza el mínimo, intentar con otro enfoque
-            // Por simplicidad, devolver el resultado actual con nota
-            resultado.setEstrategia("B&B - No se alcanzó el mínimo de " + minimoePeliculas + " películas");
+        // ========================================
+        // PASO 2: COTA DE TIEMPO POR CANTIDAD - O(n log n)
+        // ========================================
+        // tiempoMinimo[k] = suma de las k duraciones más cortas del catálogo
+        // Es una cota INFERIOR válida del tiempo necesario para agregar k películas más
+        int[] duracionesOrdenadas = new int[orden.length];
+        for (int i = 0; i < duracionesOrdenadas.length; i++) {
+            duracionesOrdenadas[i] = atributos.duracionOCero(i);
+        }
+        Arrays.sort(duracionesOrdenadas);
+        long[] tiempoMinimo = new long[minimoePeliculas + 1];
+        for (int k = 1; k <= minimoePeliculas; k++) {
+            tiempoMinimo[k] = tiempoMinimo[k - 1] + duracionesOrdenadas[k - 1];
         }
         
+        if (tiempoMinimo[minimoePeliculas] > tiempoMaximo) {
+            return sinMaratonConMinimo(minimoePeliculas, 0, 0);  // Ni las N más cortas entran
+        }
+        
+        // ========================================
+        // PASO 3: BRANCH & BOUND CON CANTIDAD
+        // ========================================
+        PriorityQueue<Nodo> cola = new PriorityQueue<>(
+            (n1, n2) -> Double.compare(n2.cotaSuperior, n1.cotaSuperior)  // Max-heap
+        );
+        
+        Nodo raiz = new Nodo(0, 0.0, 0, new ArrayList<>());
+        raiz.cotaSuperior = calcularCotaSuperior(atributos, orden, 0, 0.0, 0, tiempoMaximo);
+        cola.offer(raiz);
+        
+        // Solo cuentan como solución los nodos con al menos N películas
+        double mejorPuntuacion = Double.NEGATIVE_INFINITY;
+        List<Pelicula> mejorSeleccion = null;
+        int mejorTiempo = 0;
+        
+        while (!cola.isEmpty()) {
+            Nodo actual = cola.poll();
+            nodosExplorados++;
+            
+            if (actual.cotaSuperior <= mejorPuntuacion) {
+                nodosPodados++;
+                continue;
+            }
+            
+            if (actual.nivel >= orden.length) {
+                continue;  // Hoja: ya evaluada al crearse
+            }
+            
+            ColumnasAtributos.Vista peliculaActual = vista.en(orden[actual.nivel]);
+            
+            // OPCIÓN 1: INCLUIR la película
+            if (actual.tiempoActual + peliculaActual.duracion() <= tiempoMaximo) {
+                List<Pelicula> nuevaSeleccion = new ArrayList<>(actual.peliculas);
+                nuevaSeleccion.add(peliculaActual.pelicula());
+                
+                Nodo nodoIncluir = new Nodo(
+                    actual.nivel + 1,
+                    actual.puntuacionActual + peliculaActual.rating(),
+                    actual.tiempoActual + peliculaActual.duracion(),
+                    nuevaSeleccion
+                );
+                
+                if (nuevaSeleccion.size() >= minimoePeliculas
+                        && nodoIncluir.puntuacionActual > mejorPuntuacion) {
+                    mejorPuntuacion = nodoIncluir.puntuacionActual;
+                    mejorSeleccion = nuevaSeleccion;
+                    mejorTiempo = nodoIncluir.tiempoActual;
+                }
+                
+                encolarSiPrometedor(cola, nodoIncluir, atributos, orden, tiempoMaximo,
+                                    minimoePeliculas, tiempoMinimo, mejorPuntuacion);
+            }
+            
+            // OPCIÓN 2: NO INCLUIR la película
+            Nodo nodoExcluir = new Nodo(
+                actual.nivel + 1,
+                actual.puntuacionActual,
+                actual.tiempoActual,
+                actual.peliculas
+            );
+            
+            encolarSiPrometedor(cola, nodoExcluir, atributos, orden, tiempoMaximo,
+                                minimoePeliculas, tiempoMinimo, mejorPuntuacion);
+        }
+        
+        if (mejorSeleccion == null) {
+            return sinMaratonConMinimo(minimoePeliculas, nodosExplorados, nodosPodados);
+        }
+        
+        ResultadoBB resultado = new ResultadoBB(mejorSeleccion, mejorTiempo, mejorPuntuacion,
+                                                nodosExplorados, nodosPodados);
+        resultado.setEstrategia("B&B - Óptimo con mínimo de " + minimoePeliculas + " películas");
+        return resultado;
+    }
+    // COMPLEJIDAD TOTAL: O(n log n) + O(nodos_explorados × n)
+    
+    /**
+     * Aplica la poda por cantidad y por rating antes de agregar un nodo a la cola
+     * COMPLEJIDAD: O(n) por el cálculo de la cota
+     */
+    private void encolarSiPrometedor(PriorityQueue<Nodo> cola, Nodo nodo, ColumnasAtributos atributos,
+                                     int[] orden, int tiempoMaximo, int minimoePeliculas,
+                                     long[] tiempoMinimo, double mejorPuntuacion) {
+        int faltan = Math.max(0, minimoePeliculas - nodo.peliculas.size());
+        int quedan = orden.length - nodo.nivel;
+        
+        // PODA POR CANTIDAD: imposible llegar al mínimo desde este nodo - O(1)
+        if (faltan > quedan || nodo.tiempoActual + tiempoMinimo[faltan] > tiempoMaximo) {
+            nodosPodados++;
+            return;
+        }
+        
+        if (nodo.nivel >= orden.length) {
+            return;  // Hoja sin más decisiones
+        }
+        
+        // PODA POR OPTIMIZACIÓN: la relajación fraccional sigue siendo cota válida
+        nodo.cotaSuperior = calcularCotaSuperior(atributos, orden, nodo.nivel, nodo.puntuacionActual,
+                                                 nodo.tiempoActual, tiempoMaximo);
+        if (nodo.cotaSuperior > mejorPuntuacion) {
+            cola.offer(nodo);
+        } else {
+            nodosPodados++;
+        }
+    }
+    
+    /**
+     * Índices por ratio rating/duración descendente (empate: orden original)
+     * COMPLEJIDAD: O(n log n), leyendo solo las columnas
+     */
+    private int[] ordenPorRatio(ColumnasAtributos atributos) {
+        Integer[] orden = new Integer[atributos.cantidad()];
+        for (int i = 0; i < orden.length; i++) {
+            orden[i] = i;
+        }
+        Arrays.sort(orden, (a, b) -> Double.compare(
+            atributos.ratingOCero(b) / Math.max(atributos.duracionOCero(b), 1),
+            atributos.ratingOCero(a) / Math.max(atributos.duracionOCero(a), 1)
+        ));
+        int[] resultado = new int[orden.length];
+        for (int i = 0; i < orden.length; i++) {
+            resultado[i] = orden[i];
+        }
+        return resultado;
+    }
+    
+    private ResultadoBB sinMaratonConMinimo(int minimoePeliculas, int explorados, int podados) {
+        ResultadoBB resultado = new ResultadoBB(new ArrayList<>(), 0, 0.0, explorados, podados);
+        resultado.setEstrategia("B&B - No existe maratón de al menos " + minimoePeliculas + " películas");
         return resultado;
     }
     
@@ -250,24 +425,29 @@ public class AlgoritmoBranchAndBound {
      * COMPLEJIDAD: O(n log n) - Greedy con ordenamiento
      */
     public ResultadoBB maratonMaximaCantidad(List<Pelicula> peliculas, int tiempoMaximo) {
-        if (peliculas == null || peliculas.isEmpty() || tiempoMaximo <= 0) {
+        return maratonMaximaCantidad(ColumnasAtributos.de(peliculas), tiempoMaximo);
+    }
+    
+    public ResultadoBB maratonMaximaCantidad(ColumnasAtributos atributos, int tiempoMaximo) {
+        if (atributos.cantidad() == 0 || tiempoMaximo <= 0) {
             return new ResultadoBB(new ArrayList<>(), 0, 0.0, 0, 0);
         }
         
         // O(n log n): Ordenar por duración (más cortas primero)
-        List<Pelicula> peliculasOrdenadas = new ArrayList<>(peliculas);
-        peliculasOrdenadas.sort(Comparator.comparing(Pelicula::getDuracion));
+        long[] porDuracion = AlgoritmoDP.ordenPorDuracion(atributos);
         
         List<Pelicula> seleccion = new ArrayList<>();
         int tiempoAcumulado = 0;
         double puntuacionTotal = 0.0;
         
         // O(n): Greedy - tomar mientras quepan
-        for (Pelicula pelicula : peliculasOrdenadas) {
-            if (tiempoAcumulado + pelicula.getDuracion() <= tiempoMaximo) {
-                seleccion.add(pelicula);
-                tiempoAcumulado += pelicula.getDuracion();
-                puntuacionTotal += pelicula.getPromedioRating();
+        for (long clave : porDuracion) {
+            int i = (int) clave;
+            int duracion = atributos.duracionOCero(i);
+            if (tiempoAcumulado + duracion <= tiempoMaximo) {
+                seleccion.add(atributos.pelicula(i));
+                tiempoAcumulado += duracion;
+                puntuacionTotal += atributos.ratingOCero(i);
             }
         }
         
@@ -0,0 +1,265 @@
+package com.peliculas.recomendador.algorithm;
+
+import com.peliculas.recomendador.model.AdyacenciaComprimida;
+import com.peliculas.recomendador.model.GrafoPeliculas;
+import com.peliculas.recomendador.model.PeliculaDistancia;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * BFS y DFS sobre el grafo EN MEMORIA (sin enumerar caminos en Cypher)
+ *
+ * GRAFO DE SALTOS (como el patrón -[:SIMILAR_A|TIENE_GENERO]- de Neo4j):
+ * - Nodos 0..n-1: películas
+ * - Nodos n..n+G-1: géneros
+ * - Película <-> película por SIMILAR_A (en cualquier sentido)
+ * - Película <-> género por TIENE_GENERO
+ *
+ * GÉNEROS COMO HUBS: "maxPorGenero" acota hacia cuántas películas se sale de cada
+ * género (las de mejor rating). Toda película sigue llegando a sus géneros, pero
+ * 2 saltos por "Drama" no recorren todo el catálogo y el costo queda acotado sin
+ * importar qué tan popular sea el género
+ *
+ * COMPLEJIDAD: O(V + E) con conjunto de VISITADOS: cada nodo se expande una vez
+ * Contra Cypher: MATCH path = ...*1..5 enumera CAMINOS (crece exponencialmente
+ * con la profundidad, sobre todo al pasar por los géneros, que son hubs)
+ */
+@Component
+public class AlgoritmoBusqueda {
+
+    public static final int SIN_TOPE = Integer.MAX_VALUE;
+
+    /**
+     * BFS: películas NIVEL POR NIVEL (las más cercanas primero)
+     * ESTRUCTURA DE DATOS: cola FIFO (arreglo) + bitset de visitados
+     *
+     * Cuando ya hay "limite" películas en la cola no se encola nada más:
+     * las que vendrían después nunca se devolverían (evita expandir hubs enteros)
+     *
+     * COMPLEJIDAD: O(V + E) en el peor caso, O(limite + grado) típico
+     */
+    public List<PeliculaDistancia> bfs(GrafoPeliculas grafo, Long peliculaOrigen,
+                                       int profundidadMaxima, int limite, int maxPorGenero) {
+        List<PeliculaDistancia> resultado = new ArrayList<>();
+        int origen = grafo.indice(peliculaOrigen);
+        if (origen < 0 || limite <= 0) {
+            return resultado;
+        }
+
+        int n = grafo.cantidad();
+        int total = grafo.cantidadNodosSalto();
+        long[] visitados = new long[(total + 63) >>> 6];
+        int[] cola = new int[total];
+        int[] distancia = new int[total];
+
+        int frente = 0;
+        int[] fin = {0};
+        int[] peliculasEncoladas = {0};
+        cola[fin[0]++] = origen;
+        marcar(visitados, origen);
+
+        while (frente < fin[0]) {
+            int actual = cola[frente++];
+            int d = distancia[actual];
+
+            if (actual < n && actual != origen) {
+                resultado.add(new PeliculaDistancia(grafo.pelicula(actual), d));
+            }
+            if (d == profundidadMaxima || peliculasEncoladas[0] >= limite) {
+                continue;
+            }
+
+            // Cada vecino no visitado entra UNA vez a la cola: O(1) con el bitset
+            grafo.paraCadaVecinoSalto(actual, maxPorGenero, vecino -> {
+                if (!visitado(visitados, vecino)) {
+                    marcar(visitados, vecino);
+                    distancia[vecino] = d + 1;
+                    cola[fin[0]++] = vecino;
+                    if (vecino < n) {
+                        peliculasEncoladas[0]++;
+                    }
+                }
+                return peliculasEncoladas[0] < limite;
+            });
+        }
+
+        return resultado;
+    }
+
+    /**
+     * DFS ITERATIVO con límite de profundidad: sigue RAMAS COMPLETAS antes de retroceder
+     * ESTRUCTURA DE DATOS: pila LIFO explícita (sin recursión: no hay StackOverflow)
+     *
+     * Un nodo alcanzado más tarde por un camino MÁS CORTO se vuelve a expandir,
+     * para no perder lo que estaba a su alcance dentro del límite
+     * La distancia informada es la profundidad del DFS al descubrir la película
+     *
+     * COMPLEJIDAD: O(P × (V + E)) en el peor caso (P = profundidad máxima),
+     * O(V + E) en la práctica
+     */
+    public List<PeliculaDistancia> dfs(GrafoPeliculas grafo, Long peliculaOrigen,
+                                       int profundidadMaxima, int limite, int maxPorGenero) {
+        List<PeliculaDistancia> resultado = new ArrayList<>();
+        int origen = grafo.indice(peliculaOrigen);
+        if (origen < 0 || limite <= 0) {
+            return resultado;
+        }
+
+        int n = grafo.cantidad();
+        int total = grafo.cantidadNodosSalto();
+        int[] mejorProfundidad = new int[total];
+        Arrays.fill(mejorProfundidad, Integer.MAX_VALUE);
+        long[] reportadas = new long[(total + 63) >>> 6];
+
+        Pila pila = new Pila();
+        Vecinos vecinos = new Vecinos();
+        pila.apilar(origen, 0);
+        mejorProfundidad[origen] = 0;
+
+        while (!pila.estaVacia() && resultado.size() < limite) {
+            pila.desapilar();
+            int actual = pila.nodo;
+            int d = pila.profundidad;
+            if (d > mejorProfundidad[actual]) {
+                continue;  // ya se exploró desde más cerca
+            }
+
+            if (actual < n && actual != origen && !visitado(reportadas, actual)) {
+                marcar(reportadas, actual);
+                resultado.add(new PeliculaDistancia(grafo.pelicula(actual), d));
+            }
+            if (d == profundidadMaxima) {
+                continue;
+            }
+
+            // Se apilan al revés para visitar los vecinos en su orden natural
+            vecinos.vaciar();
+            grafo.paraCadaVecinoSalto(actual, maxPorGenero, vecinos::agregar);
+            for (int k = vecinos.cantidad() - 1; k >= 0; k--) {
+                int vecino = vecinos.get(k);
+                if (d + 1 < mejorProfundidad[vecino]) {
+                    mejorProfundidad[vecino] = d + 1;
+                    pila.apilar(vecino, d + 1);
+                }
+            }
+        }
+
+        return resultado;
+    }
+
+    /**
+     * BFS sobre la ADYACENCIA COMPRIMIDA: solo SIMILAR_A, en cualquier sentido
+     * (la adyacencia comprimida no tiene géneros)
+     * Distancia en saltos a cada película; -1 si no se alcanza en "profundidadMaxima"
+     *
+     * COMPLEJIDAD: O(V + E) con decodificación secuencial de cada lista
+     */
+    public int[] niveles(AdyacenciaComprimida adyacencia, int origen, int profundidadMaxima) {
+        int n = adyacencia.cantidad();
+        int[] niveles = new int[n];
+        Arrays.fill(niveles, -1);
+        if (origen < 0 || origen >= n) {
+            return niveles;
+        }
+
+        AdyacenciaComprimida.Cursor cursor = adyacencia.cursor();
+        int[] cola = new int[n];
+        int fin = 0;
+        cola[fin++] = origen;
+        niveles[origen] = 0;
+
+        for (int frente = 0; frente < fin; frente++) {
+            int actual = cola[frente];
+            int d = niveles[actual];
+            if (d == profundidadMaxima) {
+                continue;
+            }
+            for (cursor.salientes(actual); cursor.siguiente(); ) {
+                if (niveles[cursor.vecino()] < 0) {
+                    niveles[cursor.vecino()] = d + 1;
+                    cola[fin++] = cursor.vecino();
+                }
+            }
+            for (cursor.entrantes(actual); cursor.siguiente(); ) {
+                if (niveles[cursor.vecino()] < 0) {
+                    niveles[cursor.vecino()] = d + 1;
+                    cola[fin++] = cursor.vecino();
+                }
+            }
+        }
+        return niveles;
+    }
+
+    /**
+     * Pila de (nodo, profundidad) sobre arreglos primitivos que crecen al doble
+     */
+    private static final class Pila {
+
+        private int[] nodos = new int[16];
+        private int[] profundidades = new int[16];
+        private int tope;
+
+        // Último elemento desapilado
+        int nodo;
+        int profundidad;
+
+        void apilar(int nodo, int profundidad) {
+            if (tope == nodos.length) {
+                nodos = Arrays.copyOf(nodos, tope * 2);
+                profundidades = Arrays.copyOf(profundidades, tope * 2);
+            }
+            nodos[tope] = nodo;
+            profundidades[tope++] = profundidad;
+        }
+
+        void desapilar() {
+            tope--;
+            nodo = nodos[tope];
+            profundidad = profundidades[tope];
+        }
+
+        boolean estaVacia() {
+            return tope == 0;
+        }
+    }
+
+    /**
+     * Vecinos de un nodo en un arreglo reutilizable (para recorrerlos al revés)
+     */
+    private static final class Vecinos {
+
+        private int[] nodos = new int[16];
+        private int cantidad;
+
+        boolean agregar(int nodo) {
+            if (cantidad == nodos.length) {
+                nodos = Arrays.copyOf(nodos, cantidad * 2);
+            }
+            nodos[cantidad++] = nodo;
+            return true;
+        }
+
+        int get(int k) {
+            return nodos[k];
+        }
+
+        int cantidad() {
+            return cantidad;
+        }
+
+        void vaciar() {
+            cantidad = 0;
+        }
+    }
+
+    static boolean visitado(long[] bitset, int nodo) {
+        return (bitset[nodo >>> 6] & (1L << nodo)) != 0;
+    }
+
+    static void marcar(long[] bitset, int nodo) {
+        bitset[nodo >>> 6] |= 1L << nodo;
+    }
+}
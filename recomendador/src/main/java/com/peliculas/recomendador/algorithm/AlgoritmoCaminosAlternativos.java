@@ -0,0 +1,328 @@
+package com.peliculas.recomendador.algorithm;
+
+import com.peliculas.recomendador.model.CaminoPeliculas;
+import com.peliculas.recomendador.model.GrafoPeliculas;
+import com.peliculas.recomendador.model.MonticuloIndices;
+import com.peliculas.recomendador.model.Pelicula;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * K CAMINOS MÁS CORTOS SIN CICLOS entre dos películas (algoritmo de Yen)
+ * Caminos "alternativos" en orden de distancia: el primero es el de caminoMasCorto
+ *
+ * YEN: cada camino nuevo se desvía de uno anterior en un NODO DE DESVÍO
+ * - raíz = prefijo del camino anterior hasta el nodo de desvío
+ * - Se prohíben los nodos de la raíz y las aristas que usaron los caminos ya
+ *   encontrados con esa misma raíz; se busca el mejor tramo desde el desvío
+ * - Candidatos en un montículo por distancia; el menor es el próximo camino
+ * - Mejora de Lawler: solo se desvía desde donde el camino se desvió de su padre
+ *
+ * ÁRBOL INVERSO (un Dijkstra hacia atrás desde el destino, UNA vez por consulta):
+ * - dist(v -> destino) exacta en el grafo completo = heurística A* admisible y
+ *   consistente para todos los tramos (prohibir aristas solo alarga distancias)
+ * - Si el camino del árbol desde el desvío no toca nada prohibido, ES el mejor
+ *   tramo: no hace falta buscar
+ *
+ * COMPLEJIDAD: O((V + E) log V) del árbol + k × L tramos A* (L = largo de los
+ * caminos), cada uno explorando solo lo que se aparta del árbol
+ * Se TERMINA apenas hay k caminos
+ */
+@Component
+public class AlgoritmoCaminosAlternativos {
+
+    // Cada camino extra es otra ronda de Yen con sus búsquedas A*: k se acota a esto
+    public static final int MAXIMO_CAMINOS = 20;
+
+    /**
+     * Camino candidato: nodos de inicio a fin, distancia y posición del desvío
+     */
+    private record Candidato(int[] nodos, double distancia, int desvio) {
+    }
+
+    /**
+     * Hasta k caminos sin ciclos de inicio a fin, de menor a mayor distancia
+     * (k mayor que MAXIMO_CAMINOS se toma como MAXIMO_CAMINOS)
+     */
+    public List<CaminoPeliculas> kCaminosMasCortos(GrafoPeliculas grafo, Long peliculaInicio,
+                                                   Long peliculaFin, int k) {
+        List<CaminoPeliculas> resultado = new ArrayList<>();
+        int origen = grafo.indice(peliculaInicio);
+        int destino = grafo.indice(peliculaFin);
+        if (origen < 0 || destino < 0 || k <= 0) {
+            return resultado;
+        }
+
+        for (Candidato camino : caminos(grafo, origen, destino, Math.min(k, MAXIMO_CAMINOS))) {
+            List<Pelicula> peliculas = new ArrayList<>(camino.nodos().length);
+            for (int nodo : camino.nodos()) {
+                peliculas.add(grafo.pelicula(nodo));
+            }
+            resultado.add(new CaminoPeliculas(peliculas, camino.distancia()));
+        }
+        return resultado;
+    }
+
+    private List<Candidato> caminos(GrafoPeliculas grafo, int origen, int destino, int k) {
+        List<Candidato> encontrados = new ArrayList<>();
+        if (origen == destino) {
+            encontrados.add(new Candidato(new int[]{origen}, 0.0, 0));
+            return encontrados;
+        }
+
+        // ========================================
+        // PASO 1: ÁRBOL INVERSO - O((V + E) log V)
+        // ========================================
+        int n = grafo.cantidad();
+        double[] hastaDestino = new double[n];
+        int[] siguiente = new int[n];
+        arbolInverso(grafo, destino, hastaDestino, siguiente);
+        if (hastaDestino[origen] == Double.POSITIVE_INFINITY) {
+            return encontrados;
+        }
+
+        encontrados.add(new Candidato(seguirArbol(origen, destino, siguiente), hastaDestino[origen], 0));
+
+        // ========================================
+        // PASO 2: DESVÍOS (Yen + Lawler) hasta tener k caminos
+        // ========================================
+        PriorityQueue<Candidato> candidatos = new PriorityQueue<>(
+            Comparator.comparingDouble(Candidato::distancia).thenComparingInt(c -> c.nodos().length));
+        Set<List<Integer>> vistos = new HashSet<>();
+        vistos.add(clave(encontrados.get(0).nodos()));
+        Tramo tramo = new Tramo(n);
+
+        while (encontrados.size() < k) {
+            Candidato anterior = encontrados.get(encontrados.size() - 1);
+            int[] nodos = anterior.nodos();
+
+            double costoRaiz = 0.0;
+            for (int i = 0; i < anterior.desvio(); i++) {
+                costoRaiz += costoArista(grafo, nodos[i], nodos[i + 1]);
+            }
+
+            for (int i = anterior.desvio(); i < nodos.length - 1; i++) {
+                int desvio = nodos[i];
+                tramo.nuevaBusqueda();
+
+                // Raíz (sin el nodo de desvío) prohibida: caminos sin ciclos
+                for (int j = 0; j < i; j++) {
+                    tramo.prohibirNodo(nodos[j]);
+                }
+                // Aristas de los caminos ya encontrados que comparten esta raíz
+                for (Candidato encontrado : encontrados) {
+                    if (compartenRaiz(encontrado.nodos(), nodos, i)) {
+                        tramo.prohibirSalto(encontrado.nodos()[i + 1]);
+                    }
+                }
+
+                int[] desdeDesvio = tramo.mejorTramo(grafo, desvio, destino, hastaDestino, siguiente);
+                if (desdeDesvio != null) {
+                    int[] completo = new int[i + desdeDesvio.length];
+                    System.arraycopy(nodos, 0, completo, 0, i);
+                    System.arraycopy(desdeDesvio, 0, completo, i, desdeDesvio.length);
+                    if (vistos.add(clave(completo))) {
+                        candidatos.add(new Candidato(completo, costoRaiz + tramo.distancia, i));
+                    }
+                }
+
+                costoRaiz += costoArista(grafo, nodos[i], nodos[i + 1]);
+            }
+
+            if (candidatos.isEmpty()) {
+                break;  // no hay más caminos sin ciclos
+            }
+            encontrados.add(candidatos.poll());
+        }
+        return encontrados;
+    }
+
+    /**
+     * Dijkstra desde el destino por aristas ENTRANTES:
+     * hastaDestino[v] = dist(v -> destino), siguiente[v] = próximo nodo hacia el destino
+     */
+    private static void arbolInverso(GrafoPeliculas grafo, int destino, double[] hastaDestino, int[] siguiente) {
+        Arrays.fill(hastaDestino, Double.POSITIVE_INFINITY);
+        Arrays.fill(siguiente, -1);
+        boolean[] asentados = new boolean[grafo.cantidad()];
+        MonticuloIndices cola = new MonticuloIndices(grafo.cantidad());
+        hastaDestino[destino] = 0.0;
+        cola.insertarOActualizar(destino, 0.0);
+
+        while (!cola.estaVacio()) {
+            int actual = cola.extraerMinimo();
+            asentados[actual] = true;
+            for (int e = grafo.primeraEntrada(actual); e < grafo.finEntrada(actual); e++) {
+                int previo = grafo.origen(e);
+                double nueva = hastaDestino[actual] + grafo.costoEntrante(e);
+                if (!asentados[previo] && nueva < hastaDestino[previo]) {
+                    hastaDestino[previo] = nueva;
+                    siguiente[previo] = actual;
+                    cola.insertarOActualizar(previo, nueva);
+                }
+            }
+        }
+    }
+
+    private static int[] seguirArbol(int desde, int destino, int[] siguiente) {
+        int largo = 1;
+        for (int v = desde; v != destino; v = siguiente[v]) {
+            largo++;
+        }
+        int[] camino = new int[largo];
+        int pos = 0;
+        for (int v = desde; v != destino; v = siguiente[v]) {
+            camino[pos++] = v;
+        }
+        camino[pos] = destino;
+        return camino;
+    }
+
+    /**
+     * Mismo prefijo nodos[0..i] (la raíz incluye el nodo de desvío)
+     */
+    private static boolean compartenRaiz(int[] camino, int[] otro, int i) {
+        if (camino.length <= i + 1) {
+            return false;
+        }
+        for (int j = 0; j <= i; j++) {
+            if (camino[j] != otro[j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Costo de u -> v (con aristas paralelas, la más barata)
+     */
+    private static double costoArista(GrafoPeliculas grafo, int u, int v) {
+        double minimo = Double.POSITIVE_INFINITY;
+        for (int a = grafo.primeraSalida(u); a < grafo.finSalida(u); a++) {
+            if (grafo.destino(a) == v) {
+                minimo = Math.min(minimo, grafo.costo(a));
+            }
+        }
+        return minimo;
+    }
+
+    private static List<Integer> clave(int[] nodos) {
+        List<Integer> clave = new ArrayList<>(nodos.length);
+        for (int nodo : nodos) {
+            clave.add(nodo);
+        }
+        return clave;
+    }
+
+    /**
+     * Búsqueda del mejor tramo desvío -> destino con nodos y saltos prohibidos
+     * Los arreglos se reutilizan entre búsquedas con MARCAS (número de búsqueda):
+     * no se limpian O(V) por tramo
+     */
+    private static final class Tramo {
+
+        private final int[] nodoProhibido;
+        private final int[] saltoProhibido;   // destinos prohibidos desde el nodo de desvío
+        private final int[] alcanzado;
+        private final double[] costos;
+        private final int[] padres;
+        private final MonticuloIndices cola;
+        private int marca;
+
+        double distancia;  // del último tramo encontrado
+
+        Tramo(int n) {
+            nodoProhibido = new int[n];
+            saltoProhibido = new int[n];
+            alcanzado = new int[n];
+            costos = new double[n];
+            padres = new int[n];
+            cola = new MonticuloIndices(n);
+        }
+
+        void nuevaBusqueda() {
+            marca++;
+        }
+
+        void prohibirNodo(int nodo) {
+            nodoProhibido[nodo] = marca;
+        }
+
+        void prohibirSalto(int destino) {
+            saltoProhibido[destino] = marca;
+        }
+
+        /**
+         * Nodos del mejor tramo (desvío incluido) o null si no hay
+         */
+        int[] mejorTramo(GrafoPeliculas grafo, int desvio, int destino, double[] hastaDestino, int[] siguiente) {
+            // Atajo: el camino del árbol inverso no toca nada prohibido
+            if (saltoProhibido[siguiente[desvio]] != marca) {
+                boolean libre = true;
+                for (int v = siguiente[desvio]; v != destino && libre; v = siguiente[v]) {
+                    libre = nodoProhibido[v] != marca;
+                }
+                if (libre) {
+                    distancia = hastaDestino[desvio];
+                    return seguirArbol(desvio, destino, siguiente);
+                }
+            }
+
+            // A* con heurística exacta del grafo completo
+            alcanzar(desvio, 0.0, -1, hastaDestino);
+            int encontrado = -1;
+            while (!cola.estaVacio()) {
+                int actual = cola.extraerMinimo();
+                if (actual == destino) {
+                    encontrado = actual;
+                    break;
+                }
+                for (int a = grafo.primeraSalida(actual); a < grafo.finSalida(actual); a++) {
+                    int vecino = grafo.destino(a);
+                    if (nodoProhibido[vecino] == marca
+                            || (actual == desvio && saltoProhibido[vecino] == marca)
+                            || hastaDestino[vecino] == Double.POSITIVE_INFINITY) {
+                        continue;
+                    }
+                    double nuevo = costos[actual] + grafo.costo(a);
+                    if (alcanzado[vecino] != marca || nuevo < costos[vecino]) {
+                        alcanzar(vecino, nuevo, actual, hastaDestino);
+                    }
+                }
+            }
+            while (!cola.estaVacio()) {
+                cola.extraerMinimo();
+            }
+            if (encontrado < 0) {
+                return null;
+            }
+
+            distancia = costos[destino];
+            int largo = 1;
+            for (int v = destino; v != desvio; v = padres[v]) {
+                largo++;
+            }
+            int[] tramo = new int[largo];
+            int v = destino;
+            for (int pos = largo - 1; pos >= 0; pos--) {
+                tramo[pos] = v;
+                v = padres[v];
+            }
+            return tramo;
+        }
+
+        private void alcanzar(int nodo, double costo, int padre, double[] hastaDestino) {
+            alcanzado[nodo] = marca;
+            costos[nodo] = costo;
+            padres[nodo] = padre;
+            cola.insertarOActualizar(nodo, costo + hastaDestino[nodo]);  // f = g + h
+        }
+    }
+}
@@ -0,0 +1,711 @@
+package com.peliculas.recomendador.algorithm;
+
+import com.peliculas.recomendador.model.Enteros;
+import com.peliculas.recomendador.model.GrafoPeliculas;
+import com.peliculas.recomendador.model.JerarquiaContraccion;
+import com.peliculas.recomendador.model.MonticuloIndices;
+import com.peliculas.recomendador.model.Pelicula;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * CONTRACTION HIERARCHIES: caminos más cortos punto a punto con preprocesamiento
+ * El grafo SIMILAR_A cambia poco (importaciones): se prepara una vez por versión
+ * y cada consulta explora solo la parte alta de la jerarquía
+ *
+ * PREPROCESAMIENTO (construir):
+ * - Se CONTRAEN los nodos de a uno, en orden de "importancia" creciente
+ * - Contraer v: para cada par u -> v -> w se agrega el ATAJO u -> w salvo que
+ *   exista un TESTIGO (camino u -> w sin pasar por v, igual o más corto)
+ * - Importancia = atajos necesarios - aristas que se quitan + vecinos ya contraídos
+ *   (actualización perezosa: se recalcula al salir de la cola)
+ * - NÚCLEO: cuando el grafo que queda se vuelve denso (grado promedio > GRADO_NUCLEO)
+ *   se deja de contraer; esos nodos quedan arriba de todo con sus aristas entre sí
+ *   (en grafos de "mundo pequeño" contraer el final multiplica los atajos)
+ *
+ * CONSULTA (caminoMasCorto): Dijkstra BIDIRECCIONAL solo por aristas hacia arriba
+ * (desde el origen por subida, desde el destino por bajada); el camino pasa por el
+ * nodo de mayor rango y los atajos se DESEMPAQUETAN en las aristas originales
+ * - Stall-on-demand: no se expanden nodos a los que se llega mejor desde arriba
+ *
+ * COMPLEJIDAD:
+ * - Construcción: O(V × grado² × LIMITE_TESTIGOS log) aprox. (depende del orden)
+ * - Consulta: O(nodos de rango alto alcanzados + núcleo alcanzado)
+ * Contra caminoMasCorto: O((V + E) log V) por consulta + un findAll()
+ */
+@Component
+public class AlgoritmoContraccion {
+
+    private static final Logger log = LoggerFactory.getLogger(AlgoritmoContraccion.class);
+
+    // Nodos asentados como máximo por búsqueda de testigos (si se corta, se agrega el atajo)
+    // Para ESTIMAR la importancia alcanza una búsqueda más corta
+    private static final int LIMITE_TESTIGOS = 100;
+    private static final int LIMITE_TESTIGOS_ESTIMACION = 20;
+
+    // Grado saliente promedio a partir del cual lo que queda se deja como NÚCLEO sin contraer
+    private static final int GRADO_NUCLEO = 16;
+
+    // Espacios de trabajo reutilizables: tantos como consultas simultáneas hubo
+    private final Queue<Espacio> espacios = new ConcurrentLinkedQueue<>();
+
+    // ============================================
+    // PREPROCESAMIENTO
+    // ============================================
+
+    /**
+     * Arma la jerarquía a partir de las aristas SIMILAR_A del grafo
+     * (aristas paralelas: queda la de menor costo; lazos: se descartan)
+     */
+    public JerarquiaContraccion construir(GrafoPeliculas grafo) {
+        return new Contraccion(grafo).ejecutar();
+    }
+
+    /**
+     * Estado de una construcción: el grafo que queda con los atajos agregados
+     */
+    private static final class Contraccion {
+
+        private final GrafoPeliculas grafo;
+        private final int n;
+        private final Adyacencia[] salida;
+        private final Adyacencia[] entrada;
+        private final int[] vecinosContraidos;
+        private long aristasRestantes;
+
+        // Búsqueda de testigos: distancias tocadas se vuelven a infinito al terminar
+        private final double[] distancias;
+        private final int[] tocados;
+        private int cantidadTocados;
+        private final MonticuloIndices cola;
+
+        Contraccion(GrafoPeliculas grafo) {
+            this.grafo = grafo;
+            this.n = grafo.cantidad();
+            this.salida = new Adyacencia[n];
+            this.entrada = new Adyacencia[n];
+            for (int v = 0; v < n; v++) {
+                salida[v] = new Adyacencia();
+                entrada[v] = new Adyacencia();
+            }
+            this.vecinosContraidos = new int[n];
+            this.distancias = new double[n];
+            Arrays.fill(distancias, Double.POSITIVE_INFINITY);
+            this.tocados = new int[n];
+            this.cola = new MonticuloIndices(n);
+        }
+
+        JerarquiaContraccion ejecutar() {
+            for (int u = 0; u < n; u++) {
+                for (int a = grafo.primeraSalida(u); a < grafo.finSalida(u); a++) {
+                    if (grafo.destino(a) != u) {
+                        agregarOMejorar(u, grafo.destino(a), grafo.costo(a), -1);
+                    }
+                }
+            }
+
+            // ========================================
+            // ORDEN DE CONTRACCIÓN (cola con actualización perezosa)
+            // ========================================
+            double[] prioridades = new double[n];
+            for (int v = 0; v < n; v++) {
+                prioridades[v] = prioridad(v);
+            }
+            MonticuloIndices orden = MonticuloIndices.desdePrioridades(prioridades);
+
+            int[] rangos = new int[n];
+            int siguienteRango = 0;
+            while (!orden.estaVacio()) {
+                if (aristasRestantes > (long) GRADO_NUCLEO * (n - siguienteRango)) {
+                    break;  // lo que queda es denso: contraerlo multiplicaría los atajos
+                }
+                int v = orden.extraerMinimo();
+                double actual = prioridad(v);
+                if (!orden.estaVacio() && actual > orden.prioridad(orden.verMinimo())) {
+                    orden.insertarOActualizar(v, actual);  // ya no es el menos importante
+                    continue;
+                }
+                contraer(v);
+                rangos[v] = siguienteRango++;
+            }
+
+            // Un núcleo de más de la mitad del grafo (o todo, si el grado promedio
+            // inicial ya supera GRADO_NUCLEO) deja las consultas casi como un Dijkstra bidireccional
+            int nucleo = n - siguienteRango;
+            if (nucleo > n / 2) {
+                log.warn("Contraction Hierarchies: {} de {} películas quedaron en el núcleo sin contraer "
+                        + "(grado promedio {} > {}); las consultas no ganan frente a Dijkstra, "
+                        + "considerar recomendador.caminos.contraccion=false",
+                    nucleo, n, String.format("%.1f", (double) aristasRestantes / Math.max(nucleo, 1)), GRADO_NUCLEO);
+            }
+
+            // NÚCLEO: rangos más altos, con todas sus aristas entre sí
+            while (!orden.estaVacio()) {
+                rangos[orden.extraerMinimo()] = siguienteRango++;
+            }
+
+            return aJerarquia(rangos);
+        }
+
+        /**
+         * Importancia de v en el grafo que queda: los menos importantes se contraen primero
+         */
+        private double prioridad(int v) {
+            int diferencia = atajos(v, false) - salida[v].tamaño - entrada[v].tamaño;
+            return diferencia + vecinosContraidos[v];
+        }
+
+        /**
+         * Quita v del grafo que queda, agregando los atajos necesarios
+         * Las listas de v quedan CONGELADAS: son sus aristas hacia arriba
+         */
+        private void contraer(int v) {
+            atajos(v, true);
+            aristasRestantes -= salida[v].tamaño + entrada[v].tamaño;
+            for (int j = 0; j < salida[v].tamaño; j++) {
+                int w = salida[v].nodos[j];
+                entrada[w].quitar(v);
+                vecinosContraidos[w]++;
+            }
+            for (int i = 0; i < entrada[v].tamaño; i++) {
+                int u = entrada[v].nodos[i];
+                salida[u].quitar(v);
+                vecinosContraidos[u]++;
+            }
+        }
+
+        /**
+         * Cuenta (y si "agregar", crea) los atajos u -> w que reemplazan a u -> v -> w
+         */
+        private int atajos(int v, boolean agregar) {
+            Adyacencia entrantes = entrada[v];
+            Adyacencia salientes = salida[v];
+            int cantidad = 0;
+
+            for (int i = 0; i < entrantes.tamaño; i++) {
+                int u = entrantes.nodos[i];
+                double costoUV = entrantes.costos[i];
+
+                double maximoVW = Double.NEGATIVE_INFINITY;
+                for (int j = 0; j < salientes.tamaño; j++) {
+                    if (salientes.nodos[j] != u) {
+                        maximoVW = Math.max(maximoVW, salientes.costos[j]);
+                    }
+                }
+                if (maximoVW == Double.NEGATIVE_INFINITY) {
+                    continue;
+                }
+
+                buscarTestigos(u, v, costoUV + maximoVW, agregar ? LIMITE_TESTIGOS : LIMITE_TESTIGOS_ESTIMACION);
+                for (int j = 0; j < salientes.tamaño; j++) {
+                    int w = salientes.nodos[j];
+                    double porV = costoUV + salientes.costos[j];
+                    if (w != u && distancias[w] > porV) {
+                        cantidad++;
+                        if (agregar) {
+                            agregarOMejorar(u, w, porV, v);
+                        }
+                    }
+                }
+                limpiarTestigos();
+            }
+            return cantidad;
+        }
+
+        /**
+         * Dijkstra local desde u SIN pasar por v, hasta superar "costoMaximo"
+         * o asentar "limite" nodos
+         */
+        private void buscarTestigos(int u, int excluido, double costoMaximo, int limite) {
+            distancias[u] = 0.0;
+            tocados[cantidadTocados++] = u;
+            cola.insertarOActualizar(u, 0.0);
+
+            int asentados = 0;
+            while (!cola.estaVacio()) {
+                int x = cola.verMinimo();
+                double d = cola.prioridad(x);
+                cola.extraerMinimo();
+                if (d > costoMaximo || ++asentados > limite) {
+                    break;
+                }
+                Adyacencia vecinos = salida[x];
+                for (int k = 0; k < vecinos.tamaño; k++) {
+                    int y = vecinos.nodos[k];
+                    double nueva = d + vecinos.costos[k];
+                    if (y != excluido && nueva < distancias[y]) {
+                        if (distancias[y] == Double.POSITIVE_INFINITY) {
+                            tocados[cantidadTocados++] = y;
+                        }
+                        distancias[y] = nueva;
+                        cola.insertarOActualizar(y, nueva);
+                    }
+                }
+            }
+        }
+
+        private void limpiarTestigos() {
+            while (!cola.estaVacio()) {
+                cola.extraerMinimo();
+            }
+            for (int k = 0; k < cantidadTocados; k++) {
+                distancias[tocados[k]] = Double.POSITIVE_INFINITY;
+            }
+            cantidadTocados = 0;
+        }
+
+        /**
+         * Arista u -> w en el grafo que queda; si ya existe, queda la de menor costo
+         */
+        private void agregarOMejorar(int u, int w, double costo, int medio) {
+            int k = salida[u].buscar(w);
+            if (k < 0) {
+                salida[u].agregar(w, costo, medio);
+                entrada[w].agregar(u, costo, medio);
+                aristasRestantes++;
+            } else if (costo < salida[u].costos[k]) {
+                salida[u].costos[k] = costo;
+                salida[u].medios[k] = medio;
+                int m = entrada[w].buscar(u);
+                entrada[w].costos[m] = costo;
+                entrada[w].medios[m] = medio;
+            }
+        }
+
+        /**
+         * Las listas congeladas de cada nodo pasan a CSR de subida y de bajada
+         */
+        private JerarquiaContraccion aJerarquia(int[] rangos) {
+            int[] inicioSubida = new int[n + 1];
+            int[] inicioBajada = new int[n + 1];
+            for (int v = 0; v < n; v++) {
+                inicioSubida[v + 1] = inicioSubida[v] + salida[v].tamaño;
+                inicioBajada[v + 1] = inicioBajada[v] + entrada[v].tamaño;
+            }
+
+            int[] destinos = new int[inicioSubida[n]];
+            double[] costosSubida = new double[inicioSubida[n]];
+            int[] mediosSubida = new int[inicioSubida[n]];
+            int[] origenes = new int[inicioBajada[n]];
+            double[] costosBajada = new double[inicioBajada[n]];
+            int[] mediosBajada = new int[inicioBajada[n]];
+
+            int atajos = 0;
+            for (int v = 0; v < n; v++) {
+                Adyacencia sal = salida[v];
+                System.arraycopy(sal.nodos, 0, destinos, inicioSubida[v], sal.tamaño);
+                System.arraycopy(sal.costos, 0, costosSubida, inicioSubida[v], sal.tamaño);
+                System.arraycopy(sal.medios, 0, mediosSubida, inicioSubida[v], sal.tamaño);
+                Adyacencia ent = entrada[v];
+                System.arraycopy(ent.nodos, 0, origenes, inicioBajada[v], ent.tamaño);
+                System.arraycopy(ent.costos, 0, costosBajada, inicioBajada[v], ent.tamaño);
+                System.arraycopy(ent.medios, 0, mediosBajada, inicioBajada[v], ent.tamaño);
+                for (int k = 0; k < sal.tamaño; k++) {
+                    if (sal.medios[k] >= 0) {
+                        atajos++;
+                    }
+                }
+                for (int k = 0; k < ent.tamaño; k++) {
+                    if (ent.medios[k] >= 0) {
+                        atajos++;
+                    }
+                }
+            }
+
+            return new JerarquiaContraccion(grafo, rangos,
+                inicioSubida, destinos, costosSubida, mediosSubida,
+                inicioBajada, origenes, costosBajada, mediosBajada, atajos);
+        }
+    }
+
+    /**
+     * Lista de aristas de un nodo (vecino, costo, medio) sobre arreglos que crecen al doble
+     * Quitar mueve la última a su lugar: O(grado) para buscar, O(1) para quitar
+     */
+    private static final class Adyacencia {
+
+        int[] nodos = new int[4];
+        double[] costos = new double[4];
+        int[] medios = new int[4];
+        int tamaño;
+
+        int buscar(int nodo) {
+            for (int k = 0; k < tamaño; k++) {
+                if (nodos[k] == nodo) {
+                    return k;
+                }
+            }
+            return -1;
+        }
+
+        void agregar(int nodo, double costo, int medio) {
+            if (tamaño == nodos.length) {
+                nodos = Arrays.copyOf(nodos, tamaño * 2);
+                costos = Arrays.copyOf(costos, tamaño * 2);
+                medios = Arrays.copyOf(medios, tamaño * 2);
+            }
+            nodos[tamaño] = nodo;
+            costos[tamaño] = costo;
+            medios[tamaño++] = medio;
+        }
+
+        void quitar(int nodo) {
+            int k = buscar(nodo);
+            if (k >= 0) {
+                tamaño--;
+                nodos[k] = nodos[tamaño];
+                costos[k] = costos[tamaño];
+                medios[k] = medios[tamaño];
+            }
+        }
+    }
+
+    // ============================================
+    // CONSULTA
+    // ============================================
+
+    /**
+     * Camino más corto entre dos películas (mismo resultado que
+     * AlgoritmoDijkstra.caminoMasCorto, salvo empates entre caminos de igual costo)
+     */
+    public List<Pelicula> caminoMasCorto(JerarquiaContraccion jerarquia, Long peliculaInicio, Long peliculaFin) {
+        GrafoPeliculas grafo = jerarquia.grafo();
+        List<Pelicula> resultado = new ArrayList<>();
+        int origen = grafo.indice(peliculaInicio);
+        int destino = grafo.indice(peliculaFin);
+        if (origen < 0 || destino < 0) {
+            return resultado;
+        }
+
+        for (int indice : camino(jerarquia, origen, destino)) {
+            resultado.add(grafo.pelicula(indice));
+        }
+        return resultado;
+    }
+
+    /**
+     * Índices del camino más corto de origen a destino; vacío si no hay camino
+     * COMPLEJIDAD: O(nodos explorados hacia arriba + longitud del camino desempaquetado)
+     */
+    public int[] camino(JerarquiaContraccion jerarquia, int origen, int destino) {
+        if (origen == destino) {
+            return new int[]{origen};
+        }
+
+        Espacio espacio = espacios.poll();
+        if (espacio == null) {
+            espacio = new Espacio();
+        }
+        try {
+            espacio.preparar(jerarquia.cantidad());
+            int encuentro = buscarBidireccional(jerarquia, origen, destino, espacio);
+            if (encuentro < 0) {
+                return new int[0];
+            }
+            return desempaquetar(jerarquia, origen, destino, encuentro, espacio);
+        } finally {
+            espacio.limpiar();
+            espacios.offer(espacio);
+        }
+    }
+
+    /**
+     * Dijkstra hacia arriba desde ambos extremos, alternando
+     * Cada lado se detiene cuando su mínimo ya no puede mejorar el mejor encuentro
+     *
+     * @return nodo de encuentro del camino más corto, o -1 si no hay camino
+     */
+    private int buscarBidireccional(JerarquiaContraccion jerarquia, int origen, int destino, Espacio espacio) {
+        espacio.alcanzarAdelante(origen, 0.0, -1, -1);
+        espacio.alcanzarAtras(destino, 0.0, -1, -1);
+
+        double mejor = Double.POSITIVE_INFINITY;
+        int encuentro = -1;
+        boolean turnoAdelante = true;
+
+        while (true) {
+            boolean adelante = !espacio.colaAdelante.estaVacia() && espacio.colaAdelante.minimo() < mejor;
+            boolean atras = !espacio.colaAtras.estaVacia() && espacio.colaAtras.minimo() < mejor;
+            if (!adelante && !atras) {
+                break;
+            }
+            boolean haciaAdelante = adelante && (!atras || turnoAdelante);
+            turnoAdelante = !turnoAdelante;
+
+            if (haciaAdelante) {
+                double d = espacio.colaAdelante.minimo();
+                int x = espacio.colaAdelante.extraer();
+                if (d > espacio.distanciaAdelante[x]) {
+                    continue;  // entrada vieja (sin decrease-key)
+                }
+                if (d + espacio.distanciaAtras[x] < mejor) {
+                    mejor = d + espacio.distanciaAtras[x];
+                    encuentro = x;
+                }
+                if (estancadoAdelante(jerarquia, x, d, espacio)) {
+                    continue;
+                }
+                for (int a = jerarquia.primeraSubida(x); a < jerarquia.finSubida(x); a++) {
+                    int w = jerarquia.destinoSubida(a);
+                    double nueva = d + jerarquia.costoSubida(a);
+                    if (nueva < espacio.distanciaAdelante[w]) {
+                        espacio.alcanzarAdelante(w, nueva, x, jerarquia.medioSubida(a));
+                    }
+                }
+            } else {
+                double d = espacio.colaAtras.minimo();
+                int x = espacio.colaAtras.extraer();
+                if (d > espacio.distanciaAtras[x]) {
+                    continue;
+                }
+                if (d + espacio.distanciaAdelante[x] < mejor) {
+                    mejor = d + espacio.distanciaAdelante[x];
+                    encuentro = x;
+                }
+                if (estancadoAtras(jerarquia, x, d, espacio)) {
+                    continue;
+                }
+                for (int a = jerarquia.primeraBajada(x); a < jerarquia.finBajada(x); a++) {
+                    int u = jerarquia.origenBajada(a);
+                    double nueva = d + jerarquia.costoBajada(a);
+                    if (nueva < espacio.distanciaAtras[u]) {
+                        espacio.alcanzarAtras(u, nueva, x, jerarquia.medioBajada(a));
+                    }
+                }
+            }
+        }
+        return encuentro;
+    }
+
+    /**
+     * STALL-ON-DEMAND: si un nodo de rango mayor ya alcanzado llega a x más barato
+     * (por una arista que baja hacia x), la distancia de x por esta búsqueda no es
+     * la más corta y no vale la pena expandirlo
+     */
+    private static boolean estancadoAdelante(JerarquiaContraccion jerarquia, int x, double d, Espacio espacio) {
+        for (int a = jerarquia.primeraBajada(x); a < jerarquia.finBajada(x); a++) {
+            if (espacio.distanciaAdelante[jerarquia.origenBajada(a)] + jerarquia.costoBajada(a) < d) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean estancadoAtras(JerarquiaContraccion jerarquia, int x, double d, Espacio espacio) {
+        for (int a = jerarquia.primeraSubida(x); a < jerarquia.finSubida(x); a++) {
+            if (espacio.distanciaAtras[jerarquia.destinoSubida(a)] + jerarquia.costoSubida(a) < d) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * origen ~> encuentro (padres hacia adelante) + encuentro ~> destino (padres hacia atrás),
+     * reemplazando cada atajo por las aristas originales
+     */
+    private int[] desempaquetar(JerarquiaContraccion jerarquia, int origen, int destino, int encuentro, Espacio espacio) {
+        Enteros camino = new Enteros();
+        camino.agregar(origen);
+
+        // Tramo de subida: se junta del encuentro hacia el origen y se recorre al revés
+        Enteros tramo = new Enteros();
+        for (int x = encuentro; x != origen; x = espacio.padreAdelante[x]) {
+            tramo.agregar(x);
+        }
+        for (int k = tramo.tamaño() - 1; k >= 0; k--) {
+            int x = tramo.valor(k);
+            desempaquetarArista(jerarquia, espacio.padreAdelante[x], x, espacio.medioAdelante[x], camino);
+        }
+
+        // Tramo de bajada: cada nodo apunta al siguiente hacia el destino
+        for (int x = encuentro; x != destino; x = espacio.padreAtras[x]) {
+            desempaquetarArista(jerarquia, x, espacio.padreAtras[x], espacio.medioAtras[x], camino);
+        }
+        return camino.aArreglo();
+    }
+
+    /**
+     * Agrega al camino los nodos de u -> w (sin u), con una pila explícita:
+     * el atajo u -> w por medio se reemplaza por u -> medio y medio -> w
+     */
+    private void desempaquetarArista(JerarquiaContraccion jerarquia, int u, int w, int medio, Enteros camino) {
+        Enteros pila = new Enteros();
+        pila.agregar(u);
+        pila.agregar(w);
+        pila.agregar(medio);
+
+        while (!pila.estaVacia()) {
+            int m = pila.quitarUltimo();
+            int hasta = pila.quitarUltimo();
+            int desde = pila.quitarUltimo();
+            if (m < 0) {
+                camino.agregar(hasta);  // arista original
+                continue;
+            }
+            // Primero se procesa desde -> m (se apila último)
+            pila.agregar(m);
+            pila.agregar(hasta);
+            pila.agregar(medioDeSubida(jerarquia, m, hasta));
+            pila.agregar(desde);
+            pila.agregar(m);
+            pila.agregar(medioDeBajada(jerarquia, desde, m));
+        }
+    }
+
+    // medio -> w está en la fila de subida de medio
+    private static int medioDeSubida(JerarquiaContraccion jerarquia, int nodo, int destino) {
+        for (int a = jerarquia.primeraSubida(nodo); a < jerarquia.finSubida(nodo); a++) {
+            if (jerarquia.destinoSubida(a) == destino) {
+                return jerarquia.medioSubida(a);
+            }
+        }
+        throw new IllegalStateException("Atajo sin arista " + nodo + " -> " + destino);
+    }
+
+    // u -> medio está en la fila de bajada de medio
+    private static int medioDeBajada(JerarquiaContraccion jerarquia, int origen, int nodo) {
+        for (int a = jerarquia.primeraBajada(nodo); a < jerarquia.finBajada(nodo); a++) {
+            if (jerarquia.origenBajada(a) == origen) {
+                return jerarquia.medioBajada(a);
+            }
+        }
+        throw new IllegalStateException("Atajo sin arista " + origen + " -> " + nodo);
+    }
+
+    /**
+     * Arreglos de trabajo de una consulta
+     * Se limpian SOLO los nodos tocados: el costo de cada consulta no depende de V
+     */
+    private static final class Espacio {
+
+        double[] distanciaAdelante = new double[0];
+        double[] distanciaAtras = new double[0];
+        int[] padreAdelante = new int[0];
+        int[] padreAtras = new int[0];
+        int[] medioAdelante = new int[0];
+        int[] medioAtras = new int[0];
+        final Enteros tocados = new Enteros();
+
+        final ColaPerezosa colaAdelante = new ColaPerezosa();
+        final ColaPerezosa colaAtras = new ColaPerezosa();
+
+        void preparar(int n) {
+            if (distanciaAdelante.length != n) {
+                distanciaAdelante = new double[n];
+                distanciaAtras = new double[n];
+                Arrays.fill(distanciaAdelante, Double.POSITIVE_INFINITY);
+                Arrays.fill(distanciaAtras, Double.POSITIVE_INFINITY);
+                padreAdelante = new int[n];
+                padreAtras = new int[n];
+                medioAdelante = new int[n];
+                medioAtras = new int[n];
+            }
+        }
+
+        void alcanzarAdelante(int nodo, double distancia, int padre, int medio) {
+            tocar(nodo);
+            distanciaAdelante[nodo] = distancia;
+            padreAdelante[nodo] = padre;
+            medioAdelante[nodo] = medio;
+            colaAdelante.agregar(nodo, distancia);
+        }
+
+        void alcanzarAtras(int nodo, double distancia, int padre, int medio) {
+            tocar(nodo);
+            distanciaAtras[nodo] = distancia;
+            padreAtras[nodo] = padre;
+            medioAtras[nodo] = medio;
+            colaAtras.agregar(nodo, distancia);
+        }
+
+        private void tocar(int nodo) {
+            if (distanciaAdelante[nodo] == Double.POSITIVE_INFINITY
+                    && distanciaAtras[nodo] == Double.POSITIVE_INFINITY) {
+                tocados.agregar(nodo);
+            }
+        }
+
+        void limpiar() {
+            for (int k = 0; k < tocados.tamaño(); k++) {
+                int nodo = tocados.valor(k);
+                distanciaAdelante[nodo] = Double.POSITIVE_INFINITY;
+                distanciaAtras[nodo] = Double.POSITIVE_INFINITY;
+            }
+            tocados.limpiar();
+            colaAdelante.tamaño = 0;
+            colaAtras.tamaño = 0;
+        }
+    }
+
+    /**
+     * Montículo binario de (prioridad, nodo) SIN decrease-key: un nodo puede estar
+     * varias veces y las entradas viejas se descartan al salir
+     * No depende de V (a diferencia de MonticuloIndices, que indexa por nodo)
+     */
+    private static final class ColaPerezosa {
+
+        double[] prioridades = new double[16];
+        int[] nodos = new int[16];
+        int tamaño;
+
+        boolean estaVacia() {
+            return tamaño == 0;
+        }
+
+        double minimo() {
+            return prioridades[0];
+        }
+
+        void agregar(int nodo, double prioridad) {
+            if (tamaño == nodos.length) {
+                nodos = Arrays.copyOf(nodos, tamaño * 2);
+                prioridades = Arrays.copyOf(prioridades, tamaño * 2);
+            }
+            int pos = tamaño++;
+            while (pos > 0) {
+                int padre = (pos - 1) >>> 1;
+                if (prioridades[padre] <= prioridad) {
+                    break;
+                }
+                nodos[pos] = nodos[padre];
+                prioridades[pos] = prioridades[padre];
+                pos = padre;
+            }
+            nodos[pos] = nodo;
+            prioridades[pos] = prioridad;
+        }
+
+        int extraer() {
+            int minimo = nodos[0];
+            int ultimo = nodos[--tamaño];
+            double prioridad = prioridades[tamaño];
+            int pos = 0;
+            while (true) {
+                int hijo = 2 * pos + 1;
+                if (hijo >= tamaño) {
+                    break;
+                }
+                if (hijo + 1 < tamaño && prioridades[hijo + 1] < prioridades[hijo]) {
+                    hijo++;
+                }
+                if (prioridades[hijo] >= prioridad) {
+                    break;
+                }
+                nodos[pos] = nodos[hijo];
+                prioridades[pos] = prioridades[hijo];
+                pos = hijo;
+            }
+            nodos[pos] = ultimo;
+            prioridades[pos] = prioridad;
+            return minimo;
+        }
+    }
+}
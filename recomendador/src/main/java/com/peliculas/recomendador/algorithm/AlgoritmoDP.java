@@ -1,5 +1,8 @@
 package com.peliculas.recomendador.algorithm;
 
+import com.peliculas.recomendador.model.ColumnasAtributos;
+import com.peliculas.recomendador.model.FronteraMaraton;
+import com.peliculas.recomendador.model.GrafoPeliculas;
 import com.peliculas.recomendador.model.Pelicula;
 import com.peliculas.recomendador.model.ResultadoDP;
 import org.springframework.stereotype.Component;
@@ -19,6 +22,10 @@ import java.util.*;
  * PROPIEDADES DE DP:
  * 1. Subestructura óptima: solución óptima contiene soluciones óptimas
  * 2. Superposición de subproblemas: reutilizamos resultados guardados
+ *
+ * DATOS: duración y rating se leen de ColumnasAtributos (columnas primitivas fuera del heap)
+ * - Las versiones con List<Pelicula> arman las columnas una vez y delegan
+ * - Sin duración / sin rating cuentan como 0
  */
 @Component
 public class AlgoritmoDP {
@@ -36,11 +43,15 @@ public class AlgoritmoDP {
      * @return Resultado con la selección óptima
      */
     public ResultadoDP maratonOptima(List<Pelicula> peliculas, int tiempoMaximo) {
-        if (peliculas == null || peliculas.isEmpty() || tiempoMaximo <= 0) {
+        return maratonOptima(ColumnasAtributos.de(peliculas), tiempoMaximo);
+    }
+    
+    public ResultadoDP maratonOptima(ColumnasAtributos atributos, int tiempoMaximo) {
+        if (atributos.cantidad() == 0 || tiempoMaximo <= 0) {
             return new ResultadoDP(new ArrayList<>(), 0, 0.0);
         }
         
-        int n = peliculas.size();
+        int n = atributos.cantidad();
         
         // ========================================
         // PASO 1: CREAR TABLA DE MEMOIZACIÓN - O(1) tiempo, O(n × W) espacio
@@ -52,9 +63,8 @@ public class AlgoritmoDP {
         // PASO 2: LLENAR TABLA DP - O(n × W)
         // ========================================
         for (int i = 1; i <= n; i++) {  // O(n) iteraciones
-            Pelicula pelicula = peliculas.get(i - 1);  // O(1)
-            int duracion = pelicula.getDuracion() != null ? pelicula.getDuracion() : 0;
-            double rating = pelicula.getPromedioRating() != null ? pelicula.getPromedioRating() : 0.0;
+            int duracion = atributos.duracionOCero(i - 1);  // O(1), lectura secuencial
+            double rating = atributos.ratingOCero(i - 1);  // O(1)
             
             for (int t = 0; t <= tiempoMaximo; t++) {  // O(W) iteraciones
                 // RECURRENCIA DE DP (SUBESTRUCTURA ÓPTIMA)
@@ -82,11 +92,10 @@ public class AlgoritmoDP {
         for (int i = n; i > 0 && puntuacionTotal > 0; i--) {  // O(n) iteraciones
             // Si el valor cambió, significa que incluimos esta película
             if (dp[i][tiempoRestante] != dp[i - 1][tiempoRestante]) {  // O(1)
-                Pelicula pelicula = peliculas.get(i - 1);  // O(1)
-                peliculasSeleccionadas.add(pelicula);  // O(1)
+                peliculasSeleccionadas.add(atributos.pelicula(i - 1));  // O(1)
                 
-                tiempoRestante -= pelicula.getDuracion();  // O(1)
-                puntuacionTotal -= pelicula.getPromedioRating();  // O(1)
+                tiempoRestante -= atributos.duracionOCero(i - 1);  // O(1)
+                puntuacionTotal -= atributos.ratingOCero(i - 1);  // O(1)
             }
         }
         
@@ -99,30 +108,409 @@ public class AlgoritmoDP {
         return new ResultadoDP(peliculasSeleccionadas, tiempoTotal, puntuacionFinal);
     }
     // COMPLEJIDAD TOTAL: O(n × W) + O(n) = O(n × W)
+
+    // ========================================
+    // FRONTERA DE PARETO PRECALCULADA
+    // ========================================
+
+    /**
+     * Presupuesto máximo de la frontera: 24 horas
+     * UNA pasada de DP con este tiempo contiene el óptimo de todo tiempo menor
+     */
+    public static final int TIEMPO_MAXIMO_FRONTERA = 24 * 60;
+
+    /**
+     * Frontera vigente y la versión del catálogo (GrafoPeliculas.version()) y las
+     * columnas con las que se construyó
+     */
+    private record Vigente(long version, ColumnasAtributos atributos, FronteraMaraton frontera) {
+    }
+
+    private volatile Vigente vigente;
+
+    /**
+     * Maratón óptima respondida desde la frontera de Pareto precalculada del
+     * catálogo en memoria; la clave de la frontera es la VERSIÓN del grafo
+     *
+     * COMPLEJIDAD:
+     * - Primera consulta por versión (con otras duraciones o ratings): O(n × W_max)
+     *   para construir la frontera
+     * - Resto de consultas: O(1) comparación de versión + O(log F + k) búsqueda y reconstrucción
+     *
+     * Si tiempoMaximo supera TIEMPO_MAXIMO_FRONTERA se usa maratonOptima directamente
+     */
+    public ResultadoDP maratonOptimaPrecalculada(GrafoPeliculas grafo, int tiempoMaximo) {
+        ColumnasAtributos atributos = grafo.atributos();
+        if (atributos.cantidad() == 0 || tiempoMaximo <= 0) {
+            return new ResultadoDP(new ArrayList<>(), 0, 0.0);
+        }
+
+        if (tiempoMaximo > TIEMPO_MAXIMO_FRONTERA) {
+            return maratonOptima(atributos, tiempoMaximo);  // O(n × W)
+        }
+
+        FronteraMaraton frontera = obtenerFrontera(grafo.version(), atributos);
+
+        // O(log F): último punto de la frontera que entra en el tiempo
+        int punto = frontera.buscarPunto(tiempoMaximo);
+        if (punto < 0) {
+            return new ResultadoDP(new ArrayList<>(), 0, 0.0);
+        }
+
+        // O(k): materializar desde las columnas ACTUALES (mismos índices: mismas columnas de ids)
+        List<Pelicula> peliculasSeleccionadas = atributos.peliculas(frontera.getSelecciones()[punto]);
+
+        ResultadoDP resultado = new ResultadoDP(
+            peliculasSeleccionadas,
+            frontera.getDuraciones()[punto],
+            frontera.getPuntuaciones()[punto]
+        );
+        resultado.setEstrategia("Programación Dinámica - Frontera de Pareto precalculada");
+        return resultado;
+    }
+
+    /**
+     * Maratón óptima de una lista suelta: sin versión que sirva de clave la
+     * frontera no se amortiza, así que se resuelve directo
+     * COMPLEJIDAD: O(n × W)
+     */
+    public ResultadoDP maratonOptimaPrecalculada(List<Pelicula> peliculas, int tiempoMaximo) {
+        return maratonOptima(ColumnasAtributos.de(peliculas), tiempoMaximo);
+    }
+
+    /**
+     * Devuelve la frontera de la versión dada, construyéndola si hace falta
+     * Una versión nueva que no tocó ids, duraciones ni ratings (p. ej. solo cambió
+     * una similitud) comparte esas columnas con la anterior y reutiliza su frontera
+     * Solo un hilo construye; los demás esperan y reutilizan el resultado
+     * COMPLEJIDAD: O(1) si está vigente
+     */
+    private FronteraMaraton obtenerFrontera(long version, ColumnasAtributos atributos) {
+        Vigente actual = vigente;
+        if (actual != null && actual.version() == version) {
+            return actual.frontera();
+        }
+
+        synchronized (this) {
+            actual = vigente;
+            if (actual != null && actual.version() == version) {
+                return actual.frontera();
+            }
+            FronteraMaraton frontera = actual != null && atributos.mismasColumnasMochila(actual.atributos())
+                ? actual.frontera()
+                : construirFrontera(atributos, TIEMPO_MAXIMO_FRONTERA, version);
+            vigente = new Vigente(version, atributos, frontera);
+            return frontera;
+        }
+    }
+
+    /**
+     * Construye la frontera de Pareto con UNA pasada de DP
+     *
+     * COMPLEJIDAD: O(n × W) tiempo
+     * - Espacio DP: O(W) doubles (tabla de una fila) + n × W BITS de decisiones
+     * - Reconstrucción: O(n) por punto de la frontera, F ≤ W + 1 puntos
+     */
+    public FronteraMaraton construirFrontera(List<Pelicula> peliculas, int tiempoMaximo, long version) {
+        return construirFrontera(ColumnasAtributos.de(peliculas), tiempoMaximo, version);
+    }
+
+    public FronteraMaraton construirFrontera(ColumnasAtributos atributos, int tiempoMaximo, long version) {
+        int n = atributos.cantidad();
+        int palabras = (tiempoMaximo >> 6) + 1;
+
+        // dp[t] = máximo rating con duración total ≤ t (una sola fila, recorrida hacia atrás)
+        double[] dp = new double[tiempoMaximo + 1];
+        // decisiones[i] bit t = la película i mejoró dp[t] (incluirla es óptimo)
+        long[][] decisiones = new long[n][palabras];
+        int[] duraciones = new int[n];
+
+        // ========================================
+        // PASO 1: DP EN UNA FILA - O(n × W)
+        // ========================================
+        for (int i = 0; i < n; i++) {
+            int duracion = atributos.duracionOCero(i);
+            double rating = atributos.ratingOCero(i);
+            duraciones[i] = duracion;
+
+            if (duracion > tiempoMaximo || duracion < 0) {
+                continue;  // Nunca entra en el presupuesto
+            }
+
+            long[] decision = decisiones[i];
+            // Hacia atrás: cada película se usa como máximo una vez (0/1)
+            for (int t = tiempoMaximo; t >= duracion; t--) {
+                double valorConPelicula = dp[t - duracion] + rating;
+                if (valorConPelicula > dp[t]) {
+                    dp[t] = valorConPelicula;
+                    decision[t >> 6] |= 1L << t;
+                }
+            }
+        }
+
+        // ========================================
+        // PASO 2: EXTRAER PUNTOS DE LA FRONTERA - O(W)
+        // ========================================
+        // dp es no decreciente: un punto es una duración que MEJORA a todas las menores
+        int[] puntosDuracion = new int[tiempoMaximo + 1];
+        double[] puntosPuntuacion = new double[tiempoMaximo + 1];
+        int cantidadPuntos = 0;
+        double mejorAnterior = 0.0;
+
+        for (int t = 0; t <= tiempoMaximo; t++) {
+            if (dp[t] > mejorAnterior) {
+                puntosDuracion[cantidadPuntos] = t;
+                puntosPuntuacion[cantidadPuntos] = dp[t];
+                cantidadPuntos++;
+                mejorAnterior = dp[t];
+            }
+        }
+
+        // ========================================
+        // PASO 3: RECONSTRUIR CADA PUNTO - O(n) por punto
+        // ========================================
+        int[][] selecciones = new int[cantidadPuntos][];
+        int[] buffer = new int[n];
+
+        for (int p = 0; p < cantidadPuntos; p++) {
+            int tiempoRestante = puntosDuracion[p];
+            int elegidas = 0;
+
+            for (int i = n - 1; i >= 0; i--) {
+                if (duraciones[i] <= tiempoRestante && duraciones[i] >= 0
+                        && (decisiones[i][tiempoRestante >> 6] & (1L << tiempoRestante)) != 0) {
+                    buffer[elegidas++] = i;
+                    tiempoRestante -= duraciones[i];
+                }
+            }
+
+            // Invertir para obtener orden original
+            int[] seleccion = new int[elegidas];
+            for (int k = 0; k < elegidas; k++) {
+                seleccion[k] = buffer[elegidas - 1 - k];
+            }
+            selecciones[p] = seleccion;
+        }
+
+        return new FronteraMaraton(
+            version,
+            tiempoMaximo,
+            Arrays.copyOf(puntosDuracion, cantidadPuntos),
+            Arrays.copyOf(puntosPuntuacion, cantidadPuntos),
+            selecciones
+        );
+    }
+
+    // ========================================
+    // MODO APROXIMADO (FPTAS)
+    // ========================================
+
+    /**
+     * Maratón APROXIMADA para presupuestos enormes (semanas de festival)
+     * Esquema de aproximación totalmente polinomial (FPTAS) de la mochila
+     *
+     * IDEA: en lugar de indexar la tabla por TIEMPO (W puede ser 10.000+ minutos)
+     * se indexa por RATING ESCALADO: rating' = floor(rating / K)
+     * - K = ε × LB / kMax
+     * - LB = cota inferior del óptimo (greedy por ratio o la mejor película sola)
+     * - kMax = máximo de películas que pueden entrar en el tiempo
+     * Cada película pierde < K al escalar y un maratón tiene ≤ kMax películas,
+     * así que el error total es < ε × LB ≤ ε × ÓPTIMO
+     *
+     * GARANTÍA: puntuación ≥ (1 - ε) × ÓPTIMO
+     *
+     * COMPLEJIDAD: O(n log n + n × kMax / ε) - NO depende de W
+     * - Espacio: O(kMax / ε) enteros + n × (kMax / ε) BITS de decisiones
+     *
+     * @param epsilon Error relativo tolerado, en (0, 1)
+     */
+    public ResultadoDP maratonAproximada(List<Pelicula> peliculas, int tiempoMaximo, double epsilon) {
+        return maratonAproximada(ColumnasAtributos.de(peliculas), tiempoMaximo, epsilon);
+    }
+    
+    public ResultadoDP maratonAproximada(ColumnasAtributos atributos, int tiempoMaximo, double epsilon) {
+        if (!(epsilon > 0.0 && epsilon < 1.0)) {
+            throw new IllegalArgumentException("epsilon debe estar en (0, 1): " + epsilon);
+        }
+        
+        if (atributos.cantidad() == 0 || tiempoMaximo <= 0) {
+            return new ResultadoDP(new ArrayList<>(), 0, 0.0);
+        }
+        
+        // ========================================
+        // PASO 1: CANDIDATAS - O(n) sobre las columnas
+        // ========================================
+        // Solo sirven películas que entran solas y suman rating
+        int[] candidatas = new int[atributos.cantidad()];
+        int n = 0;
+        for (int i = 0; i < atributos.cantidad(); i++) {
+            int duracion = atributos.duracionOCero(i);
+            if (duracion >= 0 && duracion <= tiempoMaximo && atributos.ratingOCero(i) > 0) {
+                candidatas[n++] = i;
+            }
+        }
+        
+        if (n == 0) {
+            return new ResultadoDP(new ArrayList<>(), 0, 0.0);
+        }
+        
+        int[] duraciones = new int[n];
+        double[] ratings = new double[n];
+        for (int i = 0; i < n; i++) {
+            duraciones[i] = atributos.duracionOCero(candidatas[i]);
+            ratings[i] = atributos.ratingOCero(candidatas[i]);
+        }
+        
+        // ========================================
+        // PASO 2: kMax, COTA INFERIOR Y SUPERIOR - O(n log n)
+        // ========================================
+        // kMax: cuántas películas entran tomando las más cortas
+        int[] duracionesOrdenadas = duraciones.clone();
+        Arrays.sort(duracionesOrdenadas);
+        int kMax = 0;
+        long tiempoAcumulado = 0;
+        while (kMax < n && tiempoAcumulado + duracionesOrdenadas[kMax] <= tiempoMaximo) {
+            tiempoAcumulado += duracionesOrdenadas[kMax];
+            kMax++;
+        }
+        
+        // Orden por ratio rating/duración (descendente) para greedy y relajación fraccional
+        Integer[] porRatio = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            porRatio[i] = i;
+        }
+        Arrays.sort(porRatio, (a, b) -> Double.compare(
+            ratings[b] / Math.max(duraciones[b], 1),
+            ratings[a] / Math.max(duraciones[a], 1)
+        ));
+        
+        double mejorSola = 0.0;
+        double valorGreedy = 0.0;
+        int tiempoGreedy = 0;
+        for (int i = 0; i < n; i++) {
+            mejorSola = Math.max(mejorSola, ratings[i]);
+        }
+        for (int indice : porRatio) {
+            if (tiempoGreedy + duraciones[indice] <= tiempoMaximo) {
+                tiempoGreedy += duraciones[indice];
+                valorGreedy += ratings[indice];
+            }
+        }
+        double cotaInferior = Math.max(mejorSola, valorGreedy);  // LB ≥ ÓPTIMO / 2
+        
+        // Relajación fraccional: cota superior del óptimo (≤ 2 × LB)
+        double cotaSuperior = 0.0;
+        int tiempoDisponible = tiempoMaximo;
+        for (int indice : porRatio) {
+            if (duraciones[indice] <= tiempoDisponible) {
+                cotaSuperior += ratings[indice];
+                tiempoDisponible -= duraciones[indice];
+            } else {
+                cotaSuperior += ratings[indice] * tiempoDisponible / duraciones[indice];
+                break;
+            }
+        }
+        
+        // ========================================
+        // PASO 3: ESCALAR RATINGS - O(n)
+        // ========================================
+        double k = epsilon * cotaInferior / Math.max(kMax, 1);
+        int puntuacionMaxima = (int) Math.min(Integer.MAX_VALUE - 1, Math.floor(cotaSuperior / k));
+        int[] escalados = new int[n];
+        for (int i = 0; i < n; i++) {
+            escalados[i] = (int) Math.min(puntuacionMaxima, Math.floor(ratings[i] / k));
+        }
+        
+        // ========================================
+        // PASO 4: DP INDEXADA POR RATING ESCALADO - O(n × kMax / ε)
+        // ========================================
+        // tiempoMinimo[p] = menor duración total que logra rating escalado EXACTO p
+        long[] tiempoMinimo = new long[puntuacionMaxima + 1];
+        Arrays.fill(tiempoMinimo, Long.MAX_VALUE);
+        tiempoMinimo[0] = 0;
+        long[][] decisiones = new long[n][(puntuacionMaxima >> 6) + 1];
+        
+        for (int i = 0; i < n; i++) {
+            int escalado = escalados[i];
+            if (escalado == 0) {
+                continue;  // Pierde < K: ya contemplado en la garantía
+            }
+            
+            // Hacia atrás: cada película una sola vez (0/1)
+            for (int p = puntuacionMaxima; p >= escalado; p--) {
+                long anterior = tiempoMinimo[p - escalado];
+                if (anterior == Long.MAX_VALUE) {
+                    continue;
+                }
+                
+                long tiempoConPelicula = anterior + duraciones[i];
+                if (tiempoConPelicula <= tiempoMaximo && tiempoConPelicula < tiempoMinimo[p]) {
+                    tiempoMinimo[p] = tiempoConPelicula;
+                    decisiones[i][p >> 6] |= 1L << p;
+                }
+            }
+        }
+        
+        // ========================================
+        // PASO 5: MEJOR RATING ESCALADO QUE ENTRA Y RECONSTRUCCIÓN - O(kMax / ε + n)
+        // ========================================
+        int mejorEscalado = puntuacionMaxima;
+        while (mejorEscalado > 0 && tiempoMinimo[mejorEscalado] == Long.MAX_VALUE) {
+            mejorEscalado--;
+        }
+        
+        List<Pelicula> peliculasSeleccionadas = new ArrayList<>();
+        int restante = mejorEscalado;
+        int tiempoTotal = 0;
+        double puntuacionTotal = 0.0;
+        
+        for (int i = n - 1; i >= 0 && restante > 0; i--) {
+            if ((decisiones[i][restante >> 6] & (1L << restante)) != 0) {
+                peliculasSeleccionadas.add(atributos.pelicula(candidatas[i]));
+                restante -= escalados[i];
+                tiempoTotal += duraciones[i];
+                puntuacionTotal += ratings[i];
+            }
+        }
+        
+        Collections.reverse(peliculasSeleccionadas);
+        
+        ResultadoDP resultado = new ResultadoDP(peliculasSeleccionadas, tiempoTotal, puntuacionTotal);
+        resultado.setEstrategia("DP - Aproximación FPTAS (1 - ε)");
+        resultado.setEpsilon(epsilon);
+        resultado.setCotaSuperior(Math.min(cotaSuperior, puntuacionTotal / (1.0 - epsilon)));
+        return resultado;
+    }
+    // COMPLEJIDAD TOTAL: O(n log n) + O(n × kMax / ε)
     
     /**
      * Versión alternativa: Maximizar cantidad de películas
      * COMPLEJIDAD: O(n log n) por el ordenamiento
      */
     public ResultadoDP maratonMaximaCantidad(List<Pelicula> peliculas, int tiempoMaximo) {
-        if (peliculas == null || peliculas.isEmpty() || tiempoMaximo <= 0) {
+        return maratonMaximaCantidad(ColumnasAtributos.de(peliculas), tiempoMaximo);
+    }
+    
+    public ResultadoDP maratonMaximaCantidad(ColumnasAtributos atributos, int tiempoMaximo) {
+        if (atributos.cantidad() == 0 || tiempoMaximo <= 0) {
             return new ResultadoDP(new ArrayList<>(), 0, 0.0);
         }
         
-        // O(n log n): Ordenar por duración (más cortas primero)
-        List<Pelicula> peliculasOrdenadas = new ArrayList<>(peliculas);
-        peliculasOrdenadas.sort(Comparator.comparing(Pelicula::getDuracion));
+        // O(n log n): Ordenar por duración (más cortas primero), empate por índice
+        long[] porDuracion = ordenPorDuracion(atributos);
         
         List<Pelicula> seleccionadas = new ArrayList<>();
         int tiempoAcumulado = 0;
         double puntuacionTotal = 0.0;
         
         // O(n): Greedy - tomar películas cortas mientras quepan
-        for (Pelicula pelicula : peliculasOrdenadas) {
-            if (tiempoAcumulado + pelicula.getDuracion() <= tiempoMaximo) {
-                seleccionadas.add(pelicula);
-                tiempoAcumulado += pelicula.getDuracion();
-                puntuacionTotal += pelicula.getPromedioRating();
+        for (long clave : porDuracion) {
+            int i = (int) clave;
+            int duracion = atributos.duracionOCero(i);
+            if (tiempoAcumulado + duracion <= tiempoMaximo) {
+                seleccionadas.add(atributos.pelicula(i));
+                tiempoAcumulado += duracion;
+                puntuacionTotal += atributos.ratingOCero(i);
             }
         }
         
@@ -133,17 +521,139 @@ public class AlgoritmoDP {
     
     /**
      * Versión con restricción: Al menos N películas
-     * COMPLEJIDAD: O(n × W) (dominado por maratonOptima)
+     * Mochila con CARDINALIDAD: el estado es (tiempo, cantidad) en lugar de solo tiempo
+     * 
+     * COMPLEJIDAD: O(n × W × m)
+     * - m = mínimo de películas (la cantidad se satura en m: "m o más")
+     * - Espacio DP: O(W × m) doubles (una sola capa) + n × W × m BITS de decisiones
+     * 
+     * Devuelve el ÓPTIMO real con al menos m películas en una sola pasada,
+     * o un resultado vacío si ninguna combinación de m películas entra en el tiempo
      */
     public ResultadoDP maratonConMinimo(List<Pelicula> peliculas, int tiempoMaximo, int minimoePeliculas) {
-        ResultadoDP resultado = maratonOptima(peliculas, tiempoMaximo);  // O(n × W)
+        return maratonConMinimo(ColumnasAtributos.de(peliculas), tiempoMaximo, minimoePeliculas);
+    }
+    
+    public ResultadoDP maratonConMinimo(ColumnasAtributos atributos, int tiempoMaximo, int minimoePeliculas) {
+        if (minimoePeliculas <= 0) {
+            return maratonOptima(atributos, tiempoMaximo);  // Sin restricción real
+        }
+        
+        if (atributos.cantidad() < minimoePeliculas || tiempoMaximo <= 0) {
+            return sinMaratonConMinimo(minimoePeliculas, tiempoMaximo);
+        }
+        
+        int n = atributos.cantidad();
+        int m = minimoePeliculas;
+        int columnas = tiempoMaximo + 1;
+        int palabras = ((columnas * (m + 1)) >> 6) + 1;
+        
+        // ========================================
+        // PASO 1: TABLA (cantidad, tiempo) EN UNA CAPA
+        // ========================================
+        // dp[c][t] = máximo rating con min(cantidad, m) = c y duración total ≤ t
+        double[][] dp = new double[m + 1][columnas];
+        for (int c = 1; c <= m; c++) {
+            Arrays.fill(dp[c], Double.NEGATIVE_INFINITY);  // Estado aún imposible
+        }
+        
+        // tomada[i] bit (c, t): la película i mejoró dp[c][t]
+        // desdeTope[i] bit t: esa mejora vino de c = m (ya saturado) y no de c = m - 1
+        long[][] tomada = new long[n][palabras];
+        long[][] desdeTope = new long[n][(columnas >> 6) + 1];
+        int[] duraciones = new int[n];
+        
+        // ========================================
+        // PASO 2: LLENAR TABLA - O(n × W × m)
+        // ========================================
+        for (int i = 0; i < n; i++) {
+            int duracion = atributos.duracionOCero(i);
+            double rating = atributos.ratingOCero(i);
+            duraciones[i] = duracion;
+            
+            if (duracion > tiempoMaximo || duracion < 0) {
+                continue;
+            }
+            
+            // Tiempo hacia atrás y cantidad hacia atrás: cada película se usa una sola vez
+            for (int t = tiempoMaximo; t >= duracion; t--) {
+                for (int c = m; c >= 0; c--) {
+                    double anterior = dp[c][t - duracion];
+                    if (anterior == Double.NEGATIVE_INFINITY) {
+                        continue;
+                    }
+                    
+                    int nuevaCantidad = Math.min(c + 1, m);  // Saturar en m
+                    double valorConPelicula = anterior + rating;
+                    
+                    if (valorConPelicula > dp[nuevaCantidad][t]) {
+                        dp[nuevaCantidad][t] = valorConPelicula;
+                        int bit = nuevaCantidad * columnas + t;
+                        tomada[i][bit >> 6] |= 1L << bit;
+                        
+                        if (nuevaCantidad == m) {
+                            if (c == m) {
+                                desdeTope[i][t >> 6] |= 1L << t;
+                            } else {
+                                desdeTope[i][t >> 6] &= ~(1L << t);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        
+        if (dp[m][tiempoMaximo] == Double.NEGATIVE_INFINITY) {
+            return sinMaratonConMinimo(minimoePeliculas, tiempoMaximo);
+        }
         
-        if (resultado.getPeliculasOptimas().size() < minimoePeliculas) {
-            // Si no alcanza el mínimo, intentar con estrategia de cantidad
-            resultado = maratonMaximaCantidad(peliculas, tiempoMaximo);  // O(n log n)
-            resultado.setEstrategia("DP - Forzando mínimo de " + minimoePeliculas + " películas");
+        // ========================================
+        // PASO 3: RECONSTRUIR SOLUCIÓN - O(n)
+        // ========================================
+        List<Pelicula> peliculasSeleccionadas = new ArrayList<>();
+        int tiempoRestante = tiempoMaximo;
+        int cantidad = m;
+        int tiempoTotal = 0;
+        
+        for (int i = n - 1; i >= 0; i--) {
+            int bit = cantidad * columnas + tiempoRestante;
+            if (cantidad > 0 && (tomada[i][bit >> 6] & (1L << bit)) != 0) {
+                peliculasSeleccionadas.add(atributos.pelicula(i));
+                
+                boolean venciaDelTope = cantidad == m
+                    && (desdeTope[i][tiempoRestante >> 6] & (1L << tiempoRestante)) != 0;
+                cantidad = venciaDelTope ? m : cantidad - 1;
+                tiempoRestante -= duraciones[i];
+                tiempoTotal += duraciones[i];
+            }
         }
         
+        Collections.reverse(peliculasSeleccionadas);
+        
+        ResultadoDP resultado = new ResultadoDP(peliculasSeleccionadas, tiempoTotal, dp[m][tiempoMaximo]);
+        resultado.setEstrategia("DP - Mochila con mínimo de " + minimoePeliculas + " películas");
+        return resultado;
+    }
+    // COMPLEJIDAD TOTAL: O(n × W × m) + O(n)
+    
+    /**
+     * Índices ordenados por duración ascendente (empate: menor índice) sin objetos:
+     * clave = duración en los 32 bits altos, índice en los bajos
+     * COMPLEJIDAD: O(n log n) sobre un long[]
+     */
+    static long[] ordenPorDuracion(ColumnasAtributos atributos) {
+        long[] claves = new long[atributos.cantidad()];
+        for (int i = 0; i < claves.length; i++) {
+            claves[i] = ((long) atributos.duracionOCero(i) << 32) | i;
+        }
+        Arrays.sort(claves);
+        return claves;
+    }
+    
+    private ResultadoDP sinMaratonConMinimo(int minimoePeliculas, int tiempoMaximo) {
+        ResultadoDP resultado = new ResultadoDP(new ArrayList<>(), 0, 0.0);
+        resultado.setEstrategia("DP - No existe maratón de al menos " + minimoePeliculas
+            + " películas en " + tiempoMaximo + " minutos");
         return resultado;
     }
 }
@@ -0,0 +1,249 @@
+package com.peliculas.recomendador.algorithm;
+
+import com.peliculas.recomendador.model.Enteros;
+import com.peliculas.recomendador.model.GrafoPeliculas;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * DELTA-STEPPING: distancias desde un origen a TODO el grafo, en paralelo
+ * (Meyer y Sanders) - alternativa a Dijkstra, que asienta de a un nodo
+ *
+ * CUBETAS: la cubeta i tiene los nodos con distancia tentativa en [iΔ, (i+1)Δ)
+ * - Se procesa la cubeta no vacía más chica
+ * - Aristas LIVIANAS (costo <= Δ): se relajan en paralelo; lo que cae en la misma
+ *   cubeta se vuelve a procesar hasta que la cubeta no cambia
+ * - Aristas PESADAS (costo > Δ): una sola vez por nodo de la cubeta, al final
+ *   (siempre caen en cubetas posteriores)
+ *
+ * PARALELISMO: la frontera de cada ronda se reparte entre los workers del
+ * ForkJoinPool común; las distancias son un AtomicLongArray de bits de double
+ * y se actualizan con MÍNIMO ATÓMICO (CAS)
+ *
+ * Δ chico: muchas cubetas chicas (se parece a Dijkstra, poco paralelismo)
+ * Δ grande: pocas cubetas grandes (se parece a Bellman-Ford, trabajo repetido)
+ * Por defecto Δ = costo promedio de las aristas
+ *
+ * COMPLEJIDAD: O(V + E) trabajo esperado con Δ adecuado + re-relajaciones dentro
+ * de cada cubeta, repartido entre P núcleos
+ */
+@Component
+public class AlgoritmoDeltaStepping {
+
+    private static final int NODOS_POR_TAREA = 256;
+
+    /**
+     * Distancias mínimas desde el origen (infinito = no alcanzable), con Δ por defecto
+     */
+    public double[] distancias(GrafoPeliculas grafo, int origen) {
+        return distancias(grafo, origen, deltaPorDefecto(grafo));
+    }
+
+    /**
+     * Distancias mínimas desde el origen con el ancho de cubeta dado
+     */
+    public double[] distancias(GrafoPeliculas grafo, int origen, double delta) {
+        if (!(delta > 0) || Double.isInfinite(delta)) {
+            throw new IllegalArgumentException("delta debe ser positivo: " + delta);
+        }
+
+        int n = grafo.cantidad();
+        AtomicLongArray distancias = new AtomicLongArray(n);
+        long infinito = Double.doubleToLongBits(Double.POSITIVE_INFINITY);
+        for (int v = 0; v < n; v++) {
+            distancias.set(v, infinito);
+        }
+        distancias.set(origen, Double.doubleToLongBits(0.0));
+
+        // Cubetas no vacías por número; pueden tener entradas viejas (se filtran al procesar)
+        TreeMap<Long, Enteros> cubetas = new TreeMap<>();
+        cubetas.put(0L, Enteros.de(origen));
+
+        int[] enFrontera = new int[n];   // ronda en la que el nodo entró a la frontera
+        int[] enCubeta = new int[n];     // cubeta (en orden de proceso) en la que el nodo ya se procesó
+        int ronda = 0;
+        int cubetasProcesadas = 0;
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+
+        while (!cubetas.isEmpty()) {
+            Map.Entry<Long, Enteros> primera = cubetas.pollFirstEntry();
+            long cubeta = primera.getKey();
+            int marcaCubeta = ++cubetasProcesadas;
+            Enteros procesados = new Enteros();
+
+            // ========================================
+            // FASE LIVIANA: rondas hasta que la cubeta no cambia
+            // ========================================
+            ronda++;
+            Enteros frontera = new Enteros();
+            for (int k = 0; k < primera.getValue().tamaño(); k++) {
+                int v = primera.getValue().valor(k);
+                if (cubetaDe(distancia(distancias, v), delta) == cubeta && enFrontera[v] != ronda) {
+                    enFrontera[v] = ronda;
+                    frontera.agregar(v);
+                }
+            }
+
+            while (frontera.tamaño() > 0) {
+                for (int k = 0; k < frontera.tamaño(); k++) {
+                    int v = frontera.valor(k);
+                    if (enCubeta[v] != marcaCubeta) {
+                        enCubeta[v] = marcaCubeta;
+                        procesados.agregar(v);
+                    }
+                }
+
+                Queue<Enteros> mejorados = new ConcurrentLinkedQueue<>();
+                pool.invoke(new Relajar(grafo, distancias, delta, true, frontera, 0, frontera.tamaño(), mejorados));
+
+                ronda++;
+                frontera = repartir(mejorados, distancias, delta, cubeta, cubetas, enFrontera, ronda);
+            }
+
+            // ========================================
+            // FASE PESADA: una vez por nodo asentado en la cubeta
+            // ========================================
+            Queue<Enteros> mejorados = new ConcurrentLinkedQueue<>();
+            pool.invoke(new Relajar(grafo, distancias, delta, false, procesados, 0, procesados.tamaño(), mejorados));
+            repartir(mejorados, distancias, delta, cubeta, cubetas, enFrontera, ronda);
+        }
+
+        double[] resultado = new double[n];
+        for (int v = 0; v < n; v++) {
+            resultado[v] = distancia(distancias, v);
+        }
+        return resultado;
+    }
+
+    /**
+     * Δ = costo promedio de las aristas (1 si no hay aristas)
+     */
+    public double deltaPorDefecto(GrafoPeliculas grafo) {
+        int aristas = grafo.cantidadAristas();
+        if (aristas == 0) {
+            return 1.0;
+        }
+        double suma = 0;
+        for (int a = 0; a < aristas; a++) {
+            suma += grafo.costo(a);
+        }
+        return suma / aristas;
+    }
+
+    /**
+     * Reparte los nodos mejorados: los de la cubeta actual forman la próxima
+     * frontera, el resto va a su cubeta (secuencial: O(mejorados))
+     */
+    private static Enteros repartir(Queue<Enteros> mejorados, AtomicLongArray distancias, double delta,
+                                    long cubetaActual, TreeMap<Long, Enteros> cubetas,
+                                    int[] enFrontera, int ronda) {
+        Enteros frontera = new Enteros();
+        for (Enteros lista : mejorados) {
+            for (int k = 0; k < lista.tamaño(); k++) {
+                int v = lista.valor(k);
+                long cubeta = cubetaDe(distancia(distancias, v), delta);
+                if (cubeta == cubetaActual) {
+                    if (enFrontera[v] != ronda) {
+                        enFrontera[v] = ronda;
+                        frontera.agregar(v);
+                    }
+                } else {
+                    cubetas.computeIfAbsent(cubeta, clave -> new Enteros()).agregar(v);
+                }
+            }
+        }
+        return frontera;
+    }
+
+    /**
+     * Relaja las aristas livianas (o pesadas) de nodos[desde, hasta)
+     * Se divide en mitades hasta NODOS_POR_TAREA (fork-join)
+     */
+    private static final class Relajar extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final GrafoPeliculas grafo;
+        private final AtomicLongArray distancias;
+        private final double delta;
+        private final boolean livianas;
+        private final Enteros nodos;
+        private final int desde;
+        private final int hasta;
+        private final Queue<Enteros> mejorados;
+
+        Relajar(GrafoPeliculas grafo, AtomicLongArray distancias, double delta, boolean livianas,
+                Enteros nodos, int desde, int hasta, Queue<Enteros> mejorados) {
+            this.grafo = grafo;
+            this.distancias = distancias;
+            this.delta = delta;
+            this.livianas = livianas;
+            this.nodos = nodos;
+            this.desde = desde;
+            this.hasta = hasta;
+            this.mejorados = mejorados;
+        }
+
+        @Override
+        protected void compute() {
+            if (hasta - desde > NODOS_POR_TAREA) {
+                int medio = (desde + hasta) >>> 1;
+                invokeAll(
+                    new Relajar(grafo, distancias, delta, livianas, nodos, desde, medio, mejorados),
+                    new Relajar(grafo, distancias, delta, livianas, nodos, medio, hasta, mejorados));
+                return;
+            }
+
+            Enteros locales = new Enteros();
+            for (int k = desde; k < hasta; k++) {
+                int v = nodos.valor(k);
+                double dv = distancia(distancias, v);
+                for (int a = grafo.primeraSalida(v); a < grafo.finSalida(v); a++) {
+                    double costo = grafo.costo(a);
+                    if ((costo <= delta) != livianas) {
+                        continue;
+                    }
+                    int w = grafo.destino(a);
+                    if (minimoAtomico(distancias, w, dv + costo)) {
+                        locales.agregar(w);
+                    }
+                }
+            }
+            if (locales.tamaño() > 0) {
+                mejorados.add(locales);
+            }
+        }
+    }
+
+    /**
+     * distancias[v] = min(distancias[v], valor) con CAS
+     * @return true si este hilo la mejoró
+     */
+    private static boolean minimoAtomico(AtomicLongArray distancias, int v, double valor) {
+        long nuevo = Double.doubleToLongBits(valor);
+        while (true) {
+            long actual = distancias.get(v);
+            if (Double.longBitsToDouble(actual) <= valor) {
+                return false;
+            }
+            if (distancias.compareAndSet(v, actual, nuevo)) {
+                return true;
+            }
+        }
+    }
+
+    private static double distancia(AtomicLongArray distancias, int v) {
+        return Double.longBitsToDouble(distancias.get(v));
+    }
+
+    private static long cubetaDe(double distancia, double delta) {
+        return (long) Math.floor(distancia / delta);
+    }
+}
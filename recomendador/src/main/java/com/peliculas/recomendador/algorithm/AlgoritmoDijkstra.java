@@ -1,9 +1,17 @@
 package com.peliculas.recomendador.algorithm;
 
+import com.peliculas.recomendador.model.AdyacenciaComprimida;
+import com.peliculas.recomendador.model.ArbolCaminos;
+import com.peliculas.recomendador.model.ExploracionLocal;
+import com.peliculas.recomendador.model.FragmentoLocal;
+import com.peliculas.recomendador.model.GrafoPeliculas;
+import com.peliculas.recomendador.model.MonticuloIndices;
 import com.peliculas.recomendador.model.Pelicula;
+import com.peliculas.recomendador.model.SemillaPonderada;
 import org.springframework.stereotype.Component;
 
 import java.util.*;
+import java.util.function.IntPredicate;
 
 /**
  * DIJKSTRA - Algoritmo de Camino Más Corto
@@ -231,7 +239,8 @@ public class AlgoritmoDijkstra {
     
     /**
      * Top N películas más cercanas usando Dijkstra
-     * COMPLEJIDAD: O((V + E) log V + V log V) = O((V + E) log V)
+     * COMPLEJIDAD: O((V + E) log V + V log n) = O((V + E) log V)
+     * - Selección parcial de las n menores distancias (sin ordenar todas)
      */
     public List<Pelicula> topNCercanas(List<Pelicula> todasLasPeliculas,
                                         Long peliculaOrigen,
@@ -239,18 +248,405 @@ public class AlgoritmoDijkstra {
         // O((V + E) log V): Calcular todas las distancias
         Map<Long, Double> distancias = obtenerDistancias(todasLasPeliculas, peliculaOrigen);
         
-        // O(V): Construir mapa de películas
-        Map<Long, Pelicula> mapaPeliculas = new HashMap<>();
+        // O(V): Distancias alcanzables como arreglo primitivo (misma posición que la lista)
+        List<Pelicula> candidatas = new ArrayList<>(distancias.size());
+        double[] valores = new double[todasLasPeliculas.size()];
         for (Pelicula pelicula : todasLasPeliculas) {
-            mapaPeliculas.put(pelicula.getPeliculaId(), pelicula);
+            Double distancia = distancias.get(pelicula.getPeliculaId());
+            if (distancia != null && distancia < Double.MAX_VALUE
+                    && !pelicula.getPeliculaId().equals(peliculaOrigen)) {
+                valores[candidatas.size()] = distancia;
+                candidatas.add(pelicula);
+            }
+        }
+        
+        // O(V log n): Tomar top N sin ordenar todas las distancias
+        int[] cercanas = SeleccionTopK.menores(Arrays.copyOf(valores, candidatas.size()), n);
+        
+        List<Pelicula> resultado = new ArrayList<>(cercanas.length);
+        for (int indice : cercanas) {
+            resultado.add(candidatas.get(indice));
+        }
+        return resultado;
+    }
+    
+    /**
+     * Top N películas más cercanas que CUMPLEN un filtro (género, año, rating...)
+     * Sobre el grafo en memoria (CSR + atributos en arreglos)
+     * 
+     * MODOS:
+     * - restringirRecorrido = false: se recorre todo el grafo y solo se FILTRAN los resultados
+     *   (una película que no cumple puede ser puente hacia otras que sí)
+     * - restringirRecorrido = true: solo se avanza por películas que cumplen
+     *   (caminos formados únicamente por películas del filtro)
+     * 
+     * Dijkstra asienta los nodos en orden de distancia: al asentar n películas que
+     * cumplen se TERMINA (no hace falta calcular todas las distancias ni reintentar)
+     * 
+     * COMPLEJIDAD: O((V' + E') log V'), V' / E' = nodos y aristas explorados hasta
+     * encontrar n resultados; en el peor caso O((V + E) log V)
+     */
+    public List<Pelicula> topNCercanasFiltradas(GrafoPeliculas grafo,
+                                                Long peliculaOrigen,
+                                                int n,
+                                                IntPredicate filtro,
+                                                boolean restringirRecorrido) {
+        int origen = grafo.indice(peliculaOrigen);
+        if (origen < 0) {
+            return new ArrayList<>();
+        }
+        return asentarHastaN(grafo, new int[]{origen}, new double[]{0.0}, n, filtro, restringirRecorrido);
+    }
+    
+    /**
+     * MULTI-ORIGEN: Top N más cercanas a un CONJUNTO de películas (historial)
+     * en UN solo recorrido, en lugar de un Dijkstra por película y mezclar
+     * 
+     * - Cada semilla entra a la cola con distancia inicial según su peso:
+     *   1 / (peso + 0.1) - 1 / 1.1 (la misma escala que las aristas; peso 1 = distancia 0)
+     * - distancia(v) = min sobre semillas de (inicial(s) + camino(s, v))
+     * - Las semillas NO se recomiendan (ya fueron vistas)
+     * - Sin semillas (lista ausente o vacía) no hay recomendaciones
+     * 
+     * COMPLEJIDAD: O((V' + E') log V') - igual que UN solo Dijkstra
+     * Contra una consulta por semilla: k recorridos y una mezcla del lado del cliente
+     */
+    public List<Pelicula> topNCercanasMultiples(GrafoPeliculas grafo,
+                                                List<SemillaPonderada> semillas,
+                                                int n,
+                                                IntPredicate filtro,
+                                                boolean restringirRecorrido) {
+        // Semilla repetida: queda la de menor distancia inicial
+        Map<Integer, Double> iniciales = new LinkedHashMap<>();
+        for (SemillaPonderada semilla : semillas != null ? semillas : List.<SemillaPonderada>of()) {
+            if (semilla == null) {
+                continue;
+            }
+            int indice = grafo.indice(semilla.getPeliculaId());
+            if (indice < 0) {
+                continue;
+            }
+            double peso = semilla.getPeso() != null ? Math.max(0.0, Math.min(1.0, semilla.getPeso())) : 1.0;
+            double inicial = 1.0 / (peso + 0.1) - 1.0 / 1.1;
+            iniciales.merge(indice, inicial, Math::min);
+        }
+        if (iniciales.isEmpty()) {
+            return new ArrayList<>();
+        }
+        
+        int[] origenes = iniciales.keySet().stream().mapToInt(Integer::intValue).toArray();
+        double[] distancias = iniciales.values().stream().mapToDouble(Double::doubleValue).toArray();
+        return asentarHastaN(grafo, origenes, distancias, n, filtro, restringirRecorrido);
+    }
+    
+    /**
+     * ÁRBOL DE CAMINOS desde un origen hasta asentar TODOS los destinos pedidos
+     * Un solo recorrido responde los caminos hacia todos los destinos del mismo origen
+     * (en lugar de un Dijkstra por par)
+     * 
+     * - destinos vacío: árbol completo (todas las películas alcanzables)
+     * - Se TERMINA al asentar el último destino: sus distancias y padres ya son definitivos
+     * 
+     * COMPLEJIDAD: O((V' + E') log V'), V' / E' = explorados hasta el destino más lejano
+     */
+    public ArbolCaminos arbolHacia(GrafoPeliculas grafo, int origen, int[] destinos) {
+        int n = grafo.cantidad();
+        double[] distancias = new double[n];
+        int[] padres = new int[n];
+        Arrays.fill(distancias, Double.POSITIVE_INFINITY);
+        Arrays.fill(padres, -1);
+        
+        // Destinos distintos que faltan asentar (n + 1 = nunca se llega a 0: árbol completo)
+        boolean[] esDestino = new boolean[n];
+        int pendientes = destinos.length == 0 ? n + 1 : 0;
+        for (int destino : destinos) {
+            if (!esDestino[destino]) {
+                esDestino[destino] = true;
+                pendientes++;
+            }
+        }
+        
+        MonticuloIndices cola = new MonticuloIndices(n);
+        boolean[] asentados = new boolean[n];
+        distancias[origen] = 0.0;
+        cola.insertarOActualizar(origen, 0.0);
+        
+        while (!cola.estaVacio() && pendientes > 0) {
+            int actual = cola.extraerMinimo();  // O(log V)
+            asentados[actual] = true;
+            if (esDestino[actual]) {
+                pendientes--;
+            }
+            
+            // RELAJACIÓN: guarda el padre solo si mejora la distancia
+            for (int a = grafo.primeraSalida(actual); a < grafo.finSalida(actual); a++) {
+                int vecino = grafo.destino(a);
+                double nuevaDistancia = distancias[actual] + grafo.costo(a);
+                if (!asentados[vecino] && nuevaDistancia < distancias[vecino]) {
+                    distancias[vecino] = nuevaDistancia;
+                    padres[vecino] = actual;
+                    cola.insertarOActualizar(vecino, nuevaDistancia);  // O(log V)
+                }
+            }
+        }
+        
+        return new ArbolCaminos(origen, distancias, padres);
+    }
+
+    /**
+     * arbolHacia sobre la ADYACENCIA COMPRIMIDA: mismo recorrido, las aristas
+     * salientes se decodifican en orden con un cursor (costos con el peso cuantizado)
+     * COMPLEJIDAD: O((V' + E') log V') + la decodificación, O(1) por arista
+     */
+    public ArbolCaminos arbolHacia(AdyacenciaComprimida adyacencia, int origen, int[] destinos) {
+        int n = adyacencia.cantidad();
+        double[] distancias = new double[n];
+        int[] padres = new int[n];
+        Arrays.fill(distancias, Double.POSITIVE_INFINITY);
+        Arrays.fill(padres, -1);
+
+        boolean[] esDestino = new boolean[n];
+        int pendientes = destinos.length == 0 ? n + 1 : 0;
+        for (int destino : destinos) {
+            if (!esDestino[destino]) {
+                esDestino[destino] = true;
+                pendientes++;
+            }
+        }
+
+        AdyacenciaComprimida.Cursor cursor = adyacencia.cursor();
+        MonticuloIndices cola = new MonticuloIndices(n);
+        boolean[] asentados = new boolean[n];
+        distancias[origen] = 0.0;
+        cola.insertarOActualizar(origen, 0.0);
+
+        while (!cola.estaVacio() && pendientes > 0) {
+            int actual = cola.extraerMinimo();
+            asentados[actual] = true;
+            if (esDestino[actual]) {
+                pendientes--;
+            }
+
+            for (cursor.salientes(actual); cursor.siguiente(); ) {
+                int vecino = cursor.vecino();
+                double nuevaDistancia = distancias[actual] + cursor.costo();
+                if (!asentados[vecino] && nuevaDistancia < distancias[vecino]) {
+                    distancias[vecino] = nuevaDistancia;
+                    padres[vecino] = actual;
+                    cola.insertarOActualizar(vecino, nuevaDistancia);
+                }
+            }
+        }
+
+        return new ArbolCaminos(origen, distancias, padres);
+    }
+
+    /**
+     * UNA RONDA de una consulta particionada sobre el FRAGMENTO de una instancia
+     * (índices locales), continuando el estado de las rondas anteriores
+     * - Las semillas (propias, con su distancia inicial) que mejoran su distancia se
+     *   expanden: solo se recorre lo que ellas mejoran
+     * - Solo se EXPANDEN propias con distancia menor a "limite" y a "cota"; las de
+     *   otras instancias quedan etiquetadas (distancia y padre) y marcadas como mejoradas
+     * - destino (índice local propio, o -1): al salir de la cola su distancia queda
+     *   asentada y pasa a ser la cota (nada más lejos puede mejorar el camino)
+     * - cota: mejor distancia al destino conocida por el coordinador (infinito = sin destino)
+     * - saltos = false: aristas salientes con su costo (Dijkstra)
+     * - saltos = true: SIMILAR_A en cualquier sentido con costo 1 (BFS por niveles)
+     *
+     * Con costos no negativos es Dijkstra con etiquetas corregibles: una ronda con
+     * semillas mejores reabre solo las películas cuya distancia baja
+     *
+     * COMPLEJIDAD: O((V' + E') log V_f), V' / E' = películas y aristas que mejoran en la ronda
+     *
+     * @return la cota al terminar la ronda (la distancia del destino si es propio y se alcanzó)
+     */
+    public double avanzar(ExploracionLocal estado, int[] origenes, double[] distanciasIniciales,
+                          double limite, double cota, int destino, boolean saltos) {
+        FragmentoLocal fragmento = estado.fragmento();
+        estado.nuevaRonda();
+        for (int k = 0; k < origenes.length; k++) {
+            if (fragmento.propio(origenes[k]) && distanciasIniciales[k] < cota) {
+                estado.mejorar(origenes[k], distanciasIniciales[k], -1);
+            }
+        }
+        MonticuloIndices cola = estado.cola();
+        if (destino >= 0 && !cola.contiene(destino)) {
+            cota = Math.min(cota, estado.distancia(destino));  // asentado en una ronda anterior
+        }
+
+        while (!cola.estaVacio()) {
+            int actual = cola.extraerMinimo();
+            double distancia = estado.distancia(actual);
+            if (actual == destino) {
+                cota = Math.min(cota, distancia);
+            }
+            if (distancia >= limite || distancia >= cota) {
+                continue;
+            }
+
+            if (saltos) {
+                for (int p = fragmento.primerVecino(actual); p < fragmento.finVecinos(actual); p++) {
+                    if (distancia + 1.0 < cota) {
+                        estado.mejorar(fragmento.vecino(p), distancia + 1.0, actual);
+                    }
+                }
+            } else {
+                for (int a = fragmento.primeraSalida(actual); a < fragmento.finSalida(actual); a++) {
+                    double nuevaDistancia = distancia + fragmento.costo(a);
+                    if (nuevaDistancia < cota) {
+                        estado.mejorar(fragmento.destino(a), nuevaDistancia, actual);
+                    }
+                }
+            }
+        }
+        return cota;
+    }
+
+    /**
+     * REPARA un árbol COMPLETO (arbolHacia sin destinos) tras cambiar la arista
+     * desde -> hasta; el grafo ya tiene la arista nueva (o ninguna, si se eliminó)
+     * Solo se recalcula la región AFECTADA:
+     * - Arista más barata que mejora a "hasta": se propaga la mejora desde ahí,
+     *   solo por los nodos cuya distancia baja
+     * - Arista del árbol más cara o eliminada: el SUBÁRBOL que colgaba de ella se
+     *   invalida y se vuelve a asentar desde sus bordes con el resto del árbol
+     *   (los demás nodos no usaban esa arista: sus distancias no cambian)
+     * - Cualquier otro caso: el árbol sigue valiendo y se devuelve el mismo
+     *
+     * El árbol recibido no se modifica (puede estar en uso)
+     * COMPLEJIDAD: O(V) copia + O((A + E_A) log V), A / E_A = nodos afectados y sus aristas
+     */
+    public ArbolCaminos repararArbol(GrafoPeliculas grafo, ArbolCaminos arbol, int desde, int hasta) {
+        double costo = Double.POSITIVE_INFINITY;
+        for (int a = grafo.primeraSalida(desde); a < grafo.finSalida(desde); a++) {
+            if (grafo.destino(a) == hasta) {
+                costo = Math.min(costo, grafo.costo(a));
+            }
+        }
+        double porLaArista = arbol.distancia(desde) + costo;
+        boolean mejora = porLaArista < arbol.distancia(hasta);
+        boolean empeora = arbol.padre(hasta) == desde && porLaArista > arbol.distancia(hasta);
+        if (!mejora && !empeora) {
+            return arbol;
+        }
+
+        int n = grafo.cantidad();
+        double[] distancias = new double[n];
+        int[] padres = new int[n];
+        for (int v = 0; v < n; v++) {
+            distancias[v] = arbol.distancia(v);
+            padres[v] = arbol.padre(v);
+        }
+        MonticuloIndices cola = new MonticuloIndices(n);
+
+        if (mejora) {
+            distancias[hasta] = porLaArista;
+            padres[hasta] = desde;
+            cola.insertarOActualizar(hasta, porLaArista);
+        } else {
+            // ========================================
+            // SUBÁRBOL de "hasta": hijos = salientes cuyo padre es el nodo
+            // ========================================
+            List<Integer> subarbol = new ArrayList<>();
+            subarbol.add(hasta);
+            distancias[hasta] = Double.POSITIVE_INFINITY;
+            for (int k = 0; k < subarbol.size(); k++) {
+                int actual = subarbol.get(k);
+                for (int a = grafo.primeraSalida(actual); a < grafo.finSalida(actual); a++) {
+                    int hijo = grafo.destino(a);
+                    if (padres[hijo] == actual && distancias[hijo] != Double.POSITIVE_INFINITY) {
+                        distancias[hijo] = Double.POSITIVE_INFINITY;
+                        subarbol.add(hijo);
+                    }
+                }
+            }
+
+            // Bordes: mejor entrada de cada nodo desde fuera del subárbol
+            for (int nodo : subarbol) {
+                padres[nodo] = -1;
+                for (int e = grafo.primeraEntrada(nodo); e < grafo.finEntrada(nodo); e++) {
+                    int previo = grafo.origen(e);
+                    double nueva = distancias[previo] + grafo.costoEntrante(e);
+                    if (nueva < distancias[nodo]) {
+                        distancias[nodo] = nueva;
+                        padres[nodo] = previo;
+                    }
+                }
+                if (padres[nodo] >= 0) {
+                    cola.insertarOActualizar(nodo, distancias[nodo]);
+                }
+            }
+        }
+
+        // ========================================
+        // PROPAGACIÓN: Dijkstra que solo avanza por donde la distancia baja
+        // ========================================
+        while (!cola.estaVacio()) {
+            int actual = cola.extraerMinimo();
+            for (int a = grafo.primeraSalida(actual); a < grafo.finSalida(actual); a++) {
+                int vecino = grafo.destino(a);
+                double nuevaDistancia = distancias[actual] + grafo.costo(a);
+                if (nuevaDistancia < distancias[vecino]) {
+                    distancias[vecino] = nuevaDistancia;
+                    padres[vecino] = actual;
+                    cola.insertarOActualizar(vecino, nuevaDistancia);
+                }
+            }
+        }
+
+        return new ArbolCaminos(arbol.origen(), distancias, padres);
+    }
+
+    /**
+     * Núcleo común: Dijkstra desde uno o varios orígenes con distancia inicial,
+     * asentando en orden de distancia hasta juntar n películas que cumplen el filtro
+     * Los orígenes nunca forman parte del resultado
+     */
+    private List<Pelicula> asentarHastaN(GrafoPeliculas grafo,
+                                         int[] origenes,
+                                         double[] distanciasIniciales,
+                                         int n,
+                                         IntPredicate filtro,
+                                         boolean restringirRecorrido) {
+        List<Pelicula> resultado = new ArrayList<>();
+        if (n <= 0) {
+            return resultado;
+        }
+        
+        // ========================================
+        // PASO 1: INICIALIZACIÓN - O(V) arreglos primitivos
+        // ========================================
+        MonticuloIndices cola = new MonticuloIndices(grafo.cantidad());
+        boolean[] asentados = new boolean[grafo.cantidad()];
+        boolean[] esOrigen = new boolean[grafo.cantidad()];
+        for (int k = 0; k < origenes.length; k++) {
+            esOrigen[origenes[k]] = true;
+            cola.insertarOActualizar(origenes[k], distanciasIniciales[k]);
+        }
+        
+        // ========================================
+        // PASO 2: ASENTAR EN ORDEN DE DISTANCIA hasta tener n resultados
+        // ========================================
+        while (!cola.estaVacio() && resultado.size() < n) {
+            double distancia = cola.prioridad(cola.verMinimo());
+            int actual = cola.extraerMinimo();  // O(log V)
+            asentados[actual] = true;
+            
+            if (!esOrigen[actual] && filtro.test(actual)) {  // O(1) sobre arreglos
+                resultado.add(grafo.pelicula(actual));
+            }
+            
+            // RELAJACIÓN (decrease-key: sin entradas duplicadas en la cola)
+            for (int a = grafo.primeraSalida(actual); a < grafo.finSalida(actual); a++) {
+                int vecino = grafo.destino(a);
+                if (asentados[vecino] || (restringirRecorrido && !filtro.test(vecino))) {
+                    continue;  // PODA: en modo restringido no se expande lo que no cumple
+                }
+                cola.insertarOActualizar(vecino, distancia + grafo.costo(a));  // O(log V)
+            }
         }
         
-        // O(V log V): Ordenar y tomar top N
-        return distancias.entrySet().stream()
-            .filter(e -> !e.getKey().equals(peliculaOrigen) && e.getValue() < Double.MAX_VALUE)
-            .sorted(Map.Entry.comparingByValue())  // O(V log V)
-            .limit(n)
-            .map(e -> mapaPeliculas.get(e.getKey()))
-            .toList();
+        return resultado;
     }
 }
@@ -1,11 +1,12 @@
 package com.peliculas.recomendador.algorithm;
 
+import com.peliculas.recomendador.model.ColumnasAtributos;
+import com.peliculas.recomendador.model.DiccionarioGeneros;
 import com.peliculas.recomendador.model.Pelicula;
-import com.peliculas.recomendador.model.Genero;
+import com.peliculas.recomendador.model.MonticuloIndices;
 import org.springframework.stereotype.Component;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * GREEDY - Algoritmo Voraz (1 PUNTO)
@@ -17,77 +18,114 @@ public class AlgoritmoGreedy {
     /**
      * Encuentra el género más frecuente en una lista de películas
      * y recomienda la película con mejor rating de ese género
+     * 
+     * Los géneros se codifican con un diccionario (nombre -> 0, 1, 2, ...):
+     * se cuenta sobre un int[] y la pertenencia es un AND de bits
      */
     public Pelicula recomendacionPorGeneroMasFrecuente(List<Pelicula> peliculas) {
         if (peliculas == null || peliculas.isEmpty()) {
             return null;
         }
         
-        // PASO 1: Contar frecuencia de cada género (GREEDY: elegir el más frecuente)
-        Map<String, Integer> frecuenciaGeneros = new HashMap<>();
-        
-        for (Pelicula pelicula : peliculas) {
-            if (pelicula.getGeneros() != null) {
-                for (Genero genero : pelicula.getGeneros()) {
-                    frecuenciaGeneros.put(
-                        genero.getNombre(),
-                        frecuenciaGeneros.getOrDefault(genero.getNombre(), 0) + 1
-                    );
-                }
+        // PASO 1: Máscara de géneros de cada película y frecuencia de cada género
+        DiccionarioGeneros diccionario = new DiccionarioGeneros();
+        long[][] generos = new long[peliculas.size()][];
+        for (int i = 0; i < generos.length; i++) {
+            generos[i] = diccionario.mascara(peliculas.get(i).getGeneros());
+        }
+        int[] frecuenciaGeneros = new int[diccionario.cantidad()];
+        for (long[] mascara : generos) {
+            for (int id = DiccionarioGeneros.siguiente(mascara, 0); id >= 0; id = DiccionarioGeneros.siguiente(mascara, id + 1)) {
+                frecuenciaGeneros[id]++;
             }
         }
         
-        // PASO 2: Encontrar el género más frecuente
-        String generoMasFrecuente = frecuenciaGeneros.entrySet()
-            .stream()
-            .max(Map.Entry.comparingByValue())
-            .map(Map.Entry::getKey)
-            .orElse(null);
+        // PASO 2: Encontrar el género más frecuente (GREEDY: elegir el más frecuente)
+        int generoMasFrecuente = -1;
+        for (int id = 0; id < diccionario.cantidad(); id++) {
+            if (generoMasFrecuente < 0 || frecuenciaGeneros[id] > frecuenciaGeneros[generoMasFrecuente]) {
+                generoMasFrecuente = id;
+            }
+        }
         
-        if (generoMasFrecuente == null) {
+        if (generoMasFrecuente < 0) {
             return peliculas.get(0);
         }
         
         // PASO 3: GREEDY - Elegir la película con MEJOR RATING de ese género
-        return peliculas.stream()
-            .filter(p -> p.getGeneros() != null && 
-                        p.getGeneros().stream()
-                            .anyMatch(g -> g.getNombre().equals(generoMasFrecuente)))
-            .max(Comparator.comparing(Pelicula::getPromedioRating))
-            .orElse(peliculas.get(0));
+        Pelicula mejor = null;
+        for (int i = 0; i < generos.length; i++) {
+            Pelicula pelicula = peliculas.get(i);
+            if (DiccionarioGeneros.contiene(generos[i], generoMasFrecuente)
+                    && (mejor == null || pelicula.getPromedioRating() > mejor.getPromedioRating())) {
+                mejor = pelicula;
+            }
+        }
+        return mejor != null ? mejor : peliculas.get(0);
     }
     
     /**
      * Recomendación GREEDY: Top N películas con mejor rating
+     * COMPLEJIDAD: O(N log n) con selección parcial (sin ordenar todo el catálogo)
      */
     public List<Pelicula> topNMejoresRatings(List<Pelicula> peliculas, int n) {
-        return peliculas.stream()
-            .sorted(Comparator.comparing(Pelicula::getPromedioRating).reversed())
-            .limit(n)
-            .collect(Collectors.toList());
+        return topNMejoresRatings(ColumnasAtributos.de(peliculas), n);
+    }
+    
+    public List<Pelicula> topNMejoresRatings(ColumnasAtributos atributos, int n) {
+        int[] mejores = SeleccionTopK.mayores(ratings(atributos), n);  // O(N log n)
+        return atributos.peliculas(mejores);
     }
     
     /**
      * Recomendación GREEDY por duración
      * Selecciona películas que maximicen rating dentro de un tiempo límite
+     * 
+     * COMPLEJIDAD: O(N + k log N)
+     * - Montículo de índices armado en O(N) (sin ordenar todo)
+     * - Se extraen películas solo mientras todavía pueda entrar alguna
      */
     public List<Pelicula> maratonGreedy(List<Pelicula> peliculas, int tiempoMaximoMinutos) {
+        return maratonGreedy(ColumnasAtributos.de(peliculas), tiempoMaximoMinutos);
+    }
+    
+    public List<Pelicula> maratonGreedy(ColumnasAtributos atributos, int tiempoMaximoMinutos) {
         List<Pelicula> resultado = new ArrayList<>();
         int tiempoAcumulado = 0;
         
-        // GREEDY: Ordenar por rating descendente
-        List<Pelicula> ordenadas = peliculas.stream()
-            .sorted(Comparator.comparing(Pelicula::getPromedioRating).reversed())
-            .collect(Collectors.toList());
+        // GREEDY: Montículo por rating descendente (prioridad = -rating)
+        double[] prioridades = ratings(atributos);
+        int duracionMinima = Integer.MAX_VALUE;
+        for (int i = 0; i < prioridades.length; i++) {
+            prioridades[i] = -prioridades[i];
+            duracionMinima = Math.min(duracionMinima, atributos.duracionOCero(i));
+        }
+        MonticuloIndices cola = MonticuloIndices.desdePrioridades(prioridades);  // O(N)
         
         // GREEDY: Tomar películas mientras quepan en el tiempo
-        for (Pelicula pelicula : ordenadas) {
-            if (tiempoAcumulado + pelicula.getDuracion() <= tiempoMaximoMinutos) {
-                resultado.add(pelicula);
-                tiempoAcumulado += pelicula.getDuracion();
+        // Cuando ni la película más corta entra, no hace falta mirar el resto
+        while (!cola.estaVacio() && tiempoMaximoMinutos - tiempoAcumulado >= duracionMinima) {
+            int indice = cola.extraerMinimo();  // O(log N)
+            int duracion = atributos.duracionOCero(indice);
+            if (tiempoAcumulado + duracion <= tiempoMaximoMinutos) {
+                resultado.add(atributos.pelicula(indice));
+                tiempoAcumulado += duracion;
             }
         }
         
         return resultado;
     }
+    
+    /**
+     * Columna de ratings copiada a un arreglo propio (sin rating = va al final)
+     * COMPLEJIDAD: O(N) lectura secuencial, sin tocar las películas
+     */
+    private double[] ratings(ColumnasAtributos atributos) {
+        double[] ratings = new double[atributos.cantidad()];
+        for (int i = 0; i < ratings.length; i++) {
+            double rating = atributos.rating(i);
+            ratings[i] = !Double.isNaN(rating) ? rating : Double.NEGATIVE_INFINITY;
+        }
+        return ratings;
+    }
 }
\ No newline at end of file
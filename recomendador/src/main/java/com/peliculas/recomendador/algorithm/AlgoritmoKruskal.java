@@ -1,6 +1,8 @@
 package com.peliculas.recomendador.algorithm;
 
+import com.peliculas.recomendador.model.AdyacenciaComprimida;
 import com.peliculas.recomendador.model.Arista;
+import com.peliculas.recomendador.model.AristasBosque;
 import com.peliculas.recomendador.model.Pelicula;
 import com.peliculas.recomendador.model.ResultadoMST;
 import com.peliculas.recomendador.model.UnionFind;
@@ -18,6 +20,9 @@ import java.util.*;
  */
 @Component
 public class AlgoritmoKruskal {
+
+    // Aristas por pasada sobre la adyacencia comprimida (2 int por arista: 128 MB)
+    private static final int LOTE_ARISTAS = 1 << 24;
     
     /**
      * Algoritmo de Kruskal con Union-Find
@@ -116,4 +121,135 @@ public class AlgoritmoKruskal {
         // O(E log E): Ejecutar Kruskal
         return arbolExpansionMinimo(aristas);
     }
+
+    /**
+     * Kruskal sobre la ADYACENCIA COMPRIMIDA (grafo no dirigido, menor peso total)
+     * Los pesos cuantizados son NIVELES 0..65535: en lugar de ordenar E aristas se
+     * cuentan por nivel y se procesan por BANDAS de a lo sumo LOTE_ARISTAS aristas;
+     * cada banda es una pasada secuencial por las listas salientes que junta sus
+     * aristas ya agrupadas por nivel (counting sort)
+     *
+     * Union-Find sobre arreglos (compresión a la mitad): sin Map por película
+     * Termina antes si el bosque ya es un árbol (V - 1 aristas)
+     *
+     * COMPLEJIDAD: O(E × bandas + V α(V)), bandas = 1 si las aristas entran en un lote
+     */
+    public AristasBosque bosqueExpansionMinimo(AdyacenciaComprimida adyacencia) {
+        return bosqueExpansionMinimo(adyacencia, LOTE_ARISTAS);
+    }
+
+    /**
+     * Ídem con otro tope de aristas por banda (memoria: 8 bytes por arista del lote)
+     * Una banda es un tramo de las aristas en orden (nivel, orden de recorrido): un
+     * nivel con más aristas que el lote se reparte en varias bandas (mismo peso,
+     * cualquier orden entre ellas sirve)
+     */
+    public AristasBosque bosqueExpansionMinimo(AdyacenciaComprimida adyacencia, int loteAristas) {
+        if (loteAristas <= 0) {
+            throw new IllegalArgumentException("El lote debe ser positivo: " + loteAristas);
+        }
+        int n = adyacencia.cantidad();
+        int maximo = Math.max(n - 1, 0);
+        int[] origenes = new int[maximo];
+        int[] destinos = new int[maximo];
+        double[] pesos = new double[maximo];
+        int cantidad = 0;
+
+        // ========================================
+        // PASO 1: ARISTAS POR NIVEL - O(E)
+        // ========================================
+        AdyacenciaComprimida.Cursor cursor = adyacencia.cursor();
+        long[] porNivel = new long[AdyacenciaComprimida.NIVELES];
+        long total = 0;
+        for (int u = 0; u < n; u++) {
+            for (cursor.salientes(u); cursor.siguiente(); ) {
+                if (cursor.vecino() != u) {
+                    porNivel[cursor.nivel()]++;
+                    total++;
+                }
+            }
+        }
+
+        int[] representante = new int[n];
+        for (int v = 0; v < n; v++) {
+            representante[v] = v;
+        }
+
+        // ========================================
+        // PASO 2: BANDAS, de menor a mayor peso
+        // ========================================
+        int[] extremosU = new int[(int) Math.min(loteAristas, total)];
+        int[] extremosV = new int[extremosU.length];
+        int[] tomadas = new int[AdyacenciaComprimida.NIVELES];
+        int desde = 0;
+        long omitidas = 0;  // aristas del nivel "desde" ya procesadas en bandas anteriores
+        while (desde < AdyacenciaComprimida.NIVELES && cantidad < maximo) {
+            // Niveles [desde, ultimo] de la banda; el último puede quedar cortado
+            int ultimo = desde;
+            int enBanda = 0;
+            for (int nivel = desde; nivel < AdyacenciaComprimida.NIVELES && enBanda < loteAristas; nivel++) {
+                long disponibles = porNivel[nivel] - (nivel == desde ? omitidas : 0);
+                tomadas[nivel] = (int) Math.min(disponibles, loteAristas - enBanda);
+                enBanda += tomadas[nivel];
+                ultimo = nivel;
+            }
+
+            if (enBanda > 0) {
+                // Una pasada: las aristas de cada nivel en orden de recorrido, desde su primera no procesada
+                int[] siguiente = new int[ultimo - desde + 1];
+                for (int nivel = desde + 1; nivel <= ultimo; nivel++) {
+                    siguiente[nivel - desde] = siguiente[nivel - desde - 1] + tomadas[nivel - 1];
+                }
+                long[] vistas = new long[ultimo - desde + 1];
+                for (int u = 0; u < n; u++) {
+                    for (cursor.salientes(u); cursor.siguiente(); ) {
+                        int nivel = cursor.nivel();
+                        if (nivel < desde || nivel > ultimo || cursor.vecino() == u) {
+                            continue;
+                        }
+                        long orden = vistas[nivel - desde]++ - (nivel == desde ? omitidas : 0);
+                        if (orden >= 0 && orden < tomadas[nivel]) {
+                            int k = siguiente[nivel - desde]++;
+                            extremosU[k] = u;
+                            extremosV[k] = cursor.vecino();
+                        }
+                    }
+                }
+
+                int k = 0;
+                for (int nivel = desde; nivel <= ultimo && cantidad < maximo; nivel++) {
+                    double peso = adyacencia.pesoDeNivel(nivel);
+                    for (int fin = k + tomadas[nivel]; k < fin && cantidad < maximo; k++) {
+                        int ru = buscar(representante, extremosU[k]);
+                        int rv = buscar(representante, extremosV[k]);
+                        if (ru != rv) {
+                            representante[ru] = rv;
+                            origenes[cantidad] = extremosU[k];
+                            destinos[cantidad] = extremosV[k];
+                            pesos[cantidad++] = peso;
+                        }
+                    }
+                }
+            }
+
+            long restantes = porNivel[ultimo] - (ultimo == desde ? omitidas : 0) - tomadas[ultimo];
+            if (restantes > 0) {
+                omitidas = (ultimo == desde ? omitidas : 0) + tomadas[ultimo];
+                desde = ultimo;
+            } else {
+                omitidas = 0;
+                desde = ultimo + 1;
+            }
+        }
+
+        return new AristasBosque(origenes, destinos, pesos, cantidad);
+    }
+
+    private static int buscar(int[] representante, int v) {
+        while (representante[v] != v) {
+            representante[v] = representante[representante[v]];  // compresión a la mitad
+            v = representante[v];
+        }
+        return v;
+    }
 }
@@ -0,0 +1,210 @@
+package com.peliculas.recomendador.algorithm;
+
+import com.peliculas.recomendador.model.Enteros;
+import com.peliculas.recomendador.model.GrafoPeliculas;
+import com.peliculas.recomendador.model.PeliculaPuntaje;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * PAGERANK PERSONALIZADO - Caminata aleatoria con reinicio
+ * Un "espectador" parte de las películas semilla, sigue SIMILAR_A eligiendo la
+ * arista con probabilidad proporcional a su peso y con probabilidad ALFA vuelve
+ * a empezar. El puntaje de cada película es la probabilidad de estar en ella
+ *
+ * ALGORITMO: FORWARD PUSH (Andersen, Chung, Lang) - aproximación LOCAL
+ * - p = estimación, r = residuo (masa todavía sin repartir), r = semillas al inicio
+ * - Mientras algún nodo tenga r[u] > epsilon × grado(u):
+ *   p[u] += ALFA × r[u] y el resto (1 - ALFA) × r[u] se reparte a sus vecinos
+ * - Nodos sin aristas salientes: lo que reparten vuelve a las semillas (reinicio)
+ *
+ * COMPLEJIDAD: O(1 / (ALFA × epsilon)) empujes, INDEPENDIENTE del tamaño del grafo
+ * - Los arreglos de trabajo se reutilizan entre consultas y solo se limpian los nodos tocados
+ * - Al terminar todo residuo cumple r[u] <= epsilon × grado(u): p SUBESTIMA el valor
+ *   exacto a lo sumo en la masa residual total (que se anula con epsilon -> 0)
+ */
+@Component
+public class AlgoritmoPageRank {
+
+    public static final double ALFA = 0.15;
+
+    // Espacios de trabajo reutilizables: tantos como consultas simultáneas hubo
+    private final Queue<Espacio> espacios = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Top N películas por PageRank personalizado desde las semillas (excluidas del resultado)
+     *
+     * @param epsilon tolerancia en (0, 1): menor = más preciso y más lento
+     */
+    public List<PeliculaPuntaje> recomendar(GrafoPeliculas grafo, List<Long> semillas, int n, double epsilon) {
+        if (epsilon <= 0 || epsilon >= 1) {
+            throw new IllegalArgumentException("epsilon debe estar en (0, 1): " + epsilon);
+        }
+
+        List<PeliculaPuntaje> resultado = new ArrayList<>();
+        int[] origenes = semillas.stream()
+            .mapToInt(grafo::indice)
+            .filter(i -> i >= 0)
+            .distinct()
+            .toArray();
+        if (origenes.length == 0 || n <= 0) {
+            return resultado;
+        }
+
+        Espacio espacio = espacios.poll();
+        if (espacio == null) {
+            espacio = new Espacio();
+        }
+        espacio.preparar(grafo.cantidad());
+        try {
+            empujar(grafo, origenes, epsilon, espacio);
+
+            // ========================================
+            // TOP N entre los nodos tocados (sin recorrer todo el grafo)
+            // ========================================
+            int[] candidatos = new int[espacio.tocados.tamaño()];
+            double[] puntajes = new double[espacio.tocados.tamaño()];
+            int c = 0;
+            for (int k = 0; k < espacio.tocados.tamaño(); k++) {
+                int nodo = espacio.tocados.valor(k);
+                if (!espacio.esSemilla[nodo] && espacio.estimacion[nodo] > 0) {
+                    candidatos[c] = nodo;
+                    puntajes[c++] = espacio.estimacion[nodo];
+                }
+            }
+            for (int indice : SeleccionTopK.mayores(Arrays.copyOf(puntajes, c), n)) {
+                resultado.add(new PeliculaPuntaje(grafo.pelicula(candidatos[indice]), puntajes[indice]));
+            }
+            return resultado;
+        } finally {
+            espacio.limpiar();
+            espacios.offer(espacio);
+        }
+    }
+
+    private void empujar(GrafoPeliculas grafo, int[] origenes, double epsilon, Espacio espacio) {
+        double masaSemilla = 1.0 / origenes.length;
+        for (int origen : origenes) {
+            espacio.esSemilla[origen] = true;
+            espacio.sumarResiduo(origen, masaSemilla);
+            espacio.activar(origen);  // las semillas siempre empujan al menos una vez
+        }
+
+        // Cola FIFO de nodos activos (r[u] > epsilon × grado(u))
+        while (espacio.hayActivos()) {
+            int u = espacio.siguienteActivo();
+            double residuo = espacio.residuo[u];
+            espacio.residuo[u] = 0;
+            espacio.estimacion[u] += ALFA * residuo;
+            double aRepartir = (1 - ALFA) * residuo;
+
+            int desde = grafo.primeraSalida(u);
+            int hasta = grafo.finSalida(u);
+            if (desde == hasta) {
+                // Sin salida: reinicio hacia las semillas
+                for (int origen : origenes) {
+                    espacio.sumarResiduo(origen, aRepartir * masaSemilla);
+                    activarSiCorresponde(grafo, origen, epsilon, espacio);
+                }
+                continue;
+            }
+
+            double pesoTotal = 0;
+            for (int a = desde; a < hasta; a++) {
+                pesoTotal += Math.max(0, grafo.peso(a));
+            }
+            for (int a = desde; a < hasta; a++) {
+                // Pesos todos en 0: reparto uniforme
+                double fraccion = pesoTotal > 0 ? Math.max(0, grafo.peso(a)) / pesoTotal : 1.0 / (hasta - desde);
+                int v = grafo.destino(a);
+                espacio.sumarResiduo(v, aRepartir * fraccion);
+                activarSiCorresponde(grafo, v, epsilon, espacio);
+            }
+        }
+    }
+
+    private void activarSiCorresponde(GrafoPeliculas grafo, int nodo, double epsilon, Espacio espacio) {
+        int grado = Math.max(1, grafo.finSalida(nodo) - grafo.primeraSalida(nodo));
+        if (espacio.residuo[nodo] > epsilon * grado) {
+            espacio.activar(nodo);
+        }
+    }
+
+    /**
+     * Arreglos de trabajo de una consulta, del tamaño del grafo
+     * Se limpian SOLO los nodos tocados: el costo de cada consulta no depende de V
+     */
+    private static final class Espacio {
+
+        double[] estimacion = new double[0];
+        double[] residuo = new double[0];
+        boolean[] esSemilla = new boolean[0];
+        boolean[] tocado = new boolean[0];
+        boolean[] activo = new boolean[0];
+        Enteros tocados = new Enteros();
+
+        // Cola circular de activos (cada nodo está a lo sumo una vez)
+        int[] cola = new int[0];
+        int frente;
+        int cantidadActivos;
+
+        void preparar(int n) {
+            if (estimacion.length != n) {
+                estimacion = new double[n];
+                residuo = new double[n];
+                esSemilla = new boolean[n];
+                tocado = new boolean[n];
+                activo = new boolean[n];
+                cola = new int[Math.max(1, n)];
+            }
+            frente = 0;
+            cantidadActivos = 0;
+            tocados.limpiar();
+        }
+
+        void sumarResiduo(int nodo, double masa) {
+            if (!tocado[nodo]) {
+                tocado[nodo] = true;
+                tocados.agregar(nodo);
+            }
+            residuo[nodo] += masa;
+        }
+
+        void activar(int nodo) {
+            if (!activo[nodo]) {
+                activo[nodo] = true;
+                cola[(frente + cantidadActivos++) % cola.length] = nodo;
+            }
+        }
+
+        boolean hayActivos() {
+            return cantidadActivos > 0;
+        }
+
+        int siguienteActivo() {
+            int nodo = cola[frente];
+            frente = (frente + 1) % cola.length;
+            cantidadActivos--;
+            activo[nodo] = false;
+            return nodo;
+        }
+
+        void limpiar() {
+            for (int k = 0; k < tocados.tamaño(); k++) {
+                int nodo = tocados.valor(k);
+                estimacion[nodo] = 0;
+                residuo[nodo] = 0;
+                esSemilla[nodo] = false;
+                tocado[nodo] = false;
+                activo[nodo] = false;
+            }
+            tocados.limpiar();
+            cantidadActivos = 0;
+        }
+    }
+}
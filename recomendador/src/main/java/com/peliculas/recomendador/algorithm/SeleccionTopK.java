@@ -0,0 +1,125 @@
+package com.peliculas.recomendador.algorithm;
+
+/**
+ * SELECCIÓN TOP-K - Selección parcial con montículo acotado
+ * Devuelve los k mejores índices de un arreglo de valores SIN ordenar todo
+ *
+ * COMPLEJIDAD TEMPORAL: O(N log k)
+ * - N = cantidad de valores, k = cantidad pedida
+ * - Espacio: O(k) (solo el montículo de índices, sin listas temporales)
+ *
+ * Contra ordenar todo: O(N log N) y una lista de N objetos.
+ * Para k = 5 sobre un millón de películas: log 5 ≈ 2 vs log 10^6 ≈ 20
+ *
+ * EMPATES: gana el índice menor (mismo resultado que un ordenamiento estable)
+ */
+public final class SeleccionTopK {
+
+    private SeleccionTopK() {
+    }
+
+    /**
+     * Índices de los k valores MAYORES, ordenados de mayor a menor
+     * COMPLEJIDAD: O(N log k)
+     */
+    public static int[] mayores(double[] valores, int k) {
+        return seleccionar(valores, k, false);
+    }
+
+    /**
+     * Índices de los k valores MENORES, ordenados de menor a mayor
+     * COMPLEJIDAD: O(N log k)
+     */
+    public static int[] menores(double[] valores, int k) {
+        return seleccionar(valores, k, true);
+    }
+
+    private static int[] seleccionar(double[] valores, int k, boolean menores) {
+        int n = valores.length;
+        k = Math.min(k, n);
+        if (k <= 0) {
+            return new int[0];
+        }
+
+        // Montículo acotado: la RAÍZ es el peor de los k mejores vistos hasta ahora
+        int[] monticulo = new int[k];
+        int tamaño = 0;
+
+        // ========================================
+        // PASO 1: RECORRER UNA VEZ - O(N log k)
+        // ========================================
+        for (int i = 0; i < n; i++) {
+            if (Double.isNaN(valores[i])) {
+                continue;
+            }
+
+            if (tamaño < k) {
+                monticulo[tamaño] = i;
+                subir(monticulo, tamaño, valores, menores);  // O(log k)
+                tamaño++;
+            } else if (esPeor(monticulo[0], i, valores, menores)) {
+                // i mejora al peor de los k: reemplazar la raíz
+                monticulo[0] = i;
+                bajar(monticulo, 0, tamaño, valores, menores);  // O(log k)
+            }
+        }
+
+        // ========================================
+        // PASO 2: VACIAR EN ORDEN - O(k log k)
+        // ========================================
+        // Se extrae siempre el peor, así que se llena desde el final
+        int[] resultado = new int[tamaño];
+        for (int j = tamaño - 1; j >= 0; j--) {
+            resultado[j] = monticulo[0];
+            monticulo[0] = monticulo[--tamaño];
+            bajar(monticulo, 0, tamaño, valores, menores);
+        }
+
+        return resultado;
+    }
+
+    /**
+     * ¿El índice a es PEOR candidato que b?
+     * Empate de valor: el índice mayor es peor (estabilidad)
+     */
+    private static boolean esPeor(int a, int b, double[] valores, boolean menores) {
+        double va = valores[a];
+        double vb = valores[b];
+        if (va != vb) {
+            return menores ? va > vb : va < vb;
+        }
+        return a > b;
+    }
+
+    private static void subir(int[] monticulo, int posicion, double[] valores, boolean menores) {
+        int elemento = monticulo[posicion];
+        while (posicion > 0) {
+            int padre = (posicion - 1) >> 1;
+            if (!esPeor(elemento, monticulo[padre], valores, menores)) {
+                break;
+            }
+            monticulo[posicion] = monticulo[padre];
+            posicion = padre;
+        }
+        monticulo[posicion] = elemento;
+    }
+
+    private static void bajar(int[] monticulo, int posicion, int tamaño, double[] valores, boolean menores) {
+        int elemento = monticulo[posicion];
+        while (true) {
+            int hijo = 2 * posicion + 1;
+            if (hijo >= tamaño) {
+                break;
+            }
+            if (hijo + 1 < tamaño && esPeor(monticulo[hijo + 1], monticulo[hijo], valores, menores)) {
+                hijo++;
+            }
+            if (!esPeor(monticulo[hijo], elemento, valores, menores)) {
+                break;
+            }
+            monticulo[posicion] = monticulo[hijo];
+            posicion = hijo;
+        }
+        monticulo[posicion] = elemento;
+    }
+}
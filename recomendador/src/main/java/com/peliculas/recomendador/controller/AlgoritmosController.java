@@ -1,5 +1,6 @@
 package com.peliculas.recomendador.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.peliculas.recomendador.algorithm.AlgoritmoBacktracking;
 import com.peliculas.recomendador.algorithm.AlgoritmoGreedy;
 import com.peliculas.recomendador.algorithm.AlgoritmoQuickSort;
@@ -9,16 +10,36 @@ import com.peliculas.recomendador.algorithm.AlgoritmoPrim;
 import com.peliculas.recomendador.algorithm.AlgoritmoKruskal;
 import com.peliculas.recomendador.algorithm.AlgoritmoBranchAndBound;
 import com.peliculas.recomendador.algorithm.AlgoritmoDijkstra;
+import com.peliculas.recomendador.algorithm.AlgoritmoDeltaStepping;
+import com.peliculas.recomendador.algorithm.AlgoritmoCaminosAlternativos;
+import com.peliculas.recomendador.model.CaminoPeliculas;
+import com.peliculas.recomendador.model.ColumnasAtributos;
+import com.peliculas.recomendador.model.GrafoPeliculas;
+import com.peliculas.recomendador.model.ParPeliculas;
 import com.peliculas.recomendador.model.Pelicula;
 import com.peliculas.recomendador.model.ResultadoDP;
 import com.peliculas.recomendador.model.ResultadoMST;
 import com.peliculas.recomendador.model.ResultadoBB;
 import com.peliculas.recomendador.repository.PeliculaRepository;
+import com.peliculas.recomendador.service.ArbolesDistancias;
+import com.peliculas.recomendador.service.BosqueExpansionMinima;
+import com.peliculas.recomendador.service.CaminosEnLote;
+import com.peliculas.recomendador.service.CatalogoPeliculas;
+import com.peliculas.recomendador.service.CoalescedorSolicitudes;
+import com.peliculas.recomendador.service.EstadisticasGeneros;
+import com.peliculas.recomendador.service.IndiceContraccion;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 
 /**
  * Controller para los algoritmos completos
@@ -59,18 +80,64 @@ public class AlgoritmosController {
     @Autowired
     private AlgoritmoDijkstra algoritmoDijkstra;
     
+    @Autowired
+    private CoalescedorSolicitudes coalescedor;
+    
+    @Autowired
+    private EstadisticasGeneros estadisticasGeneros;
+    
+    @Autowired
+    private CaminosEnLote caminosEnLote;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private IndiceContraccion indiceContraccion;
+    
+    @Autowired
+    private AlgoritmoDeltaStepping algoritmoDeltaStepping;
+    
+    @Autowired
+    private AlgoritmoCaminosAlternativos algoritmoCaminosAlternativos;
+    
+    @Autowired
+    private CatalogoPeliculas catalogo;
+    
+    @Autowired
+    private ArbolesDistancias arbolesDistancias;
+    
+    @Autowired
+    private BosqueExpansionMinima bosqueExpansionMinima;
+    
+    /**
+     * Ejecuta un algoritmo sobre todas las películas agrupando solicitudes idénticas
+     * Una ráfaga de N solicitudes iguales hace UN findAll() y UN cálculo
+     */
+    private <T> T coalescer(String clave, Function<List<Pelicula>, T> algoritmo) {
+        return coalescedor.ejecutar(clave, () -> algoritmo.apply(peliculaRepository.findAll()));
+    }
+    
+    /**
+     * Igual que coalescer, pero sobre las columnas de atributos del catálogo en memoria
+     * (DP, B&B y Greedy recorren duraciones y ratings primitivos, sin findAll())
+     */
+    private <T> T coalescerColumnas(String clave, Function<ColumnasAtributos, T> algoritmo) {
+        return coalescedor.ejecutar(clave, () -> algoritmo.apply(catalogo.obtenerGrafo().atributos()));
+    }
+    
     // ============================================
     // GREEDY
     // ============================================
     
     /**
      * Recomendación GREEDY: Película del género más frecuente con mejor rating
+     * O(1): usa las estadísticas de géneros mantenidas incrementalmente
      * GET /api/algoritmos/greedy/recomendacion
      */
     @GetMapping("/greedy/recomendacion")
     public Pelicula recomendacionGreedy() {
-        List<Pelicula> todasLasPeliculas = peliculaRepository.findAll();
-        return algoritmoGreedy.recomendacionPorGeneroMasFrecuente(todasLasPeliculas);
+        return estadisticasGeneros.recomendacion();
     }
     
     /**
@@ -79,8 +146,8 @@ public class AlgoritmosController {
      */
     @GetMapping("/greedy/top")
     public List<Pelicula> topGreedy(@RequestParam(defaultValue = "5") int n) {
-        List<Pelicula> todasLasPeliculas = peliculaRepository.findAll();
-        return algoritmoGreedy.topNMejoresRatings(todasLasPeliculas, n);
+        return coalescerColumnas("greedy/top?n=" + n,
+            atributos -> algoritmoGreedy.topNMejoresRatings(atributos, n));
     }
     
     /**
@@ -90,8 +157,8 @@ public class AlgoritmosController {
     @GetMapping("/greedy/maraton")
     public List<Pelicula> maratonGreedy(
             @RequestParam(defaultValue = "300") int tiempoMaximo) {
-        List<Pelicula> todasLasPeliculas = peliculaRepository.findAll();
-        return algoritmoGreedy.maratonGreedy(todasLasPeliculas, tiempoMaximo);
+        return coalescerColumnas("greedy/maraton?tiempoMaximo=" + tiempoMaximo,
+            atributos -> algoritmoGreedy.maratonGreedy(atributos, tiempoMaximo));
     }
     
     // ============================================
@@ -104,8 +171,8 @@ public class AlgoritmosController {
      */
     @GetMapping("/quicksort/rating")
     public List<Pelicula> ordenarPorRating() {
-        List<Pelicula> todasLasPeliculas = peliculaRepository.findAll();
-        return algoritmoQuickSort.ordenarPorRating(todasLasPeliculas);
+        return coalescer("quicksort/rating",
+            peliculas -> algoritmoQuickSort.ordenarPorRating(peliculas));
     }
     
     /**
@@ -114,8 +181,8 @@ public class AlgoritmosController {
      */
     @GetMapping("/quicksort/año")
     public List<Pelicula> ordenarPorAño() {
-        List<Pelicula> todasLasPeliculas = peliculaRepository.findAll();
-        return algoritmoQuickSort.ordenarPorAño(todasLasPeliculas);
+        return coalescer("quicksort/año",
+            peliculas -> algoritmoQuickSort.ordenarPorAño(peliculas));
     }
     
     /**
@@ -124,8 +191,8 @@ public class AlgoritmosController {
      */
     @GetMapping("/quicksort/duracion")
     public List<Pelicula> ordenarPorDuracion() {
-        List<Pelicula> todasLasPeliculas = peliculaRepository.findAll();
-        return algoritmoQuickSort.ordenarPorDuracion(todasLasPeliculas);
+        return coalescer("quicksort/duracion",
+            peliculas -> algoritmoQuickSort.ordenarPorDuracion(peliculas));
     }
     
     // ============================================
@@ -140,8 +207,8 @@ public class AlgoritmosController {
     @PostMapping("/backtracking/mix-generos")
     public List<List<Pelicula>> mixGeneros(@RequestBody Map<String, List<String>> request) {
         List<String> generos = request.get("generos");
-        List<Pelicula> todasLasPeliculas = peliculaRepository.findAll();
-        return algoritmoBacktracking.mixGeneros(todasLasPeliculas, generos);
+        return coalescer("backtracking/mix-generos?generos=" + generos,
+            peliculas -> algoritmoBacktracking.mixGeneros(peliculas, generos));
     }
     
     /**
@@ -151,8 +218,8 @@ public class AlgoritmosController {
     @GetMapping("/backtracking/maraton-exacto")
     public List<List<Pelicula>> maratonTiempoExacto(
             @RequestParam(defaultValue = "240") int tiempo) {
-        List<Pelicula> todasLasPeliculas = peliculaRepository.findAll();
-        return algoritmoBacktracking.maratonTiempoExacto(todasLasPeliculas, tiempo);
+        return coalescer("backtracking/maraton-exacto?tiempo=" + tiempo,
+            peliculas -> algoritmoBacktracking.maratonTiempoExacto(peliculas, tiempo));
     }
     
     /**
@@ -162,14 +229,14 @@ public class AlgoritmosController {
     @GetMapping("/backtracking/combinaciones")
     public List<List<Pelicula>> todasLasCombinaciones(
             @RequestParam(defaultValue = "3") int cantidad) {
-        List<Pelicula> todasLasPeliculas = peliculaRepository.findAll();
-        
-        // Limitar a máximo 10 películas para evitar explosión combinatoria
-        if (todasLasPeliculas.size() > 10) {
-            todasLasPeliculas = todasLasPeliculas.subList(0, 10);
-        }
-        
-        return algoritmoBacktracking.todasLasCombinaciones(todasLasPeliculas, cantidad);
+        return coalescer("backtracking/combinaciones?cantidad=" + cantidad, peliculas -> {
+            // Limitar a máximo 10 películas para evitar explosión combinatoria
+            if (peliculas.size() > 10) {
+                peliculas = peliculas.subList(0, 10);
+            }
+            
+            return algoritmoBacktracking.todasLasCombinaciones(peliculas, cantidad);
+        });
     }
     
     // ============================================
@@ -200,8 +267,8 @@ public class AlgoritmosController {
      */
     @GetMapping("/mergesort/rating")
     public List<Pelicula> mergeSortPorRating() {
-        List<Pelicula> todasLasPeliculas = peliculaRepository.findAll();
-        return algoritmoMergeSort.ordenarPorRating(todasLasPeliculas);
+        return coalescer("mergesort/rating",
+            peliculas -> algoritmoMergeSort.ordenarPorRating(peliculas));
     }
     
     /**
@@ -210,8 +277,8 @@ public class AlgoritmosController {
      */
     @GetMapping("/mergesort/año")
     public List<Pelicula> mergeSortPorAño() {
-        List<Pelicula> todasLasPeliculas = peliculaRepository.findAll();
-        return algoritmoMergeSort.ordenarPorAño(todasLasPeliculas);
+        return coalescer("mergesort/año",
+            peliculas -> algoritmoMergeSort.ordenarPorAño(peliculas));
     }
     
     /**
@@ -220,8 +287,8 @@ public class AlgoritmosController {
      */
     @GetMapping("/mergesort/duracion")
     public List<Pelicula> mergeSortPorDuracion() {
-        List<Pelicula> todasLasPeliculas = peliculaRepository.findAll();
-        return algoritmoMergeSort.ordenarPorDuracion(todasLasPeliculas);
+        return coalescer("mergesort/duracion",
+            peliculas -> algoritmoMergeSort.ordenarPorDuracion(peliculas));
     }
     
     /**
@@ -230,8 +297,8 @@ public class AlgoritmosController {
      */
     @GetMapping("/mergesort/titulo")
     public List<Pelicula> mergeSortPorTitulo() {
-        List<Pelicula> todasLasPeliculas = peliculaRepository.findAll();
-        return algoritmoMergeSort.ordenarPorTitulo(todasLasPeliculas);
+        return coalescer("mergesort/titulo",
+            peliculas -> algoritmoMergeSort.ordenarPorTitulo(peliculas));
     }
     
     // ============================================
@@ -240,13 +307,26 @@ public class AlgoritmosController {
     
     /**
      * DP: Maratón óptimo maximizando rating dentro de un tiempo
+     * Responde desde la frontera de Pareto precalculada (hasta 24h)
      * GET /api/algoritmos/dp/maraton-optimo?tiempoMaximo=360
      */
     @GetMapping("/dp/maraton-optimo")
     public ResultadoDP maratonOptimo(
             @RequestParam(defaultValue = "360") int tiempoMaximo) {
-        List<Pelicula> todasLasPeliculas = peliculaRepository.findAll();
-        return algoritmoDP.maratonOptima(todasLasPeliculas, tiempoMaximo);
+        return coalescedor.ejecutar("dp/maraton-optimo?tiempoMaximo=" + tiempoMaximo,
+            () -> algoritmoDP.maratonOptimaPrecalculada(catalogo.obtenerGrafo(), tiempoMaximo));
+    }
+    
+    /**
+     * DP: Maratón aproximada (1 - ε) para presupuestos enormes
+     * GET /api/algoritmos/dp/maraton-aproximado?tiempoMaximo=10080&epsilon=0.1
+     */
+    @GetMapping("/dp/maraton-aproximado")
+    public ResultadoDP maratonAproximado(
+            @RequestParam(defaultValue = "10080") int tiempoMaximo,
+            @RequestParam(defaultValue = "0.1") double epsilon) {
+        return coalescerColumnas("dp/maraton-aproximado?tiempoMaximo=" + tiempoMaximo + "&epsilon=" + epsilon,
+            atributos -> algoritmoDP.maratonAproximada(atributos, tiempoMaximo, epsilon));
     }
     
     /**
@@ -256,8 +336,8 @@ public class AlgoritmosController {
     @GetMapping("/dp/maraton-cantidad")
     public ResultadoDP maratonMaximaCantidad(
             @RequestParam(defaultValue = "360") int tiempoMaximo) {
-        List<Pelicula> todasLasPeliculas = peliculaRepository.findAll();
-        return algoritmoDP.maratonMaximaCantidad(todasLasPeliculas, tiempoMaximo);
+        return coalescerColumnas("dp/maraton-cantidad?tiempoMaximo=" + tiempoMaximo,
+            atributos -> algoritmoDP.maratonMaximaCantidad(atributos, tiempoMaximo));
     }
     
     /**
@@ -268,8 +348,8 @@ public class AlgoritmosController {
     public ResultadoDP maratonConMinimo(
             @RequestParam(defaultValue = "360") int tiempoMaximo,
             @RequestParam(defaultValue = "3") int minimo) {
-        List<Pelicula> todasLasPeliculas = peliculaRepository.findAll();
-        return algoritmoDP.maratonConMinimo(todasLasPeliculas, tiempoMaximo, minimo);
+        return coalescerColumnas("dp/maraton-minimo?tiempoMaximo=" + tiempoMaximo + "&minimo=" + minimo,
+            atributos -> algoritmoDP.maratonConMinimo(atributos, tiempoMaximo, minimo));
     }
     
     // ============================================
@@ -282,8 +362,8 @@ public class AlgoritmosController {
      */
     @GetMapping("/prim/mst")
     public ResultadoMST primMST() {
-        List<Pelicula> todasLasPeliculas = peliculaRepository.findAll();
-        return algoritmoPrim.arbolExpansionMinimoDesdeGrafo(todasLasPeliculas);
+        return coalescer("prim/mst",
+            peliculas -> algoritmoPrim.arbolExpansionMinimoDesdeGrafo(peliculas));
     }
     
     // ============================================
@@ -296,8 +376,18 @@ public class AlgoritmosController {
      */
     @GetMapping("/kruskal/mst")
     public ResultadoMST kruskalMST() {
-        List<Pelicula> todasLasPeliculas = peliculaRepository.findAll();
-        return algoritmoKruskal.arbolExpansionMinimoDesdeGrafo(todasLasPeliculas);
+        return coalescer("kruskal/mst",
+            peliculas -> algoritmoKruskal.arbolExpansionMinimoDesdeGrafo(peliculas));
+    }
+    
+    /**
+     * KRUSKAL INCREMENTAL: bosque de expansión mínimo del catálogo en memoria
+     * Se arma una vez y los cambios de similitud lo reparan en la región afectada
+     * GET /api/algoritmos/kruskal/mst-incremental
+     */
+    @GetMapping("/kruskal/mst-incremental")
+    public ResultadoMST kruskalMSTIncremental() {
+        return bosqueExpansionMinima.resultado();
     }
     
     // ============================================
@@ -311,8 +401,8 @@ public class AlgoritmosController {
     @GetMapping("/bb/maraton-optimo")
     public ResultadoBB bbMaratonOptimo(
             @RequestParam(defaultValue = "360") int tiempoMaximo) {
-        List<Pelicula> todasLasPeliculas = peliculaRepository.findAll();
-        return algoritmoBB.maratonOptimo(todasLasPeliculas, tiempoMaximo);
+        return coalescerColumnas("bb/maraton-optimo?tiempoMaximo=" + tiempoMaximo,
+            atributos -> algoritmoBB.maratonOptimo(atributos, tiempoMaximo));
     }
     
     /**
@@ -322,8 +412,8 @@ public class AlgoritmosController {
     @GetMapping("/bb/maraton-cantidad")
     public ResultadoBB bbMaratonCantidad(
             @RequestParam(defaultValue = "360") int tiempoMaximo) {
-        List<Pelicula> todasLasPeliculas = peliculaRepository.findAll();
-        return algoritmoBB.maratonMaximaCantidad(todasLasPeliculas, tiempoMaximo);
+        return coalescerColumnas("bb/maraton-cantidad?tiempoMaximo=" + tiempoMaximo,
+            atributos -> algoritmoBB.maratonMaximaCantidad(atributos, tiempoMaximo));
     }
     
     /**
@@ -334,8 +424,8 @@ public class AlgoritmosController {
     public ResultadoBB bbMaratonConMinimo(
             @RequestParam(defaultValue = "360") int tiempoMaximo,
             @RequestParam(defaultValue = "3") int minimo) {
-        List<Pelicula> todasLasPeliculas = peliculaRepository.findAll();
-        return algoritmoBB.maratonConMinimo(todasLasPeliculas, tiempoMaximo, minimo);
+        return coalescerColumnas("bb/maraton-minimo?tiempoMaximo=" + tiempoMaximo + "&minimo=" + minimo,
+            atributos -> algoritmoBB.maratonConMinimo(atributos, tiempoMaximo, minimo));
     }
     
     // ============================================
@@ -345,13 +435,33 @@ public class AlgoritmosController {
     /**
      * DIJKSTRA MANUAL: Camino más corto entre dos películas
      * GET /api/algoritmos/dijkstra/camino/{idInicio}/{idFin}
+     * 
+     * Con recomendador.caminos.contraccion=true se responde con la jerarquía de
+     * contracción del catálogo (microsegundos por consulta)
      */
     @GetMapping("/dijkstra/camino/{idInicio}/{idFin}")
     public List<Pelicula> dijkstraCaminoMasCorto(
             @PathVariable Long idInicio,
             @PathVariable Long idFin) {
-        List<Pelicula> todasLasPeliculas = peliculaRepository.findAll();
-        return algoritmoDijkstra.caminoMasCorto(todasLasPeliculas, idInicio, idFin);
+        if (indiceContraccion.habilitado()) {
+            return indiceContraccion.caminoMasCorto(idInicio, idFin);
+        }
+        return coalescer("dijkstra/camino/" + idInicio + "/" + idFin,
+            peliculas -> algoritmoDijkstra.caminoMasCorto(peliculas, idInicio, idFin));
+    }
+    
+    /**
+     * K CAMINOS MÁS CORTOS (Yen): recorridos alternativos entre dos películas
+     * GET /api/algoritmos/dijkstra/alternativos/{idInicio}/{idFin}?k=3
+     * Caminos sin ciclos de menor a mayor distancia (el primero es el más corto)
+     * k se acota a AlgoritmoCaminosAlternativos.MAXIMO_CAMINOS (20)
+     */
+    @GetMapping("/dijkstra/alternativos/{idInicio}/{idFin}")
+    public List<CaminoPeliculas> dijkstraCaminosAlternativos(
+            @PathVariable Long idInicio,
+            @PathVariable Long idFin,
+            @RequestParam(defaultValue = "3") int k) {
+        return algoritmoCaminosAlternativos.kCaminosMasCortos(catalogo.obtenerGrafo(), idInicio, idFin, k);
     }
     
     /**
@@ -362,7 +472,72 @@ public class AlgoritmosController {
     public List<Pelicula> dijkstraPeliculasCercanas(
             @PathVariable Long id,
             @RequestParam(defaultValue = "5") int n) {
-        List<Pelicula> todasLasPeliculas = peliculaRepository.findAll();
-        return algoritmoDijkstra.topNCercanas(todasLasPeliculas, id, n);
+        return coalescer("dijkstra/cercanas/" + id + "?n=" + n,
+            peliculas -> algoritmoDijkstra.topNCercanas(peliculas, id, n));
+    }
+    
+    /**
+     * DIJKSTRA POR LOTES: muchos caminos más cortos en una sola llamada
+     * POST /api/algoritmos/dijkstra/caminos
+     * Body: [ { "idInicio": 1, "idFin": 5 }, { "idInicio": 1, "idFin": 9 }, ... ]
+     * 
+     * Un Dijkstra por ORIGEN distinto (no por par), los grupos en paralelo
+     * Respuesta NDJSON: una línea JSON por par, a medida que se resuelve cada grupo
+     * { "idInicio": 1, "idFin": 5, "distancia": 2.4, "camino": [1, 3, 5] }
+     */
+    @PostMapping("/dijkstra/caminos")
+    public ResponseEntity<StreamingResponseBody> dijkstraCaminosEnLote(@RequestBody List<ParPeliculas> pares) {
+        StreamingResponseBody cuerpo = salida -> caminosEnLote.resolver(pares, resultado -> {
+            try {
+                byte[] linea = objectMapper.writeValueAsBytes(resultado);
+                synchronized (salida) {  // varios grupos escriben a la vez
+                    salida.write(linea);
+                    salida.write('\n');
+                    salida.flush();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(cuerpo);
+    }
+    
+    /**
+     * DISTANCIAS A TODO EL CATÁLOGO desde una película
+     * GET /api/algoritmos/dijkstra/distancias/{id}?paralelo=true&delta=2.0
+     * 
+     * - paralelo=false: Dijkstra (secuencial); el árbol queda en caché y los
+     *   cambios de similitud lo reparan sin recalcularlo
+     * - paralelo=true: delta-stepping repartido entre los núcleos (delta opcional,
+     *   por defecto el costo promedio de las aristas)
+     * Solo se devuelven las películas alcanzables: peliculaId -> distancia
+     */
+    @GetMapping("/dijkstra/distancias/{id}")
+    public Map<Long, Double> dijkstraDistancias(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "false") boolean paralelo,
+            @RequestParam(required = false) Double delta) {
+        if (!paralelo) {
+            return arbolesDistancias.distancias(id);
+        }
+        
+        GrafoPeliculas grafo = catalogo.obtenerGrafo();
+        Map<Long, Double> resultado = new LinkedHashMap<>();
+        int origen = grafo.indice(id);
+        if (origen < 0) {
+            return resultado;
+        }
+        
+        double[] distancias = delta != null
+            ? algoritmoDeltaStepping.distancias(grafo, origen, delta)
+            : algoritmoDeltaStepping.distancias(grafo, origen);
+        for (int i = 0; i < distancias.length; i++) {
+            if (distancias[i] != Double.POSITIVE_INFINITY) {
+                resultado.put(grafo.pelicula(i).getPeliculaId(), distancias[i]);
+            }
+        }
+        return resultado;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,138 @@
+package com.peliculas.recomendador.controller;
+
+import com.peliculas.recomendador.algorithm.AlgoritmoBusqueda;
+import com.peliculas.recomendador.algorithm.AlgoritmoDijkstra;
+import com.peliculas.recomendador.algorithm.AlgoritmoKruskal;
+import com.peliculas.recomendador.model.ArbolCaminos;
+import com.peliculas.recomendador.model.AristaParticion;
+import com.peliculas.recomendador.model.AristasBosque;
+import com.peliculas.recomendador.model.ResultadoCamino;
+import com.peliculas.recomendador.service.CatalogoComprimido;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Consultas sobre la ADYACENCIA COMPRIMIDA leída de Neo4j (recomendador.comprimido.habilitado)
+ * Para catálogos que no entran en memoria como GrafoPeliculas: las respuestas son
+ * por ID de película (no se arman entidades) y los pesos están cuantizados a 16 bits
+ */
+@RestController
+@RequestMapping("/api/comprimido")
+@CrossOrigin(origins = "*")
+public class ComprimidoController {
+
+    @Autowired
+    private CatalogoComprimido catalogoComprimido;
+
+    @Autowired
+    private AlgoritmoDijkstra algoritmoDijkstra;
+
+    @Autowired
+    private AlgoritmoBusqueda algoritmoBusqueda;
+
+    @Autowired
+    private AlgoritmoKruskal algoritmoKruskal;
+
+    /**
+     * Tamaño de la adyacencia cargada
+     * GET /api/comprimido/resumen
+     */
+    @GetMapping("/resumen")
+    public Map<String, Object> resumen() {
+        return resumen(catalogoComprimido.obtener());
+    }
+
+    /**
+     * Vuelve a leer la adyacencia de Neo4j
+     * POST /api/comprimido/recargar
+     */
+    @PostMapping("/recargar")
+    public Map<String, Object> recargar() {
+        return resumen(catalogoComprimido.recargar());
+    }
+
+    private static Map<String, Object> resumen(CatalogoComprimido.Cargada cargada) {
+        Map<String, Object> resumen = new LinkedHashMap<>();
+        resumen.put("peliculas", cargada.adyacencia().cantidad());
+        resumen.put("aristas", cargada.adyacencia().cantidadAristas());
+        resumen.put("bytes", cargada.adyacencia().bytes());
+        return resumen;
+    }
+
+    /**
+     * GET /api/comprimido/dijkstra/camino/{idInicio}/{idFin}
+     */
+    @GetMapping("/dijkstra/camino/{idInicio}/{idFin}")
+    public ResultadoCamino dijkstraCamino(@PathVariable Long idInicio, @PathVariable Long idFin) {
+        CatalogoComprimido.Cargada cargada = catalogoComprimido.obtener();
+        ResultadoCamino resultado = new ResultadoCamino(idInicio, idFin, null, new ArrayList<>());
+        int origen = cargada.indice(idInicio);
+        int destino = cargada.indice(idFin);
+        if (origen < 0 || destino < 0) {
+            return resultado;
+        }
+
+        ArbolCaminos arbol = algoritmoDijkstra.arbolHacia(cargada.adyacencia(), origen, new int[]{destino});
+        if (arbol.alcanzado(destino)) {
+            resultado.setDistancia(arbol.distancia(destino));
+            for (int nodo : arbol.camino(destino)) {
+                resultado.getCamino().add(cargada.id(nodo));
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * BFS por SIMILAR_A (en cualquier sentido): peliculaId -> saltos, las más cercanas primero
+     * GET /api/comprimido/bfs/{id}?profundidad=3&limite=1000
+     */
+    @GetMapping("/bfs/{id}")
+    public Map<Long, Integer> bfs(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "3") int profundidad,
+            @RequestParam(defaultValue = "1000") int limite) {
+        CatalogoComprimido.Cargada cargada = catalogoComprimido.obtener();
+        Map<Long, Integer> resultado = new LinkedHashMap<>();
+        int origen = cargada.indice(id);
+        if (origen < 0) {
+            return resultado;
+        }
+
+        int[] niveles = algoritmoBusqueda.niveles(cargada.adyacencia(), origen, profundidad);
+        for (int d = 1; d <= profundidad && resultado.size() < limite; d++) {
+            for (int v = 0; v < niveles.length && resultado.size() < limite; v++) {
+                if (niveles[v] == d) {
+                    resultado.put(cargada.id(v), d);
+                }
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Bosque de expansión mínimo: totales y las primeras "limite" aristas (valor = peso)
+     * GET /api/comprimido/kruskal/mst?limite=100
+     */
+    @GetMapping("/kruskal/mst")
+    public Map<String, Object> kruskalMST(@RequestParam(defaultValue = "100") int limite) {
+        CatalogoComprimido.Cargada cargada = catalogoComprimido.obtener();
+        AristasBosque bosque = algoritmoKruskal.bosqueExpansionMinimo(cargada.adyacencia());
+
+        List<AristaParticion> aristas = new ArrayList<>();
+        for (int k = 0; k < Math.min(limite, bosque.cantidad()); k++) {
+            aristas.add(new AristaParticion(cargada.id(bosque.origen(k)), cargada.id(bosque.destino(k)),
+                bosque.peso(k)));
+        }
+        Map<String, Object> resultado = new LinkedHashMap<>();
+        resultado.put("algoritmo", "Kruskal (adyacencia comprimida)");
+        resultado.put("numeroAristas", bosque.cantidad());
+        resultado.put("pesoTotal", bosque.pesoTotal());
+        resultado.put("aristas", aristas);
+        return resultado;
+    }
+}
@@ -0,0 +1,138 @@
+package com.peliculas.recomendador.controller;
+
+import com.peliculas.recomendador.model.AristaParticion;
+import com.peliculas.recomendador.model.Pelicula;
+import com.peliculas.recomendador.model.PeliculaDistancia;
+import com.peliculas.recomendador.model.RespuestaFragmento;
+import com.peliculas.recomendador.model.ResultadoMST;
+import com.peliculas.recomendador.model.ResumenFragmento;
+import com.peliculas.recomendador.model.SolicitudFragmento;
+import com.peliculas.recomendador.service.CoordinadorParticion;
+import com.peliculas.recomendador.service.FragmentoGrafo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Grafo PARTICIONADO entre varias instancias (recomendador.particion.instancias)
+ * - /dijkstra/*, /bfs y /kruskal/mst: consultas sobre el grafo completo, coordinadas
+ *   por la instancia que las recibe (cualquiera)
+ * - /fragmento/*: pasos locales que el coordinador pide a cada instancia
+ */
+@RestController
+@RequestMapping("/api/particion")
+@CrossOrigin(origins = "*")
+public class ParticionController {
+
+    @Autowired
+    private CoordinadorParticion coordinador;
+
+    @Autowired
+    private FragmentoGrafo fragmento;
+
+    /**
+     * Fragmento de cada instancia (películas, aristas, sello y huella)
+     * GET /api/particion/plan
+     */
+    @GetMapping("/plan")
+    public Map<String, Object> plan() {
+        return coordinador.resumen();
+    }
+
+    /**
+     * Vuelve a leer de Neo4j el fragmento de todas las instancias
+     * POST /api/particion/recargar
+     */
+    @PostMapping("/recargar")
+    public Map<String, Object> recargar() {
+        return coordinador.recargar();
+    }
+
+    // ============================================
+    // CONSULTAS COORDINADAS
+    // ============================================
+
+    /**
+     * GET /api/particion/dijkstra/camino/{idInicio}/{idFin}
+     */
+    @GetMapping("/dijkstra/camino/{idInicio}/{idFin}")
+    public List<Pelicula> dijkstraCamino(@PathVariable Long idInicio, @PathVariable Long idFin) {
+        return coordinador.camino(idInicio, idFin);
+    }
+
+    /**
+     * GET /api/particion/dijkstra/distancias/{id}
+     */
+    @GetMapping("/dijkstra/distancias/{id}")
+    public Map<Long, Double> dijkstraDistancias(@PathVariable Long id) {
+        return coordinador.distancias(id);
+    }
+
+    /**
+     * BFS por SIMILAR_A (en cualquier sentido; sin géneros)
+     * GET /api/particion/bfs/{id}?profundidad=3&limite=15
+     */
+    @GetMapping("/bfs/{id}")
+    public List<PeliculaDistancia> bfs(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "3") int profundidad,
+            @RequestParam(defaultValue = "15") int limite) {
+        return coordinador.niveles(id, profundidad, limite);
+    }
+
+    /**
+     * GET /api/particion/kruskal/mst
+     */
+    @GetMapping("/kruskal/mst")
+    public ResultadoMST kruskalMST() {
+        return coordinador.arbolExpansionMinimo();
+    }
+
+    // ============================================
+    // PASOS LOCALES (entre instancias)
+    // ============================================
+
+    @PostMapping("/fragmento/explorar")
+    public RespuestaFragmento explorarFragmento(@RequestBody SolicitudFragmento solicitud) {
+        return fragmento.explorar(solicitud);
+    }
+
+    @PostMapping("/fragmento/distancias")
+    public Map<Long, Double> distanciasFragmento(@RequestBody SolicitudFragmento solicitud) {
+        return fragmento.distancias(solicitud);
+    }
+
+    @PostMapping("/fragmento/camino")
+    public List<Long> caminoFragmento(@RequestBody SolicitudFragmento solicitud) {
+        return fragmento.camino(solicitud);
+    }
+
+    @PostMapping("/fragmento/peliculas")
+    public List<Pelicula> peliculasFragmento(@RequestBody List<Long> ids) {
+        return fragmento.peliculas(ids);
+    }
+
+    @DeleteMapping("/fragmento/consulta/{consulta}")
+    public void cerrarConsulta(@PathVariable String consulta) {
+        fragmento.cerrar(consulta);
+    }
+
+    @GetMapping("/fragmento/bosque")
+    public List<AristaParticion> bosqueFragmento(
+            @RequestParam(required = false) Long sello,
+            @RequestParam(required = false) Integer partes) {
+        return fragmento.bosque(sello, partes);
+    }
+
+    @GetMapping("/fragmento/resumen")
+    public ResumenFragmento resumenFragmento() {
+        return fragmento.resumen();
+    }
+
+    @PostMapping("/fragmento/recargar")
+    public ResumenFragmento recargarFragmento() {
+        return fragmento.recargar();
+    }
+}
@@ -1,24 +1,61 @@
 package com.peliculas.recomendador.controller;
 
+import com.peliculas.recomendador.algorithm.AlgoritmoBFSParalelo;
+import com.peliculas.recomendador.algorithm.AlgoritmoBusqueda;
 import com.peliculas.recomendador.algorithm.AlgoritmoDijkstra;
+import com.peliculas.recomendador.algorithm.AlgoritmoPageRank;
+import com.peliculas.recomendador.model.FiltroPeliculas;
+import com.peliculas.recomendador.model.GrafoPeliculas;
 import com.peliculas.recomendador.model.Pelicula;
+import com.peliculas.recomendador.model.PeliculaDistancia;
+import com.peliculas.recomendador.model.PeliculaPuntaje;
+import com.peliculas.recomendador.model.SolicitudRecomendacion;
 import com.peliculas.recomendador.repository.PeliculaRepository;
+import com.peliculas.recomendador.service.CatalogoPeliculas;
+import com.peliculas.recomendador.service.CoalescedorSolicitudes;
+import com.peliculas.recomendador.service.IndiceFacetas;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.function.IntPredicate;
 
 @RestController
 @RequestMapping("/api/peliculas")
 @CrossOrigin(origins = "*")
 public class PeliculaController {
     
+    private static final int PROFUNDIDAD_BFS_SECUENCIAL = 2;
+    
     @Autowired
     private PeliculaRepository peliculaRepository;
     
     @Autowired
     private AlgoritmoDijkstra algoritmoDijkstra;
     
+    @Autowired
+    private AlgoritmoBusqueda algoritmoBusqueda;
+    
+    @Autowired
+    private AlgoritmoBFSParalelo algoritmoBFSParalelo;
+    
+    @Autowired
+    private AlgoritmoPageRank algoritmoPageRank;
+    
+    // Tope de películas que conecta cada género en los recorridos por saltos
+    @Value("${recomendador.busqueda.max-vecinos-genero:100}")
+    private int maxVecinosGeneroPorDefecto;
+    
+    @Autowired
+    private CoalescedorSolicitudes coalescedor;
+    
+    @Autowired
+    private CatalogoPeliculas catalogo;
+    
+    @Autowired
+    private IndiceFacetas indiceFacetas;
+    
     // ============================================
     // ENDPOINTS BÁSICOS
     // ============================================
@@ -33,43 +70,150 @@ public class PeliculaController {
         return peliculaRepository.findById(id).orElse(null);
     }
     
+    /**
+     * Alta o cambio de una película: se guardan sus propiedades en Neo4j y se
+     * actualiza el catálogo en memoria de forma incremental
+     * Las relaciones que ya tenía se conservan; géneros y actores del cuerpo se agregan
+     * POST /api/peliculas
+     */
+    @PostMapping
+    public Pelicula guardarPelicula(@RequestBody Pelicula pelicula) {
+        return catalogo.guardarPelicula(pelicula);
+    }
+    
+    /**
+     * Cambio de rating de una película
+     * PUT /api/peliculas/{id}/rating?rating=8.5
+     */
+    @PutMapping("/{id}/rating")
+    public Pelicula actualizarRating(
+            @PathVariable Long id,
+            @RequestParam Double rating) {
+        return catalogo.actualizarRating(id, rating);
+    }
+    
+    /**
+     * Alta o cambio de peso de la similitud {id} -> {idDestino} (SIMILAR_A)
+     * Los caminos en caché y el bosque de expansión mínimo se reparan solo
+     * en la región afectada
+     * PUT /api/peliculas/{id}/similares/{idDestino}?peso=0.8
+     */
+    @PutMapping("/{id}/similares/{idDestino}")
+    public Pelicula actualizarSimilitud(
+            @PathVariable Long id,
+            @PathVariable Long idDestino,
+            @RequestParam Double peso) {
+        return catalogo.actualizarSimilitud(id, idDestino, peso);
+    }
+    
+    /**
+     * Baja de la similitud {id} -> {idDestino}
+     * DELETE /api/peliculas/{id}/similares/{idDestino}
+     */
+    @DeleteMapping("/{id}/similares/{idDestino}")
+    public Pelicula eliminarSimilitud(
+            @PathVariable Long id,
+            @PathVariable Long idDestino) {
+        return catalogo.eliminarSimilitud(id, idDestino);
+    }
+    
     @GetMapping("/genero/{nombreGenero}")
     public List<Pelicula> obtenerPeliculasPorGenero(@PathVariable String nombreGenero) {
         return peliculaRepository.findByGenero(nombreGenero);
     }
     
+    /**
+     * FILTRO POR FACETAS en memoria (bitmaps): géneros, años, duración y rating
+     * GET /api/peliculas/filtro?generos=Drama,Thriller&añoMin=1990&añoMax=2000&ratingMin=8&limite=20
+     * todosLosGeneros=false para "alguno de los géneros"
+     */
+    @GetMapping("/filtro")
+    public List<Pelicula> filtrarPeliculas(FiltroPeliculas filtro) {
+        return indiceFacetas.filtrar(filtro);
+    }
+    
+    /**
+     * Cantidad de películas que cumplen el filtro (para paginar)
+     * GET /api/peliculas/filtro/cantidad?generos=Drama
+     */
+    @GetMapping("/filtro/cantidad")
+    public int contarPeliculasFiltradas(FiltroPeliculas filtro) {
+        return indiceFacetas.contar(filtro);
+    }
+    
     @GetMapping("/top")
     public List<Pelicula> obtenerTopPeliculas() {
         return peliculaRepository.findAllOrdenadasPorRating();
     }
     
+    /**
+     * Películas relacionadas hasta "profundidad" saltos (SIMILAR_A / TIENE_GENERO),
+     * las más cercanas primero
+     * - Profundidad chica: BFS secuencial que corta al juntar "limite" películas
+     * - Profundidad grande: BFS paralelo top-down / bottom-up (la frontera cubre casi todo)
+     */
     @GetMapping("/{id}/relacionadas")
     public List<Pelicula> obtenerPeliculasRelacionadas(
             @PathVariable Long id,
             @RequestParam(defaultValue = "2") int profundidad,
-            @RequestParam(defaultValue = "10") int limite) {
-        return peliculaRepository.findPeliculasRelacionadas(id, profundidad, limite);
+            @RequestParam(defaultValue = "10") int limite,
+            @RequestParam(required = false) Integer maxVecinosGenero) {
+        GrafoPeliculas grafo = catalogo.obtenerGrafo();
+        int tope = topeGenero(maxVecinosGenero);
+        if (profundidad <= PROFUNDIDAD_BFS_SECUENCIAL) {
+            return soloPeliculas(algoritmoBusqueda.bfs(grafo, id, profundidad, limite, tope));
+        }
+        return algoritmoBFSParalelo.relacionadas(grafo, id, profundidad, limite, tope);
     }
     
     // ============================================
-    // BFS - BÚSQUEDA EN ANCHURA
+    // BFS - BÚSQUEDA EN ANCHURA (grafo en memoria)
     // ============================================
     @GetMapping("/{id}/bfs")
     public List<Pelicula> busquedaBFS(
             @PathVariable Long id,
-            @RequestParam(defaultValue = "15") int limite) {
-        return peliculaRepository.busquedaBFS(id, limite);
+            @RequestParam(defaultValue = "3") int profundidad,
+            @RequestParam(defaultValue = "15") int limite,
+            @RequestParam(required = false) Integer maxVecinosGenero) {
+        return soloPeliculas(busquedaBFSConDistancias(id, profundidad, limite, maxVecinosGenero));
+    }
+    
+    /**
+     * BFS con la distancia en saltos de cada película
+     * GET /api/peliculas/{id}/bfs/distancias?profundidad=3&limite=15&maxVecinosGenero=100
+     */
+    @GetMapping("/{id}/bfs/distancias")
+    public List<PeliculaDistancia> busquedaBFSConDistancias(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "3") int profundidad,
+            @RequestParam(defaultValue = "15") int limite,
+            @RequestParam(required = false) Integer maxVecinosGenero) {
+        return algoritmoBusqueda.bfs(catalogo.obtenerGrafo(), id, profundidad, limite, topeGenero(maxVecinosGenero));
     }
     
     // ============================================
-    // DFS - BÚSQUEDA EN PROFUNDIDAD
+    // DFS - BÚSQUEDA EN PROFUNDIDAD (grafo en memoria)
     // ============================================
     @GetMapping("/{id}/dfs")
     public List<Pelicula> busquedaDFS(
             @PathVariable Long id,
             @RequestParam(defaultValue = "3") int profundidad,
-            @RequestParam(defaultValue = "15") int limite) {
-        return peliculaRepository.busquedaDFS(id, profundidad, limite);
+            @RequestParam(defaultValue = "15") int limite,
+            @RequestParam(required = false) Integer maxVecinosGenero) {
+        return soloPeliculas(busquedaDFSConDistancias(id, profundidad, limite, maxVecinosGenero));
+    }
+    
+    /**
+     * DFS con la profundidad en que se descubrió cada película
+     * GET /api/peliculas/{id}/dfs/distancias?profundidad=3&limite=15
+     */
+    @GetMapping("/{id}/dfs/distancias")
+    public List<PeliculaDistancia> busquedaDFSConDistancias(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "3") int profundidad,
+            @RequestParam(defaultValue = "15") int limite,
+            @RequestParam(required = false) Integer maxVecinosGenero) {
+        return algoritmoBusqueda.dfs(catalogo.obtenerGrafo(), id, profundidad, limite, topeGenero(maxVecinosGenero));
     }
     
     // ============================================
@@ -79,8 +223,9 @@ public class PeliculaController {
     public List<Pelicula> obtenerCaminoMasCorto(
             @PathVariable Long idInicio,
             @PathVariable Long idFin) {
-        List<Pelicula> todasLasPeliculas = peliculaRepository.findAll();
-        return algoritmoDijkstra.caminoMasCorto(todasLasPeliculas, idInicio, idFin);
+        // Misma clave que /api/algoritmos/dijkstra/camino: ambas rutas comparten el cálculo
+        return coalescedor.ejecutar("dijkstra/camino/" + idInicio + "/" + idFin,
+            () -> algoritmoDijkstra.caminoMasCorto(peliculaRepository.findAll(), idInicio, idFin));
     }
     
     /**
@@ -91,8 +236,81 @@ public class PeliculaController {
     public List<Pelicula> peliculasCercanas(
             @PathVariable Long id,
             @RequestParam(defaultValue = "5") int n) {
-        List<Pelicula> todasLasPeliculas = peliculaRepository.findAll();
-        return algoritmoDijkstra.topNCercanas(todasLasPeliculas, id, n);
+        return coalescedor.ejecutar("dijkstra/cercanas/" + id + "?n=" + n,
+            () -> algoritmoDijkstra.topNCercanas(peliculaRepository.findAll(), id, n));
+    }
+    
+    /**
+     * DIJKSTRA con FILTRO: las N más cercanas que cumplen el filtro
+     * GET /api/peliculas/{id}/dijkstra/cercanas/filtro?n=5&generos=Comedia&añoMin=2000
+     * restringirRecorrido=true: solo caminos formados por películas que cumplen
+     */
+    @GetMapping("/{id}/dijkstra/cercanas/filtro")
+    public List<Pelicula> peliculasCercanasFiltradas(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "5") int n,
+            @RequestParam(defaultValue = "false") boolean restringirRecorrido,
+            FiltroPeliculas filtro) {
+        GrafoPeliculas grafo = catalogo.obtenerGrafo();
+        return algoritmoDijkstra.topNCercanasFiltradas(
+            grafo, id, n, grafo.predicado(filtro), restringirRecorrido);
+    }
+    
+    /**
+     * Tope de películas por género: el del request, o el configurado
+     * 0 o negativo = sin tope (expande los géneros completos)
+     */
+    private int topeGenero(Integer maxVecinosGenero) {
+        int tope = maxVecinosGenero != null ? maxVecinosGenero : maxVecinosGeneroPorDefecto;
+        return tope > 0 ? tope : AlgoritmoBusqueda.SIN_TOPE;
+    }
+    
+    private List<Pelicula> soloPeliculas(List<PeliculaDistancia> encontradas) {
+        return encontradas.stream().map(PeliculaDistancia::getPelicula).toList();
+    }
+    
+    /**
+     * DIJKSTRA MULTI-ORIGEN: Top N más cercanas a un historial de películas
+     * en un solo recorrido (las del historial no se recomiendan)
+     * POST /api/peliculas/dijkstra/cercanas
+     * { "semillas": [ { "peliculaId": 1, "peso": 1.0 } ], "n": 10 }
+     */
+    @PostMapping("/dijkstra/cercanas")
+    public List<Pelicula> peliculasCercanasAHistorial(@RequestBody SolicitudRecomendacion solicitud) {
+        GrafoPeliculas grafo = catalogo.obtenerGrafo();
+        IntPredicate filtro = solicitud.getFiltro() != null
+            ? grafo.predicado(solicitud.getFiltro())
+            : indice -> true;
+        return algoritmoDijkstra.topNCercanasMultiples(
+            grafo, solicitud.getSemillas(), solicitud.getN(), filtro, solicitud.isRestringirRecorrido());
+    }
+    
+    // ============================================
+    // PAGERANK PERSONALIZADO - CAMINATA CON REINICIO
+    // ============================================
+    
+    /**
+     * Recomendaciones por PageRank personalizado desde una película
+     * GET /api/peliculas/{id}/pagerank?n=10&epsilon=0.0001
+     */
+    @GetMapping("/{id}/pagerank")
+    public List<PeliculaPuntaje> recomendacionPageRank(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "10") int n,
+            @RequestParam(defaultValue = "0.0001") double epsilon) {
+        return algoritmoPageRank.recomendar(catalogo.obtenerGrafo(), List.of(id), n, epsilon);
+    }
+    
+    /**
+     * Recomendaciones por PageRank personalizado desde VARIAS películas
+     * GET /api/peliculas/pagerank?semillas=1,2,3&n=10&epsilon=0.0001
+     */
+    @GetMapping("/pagerank")
+    public List<PeliculaPuntaje> recomendacionPageRankVariasSemillas(
+            @RequestParam List<Long> semillas,
+            @RequestParam(defaultValue = "10") int n,
+            @RequestParam(defaultValue = "0.0001") double epsilon) {
+        return algoritmoPageRank.recomendar(catalogo.obtenerGrafo(), semillas, n, epsilon);
     }
     
     // ============================================
@@ -0,0 +1,495 @@
+package com.peliculas.recomendador.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * ADYACENCIA SIMILAR_A COMPRIMIDA (estilo WebGraph) para catálogos muy grandes
+ * Decenas de millones de películas y miles de millones de aristas no entran ni como
+ * RelacionSimilitud ni como el CSR de GrafoPeliculas (4 + 8 + 8 bytes por arista y sentido)
+ *
+ * FORMATO de cada lista (salientes de v o entrantes a v), ordenada por vecino:
+ * - grado como VARINT (7 bits por byte, el bit alto indica que sigue)
+ * - primer vecino como varint ZIGZAG de (vecino - v): con una numeración con
+ *   localidad (OrdenLocalidad) los vecinos están cerca de v
+ * - siguientes vecinos como varint del HUECO con el anterior (>= 0)
+ * - después de cada vecino, el peso CUANTIZADO a 16 bits sobre [pesoMinimo, pesoMaximo]
+ *   (error máximo: la mitad de un nivel, (pesoMaximo - pesoMinimo) / 131070)
+ * Típico: 1-2 bytes de hueco + 2 de peso por arista y sentido
+ *
+ * Las listas viven en PÁGINAS de bytes (una lista nunca cruza de página): la
+ * posición de cada lista es (página << 32 | desplazamiento), sin tope de 2 GB
+ *
+ * LECTURA SECUENCIAL con Cursor (flyweight: salientes(v) / entrantes(v) y siguiente()),
+ * sin acceso aleatorio a la arista k: es lo que recorren Dijkstra, BFS y Kruskal
+ *
+ * Se arma desde un GrafoPeliculas (de) o leyendo Neo4j por páginas sin pasar por
+ * entidades (CatalogoComprimido, /api/comprimido)
+ *
+ * Inmutable una vez armada: se comparte entre hilos (cada hilo pide su cursor)
+ */
+public final class AdyacenciaComprimida {
+
+    public static final int NIVELES = 1 << 16;
+
+    // 64 MB por página: el arreglo más grande que se pide de una vez
+    private static final int TAMAÑO_PAGINA = 1 << 26;
+
+    // Aristas por pasada al transponer (int + char por arista: ~100 MB)
+    public static final int LOTE_ARISTAS = 1 << 24;
+
+    // Grado máximo de una lista: codificada (grado + 7 bytes por arista) entra en una página
+    public static final int MAXIMO_GRADO = (TAMAÑO_PAGINA - 5) / 7;
+
+    private final int cantidad;
+    private final long cantidadAristas;
+    private final double pesoMinimo;
+    private final double escala;
+    private final Listas salida;
+    private final Listas entrada;
+
+    private AdyacenciaComprimida(int cantidad, long cantidadAristas, double pesoMinimo, double escala,
+                                 Listas salida, Listas entrada) {
+        this.cantidad = cantidad;
+        this.cantidadAristas = cantidadAristas;
+        this.pesoMinimo = pesoMinimo;
+        this.escala = escala;
+        this.salida = salida;
+        this.entrada = entrada;
+    }
+
+    /**
+     * Comprime la adyacencia de un modelo ya armado (mismos índices)
+     * COMPLEJIDAD: O(E log d) (d = grado máximo: cada lista se ordena)
+     */
+    public static AdyacenciaComprimida de(GrafoPeliculas grafo) {
+        int n = grafo.cantidad();
+        double minimo = Double.POSITIVE_INFINITY;
+        double maximo = Double.NEGATIVE_INFINITY;
+        int gradoMaximo = 0;
+        for (int v = 0; v < n; v++) {
+            gradoMaximo = Math.max(gradoMaximo, grafo.finSalida(v) - grafo.primeraSalida(v));
+            for (int a = grafo.primeraSalida(v); a < grafo.finSalida(v); a++) {
+                minimo = Math.min(minimo, grafo.peso(a));
+                maximo = Math.max(maximo, grafo.peso(a));
+            }
+        }
+        if (minimo > maximo) {
+            minimo = maximo = 0.0;
+        }
+
+        Constructor constructor = new Constructor(n, minimo, maximo);
+        int[] destinos = new int[gradoMaximo];
+        double[] pesos = new double[gradoMaximo];
+        for (int v = 0; v < n; v++) {
+            int k = 0;
+            for (int a = grafo.primeraSalida(v); a < grafo.finSalida(v); a++, k++) {
+                destinos[k] = grafo.destino(a);
+                pesos[k] = grafo.peso(a);
+            }
+            constructor.agregar(v, destinos, pesos, k);
+        }
+        return constructor.armar();
+    }
+
+    // ============================================
+    // CONSULTAS
+    // ============================================
+
+    public int cantidad() {
+        return cantidad;
+    }
+
+    public long cantidadAristas() {
+        return cantidadAristas;
+    }
+
+    public double pesoDeNivel(int nivel) {
+        return pesoMinimo + nivel * escala;
+    }
+
+    /**
+     * costo = 1 / (peso + 0.1), igual que GrafoPeliculas
+     */
+    public double costoDeNivel(int nivel) {
+        return 1.0 / (pesoDeNivel(nivel) + 0.1);
+    }
+
+    public int gradoSalida(int indice) {
+        return salida.grado(indice);
+    }
+
+    public int gradoEntrada(int indice) {
+        return entrada.grado(indice);
+    }
+
+    /**
+     * Memoria ocupada: páginas de listas + posiciones (8 bytes por película y sentido)
+     */
+    public long bytes() {
+        return salida.bytes() + entrada.bytes();
+    }
+
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Recorre una lista a la vez, sin crear objetos por arista:
+     * <pre>
+     * for (cursor.salientes(v); cursor.siguiente(); ) { cursor.vecino(); cursor.costo(); }
+     * </pre>
+     * No es thread-safe (cada hilo pide su cursor)
+     */
+    public final class Cursor {
+
+        private byte[] pagina;
+        private int posicion;
+        private int restantes;
+        private boolean primero;
+        private int vecino;
+        private int nivel;
+
+        private Cursor() {
+        }
+
+        public Cursor salientes(int indice) {
+            return abrir(salida, indice);
+        }
+
+        public Cursor entrantes(int indice) {
+            return abrir(entrada, indice);
+        }
+
+        private Cursor abrir(Listas listas, int indice) {
+            long inicio = listas.posiciones[indice];
+            pagina = listas.paginas[(int) (inicio >>> 32)];
+            posicion = (int) inicio;
+            restantes = leerVarint();
+            primero = true;
+            vecino = indice;
+            return this;
+        }
+
+        /**
+         * Avanza a la próxima arista de la lista abierta
+         * @return false al terminar la lista
+         */
+        public boolean siguiente() {
+            if (restantes == 0) {
+                return false;
+            }
+            restantes--;
+            int hueco = leerVarint();
+            if (primero) {
+                vecino += (hueco >>> 1) ^ -(hueco & 1);
+                primero = false;
+            } else {
+                vecino += hueco;
+            }
+            nivel = (pagina[posicion] & 0xFF) | (pagina[posicion + 1] & 0xFF) << 8;
+            posicion += 2;
+            return true;
+        }
+
+        public int vecino() {
+            return vecino;
+        }
+
+        public int nivel() {
+            return nivel;
+        }
+
+        public double peso() {
+            return pesoDeNivel(nivel);
+        }
+
+        public double costo() {
+            return costoDeNivel(nivel);
+        }
+
+        private int leerVarint() {
+            int valor = 0;
+            for (int desplazamiento = 0; ; desplazamiento += 7) {
+                byte b = pagina[posicion++];
+                valor |= (b & 0x7F) << desplazamiento;
+                if (b >= 0) {
+                    return valor;
+                }
+            }
+        }
+    }
+
+    // ============================================
+    // CONSTRUCCIÓN
+    // ============================================
+
+    /**
+     * Arma la adyacencia en UNA pasada por las listas salientes, sin tener el grafo
+     * entero en memoria: agregar() codifica cada lista al llegar (origen creciente;
+     * los orígenes salteados quedan sin aristas)
+     * armar() transpone a partir de lo ya comprimido, por lotes de a lo sumo
+     * max(loteTransposicion, MAXIMO_GRADO) aristas: la memoria de la transposición
+     * queda acotada por más aristas que tenga el grafo
+     *
+     * El rango de pesos se fija al empezar (la cuantización no puede cambiar después)
+     */
+    public static final class Constructor {
+
+        private final int cantidad;
+        private final double pesoMinimo;
+        private final double escala;
+        private final Escritor salida;
+        private int siguiente;
+        private long aristas;
+        private long[] claves = new long[16];
+        private int loteTransposicion = LOTE_ARISTAS;
+
+        public Constructor(int cantidad, double pesoMinimo, double pesoMaximo) {
+            if (cantidad < 0 || !(pesoMinimo <= pesoMaximo) || Double.isInfinite(pesoMaximo - pesoMinimo)) {
+                throw new IllegalArgumentException("Cantidad o rango de pesos inválido");
+            }
+            this.cantidad = cantidad;
+            this.pesoMinimo = pesoMinimo;
+            this.escala = (pesoMaximo - pesoMinimo) / (NIVELES - 1);
+            this.salida = new Escritor(cantidad);
+        }
+
+        /**
+         * Aristas por pasada al transponer (6 bytes por arista del lote)
+         */
+        public Constructor loteTransposicion(int aristas) {
+            if (aristas <= 0) {
+                throw new IllegalArgumentException("El lote debe ser positivo: " + aristas);
+            }
+            this.loteTransposicion = aristas;
+            return this;
+        }
+
+        /**
+         * Lista saliente de "origen": destinos[0..cantidadAristas) con sus pesos
+         * COMPLEJIDAD: O(d log d)
+         */
+        public Constructor agregar(int origen, int[] destinos, double[] pesos, int cantidadAristas) {
+            if (origen < siguiente || origen >= cantidad) {
+                throw new IllegalArgumentException("Los orígenes deben llegar en orden creciente");
+            }
+            if (cantidadAristas > MAXIMO_GRADO) {
+                throw new IllegalArgumentException("Lista de adyacencia demasiado larga: " + cantidadAristas);
+            }
+            while (siguiente < origen) {
+                salida.escribir(siguiente++, claves, 0);
+            }
+            if (claves.length < cantidadAristas) {
+                claves = new long[Math.max(cantidadAristas, claves.length * 2)];
+            }
+            for (int k = 0; k < cantidadAristas; k++) {
+                if (destinos[k] < 0 || destinos[k] >= cantidad) {
+                    throw new IllegalArgumentException("Destino fuera del catálogo: " + destinos[k]);
+                }
+                claves[k] = (long) destinos[k] << 16 | cuantizar(pesos[k]);
+            }
+            Arrays.sort(claves, 0, cantidadAristas);
+            salida.escribir(siguiente++, claves, cantidadAristas);
+            aristas += cantidadAristas;
+            return this;
+        }
+
+        private int cuantizar(double peso) {
+            if (escala == 0.0) {
+                return 0;
+            }
+            long nivel = Math.round((peso - pesoMinimo) / escala);
+            if (nivel < 0 || nivel >= NIVELES) {
+                throw new IllegalArgumentException("Peso fuera del rango declarado: " + peso);
+            }
+            return (int) nivel;
+        }
+
+        /**
+         * COMPLEJIDAD: O(E × pasadas), pasadas = E / loteTransposicion (1 si entra en un lote)
+         */
+        public AdyacenciaComprimida armar() {
+            while (siguiente < cantidad) {
+                salida.escribir(siguiente++, claves, 0);
+            }
+            Listas salientes = salida.cerrar();
+            return new AdyacenciaComprimida(cantidad, aristas, pesoMinimo, escala,
+                salientes, transponer(salientes));
+        }
+
+        /**
+         * Entrantes: para cada rango de destinos que entra en un lote se recorren
+         * TODAS las salientes (en orden de origen, así cada lista entrante sale ordenada)
+         */
+        private Listas transponer(Listas salientes) {
+            AdyacenciaComprimida parcial = new AdyacenciaComprimida(cantidad, aristas, pesoMinimo, escala,
+                salientes, null);
+            Cursor cursor = parcial.cursor();
+
+            int[] gradoEntrada = new int[cantidad];
+            for (int v = 0; v < cantidad; v++) {
+                for (cursor.salientes(v); cursor.siguiente(); ) {
+                    if (gradoEntrada[cursor.vecino()]++ == MAXIMO_GRADO) {
+                        throw new IllegalArgumentException("Demasiadas aristas entrantes a " + cursor.vecino());
+                    }
+                }
+            }
+
+            Escritor entrada = new Escritor(cantidad);
+            int desde = 0;
+            while (desde < cantidad) {
+                // [desde, hasta): destinos cuyas entrantes entran en el lote (al menos uno,
+                // así que enLote <= max(loteTransposicion, MAXIMO_GRADO) y cabe en un int)
+                int hasta = desde;
+                long enLote = 0;
+                while (hasta < cantidad && (hasta == desde || enLote + gradoEntrada[hasta] <= loteTransposicion)) {
+                    enLote += gradoEntrada[hasta++];
+                }
+
+                int[] inicio = new int[hasta - desde + 1];
+                for (int v = desde; v < hasta; v++) {
+                    inicio[v - desde + 1] = inicio[v - desde] + gradoEntrada[v];
+                }
+                int[] siguienteLibre = Arrays.copyOf(inicio, hasta - desde);
+                int[] origenes = new int[Math.toIntExact(enLote)];
+                char[] niveles = new char[origenes.length];
+                if (enLote > 0) {
+                    for (int u = 0; u < cantidad; u++) {
+                        for (cursor.salientes(u); cursor.siguiente(); ) {
+                            int v = cursor.vecino();
+                            if (v >= desde && v < hasta) {
+                                int e = siguienteLibre[v - desde]++;
+                                origenes[e] = u;
+                                niveles[e] = (char) cursor.nivel();
+                            }
+                        }
+                    }
+                }
+
+                for (int v = desde; v < hasta; v++) {
+                    int grado = gradoEntrada[v];
+                    if (claves.length < grado) {
+                        claves = new long[Math.max(grado, claves.length * 2)];
+                    }
+                    for (int k = 0; k < grado; k++) {
+                        int e = inicio[v - desde] + k;
+                        claves[k] = (long) origenes[e] << 16 | niveles[e];
+                    }
+                    entrada.escribir(v, claves, grado);
+                }
+                desde = hasta;
+            }
+            return entrada.cerrar();
+        }
+    }
+
+    // ============================================
+    // PÁGINAS
+    // ============================================
+
+    /**
+     * Listas de un sentido: posición de cada lista + páginas
+     */
+    private static final class Listas {
+
+        private final long[] posiciones;
+        private final byte[][] paginas;
+
+        private Listas(long[] posiciones, byte[][] paginas) {
+            this.posiciones = posiciones;
+            this.paginas = paginas;
+        }
+
+        int grado(int indice) {
+            long inicio = posiciones[indice];
+            byte[] pagina = paginas[(int) (inicio >>> 32)];
+            int posicion = (int) inicio;
+            int valor = 0;
+            for (int desplazamiento = 0; ; desplazamiento += 7) {
+                byte b = pagina[posicion++];
+                valor |= (b & 0x7F) << desplazamiento;
+                if (b >= 0) {
+                    return valor;
+                }
+            }
+        }
+
+        long bytes() {
+            long total = posiciones.length * 8L;
+            for (byte[] pagina : paginas) {
+                total += pagina.length;
+            }
+            return total;
+        }
+    }
+
+    /**
+     * Codifica listas ya ordenadas (claves vecino << 16 | nivel) y las agrega a la página
+     * en curso; la página crece al doble hasta TAMAÑO_PAGINA y después se abre otra
+     */
+    private static final class Escritor {
+
+        private final long[] posiciones;
+        private final List<byte[]> paginas = new ArrayList<>();
+        private byte[] pagina = new byte[4096];
+        private int usado;
+
+        // Una lista codificada (grado + 7 bytes por arista en el peor caso)
+        private byte[] lista = new byte[64];
+        private int largo;
+
+        Escritor(int cantidad) {
+            this.posiciones = new long[cantidad];
+        }
+
+        void escribir(int indice, long[] claves, int grado) {
+            if (lista.length < 5 + 7L * grado) {
+                if (5 + 7L * grado > TAMAÑO_PAGINA) {
+                    throw new IllegalArgumentException("Lista de adyacencia demasiado larga: " + grado);
+                }
+                lista = new byte[5 + 7 * grado];
+            }
+            largo = 0;
+            varint(grado);
+            int anterior = indice;
+            for (int k = 0; k < grado; k++) {
+                int vecino = (int) (claves[k] >>> 16);
+                int hueco = vecino - anterior;
+                varint(k == 0 ? (hueco << 1) ^ (hueco >> 31) : hueco);
+                lista[largo++] = (byte) claves[k];
+                lista[largo++] = (byte) (claves[k] >>> 8);
+                anterior = vecino;
+            }
+
+            if (usado + largo > pagina.length) {
+                if (pagina.length < TAMAÑO_PAGINA) {
+                    pagina = Arrays.copyOf(pagina, (int) Math.min(TAMAÑO_PAGINA,
+                        Math.max(2L * pagina.length, (long) usado + largo)));
+                }
+                if (usado + largo > pagina.length) {
+                    paginas.add(Arrays.copyOf(pagina, usado));
+                    pagina = new byte[TAMAÑO_PAGINA];
+                    usado = 0;
+                }
+            }
+            System.arraycopy(lista, 0, pagina, usado, largo);
+            posiciones[indice] = (long) paginas.size() << 32 | usado;
+            usado += largo;
+        }
+
+        private void varint(int valor) {
+            while ((valor & ~0x7F) != 0) {
+                lista[largo++] = (byte) ((valor & 0x7F) | 0x80);
+                valor >>>= 7;
+            }
+            lista[largo++] = (byte) valor;
+        }
+
+        Listas cerrar() {
+            paginas.add(Arrays.copyOf(pagina, usado));
+            return new Listas(posiciones, paginas.toArray(new byte[0][]));
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.peliculas.recomendador.model;
+
+/**
+ * ÁRBOL DE CAMINOS MÁS CORTOS desde un origen (resultado de un Dijkstra)
+ * Sobre los índices densos de GrafoPeliculas:
+ * - distancias[v]: distancia mínima (infinito si no se alcanzó)
+ * - padres[v]: nodo anterior en el camino (-1 en el origen y en los no alcanzados)
+ *
+ * Un solo árbol responde los caminos hacia TODOS sus destinos
+ * Con VARIOS orígenes (origen = -1) cada camino arranca en el origen del que cuelga
+ * Si el recorrido terminó antes (al asentar ciertos destinos), solo los nodos
+ * asentados tienen distancia y camino definitivos
+ */
+public class ArbolCaminos {
+
+    private final int origen;
+    private final double[] distancias;
+    private final int[] padres;
+
+    public ArbolCaminos(int origen, double[] distancias, int[] padres) {
+        this.origen = origen;
+        this.distancias = distancias;
+        this.padres = padres;
+    }
+
+    public int origen() {
+        return origen;
+    }
+
+    public boolean alcanzado(int destino) {
+        return distancias[destino] != Double.POSITIVE_INFINITY;
+    }
+
+    public double distancia(int destino) {
+        return distancias[destino];
+    }
+
+    public int padre(int nodo) {
+        return padres[nodo];
+    }
+
+    /**
+     * Índices del camino de origen a destino (ambos incluidos); vacío si no se alcanzó
+     * COMPLEJIDAD: O(longitud del camino)
+     */
+    public int[] camino(int destino) {
+        if (!alcanzado(destino)) {
+            return new int[0];
+        }
+        int longitud = 1;
+        for (int v = destino; padres[v] >= 0; v = padres[v]) {
+            longitud++;
+        }
+        int[] camino = new int[longitud];
+        int v = destino;
+        for (int k = longitud - 1; k >= 0; k--) {
+            camino[k] = v;
+            v = padres[v];
+        }
+        return camino;
+    }
+}
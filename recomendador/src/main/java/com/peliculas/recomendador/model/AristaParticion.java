@@ -0,0 +1,21 @@
+package com.peliculas.recomendador.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Arista entre instancias de una consulta particionada (por IDs de película)
+ * - En una exploración: el destino es de otra instancia y valor es su distancia
+ *   candidata llegando desde origen
+ * - En el bosque de expansión: valor es el peso de la similitud
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AristaParticion {
+
+    private Long origen;
+    private Long destino;
+    private Double valor;
+}
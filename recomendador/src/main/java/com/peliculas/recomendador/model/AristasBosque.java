@@ -0,0 +1,47 @@
+package com.peliculas.recomendador.model;
+
+/**
+ * BOSQUE DE EXPANSIÓN sobre índices densos (resultado de Kruskal sin objetos Pelicula)
+ * La arista k une origen(k) con destino(k) con peso(k), en el orden en que se agregaron
+ */
+public class AristasBosque {
+
+    private final int[] origenes;
+    private final int[] destinos;
+    private final double[] pesos;
+    private final int cantidad;
+
+    public AristasBosque(int[] origenes, int[] destinos, double[] pesos, int cantidad) {
+        this.origenes = origenes;
+        this.destinos = destinos;
+        this.pesos = pesos;
+        this.cantidad = cantidad;
+    }
+
+    public int cantidad() {
+        return cantidad;
+    }
+
+    public int origen(int arista) {
+        return origenes[arista];
+    }
+
+    public int destino(int arista) {
+        return destinos[arista];
+    }
+
+    public double peso(int arista) {
+        return pesos[arista];
+    }
+
+    /**
+     * COMPLEJIDAD: O(cantidad)
+     */
+    public double pesoTotal() {
+        double total = 0.0;
+        for (int k = 0; k < cantidad; k++) {
+            total += pesos[k];
+        }
+        return total;
+    }
+}
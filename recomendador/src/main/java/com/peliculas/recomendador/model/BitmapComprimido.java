@@ -0,0 +1,350 @@
+package com.peliculas.recomendador.model;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * BITMAP COMPRIMIDO (estilo Roaring) sobre enteros no negativos
+ *
+ * ESTRUCTURA:
+ * - Los enteros se agrupan por sus 16 bits ALTOS (clave)
+ * - Cada grupo guarda sus 16 bits BAJOS en un contenedor:
+ *   - ARREGLO ordenado de char si tiene hasta 4096 valores (2 bytes por valor)
+ *   - MAPA de 1024 long (65536 bits, 8 KB) si tiene más
+ *
+ * COMPLEJIDAD (C = cantidad de contenedores):
+ * - contiene: O(log C + log 4096)
+ * - and / or: O(C) contenedores; cada uno O(4096) o 1024 palabras de 64 bits
+ *
+ * Los resultados de and / or son bitmaps NUEVOS: los operandos no se modifican
+ */
+public class BitmapComprimido {
+
+    private static final int LIMITE_ARREGLO = 4096;
+    private static final int PALABRAS_MAPA = 1 << 10;
+
+    private char[] claves = new char[4];
+    private Contenedor[] contenedores = new Contenedor[4];
+    private int tamaño;
+
+    /**
+     * Bitmap con todos los enteros del rango [desde, hasta)
+     * COMPLEJIDAD: O(hasta - desde)
+     */
+    public static BitmapComprimido rango(int desde, int hasta) {
+        BitmapComprimido resultado = new BitmapComprimido();
+        for (int valor = desde; valor < hasta; valor++) {
+            resultado.agregar(valor);
+        }
+        return resultado;
+    }
+
+    /**
+     * Unión de varios bitmaps
+     * COMPLEJIDAD: O(k × C)
+     */
+    public static BitmapComprimido unionDe(List<BitmapComprimido> bitmaps) {
+        BitmapComprimido resultado = new BitmapComprimido();
+        for (BitmapComprimido bitmap : bitmaps) {
+            resultado = resultado.or(bitmap);
+        }
+        return resultado;
+    }
+
+    /**
+     * Agrega un entero (rápido si se agregan en orden creciente)
+     * COMPLEJIDAD: O(1) en orden creciente, O(log C + 4096) en el peor caso
+     */
+    public void agregar(int valor) {
+        char clave = (char) (valor >>> 16);
+        int posicion = tamaño > 0 && claves[tamaño - 1] == clave
+            ? tamaño - 1
+            : buscarClave(clave);
+
+        if (posicion < 0) {
+            posicion = -posicion - 1;
+            insertarContenedor(posicion, clave, new Contenedor());
+        }
+        contenedores[posicion].agregar((char) valor);
+    }
+
+    public boolean contiene(int valor) {
+        int posicion = buscarClave((char) (valor >>> 16));
+        return posicion >= 0 && contenedores[posicion].contiene((char) valor);
+    }
+
+    public int cardinalidad() {
+        int total = 0;
+        for (int i = 0; i < tamaño; i++) {
+            total += contenedores[i].cardinalidad;
+        }
+        return total;
+    }
+
+    public boolean estaVacio() {
+        return tamaño == 0;
+    }
+
+    /**
+     * INTERSECCIÓN: solo se cruzan los contenedores con la misma clave
+     */
+    public BitmapComprimido and(BitmapComprimido otro) {
+        BitmapComprimido resultado = new BitmapComprimido();
+        int i = 0;
+        int j = 0;
+        while (i < tamaño && j < otro.tamaño) {
+            if (claves[i] < otro.claves[j]) {
+                i++;
+            } else if (claves[i] > otro.claves[j]) {
+                j++;
+            } else {
+                Contenedor interseccion = contenedores[i].and(otro.contenedores[j]);
+                if (interseccion.cardinalidad > 0) {
+                    resultado.insertarContenedor(resultado.tamaño, claves[i], interseccion);
+                }
+                i++;
+                j++;
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * UNIÓN: mezcla de claves; los contenedores sin par se copian
+     */
+    public BitmapComprimido or(BitmapComprimido otro) {
+        BitmapComprimido resultado = new BitmapComprimido();
+        int i = 0;
+        int j = 0;
+        while (i < tamaño || j < otro.tamaño) {
+            if (j >= otro.tamaño || (i < tamaño && claves[i] < otro.claves[j])) {
+                resultado.insertarContenedor(resultado.tamaño, claves[i], contenedores[i].copia());
+                i++;
+            } else if (i >= tamaño || claves[i] > otro.claves[j]) {
+                resultado.insertarContenedor(resultado.tamaño, otro.claves[j], otro.contenedores[j].copia());
+                j++;
+            } else {
+                resultado.insertarContenedor(resultado.tamaño, claves[i], contenedores[i].or(otro.contenedores[j]));
+                i++;
+                j++;
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Recorre los enteros en orden creciente
+     */
+    public void paraCada(IntConsumer accion) {
+        for (int i = 0; i < tamaño; i++) {
+            contenedores[i].paraCada(claves[i] << 16, accion);
+        }
+    }
+
+    public int[] aArreglo() {
+        int[] valores = new int[cardinalidad()];
+        int[] posicion = {0};
+        paraCada(valor -> valores[posicion[0]++] = valor);
+        return valores;
+    }
+
+    private int buscarClave(char clave) {
+        return Arrays.binarySearch(claves, 0, tamaño, clave);
+    }
+
+    private void insertarContenedor(int posicion, char clave, Contenedor contenedor) {
+        if (tamaño == claves.length) {
+            claves = Arrays.copyOf(claves, tamaño * 2);
+            contenedores = Arrays.copyOf(contenedores, tamaño * 2);
+        }
+        System.arraycopy(claves, posicion, claves, posicion + 1, tamaño - posicion);
+        System.arraycopy(contenedores, posicion, contenedores, posicion + 1, tamaño - posicion);
+        claves[posicion] = clave;
+        contenedores[posicion] = contenedor;
+        tamaño++;
+    }
+
+    // ============================================
+    // CONTENEDOR: arreglo ordenado o mapa de bits
+    // ============================================
+
+    private static final class Contenedor {
+
+        private char[] arreglo;  // modo ARREGLO (valores ordenados)
+        private long[] mapa;     // modo MAPA (null en modo arreglo)
+        private int cardinalidad;
+
+        Contenedor() {
+            this.arreglo = new char[4];
+        }
+
+        private Contenedor(char[] arreglo, long[] mapa, int cardinalidad) {
+            this.arreglo = arreglo;
+            this.mapa = mapa;
+            this.cardinalidad = cardinalidad;
+        }
+
+        void agregar(char valor) {
+            if (mapa != null) {
+                long bit = 1L << valor;
+                if ((mapa[valor >>> 6] & bit) == 0) {
+                    mapa[valor >>> 6] |= bit;
+                    cardinalidad++;
+                }
+                return;
+            }
+
+            // Rápido en orden creciente: va al final
+            int posicion = cardinalidad > 0 && arreglo[cardinalidad - 1] < valor
+                ? -(cardinalidad + 1)
+                : Arrays.binarySearch(arreglo, 0, cardinalidad, valor);
+            if (posicion >= 0) {
+                return;
+            }
+            if (cardinalidad == LIMITE_ARREGLO) {
+                convertirAMapa();
+                agregar(valor);
+                return;
+            }
+
+            posicion = -posicion - 1;
+            if (cardinalidad == arreglo.length) {
+                arreglo = Arrays.copyOf(arreglo, Math.min(LIMITE_ARREGLO, cardinalidad * 2));
+            }
+            System.arraycopy(arreglo, posicion, arreglo, posicion + 1, cardinalidad - posicion);
+            arreglo[posicion] = valor;
+            cardinalidad++;
+        }
+
+        boolean contiene(char valor) {
+            if (mapa != null) {
+                return (mapa[valor >>> 6] & (1L << valor)) != 0;
+            }
+            return Arrays.binarySearch(arreglo, 0, cardinalidad, valor) >= 0;
+        }
+
+        Contenedor and(Contenedor otro) {
+            if (mapa != null && otro.mapa != null) {
+                long[] palabras = new long[PALABRAS_MAPA];
+                int total = 0;
+                for (int i = 0; i < PALABRAS_MAPA; i++) {
+                    palabras[i] = mapa[i] & otro.mapa[i];
+                    total += Long.bitCount(palabras[i]);
+                }
+                return desdeMapa(palabras, total);
+            }
+
+            // Al menos uno es arreglo: el resultado cabe en un arreglo
+            if (mapa != null) {
+                return otro.and(this);
+            }
+            char[] valores = new char[cardinalidad];
+            int total = 0;
+            if (otro.mapa != null) {
+                for (int i = 0; i < cardinalidad; i++) {
+                    if (otro.contiene(arreglo[i])) {
+                        valores[total++] = arreglo[i];
+                    }
+                }
+            } else {
+                int i = 0;
+                int j = 0;
+                while (i < cardinalidad && j < otro.cardinalidad) {
+                    if (arreglo[i] < otro.arreglo[j]) {
+                        i++;
+                    } else if (arreglo[i] > otro.arreglo[j]) {
+                        j++;
+                    } else {
+                        valores[total++] = arreglo[i];
+                        i++;
+                        j++;
+                    }
+                }
+            }
+            return new Contenedor(valores, null, total);
+        }
+
+        Contenedor or(Contenedor otro) {
+            if (mapa == null && otro.mapa == null && cardinalidad + otro.cardinalidad <= LIMITE_ARREGLO) {
+                char[] valores = new char[cardinalidad + otro.cardinalidad];
+                int i = 0;
+                int j = 0;
+                int total = 0;
+                while (i < cardinalidad || j < otro.cardinalidad) {
+                    if (j >= otro.cardinalidad || (i < cardinalidad && arreglo[i] < otro.arreglo[j])) {
+                        valores[total++] = arreglo[i++];
+                    } else if (i >= cardinalidad || arreglo[i] > otro.arreglo[j]) {
+                        valores[total++] = otro.arreglo[j++];
+                    } else {
+                        valores[total++] = arreglo[i++];
+                        j++;
+                    }
+                }
+                return new Contenedor(valores, null, total);
+            }
+
+            long[] palabras = new long[PALABRAS_MAPA];
+            marcar(palabras);
+            otro.marcar(palabras);
+            int total = 0;
+            for (long palabra : palabras) {
+                total += Long.bitCount(palabra);
+            }
+            return desdeMapa(palabras, total);
+        }
+
+        Contenedor copia() {
+            return mapa != null
+                ? new Contenedor(null, mapa.clone(), cardinalidad)
+                : new Contenedor(Arrays.copyOf(arreglo, Math.max(1, cardinalidad)), null, cardinalidad);
+        }
+
+        void paraCada(int base, IntConsumer accion) {
+            if (mapa == null) {
+                for (int i = 0; i < cardinalidad; i++) {
+                    accion.accept(base | arreglo[i]);
+                }
+                return;
+            }
+            for (int i = 0; i < PALABRAS_MAPA; i++) {
+                for (long resto = mapa[i]; resto != 0; resto &= resto - 1) {
+                    accion.accept(base | (i << 6) | Long.numberOfTrailingZeros(resto));
+                }
+            }
+        }
+
+        private void marcar(long[] palabras) {
+            if (mapa != null) {
+                for (int i = 0; i < PALABRAS_MAPA; i++) {
+                    palabras[i] |= mapa[i];
+                }
+            } else {
+                for (int i = 0; i < cardinalidad; i++) {
+                    palabras[arreglo[i] >>> 6] |= 1L << arreglo[i];
+                }
+            }
+        }
+
+        private void convertirAMapa() {
+            long[] palabras = new long[PALABRAS_MAPA];
+            marcar(palabras);
+            mapa = palabras;
+            arreglo = null;
+        }
+
+        /**
+         * Un mapa con pocos valores vuelve a ser arreglo (ocupa menos)
+         */
+        private static Contenedor desdeMapa(long[] palabras, int total) {
+            Contenedor contenedor = new Contenedor(null, palabras, total);
+            if (total > LIMITE_ARREGLO) {
+                return contenedor;
+            }
+            char[] valores = new char[total];
+            int[] posicion = {0};
+            contenedor.paraCada(0, valor -> valores[posicion[0]++] = (char) valor);
+            return new Contenedor(valores, null, total);
+        }
+    }
+}
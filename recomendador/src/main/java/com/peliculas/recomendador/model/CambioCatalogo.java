@@ -0,0 +1,19 @@
+package com.peliculas.recomendador.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Entrada del registro de cambios de Neo4j: película modificada (o borrada)
+ * y su sello actualizadoEn (milisegundos del reloj de Neo4j)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CambioCatalogo {
+
+    private Long peliculaId;
+    private Long actualizadoEn;
+    private Boolean eliminada;
+}
@@ -0,0 +1,20 @@
+package com.peliculas.recomendador.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Un camino entre dos películas (de inicio a fin) con su distancia total
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CaminoPeliculas {
+
+    private List<Pelicula> peliculas = new ArrayList<>();
+    private double distancia;
+}
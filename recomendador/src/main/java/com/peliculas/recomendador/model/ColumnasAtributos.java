@@ -0,0 +1,259 @@
+package com.peliculas.recomendador.model;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ATRIBUTOS EN COLUMNAS FUERA DEL HEAP
+ * Id, año, duración y rating de cada película como columnas primitivas en memoria
+ * directa (ByteBuffer.allocateDirect), indexadas por el índice denso 0..n-1
+ *
+ * - Recorrer ratings o duraciones es una lectura SECUENCIAL de 4 u 8 bytes por película,
+ *   sin seguir referencias a Pelicula / Integer / Double
+ * - Las columnas no agregan objetos al heap: cuatro buffers por versión, no un
+ *   Integer / Double por película
+ * - Sin valor: SIN_VALOR (año, duración) / NaN (rating), igual que GrafoPeliculas
+ *
+ * LAS PELÍCULAS SIGUEN EN EL HEAP: se guarda una referencia al MISMO arreglo de
+ * Pelicula del grafo (no una copia) para armar resultados (pelicula(i)). Las
+ * columnas evitan TOCAR esos objetos al recorrer, no evitan tenerlos: el
+ * catálogo en memoria los necesita igual para responder con películas completas
+ *
+ * VISTA: flyweight reutilizable sobre una fila (en(i) mueve el cursor, no crea objetos)
+ *
+ * MEMORIA DIRECTA solo para las columnas de GrafoPeliculas (una por versión del catálogo):
+ * - Se libera recién cuando el GC junta el buffer: armarla por consulta la agotaría
+ * - Una versión nueva con las mismas películas en el mismo orden REUTILIZA las
+ *   columnas que no cambiaron (un cambio de rating solo copia la de ratings)
+ * - Las listas sueltas de una consulta (de(List)) van en el heap
+ *
+ * Inmutable una vez armada: se comparte entre hilos (y entre versiones) sin sincronizar
+ * Tope: 2^28 películas (la columna de 8 bytes cabe en un ByteBuffer)
+ */
+public final class ColumnasAtributos {
+
+    public static final int SIN_VALOR = Integer.MIN_VALUE;
+
+    private final Pelicula[] peliculas;
+    private final LongBuffer ids;
+    private final IntBuffer años;
+    private final IntBuffer duraciones;
+    private final DoubleBuffer ratings;
+    private final boolean directa;
+
+    /**
+     * @param anterior Columnas de la versión anterior (o null): las que tienen
+     *                 exactamente los mismos valores se comparten en vez de copiarse
+     */
+    private ColumnasAtributos(Pelicula[] peliculas, boolean directa, ColumnasAtributos anterior) {
+        int n = peliculas.length;
+        this.peliculas = peliculas;
+        this.directa = directa;
+
+        // ========================================
+        // PASO 1: ¿QUÉ COLUMNAS CAMBIARON? - O(n), corta si cambiaron todas
+        // ========================================
+        boolean comparable = anterior != null && anterior.directa == directa && anterior.peliculas.length == n;
+        boolean mismosIds = comparable;
+        boolean mismosAños = comparable;
+        boolean mismasDuraciones = comparable;
+        boolean mismosRatings = comparable;
+        for (int i = 0; i < n && (mismosIds || mismosAños || mismasDuraciones || mismosRatings); i++) {
+            Pelicula pelicula = peliculas[i];
+            mismosIds &= anterior.ids.get(i) == idDe(pelicula);
+            mismosAños &= anterior.años.get(i) == añoDe(pelicula);
+            mismasDuraciones &= anterior.duraciones.get(i) == duracionDe(pelicula);
+            mismosRatings &= Double.compare(anterior.ratings.get(i), ratingDe(pelicula)) == 0;
+        }
+
+        // ========================================
+        // PASO 2: COLUMNAS NUEVAS solo para las que cambiaron
+        // ========================================
+        this.ids = mismosIds ? anterior.ids : columna(n * 8L, directa).asLongBuffer();
+        this.años = mismosAños ? anterior.años : columna(n * 4L, directa).asIntBuffer();
+        this.duraciones = mismasDuraciones ? anterior.duraciones : columna(n * 4L, directa).asIntBuffer();
+        this.ratings = mismosRatings ? anterior.ratings : columna(n * 8L, directa).asDoubleBuffer();
+
+        for (int i = 0; i < n; i++) {
+            Pelicula pelicula = peliculas[i];
+            if (!mismosIds) {
+                ids.put(i, idDe(pelicula));
+            }
+            if (!mismosAños) {
+                años.put(i, añoDe(pelicula));
+            }
+            if (!mismasDuraciones) {
+                duraciones.put(i, duracionDe(pelicula));
+            }
+            if (!mismosRatings) {
+                ratings.put(i, ratingDe(pelicula));
+            }
+        }
+    }
+
+    /**
+     * Columnas en memoria directa para un modelo de larga vida (GrafoPeliculas)
+     * COMPLEJIDAD: O(n), la única pasada que lee los objetos
+     */
+    public static ColumnasAtributos de(Pelicula[] peliculas) {
+        return new ColumnasAtributos(peliculas, true, null);
+    }
+
+    /**
+     * Ídem, compartiendo con "anterior" las columnas que no cambiaron
+     * COMPLEJIDAD: O(n) comparación + O(n) por columna nueva
+     */
+    public static ColumnasAtributos de(Pelicula[] peliculas, ColumnasAtributos anterior) {
+        return new ColumnasAtributos(peliculas, true, anterior);
+    }
+
+    /**
+     * Columnas en el HEAP para una lista suelta (vive lo que dura la consulta)
+     */
+    public static ColumnasAtributos de(List<Pelicula> peliculas) {
+        return new ColumnasAtributos(peliculas != null ? peliculas.toArray(new Pelicula[0]) : new Pelicula[0],
+            false, null);
+    }
+
+    private static ByteBuffer columna(long bytes, boolean directa) {
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Demasiadas películas para columnas en un ByteBuffer");
+        }
+        ByteBuffer buffer = directa ? ByteBuffer.allocateDirect((int) bytes) : ByteBuffer.allocate((int) bytes);
+        return buffer.order(ByteOrder.nativeOrder());
+    }
+
+    private static long idDe(Pelicula pelicula) {
+        return pelicula.getPeliculaId() != null ? pelicula.getPeliculaId() : 0L;
+    }
+
+    private static int añoDe(Pelicula pelicula) {
+        return pelicula.getAño() != null ? pelicula.getAño() : SIN_VALOR;
+    }
+
+    private static int duracionDe(Pelicula pelicula) {
+        return pelicula.getDuracion() != null ? pelicula.getDuracion() : SIN_VALOR;
+    }
+
+    private static double ratingDe(Pelicula pelicula) {
+        return pelicula.getPromedioRating() != null ? pelicula.getPromedioRating() : Double.NaN;
+    }
+
+    /**
+     * ¿Mismos ids, duraciones y ratings (en el mismo orden) que "otra"?
+     * Una versión que no cambió esos valores comparte los buffers con la anterior
+     * (ver constructor), así que basta comparar referencias
+     * COMPLEJIDAD: O(1)
+     */
+    public boolean mismasColumnasMochila(ColumnasAtributos otra) {
+        return otra == this || (otra != null && otra.ids == ids
+            && otra.duraciones == duraciones && otra.ratings == ratings);
+    }
+
+    // ============================================
+    // COLUMNAS
+    // ============================================
+
+    public int cantidad() {
+        return peliculas.length;
+    }
+
+    public long id(int indice) {
+        return ids.get(indice);
+    }
+
+    public int año(int indice) {
+        return años.get(indice);
+    }
+
+    public int duracion(int indice) {
+        return duraciones.get(indice);
+    }
+
+    public double rating(int indice) {
+        return ratings.get(indice);
+    }
+
+    /**
+     * Duración y rating como los cuentan las mochilas: sin valor = 0
+     */
+    public int duracionOCero(int indice) {
+        int duracion = duraciones.get(indice);
+        return duracion != SIN_VALOR ? duracion : 0;
+    }
+
+    public double ratingOCero(int indice) {
+        double rating = ratings.get(indice);
+        return !Double.isNaN(rating) ? rating : 0.0;
+    }
+
+    // ============================================
+    // RESULTADOS
+    // ============================================
+
+    public Pelicula pelicula(int indice) {
+        return peliculas[indice];
+    }
+
+    /**
+     * COMPLEJIDAD: O(k)
+     */
+    public List<Pelicula> peliculas(int[] indices) {
+        List<Pelicula> resultado = new ArrayList<>(indices.length);
+        for (int indice : indices) {
+            resultado.add(peliculas[indice]);
+        }
+        return resultado;
+    }
+
+    public Vista vista() {
+        return new Vista();
+    }
+
+    /**
+     * Flyweight sobre una fila: un solo objeto por recorrido en lugar de uno por película
+     * duracion() y rating() como los cuentan las mochilas (sin valor = 0)
+     * No es thread-safe (cada hilo pide su vista)
+     */
+    public final class Vista {
+
+        private int indice;
+
+        private Vista() {
+        }
+
+        public Vista en(int indice) {
+            this.indice = indice;
+            return this;
+        }
+
+        public int indice() {
+            return indice;
+        }
+
+        public long id() {
+            return ids.get(indice);
+        }
+
+        public int año() {
+            return años.get(indice);
+        }
+
+        public int duracion() {
+            return duracionOCero(indice);
+        }
+
+        public double rating() {
+            return ratingOCero(indice);
+        }
+
+        public Pelicula pelicula() {
+            return peliculas[indice];
+        }
+    }
+}
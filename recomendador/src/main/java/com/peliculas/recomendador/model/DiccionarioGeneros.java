@@ -0,0 +1,171 @@
+package com.peliculas.recomendador.model;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Diccionario de géneros: nombre -> entero pequeño (0, 1, 2, ...)
+ * Permite guardar los géneros de cada película como una MÁSCARA de bits (long[])
+ * - Género id -> bit (id % 64) de la palabra (id / 64)
+ * - Hasta 64 géneros la máscara es una sola palabra; no hay tope de géneros
+ *
+ * OPERACIONES SOBRE MÁSCARAS: O(palabras), con palabras = ⌈géneros / 64⌉ (casi siempre 1)
+ * - Pertenencia: (mascara[id >>> 6] & (1L << id)) != 0
+ * - Géneros comunes: suma de Long.bitCount(a[w] & b[w])
+ * - Cobertura: (a[w] & objetivo[w]) == objetivo[w] en cada palabra
+ *
+ * Los ids se asignan en orden de aparición y NO cambian (solo se agregan)
+ * Las máscaras pueden tener largos distintos: las palabras que faltan valen 0
+ */
+public class DiccionarioGeneros {
+
+    public static final int BITS_POR_PALABRA = Long.SIZE;
+
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private volatile String[] nombres = new String[0];
+
+    /**
+     * Id del género, asignando uno nuevo si no existe
+     * COMPLEJIDAD: O(1) amortizado
+     */
+    public int registrar(String nombre) {
+        Integer id = ids.get(nombre);
+        if (id != null) {
+            return id;
+        }
+
+        synchronized (this) {
+            id = ids.get(nombre);
+            if (id != null) {
+                return id;
+            }
+
+            id = nombres.length;
+            String[] ampliados = Arrays.copyOf(nombres, id + 1);
+            ampliados[id] = nombre;
+            nombres = ampliados;
+            ids.put(nombre, id);
+            return id;
+        }
+    }
+
+    /**
+     * Id del género, o -1 si no está en el diccionario
+     */
+    public int idDe(String nombre) {
+        Integer id = nombre != null ? ids.get(nombre) : null;
+        return id != null ? id : -1;
+    }
+
+    public String nombre(int id) {
+        return nombres[id];
+    }
+
+    public int cantidad() {
+        return nombres.length;
+    }
+
+    /**
+     * Palabras de 64 bits que ocupa una máscara con "cantidad" géneros (al menos 1)
+     */
+    public static int palabras(int cantidad) {
+        return Math.max(1, (cantidad + BITS_POR_PALABRA - 1) / BITS_POR_PALABRA);
+    }
+
+    /**
+     * Máscara de los géneros de una película (registra los nuevos)
+     * COMPLEJIDAD: O(g + palabras)
+     */
+    public long[] mascara(Collection<Genero> generos) {
+        long[] mascara = new long[1];
+        if (generos != null) {
+            for (Genero genero : generos) {
+                mascara = conGenero(mascara, registrar(genero.getNombre()));
+            }
+        }
+        return mascara;
+    }
+
+    /**
+     * Máscara de una lista de nombres SIN registrar: los desconocidos se ignoran
+     * COMPLEJIDAD: O(g + palabras)
+     */
+    public long[] mascaraDeNombres(Collection<String> generos) {
+        long[] mascara = new long[1];
+        if (generos != null) {
+            for (String nombre : generos) {
+                int id = idDe(nombre);
+                if (id >= 0) {
+                    mascara = conGenero(mascara, id);
+                }
+            }
+        }
+        return mascara;
+    }
+
+    // ============================================
+    // OPERACIONES DE BITS
+    // ============================================
+
+    public static boolean contiene(long[] mascara, int id) {
+        int palabra = id >>> 6;
+        return palabra < mascara.length && (mascara[palabra] & (1L << id)) != 0;
+    }
+
+    public static int generosComunes(long[] mascara1, long[] mascara2) {
+        int comunes = 0;
+        for (int w = 0; w < Math.min(mascara1.length, mascara2.length); w++) {
+            comunes += Long.bitCount(mascara1[w] & mascara2[w]);
+        }
+        return comunes;
+    }
+
+    public static boolean cubre(long[] mascara, long[] objetivo) {
+        for (int w = 0; w < objetivo.length; w++) {
+            long palabra = w < mascara.length ? mascara[w] : 0L;
+            if ((palabra & objetivo[w]) != objetivo[w]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static int cantidad(long[] mascara) {
+        int cantidad = 0;
+        for (long palabra : mascara) {
+            cantidad += Long.bitCount(palabra);
+        }
+        return cantidad;
+    }
+
+    /**
+     * Primer género >= desde presente en la máscara, o -1 (igual que BitSet.nextSetBit)
+     */
+    public static int siguiente(long[] mascara, int desde) {
+        int w = desde >>> 6;
+        if (w >= mascara.length) {
+            return -1;
+        }
+        long palabra = mascara[w] & (-1L << desde);
+        while (true) {
+            if (palabra != 0) {
+                return w * BITS_POR_PALABRA + Long.numberOfTrailingZeros(palabra);
+            }
+            if (++w == mascara.length) {
+                return -1;
+            }
+            palabra = mascara[w];
+        }
+    }
+
+    private static long[] conGenero(long[] mascara, int id) {
+        int palabra = id >>> 6;
+        if (palabra >= mascara.length) {
+            mascara = Arrays.copyOf(mascara, palabra + 1);
+        }
+        mascara[palabra] |= 1L << id;
+        return mascara;
+    }
+}
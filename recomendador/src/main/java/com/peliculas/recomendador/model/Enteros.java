@@ -0,0 +1,61 @@
+package com.peliculas.recomendador.model;
+
+import java.util.Arrays;
+
+/**
+ * Lista de enteros PRIMITIVOS que crece al doble (sin Integer por elemento)
+ * Sirve de lista, de pila (quitarUltimo) y de registro de nodos tocados en los
+ * arreglos de trabajo que se limpian por consulta
+ *
+ * OPERACIONES: agregar O(1) amortizado; valor, quitarUltimo y limpiar O(1)
+ */
+public final class Enteros {
+
+    private int[] valores;
+    private int tamaño;
+
+    public Enteros() {
+        this(16);
+    }
+
+    public Enteros(int capacidad) {
+        this.valores = new int[Math.max(1, capacidad)];
+    }
+
+    public static Enteros de(int valor) {
+        Enteros lista = new Enteros();
+        lista.agregar(valor);
+        return lista;
+    }
+
+    public void agregar(int valor) {
+        if (tamaño == valores.length) {
+            valores = Arrays.copyOf(valores, tamaño * 2);
+        }
+        valores[tamaño++] = valor;
+    }
+
+    public int valor(int posicion) {
+        return valores[posicion];
+    }
+
+    public int quitarUltimo() {
+        return valores[--tamaño];
+    }
+
+    public int tamaño() {
+        return tamaño;
+    }
+
+    public boolean estaVacia() {
+        return tamaño == 0;
+    }
+
+    public void limpiar() {
+        tamaño = 0;
+    }
+
+    public int[] aArreglo() {
+        return Arrays.copyOf(valores, tamaño);
+    }
+}
@@ -0,0 +1,118 @@
+package com.peliculas.recomendador.model;
+
+import java.util.Arrays;
+
+/**
+ * Estado de UNA consulta particionada en el fragmento de una instancia, que se
+ * conserva ENTRE RONDAS: cada ronda solo recorre lo que mejoran las semillas nuevas
+ * (nunca se repite el recorrido de las anteriores)
+ *
+ * - distancias / padres sobre los índices locales de FragmentoLocal (propias y
+ *   frontera); padre -1 = semilla (se llegó desde otra instancia)
+ * - cola: propias con distancia mejorada pendientes de expandir
+ * - mejorados: películas de la FRONTERA cuya distancia bajó en la ronda actual
+ *   (lo único que la ronda devuelve al coordinador)
+ *
+ * No es seguro entre hilos: el coordinador no manda dos rondas a la vez a la misma instancia
+ * MEMORIA: O(V_f) por consulta abierta
+ */
+public class ExploracionLocal {
+
+    private final FragmentoLocal fragmento;
+    private final double[] distancias;
+    private final int[] padres;
+    private final MonticuloIndices cola;
+    private final boolean[] marcados;
+    private final Enteros mejorados = new Enteros();
+    private volatile long usadaEn;
+
+    public ExploracionLocal(FragmentoLocal fragmento) {
+        int n = fragmento.cantidad();
+        this.fragmento = fragmento;
+        this.distancias = new double[n];
+        this.padres = new int[n];
+        this.cola = new MonticuloIndices(n);
+        this.marcados = new boolean[n];
+        Arrays.fill(distancias, Double.POSITIVE_INFINITY);
+        Arrays.fill(padres, -1);
+        this.usadaEn = System.currentTimeMillis();
+    }
+
+    public FragmentoLocal fragmento() {
+        return fragmento;
+    }
+
+    public double distancia(int local) {
+        return distancias[local];
+    }
+
+    public boolean alcanzada(int local) {
+        return distancias[local] < Double.POSITIVE_INFINITY;
+    }
+
+    public int padre(int local) {
+        return padres[local];
+    }
+
+    /**
+     * Baja la distancia si mejora; una propia queda pendiente de expandir y una de
+     * la frontera queda marcada como mejorada en esta ronda
+     * @return true si mejoró
+     */
+    public boolean mejorar(int local, double distancia, int padre) {
+        if (!(distancia < distancias[local])) {
+            return false;
+        }
+        distancias[local] = distancia;
+        padres[local] = padre;
+        if (fragmento.propio(local)) {
+            cola.insertarOActualizar(local, distancia);
+        } else if (!marcados[local]) {
+            marcados[local] = true;
+            mejorados.agregar(local);
+        }
+        return true;
+    }
+
+    public MonticuloIndices cola() {
+        return cola;
+    }
+
+    /**
+     * Frontera mejorada en la ronda; se limpia al empezar la siguiente
+     */
+    public Enteros mejorados() {
+        return mejorados;
+    }
+
+    /**
+     * COMPLEJIDAD: O(frontera mejorada en la ronda anterior)
+     */
+    public void nuevaRonda() {
+        for (int k = 0; k < mejorados.tamaño(); k++) {
+            marcados[mejorados.valor(k)] = false;
+        }
+        mejorados.limpiar();
+        usadaEn = System.currentTimeMillis();
+    }
+
+    public long usadaEn() {
+        return usadaEn;
+    }
+
+    /**
+     * Camino de índices locales desde la semilla de la que cuelga hasta "destino"
+     * COMPLEJIDAD: O(largo del camino)
+     */
+    public int[] camino(int destino) {
+        Enteros invertido = new Enteros();
+        for (int v = destino; v >= 0; v = padres[v]) {
+            invertido.agregar(v);
+        }
+        int[] camino = new int[invertido.tamaño()];
+        for (int k = 0; k < camino.length; k++) {
+            camino[k] = invertido.valor(camino.length - 1 - k);
+        }
+        return camino;
+    }
+}
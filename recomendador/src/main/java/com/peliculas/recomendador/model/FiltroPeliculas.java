@@ -0,0 +1,31 @@
+package com.peliculas.recomendador.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Filtro por facetas: géneros, rango de años, de duración y de rating
+ * Los campos en null no restringen
+ *
+ * Ejemplo: "Drama Y Thriller, 1990–2000, rating >= 8"
+ * generos=Drama,Thriller&añoMin=1990&añoMax=2000&ratingMin=8
+ */
+@Data
+@NoArgsConstructor
+public class FiltroPeliculas {
+
+    private List<String> generos = new ArrayList<>();
+    private boolean todosLosGeneros = true;  // true: Y (todos), false: O (alguno)
+
+    private Integer añoMin;
+    private Integer añoMax;
+    private Integer duracionMin;
+    private Integer duracionMax;
+    private Double ratingMin;
+    private Double ratingMax;
+
+    private int limite = 20;
+}
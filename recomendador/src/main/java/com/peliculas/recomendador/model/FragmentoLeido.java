@@ -0,0 +1,31 @@
+package com.peliculas.recomendador.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Película PROPIA del fragmento de una instancia, leída de Neo4j sin armar la
+ * entidad: propiedades, nombres de géneros y actores, SIMILAR_A salientes
+ * (destinos y pesos en paralelo, sin peso = 0) e IDs de origen de las entrantes
+ * Los destinos y orígenes pueden ser de otras instancias (la frontera)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FragmentoLeido {
+
+    private Long peliculaId;
+    private String titulo;
+    private Integer año;
+    private Double promedioRating;
+    private Integer duracion;
+    private List<String> generos = new ArrayList<>();
+    private List<String> actores = new ArrayList<>();
+    private List<Long> destinos = new ArrayList<>();
+    private List<Double> pesos = new ArrayList<>();
+    private List<Long> origenes = new ArrayList<>();
+}
@@ -0,0 +1,320 @@
+package com.peliculas.recomendador.model;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * FRAGMENTO de una instancia en un despliegue particionado, con ÍNDICES LOCALES:
+ * es lo ÚNICO del grafo que la instancia tiene en memoria (se lee de Neo4j por
+ * páginas, sin cargar el catálogo completo)
+ *
+ * DUEÑA de cada película: floorMod(peliculaId, partes) - una clave estable que
+ * toda instancia calcula sin coordinarse y sin conocer el resto del catálogo
+ *
+ * ÍNDICES LOCALES:
+ * - 0..propios()-1: películas PROPIAS, en orden de peliculaId
+ * - propios()..cantidad()-1: películas de OTRAS instancias vecinas por una
+ *   arista cortada (la frontera; solo su ID, no se expanden)
+ *
+ * ADYACENCIA en CSR sobre los índices locales, solo de las películas propias:
+ * - salidas: SIMILAR_A salientes con costo (Dijkstra) y peso (bosque de expansión)
+ * - vecinos: SIMILAR_A en cualquier sentido (BFS por saltos)
+ *
+ * HUELLA del contenido: IDs propios + destino y peso de cada salida; cambia si
+ * cambia cualquier arista del fragmento
+ *
+ * COMPLEJIDAD: armado O(V_f + E_f) por carga; memoria O(V_f + E_f)
+ */
+public class FragmentoLocal {
+
+    private final int parte;
+    private final int partes;
+    private final int propios;
+    private final long[] ids;
+    private final Map<Long, Integer> locales;
+    private final Pelicula[] peliculas;
+
+    private final int[] inicioSalidas;
+    private final int[] destinos;
+    private final double[] costos;
+    private final double[] pesos;
+
+    private final int[] inicioVecinos;
+    private final int[] vecinos;
+
+    private final long aristasCortadas;
+    private final long huella;
+
+    private FragmentoLocal(Constructor constructor) {
+        this.parte = constructor.parte;
+        this.partes = constructor.partes;
+        this.propios = constructor.propios;
+        this.peliculas = Arrays.copyOf(constructor.peliculas, propios);
+        int aristas = constructor.inicioSalidas[propios];
+        int entradas = constructor.inicioEntradas[propios];
+
+        // Propias primero (así propio(u) es u < propios); la frontera recibe índice al aparecer
+        Map<Long, Integer> locales = new HashMap<>(Math.max(16, (propios + aristas / 4) * 2));
+        long[] ids = new long[propios + Math.min(aristas + entradas, 16)];
+        for (int u = 0; u < propios; u++) {
+            ids[u] = peliculas[u].getPeliculaId();
+            locales.put(ids[u], u);
+        }
+        int cantidad = propios;
+
+        // ========================================
+        // SALIDAS - O(E_f)
+        // ========================================
+        this.inicioSalidas = Arrays.copyOf(constructor.inicioSalidas, propios + 1);
+        this.destinos = new int[aristas];
+        this.costos = new double[aristas];
+        this.pesos = Arrays.copyOf(constructor.pesos, aristas);
+        long cortadas = 0;
+        long huella = 1125899906842597L ^ partes;
+        for (int u = 0; u < propios; u++) {
+            huella = 31 * huella + Long.hashCode(ids[u]);
+            for (int a = inicioSalidas[u]; a < inicioSalidas[u + 1]; a++) {
+                long id = constructor.destinos[a];
+                Integer local = locales.get(id);
+                if (local == null) {
+                    local = cantidad;
+                    if (cantidad == ids.length) {
+                        ids = Arrays.copyOf(ids, cantidad * 2);
+                    }
+                    ids[cantidad++] = id;
+                    locales.put(id, local);
+                }
+                if (local >= propios) {
+                    cortadas++;
+                }
+                destinos[a] = local;
+                costos[a] = 1.0 / (pesos[a] + 0.1);
+                huella = 31 * (31 * huella + Long.hashCode(id)) + Double.hashCode(pesos[a]);
+            }
+        }
+
+        // ========================================
+        // VECINOS EN CUALQUIER SENTIDO: salidas + entradas - O(E_f)
+        // ========================================
+        this.inicioVecinos = new int[propios + 1];
+        this.vecinos = new int[aristas + entradas];
+        int k = 0;
+        for (int u = 0; u < propios; u++) {
+            for (int a = inicioSalidas[u]; a < inicioSalidas[u + 1]; a++) {
+                vecinos[k++] = destinos[a];
+            }
+            for (int e = constructor.inicioEntradas[u]; e < constructor.inicioEntradas[u + 1]; e++) {
+                long id = constructor.origenes[e];
+                Integer local = locales.get(id);
+                if (local == null) {
+                    local = cantidad;
+                    if (cantidad == ids.length) {
+                        ids = Arrays.copyOf(ids, cantidad * 2);
+                    }
+                    ids[cantidad++] = id;
+                    locales.put(id, local);
+                }
+                vecinos[k++] = local;
+            }
+            inicioVecinos[u + 1] = k;
+        }
+
+        this.ids = Arrays.copyOf(ids, cantidad);
+        this.locales = locales;
+        this.aristasCortadas = cortadas;
+        this.huella = huella ^ ((long) aristas << 32);
+    }
+
+    /**
+     * Instancia dueña de una película
+     */
+    public static int dueña(long peliculaId, int partes) {
+        return Math.floorMod(peliculaId, partes);
+    }
+
+    public int parte() {
+        return parte;
+    }
+
+    public int partes() {
+        return partes;
+    }
+
+    public int propios() {
+        return propios;
+    }
+
+    /**
+     * Propias + de otras instancias vecinas
+     */
+    public int cantidad() {
+        return ids.length;
+    }
+
+    public boolean propio(int local) {
+        return local < propios;
+    }
+
+    public long id(int local) {
+        return ids[local];
+    }
+
+    /**
+     * Índice local de una película, o -1 si no es propia ni vecina de una propia
+     */
+    public int indice(Long peliculaId) {
+        Integer local = peliculaId != null ? locales.get(peliculaId) : null;
+        return local != null ? local : -1;
+    }
+
+    /**
+     * Película propia (propiedades, géneros y actores; sin sus similitudes)
+     */
+    public Pelicula pelicula(int local) {
+        return peliculas[local];
+    }
+
+    public int cantidadAristas() {
+        return destinos.length;
+    }
+
+    public long aristasCortadas() {
+        return aristasCortadas;
+    }
+
+    public long huella() {
+        return huella;
+    }
+
+    public int primeraSalida(int local) {
+        return inicioSalidas[local];
+    }
+
+    public int finSalida(int local) {
+        return inicioSalidas[local + 1];
+    }
+
+    public int destino(int arista) {
+        return destinos[arista];
+    }
+
+    public double costo(int arista) {
+        return costos[arista];
+    }
+
+    public double peso(int arista) {
+        return pesos[arista];
+    }
+
+    public int primerVecino(int local) {
+        return inicioVecinos[local];
+    }
+
+    public int finVecinos(int local) {
+        return inicioVecinos[local + 1];
+    }
+
+    public int vecino(int posicion) {
+        return vecinos[posicion];
+    }
+
+    // ============================================
+    // ARMADO POR PÁGINAS
+    // ============================================
+
+    /**
+     * Acumula las películas propias a medida que llegan las páginas de Neo4j
+     * (en orden de peliculaId), con sus aristas como IDs en arreglos primitivos
+     * Una película de otra instancia se descarta (la dueña se recalcula aquí)
+     */
+    public static final class Constructor {
+
+        private final int parte;
+        private final int partes;
+        private final Map<String, Genero> generos = new HashMap<>();
+        private final Map<String, Actor> actores = new HashMap<>();
+        private Pelicula[] peliculas = new Pelicula[16];
+        private int propios;
+        private long ultimoId = Long.MIN_VALUE;
+        private int[] inicioSalidas = new int[17];
+        private long[] destinos = new long[16];
+        private double[] pesos = new double[16];
+        private int[] inicioEntradas = new int[17];
+        private long[] origenes = new long[16];
+
+        public Constructor(int parte, int partes) {
+            if (partes < 1 || parte < 0 || parte >= partes) {
+                throw new IllegalArgumentException("Parte " + parte + " fuera de rango para " + partes + " partes");
+            }
+            this.parte = parte;
+            this.partes = partes;
+        }
+
+        /**
+         * COMPLEJIDAD: O(d) amortizado, d = similitudes de la película
+         */
+        public Constructor agregar(FragmentoLeido leida) {
+            Long id = leida.getPeliculaId();
+            if (id == null || dueña(id, partes) != parte) {
+                return this;
+            }
+            if (id <= ultimoId) {
+                throw new IllegalArgumentException("Las películas deben llegar en orden creciente de ID");
+            }
+            ultimoId = id;
+
+            Pelicula pelicula = new Pelicula(id, leida.getTitulo(), leida.getAño(),
+                leida.getPromedioRating(), leida.getDuracion());
+            if (leida.getGeneros() != null) {
+                leida.getGeneros().forEach(nombre -> pelicula.getGeneros().add(generos.computeIfAbsent(nombre, Genero::new)));
+            }
+            if (leida.getActores() != null) {
+                leida.getActores().forEach(nombre -> pelicula.getActores().add(actores.computeIfAbsent(nombre, Actor::new)));
+            }
+            if (propios == peliculas.length) {
+                peliculas = Arrays.copyOf(peliculas, propios * 2);
+                inicioSalidas = Arrays.copyOf(inicioSalidas, propios * 2 + 1);
+                inicioEntradas = Arrays.copyOf(inicioEntradas, propios * 2 + 1);
+            }
+            peliculas[propios] = pelicula;
+
+            int aristas = inicioSalidas[propios];
+            List<Long> salidas = leida.getDestinos() != null ? leida.getDestinos() : List.of();
+            for (int k = 0; k < salidas.size(); k++) {
+                if (salidas.get(k) == null) {
+                    continue;
+                }
+                if (aristas == destinos.length) {
+                    destinos = Arrays.copyOf(destinos, aristas * 2);
+                    pesos = Arrays.copyOf(pesos, aristas * 2);
+                }
+                Double peso = k < leida.getPesos().size() ? leida.getPesos().get(k) : null;
+                destinos[aristas] = salidas.get(k);
+                pesos[aristas++] = peso != null ? peso : 0.0;  // sin peso = 0, igual que GrafoPeliculas
+            }
+            inicioSalidas[propios + 1] = aristas;
+
+            int entradas = inicioEntradas[propios];
+            if (leida.getOrigenes() != null) {
+                for (Long origen : leida.getOrigenes()) {
+                    if (origen == null) {
+                        continue;
+                    }
+                    if (entradas == origenes.length) {
+                        origenes = Arrays.copyOf(origenes, entradas * 2);
+                    }
+                    origenes[entradas++] = origen;
+                }
+            }
+            inicioEntradas[propios + 1] = entradas;
+            propios++;
+            return this;
+        }
+
+        public FragmentoLocal construir() {
+            return new FragmentoLocal(this);
+        }
+    }
+}
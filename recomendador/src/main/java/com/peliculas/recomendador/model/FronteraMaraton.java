@@ -0,0 +1,63 @@
+package com.peliculas.recomendador.model;
+
+import lombok.Getter;
+
+/**
+ * Frontera de Pareto duración → mejor rating del maratón (Mochila 0/1)
+ * Precalculada UNA vez con el presupuesto máximo y reutilizada para cualquier tiempo menor
+ *
+ * Cada punto es una duración EXACTA t cuyo mejor rating supera al de todas las
+ * duraciones menores. Para un tiempo W la respuesta es el último punto con t ≤ W.
+ *
+ * RECONSTRUCCIÓN COMPACTA: cada punto guarda solo los índices de las películas
+ * elegidas (k enteros), no la tabla DP completa
+ *
+ * COMPLEJIDAD DE CONSULTA: O(log F + k)
+ * - F = puntos de la frontera (F ≤ W + 1), k = películas del maratón
+ */
+@Getter
+public class FronteraMaraton {
+
+    private final long versionDatos;    // Versión del catálogo (GrafoPeliculas) con la que se construyó
+    private final int tiempoMaximo;     // Presupuesto máximo cubierto
+    private final int[] duraciones;     // Duración de cada punto (ascendente)
+    private final double[] puntuaciones; // Mejor rating de cada punto (ascendente)
+    private final int[][] selecciones;  // Índices de películas elegidas en cada punto
+
+    public FronteraMaraton(long versionDatos, int tiempoMaximo, int[] duraciones,
+                           double[] puntuaciones, int[][] selecciones) {
+        this.versionDatos = versionDatos;
+        this.tiempoMaximo = tiempoMaximo;
+        this.duraciones = duraciones;
+        this.puntuaciones = puntuaciones;
+        this.selecciones = selecciones;
+    }
+
+    /**
+     * Busca el mejor punto que entra en el tiempo dado
+     * COMPLEJIDAD: O(log F) - búsqueda binaria
+     *
+     * @return Índice del punto, o -1 si ningún maratón con rating > 0 entra
+     */
+    public int buscarPunto(int tiempo) {
+        int inicio = 0;
+        int fin = duraciones.length - 1;
+        int encontrado = -1;
+
+        while (inicio <= fin) {
+            int medio = inicio + (fin - inicio) / 2;
+            if (duraciones[medio] <= tiempo) {
+                encontrado = medio;      // Candidato: seguir buscando uno más largo
+                inicio = medio + 1;
+            } else {
+                fin = medio - 1;
+            }
+        }
+
+        return encontrado;
+    }
+
+    public int cantidadPuntos() {
+        return duraciones.length;
+    }
+}
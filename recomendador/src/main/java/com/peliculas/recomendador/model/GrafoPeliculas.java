@@ -0,0 +1,781 @@
+package com.peliculas.recomendador.model;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+/**
+ * MODELO EN MEMORIA del catálogo, inmutable, armado una vez por versión
+ * Cada película tiene un ÍNDICE DENSO 0..n-1 y sus datos viven en arreglos paralelos
+ * - La numeración puede salir de OrdenLocalidad (RCM): vecinos cerca en memoria
+ *
+ * GÉNEROS: máscara de bits por película (ver DiccionarioGeneros), "palabras" longs
+ *   por película en un solo arreglo (1 palabra hasta 64 géneros)
+ * - Pertenencia, géneros comunes y cobertura: O(palabras) con operaciones de bits
+ *
+ * ATRIBUTOS: año, duración y rating en ColumnasAtributos, fuera del heap (sin valor = NaN / MIN_VALUE)
+ * - Los filtros se evalúan por índice sin tocar los objetos Pelicula
+ *
+ * ADYACENCIA SIMILAR_A en formato CSR (Compressed Sparse Row):
+ * - Aristas salientes de i: posiciones [inicioSalida[i], inicioSalida[i+1]) de destinos / costos
+ * - Lo mismo para las ENTRANTES (búsquedas hacia atrás)
+ * - costo = 1 / (peso + 0.1): mayor similitud = menor distancia (igual que AlgoritmoDijkstra)
+ * - Las aristas hacia películas fuera del catálogo se descartan
+ * - Un cambio de similitud arma la versión siguiente con conSimilitud() (copia del CSR)
+ *
+ * MIEMBROS DE CADA GÉNERO también en CSR (género -> películas), para recorrer
+ * TIENE_GENERO en ambos sentidos sin consultar Neo4j
+ * - Cada fila está ordenada por RATING descendente (sin rating al final)
+ *
+ * GRAFO DE SALTOS (recorridos por cantidad de relaciones):
+ * - Nodos 0..n-1 películas, n..n+G-1 géneros
+ * - Película <-> película por SIMILAR_A y película -> cada uno de SUS géneros: siempre
+ * - Los géneros son HUBS (decenas de miles de películas): con un tope K solo se
+ *   sale de un género hacia sus K películas de MEJOR rating. Es lo único dirigido:
+ *   toda película sigue llegando a sus géneros, pero no se vuelve desde el hub a
+ *   todo el catálogo
+ *
+ * COMPLEJIDAD de construcción: O(n × g + E)
+ */
+public class GrafoPeliculas {
+
+    public static final int SIN_VALOR = ColumnasAtributos.SIN_VALOR;
+
+    private final long version;
+    private final Pelicula[] peliculas;
+    private final Map<Long, Integer> indices;
+    private final long[] generos;
+    private final int palabras;
+    private final DiccionarioGeneros diccionario;
+
+    private final ColumnasAtributos atributos;
+
+    private final int[] inicioSalida;
+    private final int[] destinos;
+    private final double[] pesos;
+    private final double[] costos;
+
+    private final int[] inicioEntrada;
+    private final int[] origenes;
+    private final double[] costosEntrada;
+    private final double[] pesosEntrada;
+
+    private final int cantidadGeneros;
+    private final int[] inicioMiembros;
+    private final int[] miembros;
+
+    // Puesto de cada película dentro de cada uno de sus géneros (por id de género creciente)
+    private final int[] inicioPuestos;
+    private final int[] puestos;
+
+    private GrafoPeliculas(long version, Pelicula[] peliculas, Map<Long, Integer> indices,
+                           long[] generos, int palabras, DiccionarioGeneros diccionario,
+                           ColumnasAtributos atributosAnteriores) {
+        this.version = version;
+        this.peliculas = peliculas;
+        this.indices = indices;
+        this.generos = generos;
+        this.palabras = palabras;
+        this.diccionario = diccionario;
+
+        int n = peliculas.length;
+        this.atributos = ColumnasAtributos.de(peliculas, atributosAnteriores);
+
+        // ========================================
+        // CSR SALIENTE: contar grados, acumular, llenar - O(E)
+        // ========================================
+        this.inicioSalida = new int[n + 1];
+        int[] inicioEntradaTmp = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            for (RelacionSimilitud relacion : similares(peliculas[i])) {
+                int j = destino(relacion);
+                if (j >= 0) {
+                    inicioSalida[i + 1]++;
+                    inicioEntradaTmp[j + 1]++;
+                }
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            inicioSalida[i + 1] += inicioSalida[i];
+            inicioEntradaTmp[i + 1] += inicioEntradaTmp[i];
+        }
+
+        int m = inicioSalida[n];
+        this.destinos = new int[m];
+        this.pesos = new double[m];
+        this.costos = new double[m];
+        this.inicioEntrada = inicioEntradaTmp;
+        this.origenes = new int[m];
+        this.costosEntrada = new double[m];
+        this.pesosEntrada = new double[m];
+
+        int[] siguienteEntrada = Arrays.copyOf(inicioEntrada, n);
+        int a = 0;
+        for (int i = 0; i < n; i++) {
+            for (RelacionSimilitud relacion : similares(peliculas[i])) {
+                int j = destino(relacion);
+                if (j < 0) {
+                    continue;
+                }
+                double peso = relacion.getPeso() != null ? relacion.getPeso() : 0.0;
+                destinos[a] = j;
+                pesos[a] = peso;
+                costos[a] = 1.0 / (peso + 0.1);
+
+                int e = siguienteEntrada[j]++;
+                origenes[e] = i;
+                costosEntrada[e] = costos[a];
+                pesosEntrada[e] = peso;
+                a++;
+            }
+        }
+
+        // ========================================
+        // CSR DE GÉNEROS: género -> películas - O(n × g)
+        // ========================================
+        this.cantidadGeneros = diccionario.cantidad();
+        this.inicioMiembros = new int[cantidadGeneros + 1];
+        for (int i = 0; i < n; i++) {
+            for (int g = siguienteGenero(i, 0); g >= 0; g = siguienteGenero(i, g + 1)) {
+                inicioMiembros[g + 1]++;
+            }
+        }
+        for (int g = 0; g < cantidadGeneros; g++) {
+            inicioMiembros[g + 1] += inicioMiembros[g];
+        }
+        this.miembros = new int[inicioMiembros[cantidadGeneros]];
+        this.inicioPuestos = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            inicioPuestos[i + 1] = inicioPuestos[i] + cantidadGenerosDe(i);
+        }
+        this.puestos = new int[inicioPuestos[n]];
+
+        // Recorriendo las películas de MEJOR a PEOR rating cada fila queda ordenada: O(n log n)
+        int[] siguienteMiembro = Arrays.copyOf(inicioMiembros, cantidadGeneros);
+        for (int i : ordenPorRating(atributos)) {
+            for (int genero = siguienteGenero(i, 0); genero >= 0; genero = siguienteGenero(i, genero + 1)) {
+                int posicion = siguienteMiembro[genero]++;
+                miembros[posicion] = i;
+                puestos[posicionPuesto(i, genero)] = posicion - inicioMiembros[genero];
+            }
+        }
+    }
+
+    /**
+     * Versión nueva con otras aristas SIMILAR_A: comparte películas, índices,
+     * atributos y géneros con la base
+     */
+    private GrafoPeliculas(GrafoPeliculas base, long version,
+                           int[] inicioSalida, int[] destinos, double[] pesos, double[] costos,
+                           int[] inicioEntrada, int[] origenes, double[] costosEntrada, double[] pesosEntrada) {
+        this.version = version;
+        this.peliculas = base.peliculas;
+        this.indices = base.indices;
+        this.generos = base.generos;
+        this.palabras = base.palabras;
+        this.diccionario = base.diccionario;
+        this.atributos = base.atributos;
+        this.inicioSalida = inicioSalida;
+        this.destinos = destinos;
+        this.pesos = pesos;
+        this.costos = costos;
+        this.inicioEntrada = inicioEntrada;
+        this.origenes = origenes;
+        this.costosEntrada = costosEntrada;
+        this.pesosEntrada = pesosEntrada;
+        this.cantidadGeneros = base.cantidadGeneros;
+        this.inicioMiembros = base.inicioMiembros;
+        this.miembros = base.miembros;
+        this.inicioPuestos = base.inicioPuestos;
+        this.puestos = base.puestos;
+    }
+
+    /**
+     * Arma el modelo con las películas en el orden dado
+     * El diccionario se comparte entre versiones: los ids de género no cambian
+     */
+    public static GrafoPeliculas construir(List<Pelicula> lista, DiccionarioGeneros diccionario, long version) {
+        return construir(lista, diccionario, version, OrdenLocalidad.Estrategia.NINGUNO);
+    }
+
+    /**
+     * Ídem, reutilizando las columnas de atributos anteriores que no cambiaron
+     * (mismas películas en el mismo orden): la memoria directa no se vuelve a pedir
+     * en cada versión del catálogo
+     */
+    public static GrafoPeliculas construir(List<Pelicula> lista, DiccionarioGeneros diccionario, long version,
+                                           ColumnasAtributos atributosAnteriores) {
+        return construir(lista, diccionario, version, OrdenLocalidad.Estrategia.NINGUNO, atributosAnteriores);
+    }
+
+    /**
+     * Arma el modelo RENUMERANDO las películas (ver OrdenLocalidad): índices, CSR,
+     * columnas de atributos y géneros quedan en el orden nuevo
+     * COMPLEJIDAD: O(n × g + E) + el costo de la estrategia
+     */
+    public static GrafoPeliculas construir(List<Pelicula> lista, DiccionarioGeneros diccionario, long version,
+                                           OrdenLocalidad.Estrategia estrategia) {
+        return construir(lista, diccionario, version, estrategia, null);
+    }
+
+    private static GrafoPeliculas construir(List<Pelicula> lista, DiccionarioGeneros diccionario, long version,
+                                            OrdenLocalidad.Estrategia estrategia,
+                                            ColumnasAtributos atributosAnteriores) {
+        int n = lista.size();
+        Pelicula[] peliculas = lista.toArray(new Pelicula[0]);
+        Map<Long, Integer> indices = new HashMap<>(n * 2);
+        for (int i = 0; i < n; i++) {
+            indices.put(peliculas[i].getPeliculaId(), i);
+        }
+
+        if (estrategia != OrdenLocalidad.Estrategia.NINGUNO && n > 1) {
+            int[] orden = ordenLocalidad(peliculas, indices, estrategia);
+            Pelicula[] renumeradas = new Pelicula[n];
+            for (int k = 0; k < n; k++) {
+                renumeradas[k] = peliculas[orden[k]];
+                indices.put(renumeradas[k].getPeliculaId(), k);
+            }
+            peliculas = renumeradas;
+        }
+
+        // Primero se registran los géneros nuevos: así se sabe cuántas palabras hacen falta
+        for (Pelicula pelicula : peliculas) {
+            diccionario.mascara(pelicula.getGeneros());
+        }
+        int palabras = DiccionarioGeneros.palabras(diccionario.cantidad());
+        long[] generos = new long[Math.multiplyExact(n, palabras)];
+        for (int i = 0; i < n; i++) {
+            long[] mascara = diccionario.mascara(peliculas[i].getGeneros());
+            System.arraycopy(mascara, 0, generos, i * palabras, mascara.length);
+        }
+
+        return new GrafoPeliculas(version, peliculas, indices, generos, palabras, diccionario, atributosAnteriores);
+    }
+
+    /**
+     * Permutación de localidad sobre SIMILAR_A como grafo no dirigido (CSR temporal)
+     * COMPLEJIDAD: O(E) para el CSR + la estrategia
+     */
+    private static int[] ordenLocalidad(Pelicula[] peliculas, Map<Long, Integer> indices,
+                                        OrdenLocalidad.Estrategia estrategia) {
+        int n = peliculas.length;
+        int[] inicio = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            for (RelacionSimilitud relacion : similares(peliculas[i])) {
+                int j = destino(relacion, indices);
+                if (j >= 0 && j != i) {
+                    inicio[i + 1]++;
+                    inicio[j + 1]++;
+                }
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            inicio[i + 1] += inicio[i];
+        }
+
+        int[] siguiente = Arrays.copyOf(inicio, n);
+        int[] vecinos = new int[inicio[n]];
+        for (int i = 0; i < n; i++) {
+            for (RelacionSimilitud relacion : similares(peliculas[i])) {
+                int j = destino(relacion, indices);
+                if (j >= 0 && j != i) {
+                    vecinos[siguiente[i]++] = j;
+                    vecinos[siguiente[j]++] = i;
+                }
+            }
+        }
+        return OrdenLocalidad.calcular(estrategia, n, inicio, vecinos);
+    }
+
+    /**
+     * Copia con la similitud origen -> destino cambiada (el grafo actual no se toca)
+     * - Se quitan TODAS las aristas origen -> destino y, si hay peso, queda una sola
+     * - Los índices no cambian: lo calculado sobre esta versión sigue valiendo
+     *
+     * COMPLEJIDAD: O(V + E) copias de arreglos primitivos, sin recorrer las
+     * películas ni reordenar los géneros (construir() es O(n × g + E) + O(n log n))
+     *
+     * @param peso Peso nuevo, o null para eliminar la similitud
+     */
+    public GrafoPeliculas conSimilitud(int origen, int destino, Double peso, long version) {
+        // ========================================
+        // SALIENTES: fila del origen sin las aristas al destino (+ la nueva al final)
+        // ========================================
+        int quitadas = 0;
+        for (int a = inicioSalida[origen]; a < inicioSalida[origen + 1]; a++) {
+            if (destinos[a] == destino) {
+                quitadas++;
+            }
+        }
+        int agregadas = peso != null ? 1 : 0;
+        int m = destinos.length - quitadas + agregadas;
+        double valorPeso = peso != null ? peso : 0.0;
+        double valorCosto = 1.0 / (valorPeso + 0.1);
+
+        int[] nuevoInicioSalida = desplazarDesde(inicioSalida, origen, agregadas - quitadas);
+        int[] nuevosDestinos = new int[m];
+        double[] nuevosPesos = new double[m];
+        double[] nuevosCostos = new double[m];
+        int inicio = inicioSalida[origen];
+        System.arraycopy(destinos, 0, nuevosDestinos, 0, inicio);
+        System.arraycopy(pesos, 0, nuevosPesos, 0, inicio);
+        System.arraycopy(costos, 0, nuevosCostos, 0, inicio);
+        int k = inicio;
+        for (int a = inicio; a < inicioSalida[origen + 1]; a++) {
+            if (destinos[a] != destino) {
+                nuevosDestinos[k] = destinos[a];
+                nuevosPesos[k] = pesos[a];
+                nuevosCostos[k] = costos[a];
+                k++;
+            }
+        }
+        if (peso != null) {
+            nuevosDestinos[k] = destino;
+            nuevosPesos[k] = valorPeso;
+            nuevosCostos[k] = valorCosto;
+            k++;
+        }
+        int fin = inicioSalida[origen + 1];
+        System.arraycopy(destinos, fin, nuevosDestinos, k, destinos.length - fin);
+        System.arraycopy(pesos, fin, nuevosPesos, k, destinos.length - fin);
+        System.arraycopy(costos, fin, nuevosCostos, k, destinos.length - fin);
+
+        // ========================================
+        // ENTRANTES: lo mismo en la fila del destino
+        // ========================================
+        int[] nuevoInicioEntrada = desplazarDesde(inicioEntrada, destino, agregadas - quitadas);
+        int[] nuevosOrigenes = new int[m];
+        double[] nuevosCostosEntrada = new double[m];
+        double[] nuevosPesosEntrada = new double[m];
+        inicio = inicioEntrada[destino];
+        System.arraycopy(origenes, 0, nuevosOrigenes, 0, inicio);
+        System.arraycopy(costosEntrada, 0, nuevosCostosEntrada, 0, inicio);
+        System.arraycopy(pesosEntrada, 0, nuevosPesosEntrada, 0, inicio);
+        k = inicio;
+        for (int e = inicio; e < inicioEntrada[destino + 1]; e++) {
+            if (origenes[e] != origen) {
+                nuevosOrigenes[k] = origenes[e];
+                nuevosCostosEntrada[k] = costosEntrada[e];
+                nuevosPesosEntrada[k] = pesosEntrada[e];
+                k++;
+            }
+        }
+        if (peso != null) {
+            nuevosOrigenes[k] = origen;
+            nuevosCostosEntrada[k] = valorCosto;
+            nuevosPesosEntrada[k] = valorPeso;
+            k++;
+        }
+        fin = inicioEntrada[destino + 1];
+        System.arraycopy(origenes, fin, nuevosOrigenes, k, origenes.length - fin);
+        System.arraycopy(costosEntrada, fin, nuevosCostosEntrada, k, origenes.length - fin);
+        System.arraycopy(pesosEntrada, fin, nuevosPesosEntrada, k, origenes.length - fin);
+
+        return new GrafoPeliculas(this, version,
+            nuevoInicioSalida, nuevosDestinos, nuevosPesos, nuevosCostos,
+            nuevoInicioEntrada, nuevosOrigenes, nuevosCostosEntrada, nuevosPesosEntrada);
+    }
+
+    /**
+     * Copia de los inicios de fila con las filas posteriores a "fila" corridas en delta
+     */
+    private static int[] desplazarDesde(int[] inicios, int fila, int delta) {
+        int[] copia = inicios.clone();
+        for (int i = fila + 1; i < copia.length; i++) {
+            copia[i] += delta;
+        }
+        return copia;
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public int cantidad() {
+        return peliculas.length;
+    }
+
+    public Pelicula pelicula(int indice) {
+        return peliculas[indice];
+    }
+
+    /**
+     * Índice denso de la película, o -1 si no está
+     * COMPLEJIDAD: O(1)
+     */
+    public int indice(Long peliculaId) {
+        Integer indice = indices.get(peliculaId);
+        return indice != null ? indice : -1;
+    }
+
+    public DiccionarioGeneros diccionario() {
+        return diccionario;
+    }
+
+    // ============================================
+    // GÉNEROS (operaciones de bits)
+    // ============================================
+
+    /**
+     * Primer género >= desde de la película, o -1 (recorrido: g = siguienteGenero(i, g + 1))
+     * COMPLEJIDAD: O(palabras)
+     */
+    public int siguienteGenero(int indice, int desde) {
+        int w = desde >>> 6;
+        if (w >= palabras) {
+            return -1;
+        }
+        int base = indice * palabras;
+        long palabra = generos[base + w] & (-1L << desde);
+        while (true) {
+            if (palabra != 0) {
+                return w * DiccionarioGeneros.BITS_POR_PALABRA + Long.numberOfTrailingZeros(palabra);
+            }
+            if (++w == palabras) {
+                return -1;
+            }
+            palabra = generos[base + w];
+        }
+    }
+
+    public boolean tieneGenero(int indice, String genero) {
+        int id = diccionario.idDe(genero);
+        return id >= 0 && (id >>> 6) < palabras && (generos[indice * palabras + (id >>> 6)] & (1L << id)) != 0;
+    }
+
+    public int generosComunes(int indice1, int indice2) {
+        int comunes = 0;
+        for (int w = 0; w < palabras; w++) {
+            comunes += Long.bitCount(generos[indice1 * palabras + w] & generos[indice2 * palabras + w]);
+        }
+        return comunes;
+    }
+
+    private int cantidadGenerosDe(int indice) {
+        int cantidad = 0;
+        for (int w = 0; w < palabras; w++) {
+            cantidad += Long.bitCount(generos[indice * palabras + w]);
+        }
+        return cantidad;
+    }
+
+    /**
+     * Géneros presentes en esta versión (ids 0..cantidadGeneros-1)
+     */
+    public int cantidadGeneros() {
+        return cantidadGeneros;
+    }
+
+    /**
+     * Películas del género: posiciones [primerMiembro(g), finMiembros(g)) de miembro()
+     */
+    public int primerMiembro(int genero) {
+        return inicioMiembros[genero];
+    }
+
+    public int finMiembros(int genero) {
+        return inicioMiembros[genero + 1];
+    }
+
+    public int miembro(int posicion) {
+        return miembros[posicion];
+    }
+
+    /**
+     * Puesto (0 = mejor rating) de la película entre las de ese género
+     */
+    public int puestoEnGenero(int pelicula, int genero) {
+        return puestos[posicionPuesto(pelicula, genero)];
+    }
+
+    // ============================================
+    // GRAFO DE SALTOS (películas + géneros)
+    // ============================================
+
+    public int cantidadNodosSalto() {
+        return peliculas.length + cantidadGeneros;
+    }
+
+    /**
+     * Recorre los vecinos de un nodo del grafo de saltos mientras la acción devuelva true
+     * - Película: similares salientes, similares entrantes y TODOS sus géneros
+     * - Género: sus "maxPorGenero" películas de mejor rating
+     *
+     * COMPLEJIDAD: O(grado) con grado de un género <= maxPorGenero
+     *
+     * @return false si la acción cortó el recorrido
+     */
+    public boolean paraCadaVecinoSalto(int nodo, int maxPorGenero, IntPredicate accion) {
+        int n = peliculas.length;
+        if (nodo >= n) {
+            int genero = nodo - n;
+            int fin = finMiembrosAcotado(genero, maxPorGenero);
+            for (int k = inicioMiembros[genero]; k < fin; k++) {
+                if (!accion.test(miembros[k])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        for (int a = inicioSalida[nodo]; a < inicioSalida[nodo + 1]; a++) {
+            if (!accion.test(destinos[a])) {
+                return false;
+            }
+        }
+        for (int e = inicioEntrada[nodo]; e < inicioEntrada[nodo + 1]; e++) {
+            if (!accion.test(origenes[e])) {
+                return false;
+            }
+        }
+        for (int genero = siguienteGenero(nodo, 0); genero >= 0; genero = siguienteGenero(nodo, genero + 1)) {
+            if (!accion.test(n + genero)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Recorre los PREDECESORES de un nodo (los u que lo tienen entre sus vecinos),
+     * para los recorridos hacia atrás (BFS bottom-up)
+     * - Película: similares en ambos sentidos y los géneros donde está entre las
+     *   "maxPorGenero" mejores (solo desde esos se llega a ella)
+     * - Género: TODAS sus películas
+     *
+     * COMPLEJIDAD: O(grado de entrada)
+     *
+     * @return false si la acción cortó el recorrido
+     */
+    public boolean paraCadaPredecesorSalto(int nodo, int maxPorGenero, IntPredicate accion) {
+        int n = peliculas.length;
+        if (nodo >= n) {
+            int genero = nodo - n;
+            for (int k = inicioMiembros[genero]; k < inicioMiembros[genero + 1]; k++) {
+                if (!accion.test(miembros[k])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        for (int a = inicioSalida[nodo]; a < inicioSalida[nodo + 1]; a++) {
+            if (!accion.test(destinos[a])) {
+                return false;
+            }
+        }
+        for (int e = inicioEntrada[nodo]; e < inicioEntrada[nodo + 1]; e++) {
+            if (!accion.test(origenes[e])) {
+                return false;
+            }
+        }
+        for (int genero = siguienteGenero(nodo, 0); genero >= 0; genero = siguienteGenero(nodo, genero + 1)) {
+            if (puestoEnGenero(nodo, genero) < maxPorGenero && !accion.test(n + genero)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Grado de salida en el grafo de saltos (un género cuenta a lo sumo "maxPorGenero")
+     */
+    public int gradoSalto(int nodo, int maxPorGenero) {
+        int n = peliculas.length;
+        if (nodo >= n) {
+            int genero = nodo - n;
+            return finMiembrosAcotado(genero, maxPorGenero) - inicioMiembros[genero];
+        }
+
+        return inicioSalida[nodo + 1] - inicioSalida[nodo]
+            + inicioEntrada[nodo + 1] - inicioEntrada[nodo]
+            + cantidadGenerosDe(nodo);
+    }
+
+    private int finMiembrosAcotado(int genero, int maxPorGenero) {
+        return (int) Math.min(inicioMiembros[genero + 1], (long) inicioMiembros[genero] + maxPorGenero);
+    }
+
+    private int posicionPuesto(int pelicula, int genero) {
+        int base = pelicula * palabras;
+        int anteriores = Long.bitCount(generos[base + (genero >>> 6)] & ((1L << genero) - 1));
+        for (int w = 0; w < genero >>> 6; w++) {
+            anteriores += Long.bitCount(generos[base + w]);
+        }
+        return inicioPuestos[pelicula] + anteriores;
+    }
+
+    /**
+     * Índices de mayor a menor rating (sin rating al final, empate: menor índice)
+     */
+    private static int[] ordenPorRating(ColumnasAtributos atributos) {
+        return IntStream.range(0, atributos.cantidad())
+            .boxed()
+            .sorted((a, b) -> {
+                double ra = Double.isNaN(atributos.rating(a)) ? Double.NEGATIVE_INFINITY : atributos.rating(a);
+                double rb = Double.isNaN(atributos.rating(b)) ? Double.NEGATIVE_INFINITY : atributos.rating(b);
+                return ra != rb ? Double.compare(rb, ra) : Integer.compare(a, b);
+            })
+            .mapToInt(Integer::intValue)
+            .toArray();
+    }
+
+    // ============================================
+    // ATRIBUTOS
+    // ============================================
+
+    public int año(int indice) {
+        return atributos.año(indice);
+    }
+
+    public int duracion(int indice) {
+        return atributos.duracion(indice);
+    }
+
+    public double rating(int indice) {
+        return atributos.rating(indice);
+    }
+
+    /**
+     * Columnas fuera del heap con los mismos índices que el grafo
+     */
+    public ColumnasAtributos atributos() {
+        return atributos;
+    }
+
+    /**
+     * Compila el filtro a un predicado sobre índices que solo lee arreglos primitivos
+     * COMPLEJIDAD: O(g) para compilar, O(1) por evaluación
+     */
+    public IntPredicate predicado(FiltroPeliculas filtro) {
+        List<String> nombres = filtro.getGeneros();
+        boolean conGeneros = nombres != null && !nombres.isEmpty();
+        long[] objetivo = conGeneros ? diccionario.mascaraDeNombres(nombres) : new long[0];
+        boolean todos = filtro.isTodosLosGeneros();
+
+        // Ningún género conocido, o uno desconocido con "todos": no lo cumple nadie
+        int conocidos = DiccionarioGeneros.cantidad(objetivo);
+        if (conGeneros && (conocidos == 0 || (todos && conocidos < distintos(nombres)))) {
+            return i -> false;
+        }
+
+        int añoMin = filtro.getAñoMin() != null ? filtro.getAñoMin() : SIN_VALOR;
+        int añoMax = filtro.getAñoMax() != null ? filtro.getAñoMax() : Integer.MAX_VALUE;
+        boolean conAño = filtro.getAñoMin() != null || filtro.getAñoMax() != null;
+        int duracionMin = filtro.getDuracionMin() != null ? filtro.getDuracionMin() : SIN_VALOR;
+        int duracionMax = filtro.getDuracionMax() != null ? filtro.getDuracionMax() : Integer.MAX_VALUE;
+        boolean conDuracion = filtro.getDuracionMin() != null || filtro.getDuracionMax() != null;
+        double ratingMin = filtro.getRatingMin() != null ? filtro.getRatingMin() : Double.NEGATIVE_INFINITY;
+        double ratingMax = filtro.getRatingMax() != null ? filtro.getRatingMax() : Double.POSITIVE_INFINITY;
+        boolean conRating = filtro.getRatingMin() != null || filtro.getRatingMax() != null;
+
+        return i -> {
+            if (conGeneros && !cumpleGeneros(i, objetivo, todos)) {
+                return false;
+            }
+            int año = atributos.año(i);
+            if (conAño && (año == SIN_VALOR || año < añoMin || año > añoMax)) {
+                return false;
+            }
+            int duracion = atributos.duracion(i);
+            if (conDuracion && (duracion == SIN_VALOR || duracion < duracionMin || duracion > duracionMax)) {
+                return false;
+            }
+            // NaN (sin rating) no cumple ninguna comparación
+            double rating = atributos.rating(i);
+            return !conRating || (rating >= ratingMin && rating <= ratingMax);
+        };
+    }
+
+    /**
+     * todos = la película cubre el objetivo; si no, comparte al menos un género
+     * Un género registrado después de armar esta versión no lo tiene nadie
+     */
+    private boolean cumpleGeneros(int indice, long[] objetivo, boolean todos) {
+        for (int w = 0; w < objetivo.length; w++) {
+            long palabra = w < palabras ? generos[indice * palabras + w] : 0L;
+            if (todos && (palabra & objetivo[w]) != objetivo[w]) {
+                return false;
+            }
+            if (!todos && (palabra & objetivo[w]) != 0) {
+                return true;
+            }
+        }
+        return todos;
+    }
+
+    // ============================================
+    // ADYACENCIA (CSR)
+    // ============================================
+
+    public int cantidadAristas() {
+        return destinos.length;
+    }
+
+    /**
+     * Aristas salientes de i: a en [primeraSalida(i), finSalida(i))
+     */
+    public int primeraSalida(int indice) {
+        return inicioSalida[indice];
+    }
+
+    public int finSalida(int indice) {
+        return inicioSalida[indice + 1];
+    }
+
+    public int destino(int arista) {
+        return destinos[arista];
+    }
+
+    public double peso(int arista) {
+        return pesos[arista];
+    }
+
+    public double costo(int arista) {
+        return costos[arista];
+    }
+
+    /**
+     * Aristas entrantes a i: e en [primeraEntrada(i), finEntrada(i))
+     */
+    public int primeraEntrada(int indice) {
+        return inicioEntrada[indice];
+    }
+
+    public int finEntrada(int indice) {
+        return inicioEntrada[indice + 1];
+    }
+
+    public int origen(int aristaEntrante) {
+        return origenes[aristaEntrante];
+    }
+
+    public double costoEntrante(int aristaEntrante) {
+        return costosEntrada[aristaEntrante];
+    }
+
+    public double pesoEntrante(int aristaEntrante) {
+        return pesosEntrada[aristaEntrante];
+    }
+
+    private int destino(RelacionSimilitud relacion) {
+        return destino(relacion, indices);
+    }
+
+    private static int destino(RelacionSimilitud relacion, Map<Long, Integer> indices) {
+        Pelicula destino = relacion.getPeliculaDestino();
+        Integer indice = destino != null ? indices.get(destino.getPeliculaId()) : null;
+        return indice != null ? indice : -1;
+    }
+
+    private static Iterable<RelacionSimilitud> similares(Pelicula pelicula) {
+        return pelicula.getPeliculasSimilares() != null ? pelicula.getPeliculasSimilares() : List.of();
+    }
+
+    private static int distintos(List<String> nombres) {
+        return (int) nombres.stream().distinct().count();
+    }
+}
@@ -0,0 +1,120 @@
+package com.peliculas.recomendador.model;
+
+/**
+ * JERARQUÍA DE CONTRACCIÓN (Contraction Hierarchies) de un GrafoPeliculas, inmutable
+ *
+ * Cada película tiene un RANGO (orden en que se contrajo). Solo se guardan las
+ * aristas HACIA ARRIBA (hacia nodos de mayor rango), en dos CSR:
+ * - subida: aristas u -> w con rango(w) > rango(u) (búsqueda desde el origen)
+ * - bajada: aristas u -> v guardadas en v, con rango(u) > rango(v)
+ *   (búsqueda hacia atrás desde el destino)
+ *
+ * ATAJOS: una arista con medio >= 0 reemplaza al camino u -> medio -> w
+ * (medio se contrajo antes que u y w); -1 = arista SIMILAR_A original
+ * - u -> medio está en la fila de BAJADA de medio
+ * - medio -> w está en la fila de SUBIDA de medio
+ *
+ * NÚCLEO: los nodos que no se contrajeron (rangos más altos) guardan TODAS sus
+ * aristas entre sí en subida y en bajada, sin importar el rango
+ *
+ * Todo camino más corto tiene la forma "sube y después baja": la consulta solo
+ * explora aristas hacia arriba desde ambos extremos (ver AlgoritmoContraccion)
+ */
+public class JerarquiaContraccion {
+
+    private final GrafoPeliculas grafo;
+    private final int[] rangos;
+
+    private final int[] inicioSubida;
+    private final int[] destinosSubida;
+    private final double[] costosSubida;
+    private final int[] mediosSubida;
+
+    private final int[] inicioBajada;
+    private final int[] origenesBajada;
+    private final double[] costosBajada;
+    private final int[] mediosBajada;
+
+    private final int cantidadAtajos;
+
+    public JerarquiaContraccion(GrafoPeliculas grafo, int[] rangos,
+                                int[] inicioSubida, int[] destinosSubida, double[] costosSubida, int[] mediosSubida,
+                                int[] inicioBajada, int[] origenesBajada, double[] costosBajada, int[] mediosBajada,
+                                int cantidadAtajos) {
+        this.grafo = grafo;
+        this.rangos = rangos;
+        this.inicioSubida = inicioSubida;
+        this.destinosSubida = destinosSubida;
+        this.costosSubida = costosSubida;
+        this.mediosSubida = mediosSubida;
+        this.inicioBajada = inicioBajada;
+        this.origenesBajada = origenesBajada;
+        this.costosBajada = costosBajada;
+        this.mediosBajada = mediosBajada;
+        this.cantidadAtajos = cantidadAtajos;
+    }
+
+    public GrafoPeliculas grafo() {
+        return grafo;
+    }
+
+    public int cantidad() {
+        return rangos.length;
+    }
+
+    public int rango(int nodo) {
+        return rangos[nodo];
+    }
+
+    public int cantidadAtajos() {
+        return cantidadAtajos;
+    }
+
+    // ============================================
+    // SUBIDA: u -> w con rango(w) > rango(u)
+    // ============================================
+
+    public int primeraSubida(int nodo) {
+        return inicioSubida[nodo];
+    }
+
+    public int finSubida(int nodo) {
+        return inicioSubida[nodo + 1];
+    }
+
+    public int destinoSubida(int arista) {
+        return destinosSubida[arista];
+    }
+
+    public double costoSubida(int arista) {
+        return costosSubida[arista];
+    }
+
+    public int medioSubida(int arista) {
+        return mediosSubida[arista];
+    }
+
+    // ============================================
+    // BAJADA: u -> v guardada en v, con rango(u) > rango(v)
+    // ============================================
+
+    public int primeraBajada(int nodo) {
+        return inicioBajada[nodo];
+    }
+
+    public int finBajada(int nodo) {
+        return inicioBajada[nodo + 1];
+    }
+
+    public int origenBajada(int arista) {
+        return origenesBajada[arista];
+    }
+
+    public double costoBajada(int arista) {
+        return costosBajada[arista];
+    }
+
+    public int medioBajada(int arista) {
+        return mediosBajada[arista];
+    }
+}
@@ -0,0 +1,149 @@
+package com.peliculas.recomendador.model;
+
+import java.util.Arrays;
+
+/**
+ * Montículo binario INDEXADO de mínimos sobre índices enteros 0..n-1
+ * Guarda primitivos (int + double): sin objetos por elemento ni comparadores boxeados
+ *
+ * OPERACIONES:
+ * - insertarOActualizar: O(log n) (si ya está, disminuye su prioridad: decrease-key)
+ * - extraerMinimo: O(log n)
+ * - desdePrioridades: O(n) (heapify de todos los índices de una vez)
+ *
+ * EMPATES: sale primero el índice menor
+ */
+public class MonticuloIndices {
+
+    private final int[] monticulo;     // monticulo[pos] = índice
+    private final int[] posiciones;    // posiciones[índice] = pos en el montículo, -1 si no está
+    private final double[] prioridades; // prioridades[índice]
+    private int tamaño;
+
+    public MonticuloIndices(int capacidad) {
+        this.monticulo = new int[capacidad];
+        this.posiciones = new int[capacidad];
+        this.prioridades = new double[capacidad];
+        Arrays.fill(posiciones, -1);
+    }
+
+    /**
+     * Crea un montículo con TODOS los índices 0..n-1 de una vez
+     * COMPLEJIDAD: O(n) - heapify de abajo hacia arriba
+     */
+    public static MonticuloIndices desdePrioridades(double[] prioridades) {
+        int n = prioridades.length;
+        MonticuloIndices resultado = new MonticuloIndices(n);
+        System.arraycopy(prioridades, 0, resultado.prioridades, 0, n);
+        for (int i = 0; i < n; i++) {
+            resultado.monticulo[i] = i;
+            resultado.posiciones[i] = i;
+        }
+        resultado.tamaño = n;
+        for (int pos = (n >> 1) - 1; pos >= 0; pos--) {
+            resultado.bajar(pos);
+        }
+        return resultado;
+    }
+
+    /**
+     * Inserta el índice, o disminuye su prioridad si ya está y la nueva es menor
+     * COMPLEJIDAD: O(log n)
+     *
+     * @return true si se insertó o actualizó
+     */
+    public boolean insertarOActualizar(int indice, double prioridad) {
+        int pos = posiciones[indice];
+        if (pos < 0) {
+            prioridades[indice] = prioridad;
+            monticulo[tamaño] = indice;
+            posiciones[indice] = tamaño;
+            subir(tamaño++);
+            return true;
+        }
+        if (prioridad < prioridades[indice]) {
+            prioridades[indice] = prioridad;
+            subir(pos);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Extrae el índice con MENOR prioridad
+     * COMPLEJIDAD: O(log n)
+     */
+    public int extraerMinimo() {
+        int minimo = monticulo[0];
+        posiciones[minimo] = -1;
+        tamaño--;
+        if (tamaño > 0) {
+            monticulo[0] = monticulo[tamaño];
+            posiciones[monticulo[0]] = 0;
+            bajar(0);
+        }
+        return minimo;
+    }
+
+    public int verMinimo() {
+        return monticulo[0];
+    }
+
+    public double prioridad(int indice) {
+        return prioridades[indice];
+    }
+
+    public boolean contiene(int indice) {
+        return posiciones[indice] >= 0;
+    }
+
+    public boolean estaVacio() {
+        return tamaño == 0;
+    }
+
+    public int tamaño() {
+        return tamaño;
+    }
+
+    private boolean menor(int a, int b) {
+        double pa = prioridades[a];
+        double pb = prioridades[b];
+        return pa < pb || (pa == pb && a < b);
+    }
+
+    private void subir(int pos) {
+        int elemento = monticulo[pos];
+        while (pos > 0) {
+            int padre = (pos - 1) >> 1;
+            if (!menor(elemento, monticulo[padre])) {
+                break;
+            }
+            monticulo[pos] = monticulo[padre];
+            posiciones[monticulo[pos]] = pos;
+            pos = padre;
+        }
+        monticulo[pos] = elemento;
+        posiciones[elemento] = pos;
+    }
+
+    private void bajar(int pos) {
+        int elemento = monticulo[pos];
+        while (true) {
+            int hijo = 2 * pos + 1;
+            if (hijo >= tamaño) {
+                break;
+            }
+            if (hijo + 1 < tamaño && menor(monticulo[hijo + 1], monticulo[hijo])) {
+                hijo++;
+            }
+            if (!menor(monticulo[hijo], elemento)) {
+                break;
+            }
+            monticulo[pos] = monticulo[hijo];
+            posiciones[monticulo[pos]] = pos;
+            pos = hijo;
+        }
+        monticulo[pos] = elemento;
+        posiciones[elemento] = pos;
+    }
+}
@@ -0,0 +1,192 @@
+package com.peliculas.recomendador.model;
+
+import java.util.Arrays;
+
+/**
+ * RENUMERACIÓN DE NODOS para localidad de memoria
+ * El índice denso de cada película sale del orden de carga: los vecinos de una
+ * película quedan dispersos y cada arista recorrida es un salto a otra zona de
+ * los arreglos (fallos de caché y de TLB en Dijkstra, BFS, Prim...)
+ *
+ * ESTRATEGIAS (sobre el grafo SIMILAR_A visto como no dirigido):
+ * - RCM (Reverse Cuthill-McKee): BFS por componente desde un nodo pseudo-periférico,
+ *   vecinos de menor grado primero, orden final invertido. Minimiza el ANCHO DE BANDA:
+ *   los vecinos de i quedan cerca de i
+ * - GRADO: de mayor a menor grado; los hubs (los más visitados) quedan juntos al principio
+ * - NINGUNO: orden de carga
+ *
+ * Devuelve la permutación: orden[k] = índice original que pasa a la posición k
+ *
+ * COMPLEJIDAD: O(V + E log d) para RCM (d = grado máximo), O(V log V) para GRADO
+ */
+public final class OrdenLocalidad {
+
+    public enum Estrategia {
+        NINGUNO, GRADO, RCM
+    }
+
+    // Cada refinamiento del nodo inicial es un BFS más sobre la componente
+    private static final int MAX_REFINAMIENTOS = 4;
+
+    private OrdenLocalidad() {
+    }
+
+    /**
+     * @param inicio  CSR no dirigido: vecinos de v en [inicio[v], inicio[v+1])
+     * @param vecinos destinos del CSR
+     */
+    public static int[] calcular(Estrategia estrategia, int n, int[] inicio, int[] vecinos) {
+        switch (estrategia) {
+            case RCM:
+                return cuthillMcKeeInverso(n, inicio, vecinos);
+            case GRADO:
+                return porGrado(n, inicio);
+            default:
+                int[] identidad = new int[n];
+                for (int i = 0; i < n; i++) {
+                    identidad[i] = i;
+                }
+                return identidad;
+        }
+    }
+
+    // ============================================
+    // REVERSE CUTHILL-MCKEE
+    // ============================================
+
+    private static int[] cuthillMcKeeInverso(int n, int[] inicio, int[] vecinos) {
+        int[] orden = new int[n];
+        boolean[] visitado = new boolean[n];
+        long[] claves = new long[n];
+        int[] nivel = new int[n];
+        int[] marca = new int[n];
+        int[] cola = new int[n];
+        int sello = 0;
+        int colocados = 0;
+
+        // Componentes en orden de grado creciente: cada una arranca en un nodo de grado bajo
+        for (long clave : porGradoCreciente(n, inicio)) {
+            int semilla = (int) clave;
+            if (visitado[semilla]) {
+                continue;
+            }
+
+            // ========================================
+            // NODO PSEUDO-PERIFÉRICO (George-Liu): el de menor grado del último nivel,
+            // mientras la excentricidad siga creciendo
+            // ========================================
+            int profundidad = -1;
+            for (int intento = 0; intento < MAX_REFINAMIENTOS; intento++) {
+                sello++;
+                int fin = niveles(semilla, inicio, vecinos, cola, nivel, marca, sello);
+                int ultimo = nivel[cola[fin - 1]];
+                if (ultimo <= profundidad) {
+                    break;
+                }
+                profundidad = ultimo;
+                int candidato = cola[fin - 1];
+                for (int k = fin - 1; k >= 0 && nivel[cola[k]] == ultimo; k--) {
+                    if (grado(cola[k], inicio) < grado(candidato, inicio)) {
+                        candidato = cola[k];
+                    }
+                }
+                if (candidato == semilla) {
+                    break;
+                }
+                semilla = candidato;
+            }
+
+            // ========================================
+            // BFS de Cuthill-McKee: vecinos no visitados por grado creciente
+            // ========================================
+            int cabeza = colocados;
+            orden[colocados++] = semilla;
+            visitado[semilla] = true;
+            while (cabeza < colocados) {
+                int v = orden[cabeza++];
+                int nuevos = 0;
+                for (int a = inicio[v]; a < inicio[v + 1]; a++) {
+                    int w = vecinos[a];
+                    if (!visitado[w]) {
+                        visitado[w] = true;
+                        claves[nuevos++] = ((long) grado(w, inicio) << 32) | w;
+                    }
+                }
+                Arrays.sort(claves, 0, nuevos);
+                for (int k = 0; k < nuevos; k++) {
+                    orden[colocados++] = (int) claves[k];
+                }
+            }
+        }
+
+        // Invertido (RCM): mismo ancho de banda que Cuthill-McKee y menos relleno
+        for (int i = 0, j = n - 1; i < j; i++, j--) {
+            int t = orden[i];
+            orden[i] = orden[j];
+            orden[j] = t;
+        }
+        return orden;
+    }
+
+    /**
+     * BFS por niveles sin tocar "visitado"; deja el recorrido en cola[0..fin)
+     */
+    private static int niveles(int origen, int[] inicio, int[] vecinos,
+                               int[] cola, int[] nivel, int[] marca, int sello) {
+        int fin = 0;
+        cola[fin++] = origen;
+        marca[origen] = sello;
+        nivel[origen] = 0;
+        for (int cabeza = 0; cabeza < fin; cabeza++) {
+            int v = cola[cabeza];
+            for (int a = inicio[v]; a < inicio[v + 1]; a++) {
+                int w = vecinos[a];
+                if (marca[w] != sello) {
+                    marca[w] = sello;
+                    nivel[w] = nivel[v] + 1;
+                    cola[fin++] = w;
+                }
+            }
+        }
+        return fin;
+    }
+
+    // ============================================
+    // POR GRADO
+    // ============================================
+
+    private static int[] porGrado(int n, int[] inicio) {
+        long[] claves = porGradoCreciente(n, inicio);
+        int[] orden = new int[n];
+        // Mayor grado primero; a igual grado se conserva el orden de carga
+        int k = 0;
+        for (int desde = n - 1; desde >= 0; ) {
+            int g = (int) (claves[desde] >>> 32);
+            int hasta = desde;
+            while (hasta > 0 && (int) (claves[hasta - 1] >>> 32) == g) {
+                hasta--;
+            }
+            for (int i = hasta; i <= desde; i++) {
+                orden[k++] = (int) claves[i];
+            }
+            desde = hasta - 1;
+        }
+        return orden;
+    }
+
+    /**
+     * Claves (grado << 32 | índice) ordenadas: grado creciente, empate por índice
+     */
+    private static long[] porGradoCreciente(int n, int[] inicio) {
+        long[] claves = new long[n];
+        for (int v = 0; v < n; v++) {
+            claves[v] = ((long) grado(v, inicio) << 32) | v;
+        }
+        Arrays.sort(claves);
+        return claves;
+    }
+
+    private static int grado(int v, int[] inicio) {
+        return inicio[v + 1] - inicio[v];
+    }
+}
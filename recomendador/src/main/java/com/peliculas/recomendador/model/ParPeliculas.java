@@ -0,0 +1,17 @@
+package com.peliculas.recomendador.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Par (inicio, fin) para pedir un camino más corto en una consulta por lotes
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ParPeliculas {
+
+    private Long idInicio;
+    private Long idFin;
+}
@@ -0,0 +1,18 @@
+package com.peliculas.recomendador.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Película encontrada por un recorrido, con su distancia en SALTOS desde el origen
+ * (cada relación SIMILAR_A o TIENE_GENERO cuenta 1 salto)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PeliculaDistancia {
+
+    private Pelicula pelicula;
+    private int distancia;
+}
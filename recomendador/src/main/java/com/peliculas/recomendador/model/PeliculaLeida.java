@@ -0,0 +1,31 @@
+package com.peliculas.recomendador.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Película leída del registro de cambios SIN armar la entidad (que traería todo
+ * el subgrafo alcanzable por sus relaciones): propiedades, nombres de géneros y
+ * actores, y sus SIMILAR_A salientes con destinos, pesos y géneros comunes en
+ * paralelo (mismo largo; peso y géneros comunes pueden ser null)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PeliculaLeida {
+
+    private Long peliculaId;
+    private String titulo;
+    private Integer año;
+    private Double promedioRating;
+    private Integer duracion;
+    private List<String> generos = new ArrayList<>();
+    private List<String> actores = new ArrayList<>();
+    private List<Long> destinos = new ArrayList<>();
+    private List<Double> pesos = new ArrayList<>();
+    private List<Integer> generosComunes = new ArrayList<>();
+}
@@ -0,0 +1,17 @@
+package com.peliculas.recomendador.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Película recomendada con su puntaje (mayor = más recomendable)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PeliculaPuntaje {
+
+    private Pelicula pelicula;
+    private double puntaje;
+}
@@ -0,0 +1,18 @@
+package com.peliculas.recomendador.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Peso mínimo y máximo de SIMILAR_A leídos en UNA consulta
+ * (ambos null si no hay similitudes)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RangoPesos {
+
+    private Double minimo;
+    private Double maximo;
+}
@@ -0,0 +1,28 @@
+package com.peliculas.recomendador.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resultado de UNA ronda de una consulta particionada en una instancia
+ * - sello: versión de Neo4j del fragmento que respondió
+ * - frontera: SOLO las películas de otras instancias cuya distancia candidata
+ *   mejoró en esta ronda, con la película propia desde la que se llega
+ * - distanciaDestino: distancia al destino si es propio y se alcanzó (null si no)
+ * Las distancias de las películas propias quedan en la instancia hasta que el
+ * coordinador las junta al final (una sola vez, con su límite)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RespuestaFragmento {
+
+    private Integer parte;
+    private Long sello;
+    private List<AristaParticion> frontera = new ArrayList<>();
+    private Double distanciaDestino;
+}
@@ -0,0 +1,23 @@
+package com.peliculas.recomendador.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Camino más corto de un par: IDs de las películas de inicio a fin y su distancia
+ * Sin camino (o película desconocida): camino vacío y distancia null
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoCamino {
+
+    private Long idInicio;
+    private Long idFin;
+    private Double distancia;
+    private List<Long> camino = new ArrayList<>();
+}
@@ -20,6 +20,8 @@ public class ResultadoDP {
     private Double puntuacionTotal;
     private Double ratioEficiencia; // Puntuación / tiempo
     private String estrategia; // Descripción de la estrategia usada
+    private Double epsilon; // Solo en modo aproximado: error relativo máximo garantizado
+    private Double cotaSuperior; // Solo en modo aproximado: el óptimo real es ≤ este valor
     
     public ResultadoDP(List<Pelicula> peliculasOptimas, Integer tiempoTotal, Double puntuacionTotal) {
         this.peliculasOptimas = peliculasOptimas;
@@ -0,0 +1,26 @@
+package com.peliculas.recomendador.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Fragmento cargado en una instancia
+ * - sello: último cambio de Neo4j visto al cargar (igual antes y después de la carga)
+ * - huella: hash de IDs propios y de destino y peso de cada SIMILAR_A saliente
+ * - frontera: películas de otras instancias vecinas de una propia
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumenFragmento {
+
+    private Integer parte;
+    private Integer partes;
+    private Long sello;
+    private Long huella;
+    private Integer peliculas;
+    private Integer frontera;
+    private Long aristas;
+    private Long aristasCortadas;
+}
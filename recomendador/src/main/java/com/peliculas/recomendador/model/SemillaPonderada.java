@@ -0,0 +1,18 @@
+package com.peliculas.recomendador.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Película de partida (por ejemplo, del historial de un usuario) con su peso
+ * peso en [0, 1]: 1 = punto de partida pleno, menos = la semilla "tira" menos
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SemillaPonderada {
+
+    private Long peliculaId;
+    private Double peso = 1.0;
+}
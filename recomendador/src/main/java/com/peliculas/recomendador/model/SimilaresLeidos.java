@@ -0,0 +1,22 @@
+package com.peliculas.recomendador.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Similitudes SIMILAR_A salientes de una película, leídas sin armar entidades:
+ * IDs de destino y pesos en paralelo (mismo largo)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SimilaresLeidos {
+
+    private Long peliculaId;
+    private List<Long> destinos = new ArrayList<>();
+    private List<Double> pesos = new ArrayList<>();
+}
@@ -0,0 +1,38 @@
+package com.peliculas.recomendador.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Paso local de una consulta particionada, pedido por el coordinador a una instancia
+ * - consulta: identifica el estado que la instancia conserva entre rondas;
+ *   primera = true lo crea (una ronda posterior sin estado se rechaza)
+ * - sello / partes: versión de Neo4j con la que el coordinador cargó su fragmento y
+ *   cantidad de instancias; si no coinciden con los de la instancia, se rechaza
+ * - semillas: SOLO las nuevas o mejoradas desde la ronda anterior (peliculaId -> distancia)
+ * - saltos: SIMILAR_A en cualquier sentido con costo 1 (BFS) en lugar de Dijkstra
+ * - profundidad: no se avanza desde distancias >= profundidad (null = sin tope)
+ * - destino / cota: camino hasta esa película; cota = mejor distancia ya conocida
+ *   (no se avanza desde distancias >= cota; null = sin cota)
+ * - limite: al juntar distancias, solo las "limite" más cercanas (null = todas)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SolicitudFragmento {
+
+    private String consulta;
+    private boolean primera;
+    private Long sello;
+    private Integer partes;
+    private Map<Long, Double> semillas = new LinkedHashMap<>();
+    private boolean saltos;
+    private Integer profundidad;
+    private Long destino;
+    private Double cota;
+    private Integer limite;
+}
@@ -0,0 +1,26 @@
+package com.peliculas.recomendador.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Recomendación desde VARIAS películas en un solo recorrido
+ *
+ * Ejemplo:
+ * { "semillas": [ { "peliculaId": 1, "peso": 1.0 }, { "peliculaId": 7, "peso": 0.5 } ],
+ *   "n": 10, "filtro": { "generos": ["Comedia"] }, "restringirRecorrido": false }
+ */
+@Data
+@NoArgsConstructor
+public class SolicitudRecomendacion {
+
+    private List<SemillaPonderada> semillas = new ArrayList<>();
+    private int n = 10;
+
+    // Opcional: solo recomendar películas que cumplan el filtro
+    private FiltroPeliculas filtro;
+    private boolean restringirRecorrido;
+}
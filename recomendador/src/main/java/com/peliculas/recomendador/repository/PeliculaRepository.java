@@ -1,6 +1,11 @@
 package com.peliculas.recomendador.repository;
 
+import com.peliculas.recomendador.model.CambioCatalogo;
+import com.peliculas.recomendador.model.FragmentoLeido;
 import com.peliculas.recomendador.model.Pelicula;
+import com.peliculas.recomendador.model.PeliculaLeida;
+import com.peliculas.recomendador.model.RangoPesos;
+import com.peliculas.recomendador.model.SimilaresLeidos;
 import org.springframework.data.neo4j.repository.Neo4jRepository;
 import org.springframework.data.neo4j.repository.query.Query;
 import org.springframework.data.repository.query.Param;
@@ -28,6 +33,162 @@ public interface PeliculaRepository extends Neo4jRepository<Pelicula, Long> {
            "ORDER BY p.promedioRating DESC")
     List<Pelicula> findAllOrdenadasPorRating();
     
+    // Actualizar solo el rating (sin reescribir relaciones como haría save())
+    @Query("MATCH (p:Pelicula {peliculaId: $peliculaId}) " +
+           "SET p.promedioRating = $rating, p.actualizadoEn = timestamp()")
+    void actualizarRating(@Param("peliculaId") Long peliculaId, 
+                          @Param("rating") Double rating);
+
+    // Alta o cambio de peso de una similitud: las relaciones previas entre el par
+    // se reemplazan por UNA sola (sin reescribir la película como haría save())
+    @Query("MATCH (a:Pelicula {peliculaId: $idOrigen}), (b:Pelicula {peliculaId: $idDestino}) " +
+           "OPTIONAL MATCH (a)-[vieja:SIMILAR_A]->(b) " +
+           "WITH a, b, collect(vieja) AS viejas " +
+           "FOREACH (r IN viejas | DELETE r) " +
+           "CREATE (a)-[:SIMILAR_A {peso: $peso, generosComunes: $generosComunes}]->(b) " +
+           "SET a.actualizadoEn = timestamp()")
+    void guardarSimilitud(@Param("idOrigen") Long idOrigen,
+                          @Param("idDestino") Long idDestino,
+                          @Param("peso") Double peso,
+                          @Param("generosComunes") Integer generosComunes);
+
+    // Baja de la similitud origen -> destino
+    @Query("MATCH (a:Pelicula {peliculaId: $idOrigen})-[r:SIMILAR_A]->(b:Pelicula {peliculaId: $idDestino}) " +
+           "DELETE r " +
+           "SET a.actualizadoEn = timestamp()")
+    void eliminarSimilitud(@Param("idOrigen") Long idOrigen,
+                           @Param("idDestino") Long idDestino);
+
+    // Alta o cambio de las PROPIEDADES de una película (sin save(): un reemplazo sin
+    // relaciones borraría sus SIMILAR_A, géneros y actores); los géneros y actores
+    // recibidos se agregan a los que ya tenía, nunca se quitan
+    @Query("MERGE (p:Pelicula {peliculaId: $peliculaId}) " +
+           "SET p.titulo = $titulo, p.`año` = $anio, p.promedioRating = $rating, " +
+           "    p.duracion = $duracion, p.actualizadoEn = timestamp() " +
+           "FOREACH (nombre IN $generos | " +
+           "  MERGE (g:Genero {nombre: nombre}) MERGE (p)-[:TIENE_GENERO]->(g)) " +
+           "FOREACH (nombre IN $actores | " +
+           "  MERGE (a:Actor {nombre: nombre}) MERGE (a)-[:ACTUA_EN]->(p))")
+    void guardarPropiedades(@Param("peliculaId") Long peliculaId,
+                            @Param("titulo") String titulo,
+                            @Param("anio") Integer año,
+                            @Param("rating") Double rating,
+                            @Param("duracion") Integer duracion,
+                            @Param("generos") List<String> generos,
+                            @Param("actores") List<String> actores);
+
+    // ============================================
+    // REGISTRO DE CAMBIOS (sincronización incremental)
+    // ============================================
+    /**
+     * Convención para quien escriba en la base:
+     * - Toda película creada o modificada lleva p.actualizadoEn = timestamp()
+     *   (también si cambian sus SIMILAR_A salientes)
+     * - Una película borrada deja una lápida (:PeliculaEliminada {peliculaId, actualizadoEn})
+     *
+     * Cambios posteriores a (desde, despuesDe) en orden (actualizadoEn, peliculaId):
+     * la paginación por clave no pierde cambios con el mismo sello
+     */
+    @Query("CALL { " +
+           "  MATCH (p:Pelicula) WHERE p.actualizadoEn >= $desde " +
+           "  RETURN p.peliculaId AS peliculaId, p.actualizadoEn AS actualizadoEn, false AS eliminada " +
+           "  UNION ALL " +
+           "  MATCH (b:PeliculaEliminada) WHERE b.actualizadoEn >= $desde " +
+           "  RETURN b.peliculaId AS peliculaId, b.actualizadoEn AS actualizadoEn, true AS eliminada " +
+           "} " +
+           "WITH peliculaId, actualizadoEn, eliminada " +
+           "WHERE actualizadoEn > $desde OR peliculaId > $despuesDe " +
+           "RETURN peliculaId, actualizadoEn, eliminada " +
+           "ORDER BY actualizadoEn ASC, peliculaId ASC " +
+           "LIMIT $limite")
+    List<CambioCatalogo> cambiosDesde(@Param("desde") long desde,
+                                      @Param("despuesDe") long despuesDe,
+                                      @Param("limite") int limite);
+
+    // Películas cambiadas, planas: solo sus propiedades, géneros, actores y SIMILAR_A
+    // salientes (findAllById seguiría las relaciones y traería el subgrafo alcanzable)
+    // Cada similitud sale como [destino, peso, generosComunes]: las tres listas quedan
+    // alineadas aunque haya pesos null (collect() los descartaría)
+    @Query("MATCH (p:Pelicula) WHERE p.peliculaId IN $ids " +
+           "WITH p, [(p)-[r:SIMILAR_A]->(d:Pelicula) | [d.peliculaId, r.peso, r.generosComunes]] AS similares " +
+           "RETURN p.peliculaId AS peliculaId, p.titulo AS titulo, p.`año` AS `año`, " +
+           "       p.promedioRating AS promedioRating, p.duracion AS duracion, " +
+           "       [(p)-[:TIENE_GENERO]->(g:Genero) | g.nombre] AS generos, " +
+           "       [(a:Actor)-[:ACTUA_EN]->(p) | a.nombre] AS actores, " +
+           "       [s IN similares | s[0]] AS destinos, " +
+           "       [s IN similares | s[1]] AS pesos, " +
+           "       [s IN similares | s[2]] AS generosComunes")
+    List<PeliculaLeida> leerPeliculas(@Param("ids") List<Long> ids);
+
+    // Sello del último cambio registrado (0 si nunca hubo)
+    // ORDER BY ... DESC LIMIT 1 por etiqueta: se lee del final del índice, sin recorrerla
+    @Query("CALL { " +
+           "  MATCH (p:Pelicula) WHERE p.actualizadoEn IS NOT NULL " +
+           "  RETURN p.actualizadoEn AS actualizadoEn ORDER BY actualizadoEn DESC LIMIT 1 " +
+           "  UNION ALL " +
+           "  MATCH (b:PeliculaEliminada) WHERE b.actualizadoEn IS NOT NULL " +
+           "  RETURN b.actualizadoEn AS actualizadoEn ORDER BY actualizadoEn DESC LIMIT 1 " +
+           "} " +
+           "RETURN coalesce(max(actualizadoEn), 0)")
+    Long ultimoCambio();
+
+    // Índices del registro de cambios: sin ellos cambiosDesde y ultimoCambio recorren
+    // todas las películas y lápidas en cada intervalo (se crean al arrancar, idempotentes)
+    @Query("CREATE INDEX pelicula_actualizado_en IF NOT EXISTS FOR (p:Pelicula) ON (p.actualizadoEn)")
+    void crearIndiceCambiosPeliculas();
+
+    @Query("CREATE INDEX pelicula_eliminada_actualizado_en IF NOT EXISTS " +
+           "FOR (b:PeliculaEliminada) ON (b.actualizadoEn)")
+    void crearIndiceCambiosEliminadas();
+
+    // ============================================
+    // LECTURA DEL FRAGMENTO PROPIO (grafo particionado)
+    // ============================================
+    // Dueña de cada película: peliculaId mod partes (floorMod, también con IDs
+    // negativos); páginas por clave sobre peliculaId como en la adyacencia comprimida
+    // Las similitudes salen como [destino, peso] para que ambas listas queden alineadas
+    @Query("MATCH (p:Pelicula) WHERE p.peliculaId > $despuesDe " +
+           "  AND ((p.peliculaId % $partes) + $partes) % $partes = $parte " +
+           "WITH p ORDER BY p.peliculaId ASC LIMIT $limite " +
+           "WITH p, [(p)-[r:SIMILAR_A]->(d:Pelicula) WHERE d.peliculaId IS NOT NULL " +
+           "         | [d.peliculaId, coalesce(r.peso, 0.0)]] AS similares " +
+           "RETURN p.peliculaId AS peliculaId, p.titulo AS titulo, p.`año` AS `año`, " +
+           "       p.promedioRating AS promedioRating, p.duracion AS duracion, " +
+           "       [(p)-[:TIENE_GENERO]->(g:Genero) | g.nombre] AS generos, " +
+           "       [(a:Actor)-[:ACTUA_EN]->(p) | a.nombre] AS actores, " +
+           "       [s IN similares | s[0]] AS destinos, " +
+           "       [s IN similares | s[1]] AS pesos, " +
+           "       [(o:Pelicula)-[:SIMILAR_A]->(p) WHERE o.peliculaId IS NOT NULL | o.peliculaId] AS origenes " +
+           "ORDER BY peliculaId ASC")
+    List<FragmentoLeido> leerFragmento(@Param("parte") int parte, @Param("partes") int partes,
+                                       @Param("despuesDe") long despuesDe, @Param("limite") int limite);
+
+    // ============================================
+    // LECTURA POR PÁGINAS (adyacencia comprimida)
+    // ============================================
+    // Paginación por clave sobre peliculaId: cada página es una búsqueda por rango,
+    // sin SKIP y sin armar entidades Pelicula
+
+    @Query("MATCH (p:Pelicula) WHERE p.peliculaId > $despuesDe " +
+           "RETURN p.peliculaId ORDER BY p.peliculaId ASC LIMIT $limite")
+    List<Long> idsDesde(@Param("despuesDe") long despuesDe, @Param("limite") int limite);
+
+    // Sin peso la similitud vale 0, igual que en GrafoPeliculas
+    @Query("MATCH (p:Pelicula) WHERE p.peliculaId > $despuesDe " +
+           "WITH p ORDER BY p.peliculaId ASC LIMIT $limite " +
+           "OPTIONAL MATCH (p)-[r:SIMILAR_A]->(d:Pelicula) " +
+           "RETURN p.peliculaId AS peliculaId, " +
+           "       collect(d.peliculaId) AS destinos, " +
+           "       collect(CASE WHEN d IS NULL THEN null ELSE coalesce(r.peso, 0.0) END) AS pesos " +
+           "ORDER BY peliculaId ASC")
+    List<SimilaresLeidos> similaresDesde(@Param("despuesDe") long despuesDe, @Param("limite") int limite);
+
+    // Una sola pasada sobre las relaciones para ambos extremos
+    @Query("MATCH (:Pelicula)-[r:SIMILAR_A]->(:Pelicula) " +
+           "WITH coalesce(r.peso, 0.0) AS peso " +
+           "RETURN min(peso) AS minimo, max(peso) AS maximo")
+    RangoPesos rangoPesosSimilitud();
+
     // Películas relacionadas (genérico)
     @Query("MATCH path = (inicio:Pelicula {peliculaId: $peliculaId})-[:TIENE_GENERO|SIMILAR_A*1..$profundidad]-(relacionada:Pelicula) " +
            "WHERE inicio <> relacionada " +
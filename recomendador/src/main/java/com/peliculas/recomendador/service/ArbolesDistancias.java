@@ -0,0 +1,161 @@
+package com.peliculas.recomendador.service;
+
+import com.peliculas.recomendador.algorithm.AlgoritmoDijkstra;
+import com.peliculas.recomendador.model.ArbolCaminos;
+import com.peliculas.recomendador.model.GrafoPeliculas;
+import com.peliculas.recomendador.model.Pelicula;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * ÁRBOLES DE DISTANCIAS en caché: un Dijkstra completo por película de origen
+ * consultada, los más recientes primero (LRU, recomendador.caminos.arboles-en-cache)
+ *
+ * MANTENIMIENTO INCREMENTAL:
+ * - Cambio de similitud: cada árbol se REPARA solo en la región afectada
+ *   (AlgoritmoDijkstra.repararArbol), sin volver a correr Dijkstra
+ * - Alta / baja de películas o recarga: cambian los índices, se vacía la caché
+ * - Cambio de rating: no afecta distancias
+ */
+@Component
+public class ArbolesDistancias implements OyenteCatalogo {
+
+    @Autowired
+    private CatalogoPeliculas catalogo;
+
+    @Autowired
+    private AlgoritmoDijkstra algoritmoDijkstra;
+
+    @Value("${recomendador.caminos.arboles-en-cache:32}")
+    private int capacidad;
+
+    // peliculaId de origen -> árbol completo sobre los índices de "grafo"
+    private final LinkedHashMap<Long, ArbolCaminos> arboles = new LinkedHashMap<>(16, 0.75f, true);
+    private GrafoPeliculas grafo;
+
+    // Cambios de aristas o de índices: un árbol calculado vale si no hubo ninguno mientras tanto
+    private long generacion;
+
+    private record Vigente(GrafoPeliculas grafo, ArbolCaminos arbol) {
+    }
+
+    @PostConstruct
+    void registrarse() {
+        catalogo.registrarOyente(this);
+    }
+
+    /**
+     * Distancias desde la película a todas las alcanzables: peliculaId -> distancia
+     * COMPLEJIDAD: O(V) si el árbol está en caché, O((V + E) log V) si no
+     */
+    public Map<Long, Double> distancias(Long peliculaId) {
+        Map<Long, Double> resultado = new LinkedHashMap<>();
+        Vigente vigente = arbol(peliculaId);
+        if (vigente == null) {
+            return resultado;
+        }
+
+        GrafoPeliculas grafoArbol = vigente.grafo();
+        ArbolCaminos arbol = vigente.arbol();
+        for (int i = 0; i < grafoArbol.cantidad(); i++) {
+            if (arbol.alcanzado(i)) {
+                resultado.put(grafoArbol.pelicula(i).getPeliculaId(), arbol.distancia(i));
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Árbol completo desde la película junto con el grafo de sus índices, o null si no existe
+     * El Dijkstra corre FUERA del candado: las consultas no se esperan entre sí
+     */
+    private Vigente arbol(Long peliculaId) {
+        long generacionLeida;
+        synchronized (this) {
+            ArbolCaminos enCache = arboles.get(peliculaId);
+            if (enCache != null) {
+                return new Vigente(grafo, enCache);
+            }
+            generacionLeida = generacion;
+        }
+
+        GrafoPeliculas actual = catalogo.obtenerGrafo();
+        int origen = actual.indice(peliculaId);
+        if (origen < 0) {
+            return null;
+        }
+        ArbolCaminos arbol = algoritmoDijkstra.arbolHacia(actual, origen, new int[0]);
+
+        synchronized (this) {
+            // Si las aristas cambiaron mientras tanto el árbol se usa igual, pero no se guarda
+            if (generacionLeida == generacion && capacidad > 0) {
+                if (arboles.isEmpty()) {
+                    grafo = actual;
+                }
+                arboles.put(peliculaId, arbol);
+                if (arboles.size() > capacidad) {
+                    Long masViejo = arboles.keySet().iterator().next();
+                    arboles.remove(masViejo);
+                }
+            }
+        }
+        return new Vigente(actual, arbol);
+    }
+
+    private synchronized void vaciar() {
+        generacion++;
+        arboles.clear();
+        grafo = null;
+    }
+
+    // ============================================
+    // CAMBIOS DEL CATÁLOGO
+    // ============================================
+
+    @Override
+    public void catalogoCargado(Collection<Pelicula> peliculas) {
+        vaciar();
+    }
+
+    @Override
+    public void peliculaAgregada(Pelicula pelicula) {
+        vaciar();
+    }
+
+    @Override
+    public void peliculaEliminada(Pelicula pelicula) {
+        vaciar();
+    }
+
+    @Override
+    public void ratingActualizado(Pelicula pelicula, Double ratingAnterior) {
+        // Las distancias solo dependen de las similitudes
+    }
+
+    /**
+     * O(árboles × región afectada): cada árbol se reemplaza por su versión reparada
+     */
+    @Override
+    public void similitudActualizada(Pelicula origen, Pelicula destino, Double pesoAnterior) {
+        GrafoPeliculas nuevo = catalogo.obtenerGrafo();  // ya tiene la arista cambiada
+        int desde = nuevo.indice(origen.getPeliculaId());
+        int hasta = nuevo.indice(destino.getPeliculaId());
+
+        synchronized (this) {
+            generacion++;
+            if (arboles.isEmpty()) {
+                return;
+            }
+            for (Map.Entry<Long, ArbolCaminos> entrada : arboles.entrySet()) {
+                entrada.setValue(algoritmoDijkstra.repararArbol(nuevo, entrada.getValue(), desde, hasta));
+            }
+            grafo = nuevo;
+        }
+    }
+}
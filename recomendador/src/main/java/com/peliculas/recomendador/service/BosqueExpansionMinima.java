@@ -0,0 +1,465 @@
+package com.peliculas.recomendador.service;
+
+import com.peliculas.recomendador.model.Arista;
+import com.peliculas.recomendador.model.GrafoPeliculas;
+import com.peliculas.recomendador.model.Pelicula;
+import com.peliculas.recomendador.model.ResultadoMST;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * BOSQUE DE EXPANSIÓN MÍNIMO del catálogo mantenido de forma INCREMENTAL
+ * Mismo criterio que AlgoritmoKruskal: grafo no dirigido, menor peso total
+ * (entre u y v vale la similitud de menor peso en cualquiera de los dos sentidos)
+ *
+ * Se arma con Kruskal la primera vez y después cada cambio de similitud toca
+ * solo la región afectada:
+ * - Arista FUERA del bosque que aparece o baja de peso: si une dos árboles se
+ *   agrega; si no, reemplaza a la arista más pesada del camino que ya los une
+ *   (propiedad del ciclo) - O(largo del camino + lado menor)
+ * - Arista DEL bosque que sube de peso o desaparece: se corta y se busca la
+ *   arista más liviana entre los dos lados recorriendo SOLO el lado menor
+ *   (propiedad del corte) - O(nodos y aristas del lado menor)
+ * - Arista del bosque que baja o arista fuera que sube: el bosque no cambia
+ *
+ * Alta / baja de películas o recarga: cambian los índices, se rearma con la próxima consulta
+ */
+@Component
+public class BosqueExpansionMinima implements OyenteCatalogo {
+
+    @Autowired
+    private CatalogoPeliculas catalogo;
+
+    private Bosque bosque;
+
+    // Cambios de aristas o de índices: un bosque armado vale si no hubo ninguno mientras tanto
+    private long generacion;
+
+    @PostConstruct
+    void registrarse() {
+        catalogo.registrarOyente(this);
+    }
+
+    /**
+     * Bosque vigente en el formato de Prim / Kruskal
+     * COMPLEJIDAD: O(V) si ya está armado, O(E log E) la primera vez
+     */
+    public ResultadoMST resultado() {
+        while (true) {
+            long generacionLeida;
+            synchronized (this) {
+                if (bosque != null) {
+                    return bosque.resultado();
+                }
+                generacionLeida = generacion;
+            }
+
+            // Kruskal FUERA del candado; si las aristas cambiaron mientras tanto se repite
+            Bosque armado = Bosque.kruskal(catalogo.obtenerGrafo());
+            synchronized (this) {
+                if (generacionLeida == generacion) {
+                    bosque = armado;
+                    return bosque.resultado();
+                }
+            }
+        }
+    }
+
+    private synchronized void descartar() {
+        generacion++;
+        bosque = null;
+    }
+
+    // ============================================
+    // CAMBIOS DEL CATÁLOGO
+    // ============================================
+
+    @Override
+    public void catalogoCargado(Collection<Pelicula> peliculas) {
+        descartar();
+    }
+
+    @Override
+    public void peliculaAgregada(Pelicula pelicula) {
+        descartar();
+    }
+
+    @Override
+    public void peliculaEliminada(Pelicula pelicula) {
+        descartar();
+    }
+
+    @Override
+    public void ratingActualizado(Pelicula pelicula, Double ratingAnterior) {
+        // El bosque solo depende de las similitudes
+    }
+
+    @Override
+    public void similitudActualizada(Pelicula origen, Pelicula destino, Double pesoAnterior) {
+        GrafoPeliculas nuevo = catalogo.obtenerGrafo();  // ya tiene la arista cambiada
+        synchronized (this) {
+            generacion++;
+            if (bosque != null) {
+                bosque.aplicar(nuevo, nuevo.indice(origen.getPeliculaId()), nuevo.indice(destino.getPeliculaId()));
+            }
+        }
+    }
+
+    /**
+     * Bosque enraizado sobre los índices del grafo:
+     * - padre[v] / pesoPadre[v]: arista v - padre[v] (-1 en las raíces)
+     * - hijos como lista doblemente enlazada (primerHijo, hermanos): alta y baja O(1)
+     * - profundidad relativa dentro de cada árbol: caminos en O(largo del camino)
+     *
+     * Marcas por número de recorrido: los arreglos auxiliares no se limpian
+     */
+    private static final class Bosque {
+
+        private GrafoPeliculas grafo;
+        private final int[] padre;
+        private final double[] pesoPadre;
+        private final int[] profundidad;
+        private final int[] primerHijo;
+        private final int[] siguienteHermano;
+        private final int[] anteriorHermano;
+
+        private final int[] marca;
+        private int ultimaMarca;
+
+        // Recorridos en curso (colas y resultado)
+        private final int[] nodosA;
+        private final int[] nodosB;
+        private final int[] padreNuevo;
+        private final double[] pesoNuevo;
+
+        private Bosque(GrafoPeliculas grafo) {
+            int n = grafo.cantidad();
+            this.grafo = grafo;
+            this.padre = new int[n];
+            this.pesoPadre = new double[n];
+            this.profundidad = new int[n];
+            this.primerHijo = new int[n];
+            this.siguienteHermano = new int[n];
+            this.anteriorHermano = new int[n];
+            this.marca = new int[n];
+            this.nodosA = new int[n];
+            this.nodosB = new int[n];
+            this.padreNuevo = new int[n];
+            this.pesoNuevo = new double[n];
+            Arrays.fill(padre, -1);
+            Arrays.fill(primerHijo, -1);
+        }
+
+        /**
+         * KRUSKAL sobre el CSR: aristas por peso + Union-Find con arreglos
+         * COMPLEJIDAD: O(E log E)
+         */
+        static Bosque kruskal(GrafoPeliculas grafo) {
+            int n = grafo.cantidad();
+            Bosque bosque = new Bosque(grafo);
+            int[] origenes = new int[grafo.cantidadAristas()];
+            for (int v = 0; v < n; v++) {
+                for (int a = grafo.primeraSalida(v); a < grafo.finSalida(v); a++) {
+                    origenes[a] = v;
+                }
+            }
+
+            int[] representante = new int[n];
+            for (int v = 0; v < n; v++) {
+                representante[v] = v;
+            }
+            int[] ordenadas = IntStream.range(0, grafo.cantidadAristas())
+                .boxed()
+                .sorted(Comparator.comparingDouble(grafo::peso))
+                .mapToInt(Integer::intValue)
+                .toArray();
+            for (int a : ordenadas) {
+                int u = origenes[a];
+                int v = grafo.destino(a);
+                int ru = buscar(representante, u);
+                int rv = buscar(representante, v);
+                if (ru != rv) {
+                    representante[ru] = rv;
+                    bosque.enlazar(u, v, grafo.peso(a));
+                }
+            }
+            return bosque;
+        }
+
+        private static int buscar(int[] representante, int v) {
+            while (representante[v] != v) {
+                representante[v] = representante[representante[v]];  // compresión a la mitad
+                v = representante[v];
+            }
+            return v;
+        }
+
+        ResultadoMST resultado() {
+            List<Arista> aristas = new ArrayList<>();
+            int conSimilitudes = 0;
+            for (int v = 0; v < grafo.cantidad(); v++) {
+                if (padre[v] >= 0) {
+                    aristas.add(new Arista(grafo.pelicula(padre[v]), grafo.pelicula(v),
+                        pesoPadre[v], grafo.generosComunes(padre[v], v)));
+                }
+                if (grafo.finSalida(v) > grafo.primeraSalida(v) || grafo.finEntrada(v) > grafo.primeraEntrada(v)) {
+                    conSimilitudes++;
+                }
+            }
+            ResultadoMST resultado = new ResultadoMST(aristas, "Kruskal incremental");
+            resultado.setNumeroNodos(conSimilitudes);
+            return resultado;
+        }
+
+        // ============================================
+        // CAMBIO DE UNA SIMILITUD
+        // ============================================
+
+        void aplicar(GrafoPeliculas nuevo, int u, int v) {
+            grafo = nuevo;
+            if (u == v) {
+                return;
+            }
+            double peso = pesoEntre(u, v);
+            int hijo = padre[u] == v ? u : padre[v] == u ? v : -1;
+
+            if (hijo >= 0) {
+                if (peso <= pesoPadre[hijo]) {
+                    pesoPadre[hijo] = peso;  // arista del bosque más liviana: sigue siendo mínimo
+                    return;
+                }
+                // Más pesada o eliminada: cortar y buscar el mejor reemplazo entre los dos lados
+                int arriba = padre[hijo];
+                cortar(hijo);
+                reconectar(hijo, arriba);
+                return;
+            }
+
+            if (peso == Double.POSITIVE_INFINITY) {
+                return;  // arista fuera del bosque eliminada
+            }
+            int masPesada = masPesadaEnCamino(u, v);
+            if (masPesada == SIN_CAMINO) {
+                enlazar(u, v, peso);
+            } else if (masPesada >= 0 && pesoPadre[masPesada] > peso) {
+                cortar(masPesada);
+                enlazar(u, v, peso);
+            }
+        }
+
+        /**
+         * Menor peso entre u y v en cualquier sentido (infinito si no hay similitud)
+         */
+        private double pesoEntre(int u, int v) {
+            double minimo = Double.POSITIVE_INFINITY;
+            for (int a = grafo.primeraSalida(u); a < grafo.finSalida(u); a++) {
+                if (grafo.destino(a) == v) {
+                    minimo = Math.min(minimo, grafo.peso(a));
+                }
+            }
+            for (int a = grafo.primeraSalida(v); a < grafo.finSalida(v); a++) {
+                if (grafo.destino(a) == u) {
+                    minimo = Math.min(minimo, grafo.peso(a));
+                }
+            }
+            return minimo;
+        }
+
+        private static final int SIN_CAMINO = -2;
+
+        /**
+         * Nodo cuya arista hacia el padre es la más pesada del camino u..v,
+         * o SIN_CAMINO si están en árboles distintos
+         * COMPLEJIDAD: O(largo del camino) subiendo por profundidad
+         */
+        private int masPesadaEnCamino(int u, int v) {
+            int masPesada = -1;
+            while (u != v) {
+                int sube = profundidad[u] >= profundidad[v] ? u : v;
+                if (padre[sube] < 0) {
+                    return SIN_CAMINO;  // llegó a una raíz sin encontrarse: árboles distintos
+                }
+                if (masPesada < 0 || pesoPadre[sube] > pesoPadre[masPesada]) {
+                    masPesada = sube;
+                }
+                if (sube == u) {
+                    u = padre[u];
+                } else {
+                    v = padre[v];
+                }
+            }
+            return masPesada;
+        }
+
+        /**
+         * Tras cortar la arista a - b: la arista más liviana entre los dos lados,
+         * buscada desde el lado MENOR (salientes y entrantes de cada uno de sus nodos)
+         */
+        private void reconectar(int a, int b) {
+            int tamaño = ladoMenor(a, b);
+            int lado = marca[nodosA[0]];
+
+            int mejorDentro = -1;
+            int mejorFuera = -1;
+            double mejorPeso = Double.POSITIVE_INFINITY;
+            for (int k = 0; k < tamaño; k++) {
+                int x = nodosA[k];
+                for (int e = grafo.primeraSalida(x); e < grafo.finSalida(x); e++) {
+                    int y = grafo.destino(e);
+                    if (marca[y] != lado && grafo.peso(e) < mejorPeso) {
+                        mejorPeso = grafo.peso(e);
+                        mejorDentro = x;
+                        mejorFuera = y;
+                    }
+                }
+                for (int e = grafo.primeraEntrada(x); e < grafo.finEntrada(x); e++) {
+                    int y = grafo.origen(e);
+                    if (marca[y] != lado && grafo.pesoEntrante(e) < mejorPeso) {
+                        mejorPeso = grafo.pesoEntrante(e);
+                        mejorDentro = x;
+                        mejorFuera = y;
+                    }
+                }
+            }
+            if (mejorDentro >= 0) {
+                colgarLado(tamaño, mejorDentro, mejorFuera, mejorPeso);
+            }
+        }
+
+        /**
+         * Une los árboles de u y v (distintos) con la arista u - v: el árbol MENOR
+         * se re-enraiza en su extremo y se cuelga del otro
+         */
+        private void enlazar(int u, int v, double peso) {
+            int tamaño = ladoMenor(u, v);
+            if (marca[nodosA[0]] == marca[u]) {
+                colgarLado(tamaño, u, v, peso);
+            } else {
+                colgarLado(tamaño, v, u, peso);
+            }
+        }
+
+        /**
+         * Recorre los árboles de a y de b (ya separados) de a un nodo por vez
+         * hasta que uno se termina: ese es el MENOR y queda en nodosA[0..tamaño)
+         * con su marca. COMPLEJIDAD: O(tamaño del lado menor)
+         */
+        private int ladoMenor(int a, int b) {
+            int marcaA = ++ultimaMarca;
+            int marcaB = ++ultimaMarca;
+            int[] colaA = nodosA;
+            int[] colaB = nodosB;
+            int leidosA = 0;
+            int leidosB = 0;
+            int tamañoA = 1;
+            int tamañoB = 1;
+            colaA[0] = a;
+            colaB[0] = b;
+            marca[a] = marcaA;
+            marca[b] = marcaB;
+
+            while (true) {
+                if (leidosA == tamañoA) {
+                    return tamañoA;
+                }
+                if (leidosB == tamañoB) {
+                    System.arraycopy(colaB, 0, nodosA, 0, tamañoB);  // colaA es nodosA
+                    return tamañoB;
+                }
+                tamañoA = expandir(colaA[leidosA++], colaA, tamañoA, marcaA);
+                tamañoB = expandir(colaB[leidosB++], colaB, tamañoB, marcaB);
+            }
+        }
+
+        private int expandir(int nodo, int[] cola, int tamaño, int marcaLado) {
+            if (padre[nodo] >= 0 && marca[padre[nodo]] != marcaLado) {
+                marca[padre[nodo]] = marcaLado;
+                cola[tamaño++] = padre[nodo];
+            }
+            for (int hijo = primerHijo[nodo]; hijo >= 0; hijo = siguienteHermano[hijo]) {
+                if (marca[hijo] != marcaLado) {
+                    marca[hijo] = marcaLado;
+                    cola[tamaño++] = hijo;
+                }
+            }
+            return tamaño;
+        }
+
+        /**
+         * Re-enraiza el lado nodosA[0..tamaño) en "raiz" y lo cuelga de "destino"
+         * COMPLEJIDAD: O(tamaño)
+         */
+        private void colgarLado(int tamaño, int raiz, int destino, double peso) {
+            // BFS desde la nueva raíz sobre el árbol del lado (reutiliza nodosB como cola)
+            int marcaBfs = ++ultimaMarca;
+            int[] orden = nodosB;
+            orden[0] = raiz;
+            marca[raiz] = marcaBfs;
+            padreNuevo[raiz] = destino;
+            pesoNuevo[raiz] = peso;
+            int total = 1;
+            for (int k = 0; k < total; k++) {
+                int x = orden[k];
+                int arriba = padre[x];
+                if (arriba >= 0 && marca[arriba] != marcaBfs) {
+                    marca[arriba] = marcaBfs;
+                    padreNuevo[arriba] = x;
+                    pesoNuevo[arriba] = pesoPadre[x];
+                    orden[total++] = arriba;
+                }
+                for (int hijo = primerHijo[x]; hijo >= 0; hijo = siguienteHermano[hijo]) {
+                    if (marca[hijo] != marcaBfs) {
+                        marca[hijo] = marcaBfs;
+                        padreNuevo[hijo] = x;
+                        pesoNuevo[hijo] = pesoPadre[hijo];
+                        orden[total++] = hijo;
+                    }
+                }
+            }
+
+            // Desarmar y volver a colgar en orden BFS (los padres quedan antes que los hijos)
+            for (int k = 0; k < total; k++) {
+                if (padre[orden[k]] >= 0) {
+                    cortar(orden[k]);
+                }
+            }
+            for (int k = 0; k < total; k++) {
+                int x = orden[k];
+                colgar(x, padreNuevo[x], pesoNuevo[x]);
+            }
+        }
+
+        private void colgar(int hijo, int nuevoPadre, double peso) {
+            padre[hijo] = nuevoPadre;
+            pesoPadre[hijo] = peso;
+            profundidad[hijo] = profundidad[nuevoPadre] + 1;
+            anteriorHermano[hijo] = -1;
+            siguienteHermano[hijo] = primerHijo[nuevoPadre];
+            if (primerHijo[nuevoPadre] >= 0) {
+                anteriorHermano[primerHijo[nuevoPadre]] = hijo;
+            }
+            primerHijo[nuevoPadre] = hijo;
+        }
+
+        private void cortar(int hijo) {
+            int arriba = padre[hijo];
+            if (anteriorHermano[hijo] >= 0) {
+                siguienteHermano[anteriorHermano[hijo]] = siguienteHermano[hijo];
+            } else {
+                primerHijo[arriba] = siguienteHermano[hijo];
+            }
+            if (siguienteHermano[hijo] >= 0) {
+                anteriorHermano[siguienteHermano[hijo]] = anteriorHermano[hijo];
+            }
+            padre[hijo] = -1;
+        }
+    }
+}
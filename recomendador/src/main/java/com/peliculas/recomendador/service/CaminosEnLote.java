@@ -0,0 +1,96 @@
+package com.peliculas.recomendador.service;
+
+import com.peliculas.recomendador.algorithm.AlgoritmoDijkstra;
+import com.peliculas.recomendador.model.ArbolCaminos;
+import com.peliculas.recomendador.model.GrafoPeliculas;
+import com.peliculas.recomendador.model.ParPeliculas;
+import com.peliculas.recomendador.model.ResultadoCamino;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * CAMINOS MÁS CORTOS POR LOTES
+ * Muchos pares (inicio, fin) en una sola llamada
+ *
+ * AGRUPACIÓN POR ORIGEN: todos los pares con el mismo inicio se responden con
+ * UN Dijkstra que termina al asentar su destino más lejano (ArbolCaminos)
+ * PARALELISMO: cada grupo es independiente; los grupos se reparten entre los
+ * workers del ForkJoinPool común (parallel stream)
+ *
+ * Los resultados se entregan a medida que termina cada grupo (NO en el orden pedido):
+ * cada resultado lleva su par para que el cliente los asocie
+ *
+ * COMPLEJIDAD: O(S × (V + E) log V / P), S = orígenes distintos, P = núcleos
+ * Contra un Dijkstra por par: O(pares × (V + E) log V) y un findAll() por llamada
+ */
+@Component
+public class CaminosEnLote {
+
+    @Autowired
+    private CatalogoPeliculas catalogo;
+
+    @Autowired
+    private AlgoritmoDijkstra algoritmoDijkstra;
+
+    /**
+     * Resuelve todos los pares y entrega cada resultado a "salida"
+     * "salida" se llama desde VARIOS hilos: debe ser segura para concurrencia
+     */
+    public void resolver(List<ParPeliculas> pares, Consumer<ResultadoCamino> salida) {
+        if (pares == null || pares.isEmpty()) {
+            return;
+        }
+        GrafoPeliculas grafo = catalogo.obtenerGrafo();
+
+        // ========================================
+        // PASO 1: AGRUPAR POR ORIGEN - O(pares)
+        // ========================================
+        Map<Integer, List<ParPeliculas>> grupos = new LinkedHashMap<>();
+        for (ParPeliculas par : pares) {
+            int inicio = grafo.indice(par.getIdInicio());
+            if (inicio < 0 || grafo.indice(par.getIdFin()) < 0) {
+                salida.accept(sinCamino(par));  // película desconocida
+                continue;
+            }
+            grupos.computeIfAbsent(inicio, clave -> new ArrayList<>()).add(par);
+        }
+
+        // ========================================
+        // PASO 2: UN DIJKSTRA POR GRUPO, EN PARALELO
+        // ========================================
+        grupos.entrySet().parallelStream().forEach(grupo -> {
+            List<ParPeliculas> delGrupo = grupo.getValue();
+            int[] destinos = new int[delGrupo.size()];
+            for (int k = 0; k < destinos.length; k++) {
+                destinos[k] = grafo.indice(delGrupo.get(k).getIdFin());
+            }
+
+            ArbolCaminos arbol = algoritmoDijkstra.arbolHacia(grafo, grupo.getKey(), destinos);
+            for (int k = 0; k < destinos.length; k++) {
+                salida.accept(resultado(grafo, arbol, delGrupo.get(k), destinos[k]));
+            }
+        });
+    }
+
+    private static ResultadoCamino resultado(GrafoPeliculas grafo, ArbolCaminos arbol,
+                                             ParPeliculas par, int destino) {
+        if (!arbol.alcanzado(destino)) {
+            return sinCamino(par);
+        }
+        List<Long> camino = new ArrayList<>();
+        for (int nodo : arbol.camino(destino)) {
+            camino.add(grafo.pelicula(nodo).getPeliculaId());
+        }
+        return new ResultadoCamino(par.getIdInicio(), par.getIdFin(), arbol.distancia(destino), camino);
+    }
+
+    private static ResultadoCamino sinCamino(ParPeliculas par) {
+        return new ResultadoCamino(par.getIdInicio(), par.getIdFin(), null, new ArrayList<>());
+    }
+}
@@ -0,0 +1,179 @@
+package com.peliculas.recomendador.service;
+
+import com.peliculas.recomendador.model.AdyacenciaComprimida;
+import com.peliculas.recomendador.model.RangoPesos;
+import com.peliculas.recomendador.model.SimilaresLeidos;
+import com.peliculas.recomendador.repository.PeliculaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * ADYACENCIA COMPRIMIDA leída de Neo4j por páginas, para catálogos que no entran
+ * en CatalogoPeliculas (habilitada con recomendador.comprimido.habilitado=true)
+ *
+ * Nunca arma entidades Pelicula ni el CSR completo: en memoria quedan los IDs
+ * (8 bytes por película), una página de similitudes y las listas comprimidas
+ * - Pasada 1: IDs por páginas de clave creciente -> índice = posición en el orden de ID
+ * - Pasada 2: similitudes salientes por las mismas páginas, directo al Constructor
+ *   (orígenes en orden creciente, como lo pide)
+ * Lo que cambie entre las dos pasadas no rompe la carga: orígenes o destinos que no
+ * estaban en la pasada 1 se descartan y los pesos se acotan al rango leído antes
+ *
+ * Es una FOTO del momento de la carga: no sigue los cambios del catálogo
+ * (recargar() vuelve a leerla). COMPLEJIDAD de la carga: O(V + E log d) y
+ * (V + E) / lote consultas
+ */
+@Component
+public class CatalogoComprimido {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogoComprimido.class);
+
+    @Autowired
+    private PeliculaRepository peliculaRepository;
+
+    @Value("${recomendador.comprimido.habilitado:false}")
+    private boolean habilitado;
+
+    // Películas por página de lectura
+    @Value("${recomendador.comprimido.lote:10000}")
+    private int lote;
+
+    @Value("${recomendador.comprimido.lote-transposicion:" + AdyacenciaComprimida.LOTE_ARISTAS + "}")
+    private int loteTransposicion;
+
+    /**
+     * Adyacencia cargada junto con los IDs de sus índices (ordenados)
+     */
+    public record Cargada(long[] ids, AdyacenciaComprimida adyacencia) {
+
+        /**
+         * Índice de la película, o -1 si no estaba al cargar
+         * COMPLEJIDAD: O(log V)
+         */
+        public int indice(Long peliculaId) {
+            if (peliculaId == null) {
+                return -1;
+            }
+            int i = Arrays.binarySearch(ids, peliculaId);
+            return i >= 0 ? i : -1;
+        }
+
+        public long id(int indice) {
+            return ids[indice];
+        }
+    }
+
+    private volatile Cargada cargada;
+
+    public boolean habilitado() {
+        return habilitado;
+    }
+
+    /**
+     * Adyacencia vigente (se carga con la primera consulta)
+     */
+    public Cargada obtener() {
+        Cargada actual = cargada;
+        if (actual != null) {
+            return actual;
+        }
+        synchronized (this) {
+            if (cargada == null) {
+                cargada = cargar();
+            }
+            return cargada;
+        }
+    }
+
+    /**
+     * Vuelve a leer la adyacencia; mientras tanto se sigue sirviendo la anterior
+     */
+    public Cargada recargar() {
+        Cargada nueva = cargar();
+        cargada = nueva;
+        return nueva;
+    }
+
+    private Cargada cargar() {
+        if (!habilitado) {
+            throw new IllegalStateException("Adyacencia comprimida deshabilitada (recomendador.comprimido.habilitado)");
+        }
+        long inicio = System.currentTimeMillis();
+
+        // ========================================
+        // PASADA 1: IDs - O(V)
+        // ========================================
+        long[] ids = new long[1024];
+        int n = 0;
+        long despuesDe = Long.MIN_VALUE;
+        while (true) {
+            List<Long> pagina = peliculaRepository.idsDesde(despuesDe, lote);
+            for (Long id : pagina) {
+                if (n == ids.length) {
+                    ids = Arrays.copyOf(ids, n * 2);
+                }
+                ids[n++] = id;
+            }
+            if (pagina.size() < lote) {
+                break;
+            }
+            despuesDe = pagina.get(pagina.size() - 1);
+        }
+        ids = Arrays.copyOf(ids, n);
+
+        RangoPesos rango = peliculaRepository.rangoPesosSimilitud();
+        Double minimo = rango != null ? rango.getMinimo() : null;
+        Double maximo = rango != null ? rango.getMaximo() : null;
+        double pesoMinimo = minimo != null ? minimo : 0.0;
+        double pesoMaximo = maximo != null ? Math.max(maximo, pesoMinimo) : pesoMinimo;
+
+        // ========================================
+        // PASADA 2: SIMILITUDES por páginas - O(E log d)
+        // ========================================
+        AdyacenciaComprimida.Constructor constructor = new AdyacenciaComprimida.Constructor(n, pesoMinimo, pesoMaximo)
+            .loteTransposicion(loteTransposicion);
+        Cargada parcial = new Cargada(ids, null);
+        int[] destinos = new int[16];
+        double[] pesos = new double[16];
+        despuesDe = Long.MIN_VALUE;
+        while (true) {
+            List<SimilaresLeidos> pagina = peliculaRepository.similaresDesde(despuesDe, lote);
+            for (SimilaresLeidos leidos : pagina) {
+                int origen = parcial.indice(leidos.getPeliculaId());
+                if (origen < 0) {
+                    continue;  // creada después de la pasada 1
+                }
+                int grado = leidos.getDestinos().size();
+                if (destinos.length < grado) {
+                    destinos = new int[Math.max(grado, destinos.length * 2)];
+                    pesos = new double[destinos.length];
+                }
+                int k = 0;
+                for (int j = 0; j < grado; j++) {
+                    int destino = parcial.indice(leidos.getDestinos().get(j));
+                    Double peso = leidos.getPesos().get(j);
+                    if (destino >= 0) {
+                        destinos[k] = destino;
+                        pesos[k++] = Math.max(pesoMinimo, Math.min(pesoMaximo, peso != null ? peso : 0.0));
+                    }
+                }
+                constructor.agregar(origen, destinos, pesos, k);
+            }
+            if (pagina.size() < lote) {
+                break;
+            }
+            despuesDe = pagina.get(pagina.size() - 1).getPeliculaId();
+        }
+
+        AdyacenciaComprimida adyacencia = constructor.armar();
+        log.info("Adyacencia comprimida: {} películas, {} aristas, {} bytes en {} ms",
+            n, adyacencia.cantidadAristas(), adyacencia.bytes(), System.currentTimeMillis() - inicio);
+        return new Cargada(ids, adyacencia);
+    }
+}
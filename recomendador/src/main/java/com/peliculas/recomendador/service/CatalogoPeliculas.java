@@ -0,0 +1,616 @@
+package com.peliculas.recomendador.service;
+
+import com.peliculas.recomendador.model.Actor;
+import com.peliculas.recomendador.model.ColumnasAtributos;
+import com.peliculas.recomendador.model.DiccionarioGeneros;
+import com.peliculas.recomendador.model.Genero;
+import com.peliculas.recomendador.model.GrafoPeliculas;
+import com.peliculas.recomendador.model.OrdenLocalidad;
+import com.peliculas.recomendador.model.Pelicula;
+import com.peliculas.recomendador.model.RelacionSimilitud;
+import com.peliculas.recomendador.repository.PeliculaRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * CATÁLOGO EN MEMORIA
+ * Copia de las películas cargada UNA vez desde Neo4j y mantenida con cambios puntuales
+ *
+ * Los cambios (película nueva, rating nuevo, similitud) se guardan en Neo4j y se avisan a los
+ * OyenteCatalogo registrados, que actualizan su estado en O(cambio) y no O(catálogo)
+ *
+ * Cada cambio incrementa la VERSIÓN del catálogo
+ * El modelo en memoria (GrafoPeliculas) se arma una vez por versión, solo si se pide
+ * (un cambio de similitud solo copia las aristas del modelo ya armado)
+ *
+ * Tras cada carga completa se escribe una InstantaneaCatalogo en disco; al arrancar se
+ * sirve desde ella y Neo4j se lee en segundo plano (registro de cambios o recarga)
+ */
+@Component
+public class CatalogoPeliculas {
+
+    @Autowired
+    private PeliculaRepository peliculaRepository;
+
+    @Autowired
+    private InstantaneaCatalogo archivoInstantanea;
+
+    // Con sincronización el registro de cambios pone al día lo leído de la instantánea
+    @Value("${recomendador.sincronizacion.habilitada:false}")
+    private boolean sincronizacion;
+
+    @Value("${recomendador.grafo.reordenamiento:RCM}")
+    private OrdenLocalidad.Estrategia reordenamiento;
+
+    private final List<OyenteCatalogo> oyentes = new CopyOnWriteArrayList<>();
+
+    // peliculaId -> película, en orden de carga
+    private final Map<Long, Pelicula> peliculas = new LinkedHashMap<>();
+    private boolean cargado;
+    private long version;
+
+    // Sello del registro de cambios de Neo4j leído ANTES de la última carga completa
+    private long ultimoCambioCargado;
+
+    // La carga actual salió del archivo y no de Neo4j
+    private boolean desdeInstantanea;
+
+    // Lista inmutable de la versión actual (se arma solo si alguien la pide)
+    private volatile List<Pelicula> instantanea;
+
+    // Modelo denso de la versión actual; el diccionario se conserva entre versiones
+    private final DiccionarioGeneros diccionario = new DiccionarioGeneros();
+    private volatile GrafoPeliculas grafo;
+
+    // Columnas del último grafo armado: con el mismo orden se reutilizan
+    private ColumnasAtributos atributosAnteriores;
+
+    // Ids en el orden de índices del último modelo armado: mientras no entren ni salgan
+    // películas se reutiliza, así los índices no cambian entre versiones (los oyentes
+    // guardan árboles y bosques por índice) y la renumeración se calcula una sola vez
+    private long[] ordenGrafo;
+
+    /**
+     * Registra un oyente; si el catálogo ya está cargado recibe la carga actual
+     */
+    public synchronized void registrarOyente(OyenteCatalogo oyente) {
+        oyentes.add(oyente);
+        if (cargado) {
+            oyente.catalogoCargado(peliculas.values());
+        }
+    }
+
+    /**
+     * Carga el catálogo desde Neo4j si todavía no se hizo
+     * COMPLEJIDAD: O(1) si ya está cargado, un findAll() la primera vez
+     */
+    public synchronized void asegurarCargado() {
+        if (!cargado) {
+            recargar();
+        }
+    }
+
+    /**
+     * Vuelve a leer todo el catálogo desde Neo4j y escribe la instantánea en disco
+     * La lectura no toma el lock: mientras tanto se sigue sirviendo la versión anterior
+     * COMPLEJIDAD: O(V + E) + reconstrucción de los oyentes
+     */
+    public void recargar() {
+        // Primero el sello: lo que cambie durante el findAll() se vuelve a leer después
+        long sello = peliculaRepository.ultimoCambio();
+        List<Pelicula> todas = peliculaRepository.findAll();
+        synchronized (this) {
+            ultimoCambioCargado = sello;
+            desdeInstantanea = false;
+            reemplazarTodo(todas);
+            archivoInstantanea.guardarEnSegundoPlano(new ArrayList<>(peliculas.values()), sello);
+        }
+    }
+
+    /**
+     * Reescribe la instantánea con el catálogo en memoria, sellada en "ultimoCambio"
+     * (hasta donde la sincronización ya aplicó el registro de cambios): al arrancar
+     * desde ella solo se releen los cambios posteriores
+     * COMPLEJIDAD: O(V) copia de la lista; la escritura va en segundo plano
+     */
+    public synchronized void guardarInstantanea(long ultimoCambio) {
+        if (cargado) {
+            archivoInstantanea.guardarEnSegundoPlano(new ArrayList<>(peliculas.values()), ultimoCambio);
+        }
+    }
+
+    // ============================================
+    // ARRANQUE DESDE LA INSTANTÁNEA
+    // ============================================
+
+    /**
+     * Si hay una instantánea válida el catálogo arranca cargado con ella
+     * COMPLEJIDAD: O(V + E) leyendo un archivo mapeado, sin consultar Neo4j
+     */
+    @PostConstruct
+    void abrirInstantanea() {
+        InstantaneaCatalogo.Contenido contenido = archivoInstantanea.leer();
+        if (contenido == null) {
+            return;
+        }
+        synchronized (this) {
+            ultimoCambioCargado = contenido.ultimoCambio();
+            desdeInstantanea = true;
+            reemplazarTodo(contenido.peliculas());
+        }
+    }
+
+    /**
+     * Pone al día con Neo4j lo leído de la instantánea
+     * Con sincronización lo hace el SincronizadorCatalogo desde el sello del archivo;
+     * sin ella, una recarga completa en segundo plano
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    void refrescarInstantanea() {
+        synchronized (this) {
+            if (!desdeInstantanea || sincronizacion) {
+                return;
+            }
+        }
+        Thread hilo = new Thread(this::recargar, "recarga-catalogo");
+        hilo.setDaemon(true);
+        hilo.start();
+    }
+
+    /**
+     * Reemplaza el catálogo completo por las películas dadas (sin leer Neo4j)
+     */
+    public synchronized void reemplazarTodo(List<Pelicula> nuevas) {
+        peliculas.clear();
+        for (Pelicula pelicula : nuevas) {
+            peliculas.put(pelicula.getPeliculaId(), pelicula);
+        }
+        cargado = true;
+        ordenGrafo = null;
+        cambio();
+
+        for (OyenteCatalogo oyente : oyentes) {
+            oyente.catalogoCargado(peliculas.values());
+        }
+    }
+
+    /**
+     * Todas las películas de la versión actual (lista inmutable compartida)
+     * COMPLEJIDAD: O(1) si no hubo cambios desde la última llamada
+     */
+    public List<Pelicula> obtenerPeliculas() {
+        List<Pelicula> actual = instantanea;
+        if (actual != null) {
+            return actual;
+        }
+
+        synchronized (this) {
+            asegurarCargado();
+            if (instantanea == null) {
+                instantanea = List.copyOf(peliculas.values());
+            }
+            return instantanea;
+        }
+    }
+
+    /**
+     * Modelo en memoria de la versión actual (índices densos + máscaras de géneros)
+     * COMPLEJIDAD: O(1) si no hubo cambios, O(n × g) para armarlo
+     */
+    public GrafoPeliculas obtenerGrafo() {
+        GrafoPeliculas actual = grafo;
+        if (actual != null) {
+            return actual;
+        }
+
+        synchronized (this) {
+            if (grafo == null) {
+                if (ordenGrafo == null) {
+                    grafo = GrafoPeliculas.construir(obtenerPeliculas(), diccionario, version, reordenamiento);
+                    ordenGrafo = new long[grafo.cantidad()];
+                    for (int i = 0; i < ordenGrafo.length; i++) {
+                        ordenGrafo[i] = grafo.atributos().id(i);
+                    }
+                } else {
+                    grafo = GrafoPeliculas.construir(enOrdenGrafo(), diccionario, version, atributosAnteriores);
+                }
+                atributosAnteriores = grafo.atributos();
+            }
+            return grafo;
+        }
+    }
+
+    private List<Pelicula> enOrdenGrafo() {
+        List<Pelicula> ordenadas = new ArrayList<>(ordenGrafo.length);
+        for (long id : ordenGrafo) {
+            ordenadas.add(peliculas.get(id));
+        }
+        return ordenadas;
+    }
+
+    public DiccionarioGeneros diccionario() {
+        return diccionario;
+    }
+
+    public synchronized Pelicula obtenerPelicula(Long peliculaId) {
+        asegurarCargado();
+        return peliculas.get(peliculaId);
+    }
+
+    public synchronized long version() {
+        return version;
+    }
+
+    public synchronized boolean cargado() {
+        return cargado;
+    }
+
+    /**
+     * Sello del registro de cambios hasta el que llega la última carga completa
+     */
+    public synchronized long ultimoCambioCargado() {
+        return ultimoCambioCargado;
+    }
+
+    /**
+     * Alta o cambio de una película en Neo4j y en memoria
+     * Solo se escriben sus PROPIEDADES (título, año, rating, duración); los géneros y
+     * actores recibidos se AGREGAN a los que ya tenía. Las relaciones existentes
+     * (SIMILAR_A, géneros, actores) se conservan: las similitudes se cambian con
+     * actualizarSimilitud / eliminarSimilitud
+     * COMPLEJIDAD: O(g + a + grado) en memoria + escritura en Neo4j
+     */
+    public synchronized Pelicula guardarPelicula(Pelicula pelicula) {
+        if (pelicula.getPeliculaId() == null) {
+            throw new IllegalArgumentException("La película a guardar necesita peliculaId");
+        }
+        asegurarCargado();
+        List<String> generos = new ArrayList<>();
+        if (pelicula.getGeneros() != null) {
+            pelicula.getGeneros().stream().map(Genero::getNombre).filter(Objects::nonNull).forEach(generos::add);
+        }
+        List<String> actores = new ArrayList<>();
+        if (pelicula.getActores() != null) {
+            pelicula.getActores().stream().map(Actor::getNombre).filter(Objects::nonNull).forEach(actores::add);
+        }
+        peliculaRepository.guardarPropiedades(pelicula.getPeliculaId(), pelicula.getTitulo(), pelicula.getAño(),
+            pelicula.getPromedioRating(), pelicula.getDuracion(), generos, actores);
+
+        // Objeto nuevo con las relaciones de la anterior: los oyentes reciben la baja
+        // de la anterior intacta (con su rating y géneros) y el alta de la nueva
+        Pelicula guardada = new Pelicula(pelicula.getPeliculaId(), pelicula.getTitulo(), pelicula.getAño(),
+            pelicula.getPromedioRating(), pelicula.getDuracion());
+        Pelicula anterior = peliculas.get(pelicula.getPeliculaId());
+        if (anterior != null) {
+            guardada.getGeneros().addAll(anterior.getGeneros());
+            guardada.getActores().addAll(anterior.getActores());
+            guardada.getPeliculasSimilares().addAll(anterior.getPeliculasSimilares());
+        }
+        generos.forEach(nombre -> guardada.getGeneros().add(new Genero(nombre)));
+        actores.forEach(nombre -> guardada.getActores().add(new Actor(nombre)));
+        registrarPelicula(guardada);
+        return guardada;
+    }
+
+    /**
+     * Registra en memoria una película ya persistida (nueva o reemplazo)
+     */
+    public synchronized void registrarPelicula(Pelicula pelicula) {
+        asegurarCargado();
+        Pelicula anterior = peliculas.put(pelicula.getPeliculaId(), pelicula);
+        if (anterior == null) {
+            ordenGrafo = null;
+        }
+        cambio();
+
+        for (OyenteCatalogo oyente : oyentes) {
+            if (anterior != null) {
+                oyente.peliculaEliminada(anterior);
+            }
+            oyente.peliculaAgregada(pelicula);
+        }
+    }
+
+    /**
+     * Cambia el rating de una película en Neo4j y en memoria
+     * COMPLEJIDAD: O(1) en memoria + escritura en Neo4j
+     *
+     * @return La película actualizada, o null si no existe
+     */
+    public synchronized Pelicula actualizarRating(Long peliculaId, Double rating) {
+        asegurarCargado();
+        Pelicula pelicula = peliculas.get(peliculaId);
+        if (pelicula == null) {
+            return null;
+        }
+
+        peliculaRepository.actualizarRating(peliculaId, rating);
+
+        Double ratingAnterior = pelicula.getPromedioRating();
+        pelicula.setPromedioRating(rating);
+        cambio();
+
+        for (OyenteCatalogo oyente : oyentes) {
+            oyente.ratingActualizado(pelicula, ratingAnterior);
+        }
+        return pelicula;
+    }
+
+    /**
+     * Alta o cambio de peso de la similitud origen -> destino, en Neo4j y en memoria
+     * Si había varias relaciones hacia el mismo destino quedan reemplazadas por una
+     * COMPLEJIDAD: O(grado del origen) + O(V + E) copia del CSR + escritura en Neo4j
+     *
+     * @return La película origen actualizada, o null si alguna de las dos no existe
+     */
+    public synchronized Pelicula actualizarSimilitud(Long idOrigen, Long idDestino, Double peso) {
+        if (peso == null || !(peso >= 0) || Double.isInfinite(peso)) {
+            throw new IllegalArgumentException("peso debe ser un número no negativo: " + peso);
+        }
+        if (idOrigen != null && idOrigen.equals(idDestino)) {
+            throw new IllegalArgumentException("una película no puede ser similar a sí misma: " + idOrigen);
+        }
+        asegurarCargado();
+        Pelicula origen = peliculas.get(idOrigen);
+        Pelicula destino = peliculas.get(idDestino);
+        if (origen == null || destino == null) {
+            return null;
+        }
+
+        Set<RelacionSimilitud> nuevas = sinSimilitudHacia(origen, idDestino);
+        RelacionSimilitud anterior = mejorSimilitudHacia(origen, idDestino);
+        Integer generosComunes = anterior != null && anterior.getGenerosComunes() != null
+            ? anterior.getGenerosComunes()
+            : DiccionarioGeneros.generosComunes(
+                diccionario.mascara(origen.getGeneros()), diccionario.mascara(destino.getGeneros()));
+
+        peliculaRepository.guardarSimilitud(idOrigen, idDestino, peso, generosComunes);
+
+        nuevas.add(new RelacionSimilitud(peso, generosComunes, destino));
+        similitudCambiada(origen, destino, nuevas, peso, anterior);
+        return origen;
+    }
+
+    /**
+     * Baja de la similitud origen -> destino, en Neo4j y en memoria
+     * COMPLEJIDAD: O(grado del origen) + O(V + E) copia del CSR + escritura en Neo4j
+     *
+     * @return La película origen actualizada, o null si alguna de las dos no existe
+     */
+    public synchronized Pelicula eliminarSimilitud(Long idOrigen, Long idDestino) {
+        asegurarCargado();
+        Pelicula origen = peliculas.get(idOrigen);
+        Pelicula destino = peliculas.get(idDestino);
+        if (origen == null || destino == null) {
+            return null;
+        }
+
+        RelacionSimilitud anterior = mejorSimilitudHacia(origen, idDestino);
+        if (anterior == null) {
+            return origen;  // no había similitud: nada que cambiar
+        }
+
+        peliculaRepository.eliminarSimilitud(idOrigen, idDestino);
+        similitudCambiada(origen, destino, sinSimilitudHacia(origen, idDestino), null, anterior);
+        return origen;
+    }
+
+    // ============================================
+    // CAMBIOS LEÍDOS DE NEO4J (sincronización incremental)
+    // ============================================
+
+    /**
+     * Aplica en memoria la versión de una película leída de Neo4j (no escribe nada)
+     * Se avisa SOLO lo que cambió, por el camino más barato:
+     * - Película nueva, o con otros datos / géneros: alta o reemplazo
+     * - Solo el rating: ratingActualizado
+     * - Solo similitudes: una similitudActualizada por destino que cambió
+     *   (los caminos y el bosque se reparan sin rearmarse)
+     * - Nada distinto (por ejemplo, un cambio propio ya aplicado): no se avisa
+     *
+     * COMPLEJIDAD: O(grado) para comparar + lo que cueste cada aviso
+     * @return true si la película cambió
+     */
+    public synchronized boolean sincronizarPelicula(Pelicula leida) {
+        asegurarCargado();
+        Pelicula actual = peliculas.get(leida.getPeliculaId());
+        if (actual == null || !mismosDatos(actual, leida)) {
+            registrarPelicula(leida);
+            return true;
+        }
+
+        Map<Long, List<RelacionSimilitud>> antes = porDestino(actual);
+        Map<Long, List<RelacionSimilitud>> despues = porDestino(leida);
+        List<Long> cambiados = new ArrayList<>();
+        Set<Long> destinos = new HashSet<>(antes.keySet());
+        destinos.addAll(despues.keySet());
+        for (Long destino : destinos) {
+            List<RelacionSimilitud> previas = antes.getOrDefault(destino, List.of());
+            List<RelacionSimilitud> nuevas = despues.getOrDefault(destino, List.of());
+            if (!mismosPesos(previas, nuevas)) {
+                if (previas.size() > 1 || nuevas.size() > 1) {
+                    registrarPelicula(leida);  // aristas paralelas: no es un cambio de UNA similitud
+                    return true;
+                }
+                cambiados.add(destino);
+            }
+        }
+
+        boolean cambio = false;
+        if (!Objects.equals(actual.getPromedioRating(), leida.getPromedioRating())) {
+            Double ratingAnterior = actual.getPromedioRating();
+            actual.setPromedioRating(leida.getPromedioRating());
+            cambio();
+            for (OyenteCatalogo oyente : oyentes) {
+                oyente.ratingActualizado(actual, ratingAnterior);
+            }
+            cambio = true;
+        }
+
+        for (Long idDestino : cambiados) {
+            Set<RelacionSimilitud> nuevas = sinSimilitudHacia(actual, idDestino);
+            List<RelacionSimilitud> leidas = despues.getOrDefault(idDestino, List.of());
+            RelacionSimilitud anterior = mejorSimilitudHacia(actual, idDestino);
+            Pelicula destino = peliculas.get(idDestino);
+            Double peso = null;
+            if (!leidas.isEmpty()) {
+                RelacionSimilitud leidaRelacion = leidas.get(0);
+                peso = peso(leidaRelacion);
+                nuevas.add(new RelacionSimilitud(leidaRelacion.getId(), peso, leidaRelacion.getGenerosComunes(),
+                    destino != null ? destino : leidaRelacion.getPeliculaDestino()));
+            }
+
+            if (destino == null) {
+                actual.setPeliculasSimilares(nuevas);  // fuera del catálogo: el grafo no la ve
+            } else {
+                similitudCambiada(actual, destino, nuevas, peso, anterior);
+            }
+            cambio = true;
+        }
+        return cambio;
+    }
+
+    /**
+     * Saca una película borrada en Neo4j (no escribe nada)
+     * Las similitudes que apuntaban a ella quedan fuera del grafo
+     *
+     * @return true si estaba en el catálogo
+     */
+    public synchronized boolean quitarPelicula(Long peliculaId) {
+        asegurarCargado();
+        Pelicula anterior = peliculas.remove(peliculaId);
+        if (anterior == null) {
+            return false;
+        }
+        ordenGrafo = null;
+        cambio();
+
+        for (OyenteCatalogo oyente : oyentes) {
+            oyente.peliculaEliminada(anterior);
+        }
+        return true;
+    }
+
+    /**
+     * Mismos datos propios y géneros (el rating y las similitudes se comparan aparte)
+     */
+    private static boolean mismosDatos(Pelicula actual, Pelicula leida) {
+        return Objects.equals(actual.getTitulo(), leida.getTitulo())
+            && Objects.equals(actual.getAño(), leida.getAño())
+            && Objects.equals(actual.getDuracion(), leida.getDuracion())
+            && nombres(actual.getGeneros()).equals(nombres(leida.getGeneros()));
+    }
+
+    private static Set<String> nombres(Collection<Genero> generos) {
+        Set<String> nombres = new HashSet<>();
+        if (generos != null) {
+            for (Genero genero : generos) {
+                nombres.add(genero.getNombre());
+            }
+        }
+        return nombres;
+    }
+
+    private static Map<Long, List<RelacionSimilitud>> porDestino(Pelicula pelicula) {
+        Map<Long, List<RelacionSimilitud>> porDestino = new HashMap<>();
+        if (pelicula.getPeliculasSimilares() != null) {
+            for (RelacionSimilitud relacion : pelicula.getPeliculasSimilares()) {
+                if (relacion.getPeliculaDestino() != null) {
+                    porDestino.computeIfAbsent(relacion.getPeliculaDestino().getPeliculaId(),
+                        id -> new ArrayList<>()).add(relacion);
+                }
+            }
+        }
+        return porDestino;
+    }
+
+    private static boolean mismosPesos(List<RelacionSimilitud> previas, List<RelacionSimilitud> nuevas) {
+        if (previas.size() != nuevas.size()) {
+            return false;
+        }
+        double[] antes = previas.stream().mapToDouble(CatalogoPeliculas::peso).sorted().toArray();
+        double[] despues = nuevas.stream().mapToDouble(CatalogoPeliculas::peso).sorted().toArray();
+        return Arrays.equals(antes, despues);
+    }
+
+    /**
+     * Publica las relaciones nuevas del origen y avisa a los oyentes
+     * El conjunto se REEMPLAZA (no se modifica): quien lo esté recorriendo no se entera
+     */
+    private void similitudCambiada(Pelicula origen, Pelicula destino, Set<RelacionSimilitud> nuevas,
+                                   Double peso, RelacionSimilitud anterior) {
+        origen.setPeliculasSimilares(nuevas);
+
+        // Mismas películas en el mismo orden: la instantánea sigue valiendo
+        // y el grafo ya armado se copia con la arista cambiada
+        version++;
+        GrafoPeliculas actual = grafo;
+        if (actual != null) {
+            grafo = actual.conSimilitud(actual.indice(origen.getPeliculaId()),
+                actual.indice(destino.getPeliculaId()), peso, version);
+        }
+
+        Double pesoAnterior = anterior != null ? anterior.getPeso() : null;
+        for (OyenteCatalogo oyente : oyentes) {
+            oyente.similitudActualizada(origen, destino, pesoAnterior);
+        }
+    }
+
+    private static Set<RelacionSimilitud> sinSimilitudHacia(Pelicula origen, Long idDestino) {
+        Set<RelacionSimilitud> resto = new HashSet<>();
+        if (origen.getPeliculasSimilares() != null) {
+            for (RelacionSimilitud relacion : origen.getPeliculasSimilares()) {
+                if (!apuntaA(relacion, idDestino)) {
+                    resto.add(relacion);
+                }
+            }
+        }
+        return resto;
+    }
+
+    /**
+     * Relación origen -> destino de mayor peso (la de menor costo), o null
+     */
+    private static RelacionSimilitud mejorSimilitudHacia(Pelicula origen, Long idDestino) {
+        RelacionSimilitud mejor = null;
+        if (origen.getPeliculasSimilares() != null) {
+            for (RelacionSimilitud relacion : origen.getPeliculasSimilares()) {
+                if (apuntaA(relacion, idDestino) && (mejor == null || peso(relacion) > peso(mejor))) {
+                    mejor = relacion;
+                }
+            }
+        }
+        return mejor;
+    }
+
+    private static boolean apuntaA(RelacionSimilitud relacion, Long idDestino) {
+        return relacion.getPeliculaDestino() != null
+            && idDestino.equals(relacion.getPeliculaDestino().getPeliculaId());
+    }
+
+    private static double peso(RelacionSimilitud relacion) {
+        return relacion.getPeso() != null ? relacion.getPeso() : 0.0;
+    }
+
+    private void cambio() {
+        version++;
+        instantanea = null;
+        grafo = null;
+    }
+}
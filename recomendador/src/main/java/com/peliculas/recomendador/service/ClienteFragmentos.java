@@ -0,0 +1,100 @@
+package com.peliculas.recomendador.service;
+
+import com.peliculas.recomendador.model.AristaParticion;
+import com.peliculas.recomendador.model.Pelicula;
+import com.peliculas.recomendador.model.RespuestaFragmento;
+import com.peliculas.recomendador.model.ResumenFragmento;
+import com.peliculas.recomendador.model.SolicitudFragmento;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pasos locales pedidos por HTTP a OTRA instancia (ParticionController, /fragmento/*)
+ * El coordinador consulta su propia instancia sin pasar por acá
+ */
+@Component
+public class ClienteFragmentos {
+
+    private static final String BASE = "/api/particion/fragmento";
+
+    @Value("${recomendador.particion.timeout-ms:5000}")
+    private int timeout;
+
+    private RestClient cliente;
+
+    @PostConstruct
+    void crearCliente() {
+        SimpleClientHttpRequestFactory fabrica = new SimpleClientHttpRequestFactory();
+        fabrica.setConnectTimeout(timeout);
+        fabrica.setReadTimeout(timeout);
+        cliente = RestClient.builder().requestFactory(fabrica).build();
+    }
+
+    public RespuestaFragmento explorar(String url, SolicitudFragmento solicitud) {
+        return cliente.post().uri(url + BASE + "/explorar")
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(solicitud)
+            .retrieve()
+            .body(RespuestaFragmento.class);
+    }
+
+    public Map<Long, Double> distancias(String url, SolicitudFragmento solicitud) {
+        return cliente.post().uri(url + BASE + "/distancias")
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(solicitud)
+            .retrieve()
+            .body(new ParameterizedTypeReference<Map<Long, Double>>() {
+            });
+    }
+
+    public List<Long> camino(String url, SolicitudFragmento solicitud) {
+        return cliente.post().uri(url + BASE + "/camino")
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(solicitud)
+            .retrieve()
+            .body(new ParameterizedTypeReference<List<Long>>() {
+            });
+    }
+
+    public List<Pelicula> peliculas(String url, List<Long> ids) {
+        return cliente.post().uri(url + BASE + "/peliculas")
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(ids)
+            .retrieve()
+            .body(new ParameterizedTypeReference<List<Pelicula>>() {
+            });
+    }
+
+    public void cerrar(String url, String consulta) {
+        cliente.delete().uri(url + BASE + "/consulta/{consulta}", consulta)
+            .retrieve()
+            .toBodilessEntity();
+    }
+
+    public List<AristaParticion> bosque(String url, long sello, int partes) {
+        return cliente.get().uri(url + BASE + "/bosque?sello={sello}&partes={partes}", sello, partes)
+            .retrieve()
+            .body(new ParameterizedTypeReference<List<AristaParticion>>() {
+            });
+    }
+
+    public ResumenFragmento resumen(String url) {
+        return cliente.get().uri(url + BASE + "/resumen")
+            .retrieve()
+            .body(ResumenFragmento.class);
+    }
+
+    public ResumenFragmento recargar(String url) {
+        return cliente.post().uri(url + BASE + "/recargar")
+            .retrieve()
+            .body(ResumenFragmento.class);
+    }
+}
@@ -0,0 +1,78 @@
+package com.peliculas.recomendador.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * COALESCENCIA DE SOLICITUDES (Single-Flight)
+ * Agrupa solicitudes idénticas que llegan al mismo tiempo
+ *
+ * Si llega una solicitud con la misma clave mientras otra está en curso,
+ * NO se vuelve a calcular: espera y recibe el mismo resultado.
+ * Cuando el cálculo termina la clave se libera (no es un caché).
+ *
+ * COMPLEJIDAD: O(1) por solicitud + un único cálculo por ráfaga
+ */
+@Component
+public class CoalescedorSolicitudes {
+
+    // clave de la solicitud -> cálculo en curso
+    private final ConcurrentHashMap<String, CompletableFuture<Object>> enCurso = new ConcurrentHashMap<>();
+
+    /**
+     * Ejecuta el cálculo o se une a uno idéntico que ya esté en curso
+     *
+     * @param clave Identifica la solicitud (endpoint + parámetros)
+     * @param calculo Cálculo a ejecutar si no hay otro en curso
+     * @return Resultado compartido por todas las solicitudes concurrentes
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T ejecutar(String clave, Supplier<T> calculo) {
+        CompletableFuture<Object> nuevo = new CompletableFuture<>();
+        CompletableFuture<Object> existente = enCurso.putIfAbsent(clave, nuevo);  // O(1)
+
+        // Ya hay un cálculo idéntico en curso: esperar su resultado
+        if (existente != null) {
+            return (T) esperar(existente);
+        }
+
+        // Somos el "líder": calcular y publicar el resultado
+        try {
+            T resultado = calculo.get();
+            nuevo.complete(resultado);
+            return resultado;
+        } catch (RuntimeException | Error e) {
+            nuevo.completeExceptionally(e);
+            throw e;
+        } finally {
+            // Liberar la clave: la próxima ráfaga vuelve a calcular con datos frescos
+            enCurso.remove(clave, nuevo);
+        }
+    }
+
+    /**
+     * Cantidad de cálculos en curso (útil para monitoreo)
+     */
+    public int solicitudesEnCurso() {
+        return enCurso.size();
+    }
+
+    private Object esperar(CompletableFuture<Object> calculo) {
+        try {
+            return calculo.join();
+        } catch (CompletionException e) {
+            // Propagar el mismo error que recibió el líder
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            if (e.getCause() instanceof Error causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,525 @@
+package com.peliculas.recomendador.service;
+
+import com.peliculas.recomendador.model.Arista;
+import com.peliculas.recomendador.model.AristaParticion;
+import com.peliculas.recomendador.model.FragmentoLocal;
+import com.peliculas.recomendador.model.Genero;
+import com.peliculas.recomendador.model.Pelicula;
+import com.peliculas.recomendador.model.PeliculaDistancia;
+import com.peliculas.recomendador.model.RespuestaFragmento;
+import com.peliculas.recomendador.model.ResultadoMST;
+import com.peliculas.recomendador.model.ResumenFragmento;
+import com.peliculas.recomendador.model.SolicitudFragmento;
+import com.peliculas.recomendador.model.UnionFind;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+
+/**
+ * COORDINADOR de las consultas sobre el grafo PARTICIONADO entre instancias
+ * Cualquier instancia coordina: reparte cada paso entre los fragmentos
+ * (SCATTER, en paralelo) y junta las respuestas (GATHER). El coordinador no tiene
+ * el grafo: solo calcula dueñas (FragmentoLocal.dueña) y guarda lo que cruza
+ *
+ * CAMINOS (Dijkstra) y NIVELES (BFS) con INTERCAMBIO DE BORDE por rondas:
+ * 1. La instancia dueña del origen recorre su fragmento desde él
+ * 2. Cada instancia conserva su estado entre rondas y devuelve SOLO la frontera que
+ *    mejoró: películas de otras instancias con su distancia candidata
+ * 3. Las candidatas que MEJORAN la mejor conocida pasan a ser semillas de su dueña,
+ *    que sigue su recorrido solo desde ellas
+ * 4. Sin mejoras, las distancias de cada fragmento son las del grafo completo y se
+ *    juntan UNA vez (con el límite aplicado en cada instancia)
+ * Con destino, la mejor distancia conocida hasta él es una COTA: ninguna instancia
+ * avanza desde distancias mayores y las semillas que no la mejoran no se mandan;
+ * la consulta termina cuando el destino quedó asentado
+ * El camino se arma de atrás hacia adelante: cada tramo local empieza en una
+ * semilla, y la semilla recuerda desde qué película de otra instancia se llegó
+ *
+ * VERSIÓN: cada paso lleva el sello del fragmento propio; una instancia cargada con
+ * otra versión de Neo4j rechaza el paso en lugar de mezclar resultados
+ *
+ * BOSQUE DE EXPANSIÓN: bosques locales + aristas cortadas, y Kruskal sobre la unión
+ * (propiedad del ciclo: lo que un fragmento descarta no está en el bosque global)
+ */
+@Component
+public class CoordinadorParticion {
+
+    private static final Logger log = LoggerFactory.getLogger(CoordinadorParticion.class);
+
+    @Autowired
+    private FragmentoGrafo fragmento;
+
+    @Autowired
+    private ClienteFragmentos clientes;
+
+    private final ExecutorService consultas = Executors.newCachedThreadPool(tarea -> {
+        Thread hilo = new Thread(tarea, "particion-consultas");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    @PreDestroy
+    void detener() {
+        consultas.shutdownNow();
+    }
+
+    // ============================================
+    // CONSULTAS
+    // ============================================
+
+    /**
+     * Distancias (Dijkstra) desde una película a todas las alcanzables: peliculaId -> distancia
+     */
+    public Map<Long, Double> distancias(Long peliculaId) {
+        Exploracion exploracion = explorar(peliculaId, false, null, null);
+        try {
+            Map<Long, Double> distancias = new LinkedHashMap<>();
+            juntar(exploracion, null).forEach(distancias::putAll);
+            return distancias;
+        } finally {
+            cerrar(exploracion);
+        }
+    }
+
+    /**
+     * Camino más corto entre dos películas de cualquier instancia; vacío si no hay
+     */
+    public List<Pelicula> camino(Long idInicio, Long idFin) {
+        Exploracion exploracion = explorar(idInicio, false, null, idFin);
+        try {
+            if (exploracion.cota == Double.POSITIVE_INFINITY) {
+                return new ArrayList<>();
+            }
+
+            // De atrás hacia adelante: tramo local hasta "actual", y de su semilla a la instancia anterior
+            LinkedList<Long> ids = new LinkedList<>();
+            Long actual = idFin;
+            for (int tramos = 0; tramos <= exploracion.previo.size(); tramos++) {
+                int parte = exploracion.dueña(actual);
+                SolicitudFragmento solicitud = exploracion.solicitud();
+                solicitud.setDestino(actual);
+                List<Long> tramo = dispersar(List.of(parte), p -> caminoEn(p, solicitud)).get(parte);
+                if (tramo.isEmpty()) {
+                    break;
+                }
+                ids.addAll(0, tramo);
+                if (tramo.get(0).equals(idInicio)) {
+                    return peliculas(exploracion.partes, ids);
+                }
+                actual = exploracion.previo.get(tramo.get(0));
+                if (actual == null) {
+                    break;
+                }
+            }
+            throw new IllegalStateException("Camino particionado inconsistente entre " + idInicio + " y " + idFin);
+        } finally {
+            cerrar(exploracion);
+        }
+    }
+
+    /**
+     * BFS por SIMILAR_A (en cualquier sentido) sobre todas las instancias, las más
+     * cercanas primero; sin el origen
+     * Cada instancia devuelve a lo sumo limite + 1 (el origen puede estar entre ellas)
+     */
+    public List<PeliculaDistancia> niveles(Long peliculaId, int profundidad, int limite) {
+        List<PeliculaDistancia> resultado = new ArrayList<>();
+        if (limite <= 0) {
+            return resultado;
+        }
+        Exploracion exploracion = explorar(peliculaId, true, profundidad, null);
+        try {
+            List<Map.Entry<Long, Double>> cercanas = new ArrayList<>();
+            juntar(exploracion, limite + 1).forEach(distancias -> cercanas.addAll(distancias.entrySet()));
+            List<Map.Entry<Long, Double>> elegidas = cercanas.stream()
+                .filter(e -> !e.getKey().equals(peliculaId))
+                .sorted(Map.Entry.<Long, Double>comparingByValue().thenComparing(Map.Entry.comparingByKey()))
+                .limit(limite)
+                .toList();
+            List<Pelicula> peliculas = peliculas(exploracion.partes,
+                elegidas.stream().map(Map.Entry::getKey).toList());
+            for (int k = 0; k < elegidas.size(); k++) {
+                resultado.add(new PeliculaDistancia(peliculas.get(k), elegidas.get(k).getValue().intValue()));
+            }
+            return resultado;
+        } finally {
+            cerrar(exploracion);
+        }
+    }
+
+    /**
+     * Bosque de expansión mínimo del grafo completo (mismo criterio que Kruskal)
+     * COMPLEJIDAD: O(E_f log E_f) en cada instancia + O(C log C) en el coordinador,
+     * C = aristas de los bosques locales + aristas cortadas
+     */
+    public ResultadoMST arbolExpansionMinimo() {
+        FragmentoGrafo.Vigente plan = vigente();
+        int partes = plan.local().partes();
+        long sello = plan.sello();
+        Map<Integer, List<AristaParticion>> porParte = dispersar(todas(partes), p -> bosqueEn(p, sello, partes));
+
+        List<AristaParticion> candidatas = new ArrayList<>();
+        porParte.values().forEach(candidatas::addAll);
+        candidatas.sort(Comparator.comparingDouble(AristaParticion::getValor));
+
+        UnionFind uf = new UnionFind();
+        Set<Long> nodos = new HashSet<>();
+        List<AristaParticion> elegidas = new ArrayList<>();
+        for (AristaParticion candidata : candidatas) {
+            nodos.add(candidata.getOrigen());
+            nodos.add(candidata.getDestino());
+        }
+        for (AristaParticion candidata : candidatas) {
+            if (!uf.estanConectados(candidata.getOrigen(), candidata.getDestino())) {
+                uf.union(candidata.getOrigen(), candidata.getDestino());
+                elegidas.add(candidata);
+                if (elegidas.size() == nodos.size() - 1) {
+                    break;
+                }
+            }
+        }
+
+        // Solo se piden las películas de las aristas elegidas
+        Set<Long> extremos = new TreeSet<>();
+        elegidas.forEach(arista -> {
+            extremos.add(arista.getOrigen());
+            extremos.add(arista.getDestino());
+        });
+        Map<Long, Pelicula> peliculas = new HashMap<>();
+        peliculas(partes, new ArrayList<>(extremos)).forEach(p -> peliculas.put(p.getPeliculaId(), p));
+
+        List<Arista> aristas = new ArrayList<>();
+        for (AristaParticion elegida : elegidas) {
+            Pelicula origen = peliculas.get(elegida.getOrigen());
+            Pelicula destino = peliculas.get(elegida.getDestino());
+            aristas.add(new Arista(origen, destino, elegida.getValor(), generosComunes(origen, destino)));
+        }
+        ResultadoMST resultado = new ResultadoMST(aristas, "Kruskal particionado");
+        resultado.setNumeroNodos(nodos.size());
+        return resultado;
+    }
+
+    /**
+     * Fragmento de cada instancia: películas, aristas, sello y huella
+     * consistente = todas cargadas con el mismo sello y la misma cantidad de instancias
+     */
+    public Map<String, Object> resumen() {
+        int partes = vigente().local().partes();
+        return resumen(dispersar(todas(partes), this::resumenEn));
+    }
+
+    /**
+     * Vuelve a cargar el fragmento de cada instancia (tras cambios en Neo4j)
+     */
+    public Map<String, Object> recargar() {
+        int partes = vigente().local().partes();
+        return resumen(dispersar(todas(partes), this::recargarEn));
+    }
+
+    private Map<String, Object> resumen(Map<Integer, ResumenFragmento> fragmentos) {
+        Map<String, Object> resumen = new LinkedHashMap<>();
+        resumen.put("instancias", fragmento.instancias());
+        resumen.put("indice", fragmento.indice());
+        resumen.put("peliculasPorInstancia", fragmentos.values().stream().map(ResumenFragmento::getPeliculas).toList());
+        resumen.put("aristas", fragmentos.values().stream().mapToLong(ResumenFragmento::getAristas).sum());
+        resumen.put("aristasCortadas", fragmentos.values().stream().mapToLong(ResumenFragmento::getAristasCortadas).sum());
+        resumen.put("sellos", fragmentos.values().stream().map(ResumenFragmento::getSello).toList());
+        resumen.put("huellas", fragmentos.values().stream().map(ResumenFragmento::getHuella).toList());
+        resumen.put("consistente", fragmentos.values().stream().map(ResumenFragmento::getSello).distinct().count() == 1
+            && fragmentos.values().stream().allMatch(f -> f.getPartes() == fragmentos.size()));
+        return resumen;
+    }
+
+    // ============================================
+    // RONDAS DE INTERCAMBIO DE BORDE
+    // ============================================
+
+    /**
+     * Estado de una exploración en el coordinador
+     * - mejor: mejor distancia conocida de cada semilla (película alcanzada desde otra instancia)
+     * - previo: película de OTRA instancia desde la que se llegó a cada semilla
+     * - nuevas: semillas nuevas o mejoradas por instancia, pendientes de mandar
+     * - contactadas: instancias con estado abierto para la consulta
+     * - cota: mejor distancia conocida al destino (infinito sin destino o sin alcanzar)
+     */
+    private static final class Exploracion {
+
+        private final String consulta = UUID.randomUUID().toString();
+        private final long sello;
+        private final int partes;
+        private final boolean saltos;
+        private final Integer profundidad;
+        private final Long destino;
+        private final Map<Long, Double> mejor = new HashMap<>();
+        private final Map<Long, Long> previo = new HashMap<>();
+        private final Map<Integer, Map<Long, Double>> nuevas = new TreeMap<>();
+        private final Set<Integer> contactadas = new TreeSet<>();
+        private double cota = Double.POSITIVE_INFINITY;
+
+        private Exploracion(long sello, int partes, boolean saltos, Integer profundidad, Long destino) {
+            this.sello = sello;
+            this.partes = partes;
+            this.saltos = saltos;
+            this.profundidad = profundidad;
+            this.destino = destino;
+        }
+
+        int dueña(Long peliculaId) {
+            return FragmentoLocal.dueña(peliculaId, partes);
+        }
+
+        void sembrar(Long peliculaId, double distancia, Long desde) {
+            if (distancia >= cota || distancia >= mejor.getOrDefault(peliculaId, Double.POSITIVE_INFINITY)) {
+                return;
+            }
+            mejor.put(peliculaId, distancia);
+            if (desde != null) {
+                previo.put(peliculaId, desde);
+            }
+            nuevas.computeIfAbsent(dueña(peliculaId), p -> new LinkedHashMap<>()).put(peliculaId, distancia);
+        }
+
+        SolicitudFragmento solicitud() {
+            SolicitudFragmento solicitud = new SolicitudFragmento();
+            solicitud.setConsulta(consulta);
+            solicitud.setSello(sello);
+            solicitud.setPartes(partes);
+            solicitud.setSaltos(saltos);
+            solicitud.setProfundidad(profundidad);
+            solicitud.setDestino(destino);
+            solicitud.setCota(cota < Double.POSITIVE_INFINITY ? cota : null);
+            return solicitud;
+        }
+
+        /**
+         * Una solicitud por instancia con semillas que todavía mejoran la cota
+         */
+        Map<Integer, SolicitudFragmento> ronda() {
+            Map<Integer, SolicitudFragmento> solicitudes = new TreeMap<>();
+            for (Map.Entry<Integer, Map<Long, Double>> porParte : nuevas.entrySet()) {
+                SolicitudFragmento solicitud = solicitud();
+                porParte.getValue().forEach((id, distancia) -> {
+                    if (distancia < cota) {
+                        solicitud.getSemillas().put(id, distancia);
+                    }
+                });
+                if (!solicitud.getSemillas().isEmpty()) {
+                    solicitud.setPrimera(contactadas.add(porParte.getKey()));
+                    solicitudes.put(porParte.getKey(), solicitud);
+                }
+            }
+            nuevas.clear();
+            return solicitudes;
+        }
+    }
+
+    /**
+     * COMPLEJIDAD: rondas × (paso local más lento + red); una instancia solo avanza si
+     * recibió semillas nuevas o mejores, y solo desde ellas
+     */
+    private Exploracion explorar(Long origen, boolean saltos, Integer profundidad, Long destino) {
+        FragmentoGrafo.Vigente plan = vigente();
+        Exploracion exploracion = new Exploracion(plan.sello(), plan.local().partes(), saltos, profundidad, destino);
+        exploracion.sembrar(origen, 0.0, null);
+        try {
+            Map<Integer, SolicitudFragmento> solicitudes = exploracion.ronda();
+            while (!solicitudes.isEmpty()) {
+                Map<Integer, SolicitudFragmento> ronda = solicitudes;
+                Map<Integer, RespuestaFragmento> respuestas = dispersar(ronda.keySet(), p -> explorarEn(p, ronda.get(p)));
+                for (RespuestaFragmento respuesta : respuestas.values()) {
+                    verificar(exploracion, respuesta.getParte(), respuesta.getSello());
+                    if (respuesta.getDistanciaDestino() != null) {
+                        exploracion.cota = Math.min(exploracion.cota, respuesta.getDistanciaDestino());
+                    }
+                }
+                for (RespuestaFragmento respuesta : respuestas.values()) {
+                    for (AristaParticion borde : respuesta.getFrontera()) {
+                        exploracion.sembrar(borde.getDestino(), borde.getValor(), borde.getOrigen());
+                    }
+                }
+                solicitudes = exploracion.ronda();
+            }
+            return exploracion;
+        } catch (RuntimeException e) {
+            cerrar(exploracion);
+            throw e;
+        }
+    }
+
+    /**
+     * Distancias alcanzadas en cada instancia contactada; con limite, las más cercanas de cada una
+     */
+    private List<Map<Long, Double>> juntar(Exploracion exploracion, Integer limite) {
+        SolicitudFragmento solicitud = exploracion.solicitud();
+        solicitud.setLimite(limite);
+        return new ArrayList<>(dispersar(exploracion.contactadas, p -> distanciasEn(p, solicitud)).values());
+    }
+
+    /**
+     * Películas por ID, pedidas a sus dueñas, en el mismo orden
+     */
+    private List<Pelicula> peliculas(int partes, List<Long> ids) {
+        Map<Integer, List<Long>> porParte = ids.stream()
+            .collect(Collectors.groupingBy(id -> FragmentoLocal.dueña(id, partes), TreeMap::new, Collectors.toList()));
+        Map<Long, Pelicula> peliculas = new HashMap<>();
+        dispersar(porParte.keySet(), p -> peliculasEn(p, porParte.get(p)))
+            .values()
+            .forEach(lista -> lista.forEach(p -> peliculas.put(p.getPeliculaId(), p)));
+        return ids.stream().map(id -> {
+            Pelicula pelicula = peliculas.get(id);
+            if (pelicula == null) {
+                throw new IllegalStateException("La instancia " + FragmentoLocal.dueña(id, partes)
+                    + " no tiene la película " + id);
+            }
+            return pelicula;
+        }).toList();
+    }
+
+    private static int generosComunes(Pelicula a, Pelicula b) {
+        Set<String> nombres = a.getGeneros().stream().map(Genero::getNombre).collect(Collectors.toSet());
+        return (int) b.getGeneros().stream().map(Genero::getNombre).filter(nombres::contains).count();
+    }
+
+    private static void verificar(Exploracion exploracion, Integer parte, Long sello) {
+        if (sello == null || sello != exploracion.sello) {
+            throw new IllegalStateException("La instancia " + parte + " respondió con el sello " + sello
+                + " y el coordinador usa " + exploracion.sello + ": recargar los fragmentos");
+        }
+    }
+
+    /**
+     * Libera el estado de la consulta en las instancias; si alguna no responde, su
+     * estado vence solo (recomendador.particion.consulta-ms)
+     */
+    private void cerrar(Exploracion exploracion) {
+        for (int parte : exploracion.contactadas) {
+            try {
+                if (parte == fragmento.indice()) {
+                    fragmento.cerrar(exploracion.consulta);
+                } else {
+                    clientes.cerrar(url(parte), exploracion.consulta);
+                }
+            } catch (RuntimeException e) {
+                log.debug("No se pudo cerrar la consulta {} en la instancia {}", exploracion.consulta, parte, e);
+            }
+        }
+    }
+
+    // ============================================
+    // SCATTER-GATHER
+    // ============================================
+
+    private FragmentoGrafo.Vigente vigente() {
+        if (!fragmento.habilitado()) {
+            throw new IllegalStateException("Sin partición: configurar recomendador.particion.instancias");
+        }
+        return fragmento.vigente();
+    }
+
+    private static List<Integer> todas(int partes) {
+        List<Integer> todas = new ArrayList<>();
+        for (int p = 0; p < partes; p++) {
+            todas.add(p);
+        }
+        return todas;
+    }
+
+    /**
+     * Una consulta por instancia, en paralelo; espera todas las respuestas
+     */
+    private <T> Map<Integer, T> dispersar(Iterable<Integer> partes, IntFunction<T> consulta) {
+        Map<Integer, Future<T>> pendientes = new TreeMap<>();
+        for (int parte : partes) {
+            pendientes.put(parte, consultas.submit(() -> consulta.apply(parte)));
+        }
+        Map<Integer, T> respuestas = new TreeMap<>();
+        for (Map.Entry<Integer, Future<T>> pendiente : pendientes.entrySet()) {
+            try {
+                respuestas.put(pendiente.getKey(), pendiente.getValue().get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Consulta particionada interrumpida", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("La instancia " + pendiente.getKey() + " no respondió", e.getCause());
+            }
+        }
+        return respuestas;
+    }
+
+    // La instancia propia se consulta sin pasar por HTTP
+
+    private RespuestaFragmento explorarEn(int parte, SolicitudFragmento solicitud) {
+        if (parte == fragmento.indice()) {
+            return fragmento.explorar(solicitud);
+        }
+        return clientes.explorar(url(parte), solicitud);
+    }
+
+    private Map<Long, Double> distanciasEn(int parte, SolicitudFragmento solicitud) {
+        if (parte == fragmento.indice()) {
+            return fragmento.distancias(solicitud);
+        }
+        return clientes.distancias(url(parte), solicitud);
+    }
+
+    private List<Long> caminoEn(int parte, SolicitudFragmento solicitud) {
+        if (parte == fragmento.indice()) {
+            return fragmento.camino(solicitud);
+        }
+        return clientes.camino(url(parte), solicitud);
+    }
+
+    private List<Pelicula> peliculasEn(int parte, List<Long> ids) {
+        if (parte == fragmento.indice()) {
+            return fragmento.peliculas(ids);
+        }
+        return clientes.peliculas(url(parte), ids);
+    }
+
+    private List<AristaParticion> bosqueEn(int parte, long sello, int partes) {
+        if (parte == fragmento.indice()) {
+            return fragmento.bosque(sello, partes);
+        }
+        return clientes.bosque(url(parte), sello, partes);
+    }
+
+    private ResumenFragmento resumenEn(int parte) {
+        if (parte == fragmento.indice()) {
+            return fragmento.resumen();
+        }
+        return clientes.resumen(url(parte));
+    }
+
+    private ResumenFragmento recargarEn(int parte) {
+        if (parte == fragmento.indice()) {
+            return fragmento.recargar();
+        }
+        return clientes.recargar(url(parte));
+    }
+
+    private String url(int parte) {
+        String url = fragmento.instancias().get(parte);
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+}
@@ -0,0 +1,188 @@
+package com.peliculas.recomendador.service;
+
+import com.peliculas.recomendador.model.Genero;
+import com.peliculas.recomendador.model.Pelicula;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * ESTADÍSTICAS DE GÉNEROS mantenidas de forma INCREMENTAL
+ * Soporta la recomendación Greedy "mejor película del género más frecuente"
+ *
+ * ESTRUCTURAS:
+ * - frecuencia: género -> cantidad de películas
+ * - porRating: género -> películas ordenadas por rating (árbol balanceado)
+ *
+ * COMPLEJIDAD:
+ * - Película agregada / re-calificada: O(g × log n) (g = géneros de la película)
+ * - Recomendación: O(1) (género más frecuente ya calculado + primer elemento del árbol)
+ *
+ * Contra la versión sobre la lista completa: dos recorridos O(n × g) por solicitud
+ */
+@Component
+public class EstadisticasGeneros implements OyenteCatalogo {
+
+    /**
+     * Entrada inmutable del árbol: el rating se copia para que cambiarlo en la
+     * película no rompa el orden del árbol
+     */
+    private record EntradaRating(double rating, long peliculaId) {
+    }
+
+    // Mayor rating primero; empate: menor id primero
+    private static final Comparator<EntradaRating> POR_RATING = Comparator
+        .comparingDouble(EntradaRating::rating).reversed()
+        .thenComparingLong(EntradaRating::peliculaId);
+
+    @Autowired
+    private CatalogoPeliculas catalogo;
+
+    private final Map<String, Integer> frecuencia = new HashMap<>();
+    private final Map<String, TreeSet<EntradaRating>> porRating = new HashMap<>();
+    private final Map<Long, Pelicula> peliculas = new LinkedHashMap<>();
+
+    private String generoMasFrecuente;
+
+    @PostConstruct
+    void registrarse() {
+        catalogo.registrarOyente(this);
+    }
+
+    /**
+     * GREEDY: la película con MEJOR RATING del género MÁS FRECUENTE
+     * COMPLEJIDAD: O(1) (+ carga inicial del catálogo la primera vez)
+     */
+    public Pelicula recomendacion() {
+        catalogo.asegurarCargado();
+
+        synchronized (this) {
+            if (peliculas.isEmpty()) {
+                return null;
+            }
+
+            // Sin géneros: misma respuesta que la versión sobre la lista (la primera)
+            if (generoMasFrecuente == null) {
+                return peliculas.values().iterator().next();
+            }
+
+            EntradaRating mejor = porRating.get(generoMasFrecuente).first();
+            return peliculas.get(mejor.peliculaId());
+        }
+    }
+
+    public synchronized String generoMasFrecuente() {
+        return generoMasFrecuente;
+    }
+
+    public synchronized int frecuencia(String genero) {
+        return frecuencia.getOrDefault(genero, 0);
+    }
+
+    // ============================================
+    // ACTUALIZACIONES (OyenteCatalogo)
+    // ============================================
+
+    @Override
+    public synchronized void catalogoCargado(Collection<Pelicula> todas) {
+        frecuencia.clear();
+        porRating.clear();
+        peliculas.clear();
+        generoMasFrecuente = null;
+
+        for (Pelicula pelicula : todas) {
+            peliculaAgregada(pelicula);
+        }
+    }
+
+    @Override
+    public synchronized void peliculaAgregada(Pelicula pelicula) {
+        peliculas.put(pelicula.getPeliculaId(), pelicula);
+        if (pelicula.getGeneros() == null) {
+            return;
+        }
+
+        EntradaRating entrada = entrada(pelicula, pelicula.getPromedioRating());
+        for (Genero genero : pelicula.getGeneros()) {
+            String nombre = genero.getNombre();
+            int nuevaFrecuencia = frecuencia.merge(nombre, 1, Integer::sum);
+            porRating.computeIfAbsent(nombre, g -> new TreeSet<>(POR_RATING)).add(entrada);
+
+            // O(1): un conteo que SUBE solo puede desplazar al máximo actual
+            if (generoMasFrecuente == null || nuevaFrecuencia > frecuencia.get(generoMasFrecuente)) {
+                generoMasFrecuente = nombre;
+            }
+        }
+    }
+
+    @Override
+    public synchronized void peliculaEliminada(Pelicula pelicula) {
+        peliculas.remove(pelicula.getPeliculaId());
+        if (pelicula.getGeneros() == null) {
+            return;
+        }
+
+        EntradaRating entrada = entrada(pelicula, pelicula.getPromedioRating());
+        boolean bajoElMaximo = false;
+
+        for (Genero genero : pelicula.getGeneros()) {
+            String nombre = genero.getNombre();
+            TreeSet<EntradaRating> arbol = porRating.get(nombre);
+            if (arbol == null || !arbol.remove(entrada)) {
+                continue;
+            }
+
+            if (arbol.isEmpty()) {
+                porRating.remove(nombre);
+                frecuencia.remove(nombre);
+            } else {
+                frecuencia.merge(nombre, -1, Integer::sum);
+            }
+            bajoElMaximo |= nombre.equals(generoMasFrecuente);
+        }
+
+        // O(G): solo si bajó el género más frecuente hay que buscar el nuevo máximo
+        if (bajoElMaximo) {
+            generoMasFrecuente = frecuencia.entrySet().stream()
+                .max(Map.Entry.comparingByValue())
+                .map(Map.Entry::getKey)
+                .orElse(null);
+        }
+    }
+
+    @Override
+    public synchronized void ratingActualizado(Pelicula pelicula, Double ratingAnterior) {
+        if (pelicula.getGeneros() == null) {
+            return;
+        }
+
+        // O(g × log n): mover la película dentro del árbol de cada uno de sus géneros
+        EntradaRating anterior = entrada(pelicula, ratingAnterior);
+        EntradaRating nueva = entrada(pelicula, pelicula.getPromedioRating());
+        for (Genero genero : pelicula.getGeneros()) {
+            TreeSet<EntradaRating> arbol = porRating.get(genero.getNombre());
+            if (arbol != null && arbol.remove(anterior)) {
+                arbol.add(nueva);
+            }
+        }
+    }
+
+    @Override
+    public void similitudActualizada(Pelicula origen, Pelicula destino, Double pesoAnterior) {
+        // Las similitudes no afectan géneros ni ratings
+    }
+
+    private EntradaRating entrada(Pelicula pelicula, Double rating) {
+        return new EntradaRating(
+            rating != null ? rating : Double.NEGATIVE_INFINITY,
+            pelicula.getPeliculaId()
+        );
+    }
+}
@@ -0,0 +1,377 @@
+package com.peliculas.recomendador.service;
+
+import com.peliculas.recomendador.algorithm.AlgoritmoDijkstra;
+import com.peliculas.recomendador.model.AristaParticion;
+import com.peliculas.recomendador.model.ExploracionLocal;
+import com.peliculas.recomendador.model.FragmentoLeido;
+import com.peliculas.recomendador.model.FragmentoLocal;
+import com.peliculas.recomendador.model.Pelicula;
+import com.peliculas.recomendador.model.RespuestaFragmento;
+import com.peliculas.recomendador.model.ResumenFragmento;
+import com.peliculas.recomendador.model.SolicitudFragmento;
+import com.peliculas.recomendador.repository.PeliculaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+/**
+ * FRAGMENTO DEL GRAFO que le toca a esta instancia en un despliegue particionado
+ *
+ * Todas las instancias tienen la misma lista recomendador.particion.instancias y
+ * cada una su posición (recomendador.particion.indice). La dueña de cada película
+ * es floorMod(peliculaId, instancias): cada instancia lee de Neo4j SOLO sus
+ * películas (por páginas, con sus SIMILAR_A en ambos sentidos) y los IDs de las
+ * vecinas de otras instancias; nunca carga el catálogo completo
+ *
+ * VERSIÓN: el sello del registro de cambios de Neo4j (toda escritura de una
+ * película o de sus similitudes lo mueve) se lee antes y después de la carga; si
+ * cambió en el medio se vuelve a leer. Cada paso trae el sello del coordinador y
+ * se rechaza si no es el del fragmento: nunca se mezclan fragmentos de versiones
+ * distintas (POST /api/particion/recargar vuelve a cargarlos todos)
+ *
+ * PASOS LOCALES que pide el coordinador (CoordinadorParticion):
+ * - explorar: UNA ronda de Dijkstra / BFS desde las semillas nuevas; el estado de la
+ *   consulta (ExploracionLocal) queda en la instancia entre rondas y la respuesta
+ *   lleva solo la frontera que mejoró y la distancia al destino si es propio
+ * - distancias / camino: lo que la consulta alcanzó aquí, al terminar las rondas
+ * - peliculas: las películas propias pedidas, para armar resultados
+ * - bosque: bosque de expansión mínimo de las aristas internas + aristas cortadas
+ *   (una arista interna que no está en el bosque local tampoco está en el global)
+ *
+ * Las consultas abiertas vencen tras recomendador.particion.consulta-ms sin uso
+ */
+@Component
+public class FragmentoGrafo {
+
+    private static final Logger log = LoggerFactory.getLogger(FragmentoGrafo.class);
+
+    // Cargas seguidas en las que Neo4j cambió en el medio antes de rendirse
+    private static final int INTENTOS_CARGA = 3;
+
+    @Autowired
+    private PeliculaRepository peliculaRepository;
+
+    @Autowired
+    private AlgoritmoDijkstra algoritmoDijkstra;
+
+    // URLs base de TODAS las instancias, separadas por coma; vacío = sin particionar
+    @Value("${recomendador.particion.instancias:}")
+    private String instancias;
+
+    @Value("${recomendador.particion.indice:0}")
+    private int indice;
+
+    @Value("${recomendador.particion.lote:5000}")
+    private int lote;
+
+    @Value("${recomendador.particion.consulta-ms:60000}")
+    private long vencimiento;
+
+    private volatile Vigente vigente;
+
+    private final Map<String, ExploracionLocal> exploraciones = new ConcurrentHashMap<>();
+
+    /**
+     * Fragmento cargado y sello de Neo4j con el que se cargó
+     */
+    public record Vigente(long sello, FragmentoLocal local) {
+    }
+
+    public boolean habilitado() {
+        return !instancias().isEmpty();
+    }
+
+    public List<String> instancias() {
+        return Arrays.stream(instancias.split(","))
+            .map(String::trim)
+            .filter(url -> !url.isEmpty())
+            .toList();
+    }
+
+    public int indice() {
+        return indice;
+    }
+
+    public int partes() {
+        return Math.max(instancias().size(), 1);
+    }
+
+    /**
+     * COMPLEJIDAD: O(1) si ya está cargado; la primera vez, la carga
+     */
+    public Vigente vigente() {
+        Vigente actual = vigente;
+        if (actual != null) {
+            return actual;
+        }
+        synchronized (this) {
+            if (vigente == null) {
+                vigente = cargar();
+            }
+            return vigente;
+        }
+    }
+
+    /**
+     * Vuelve a leer el fragmento; las consultas abiertas se descartan
+     */
+    public synchronized ResumenFragmento recargar() {
+        vigente = cargar();
+        exploraciones.clear();
+        return resumen();
+    }
+
+    /**
+     * COMPLEJIDAD: O(V_f / lote) páginas + O(V_f + E_f) armado
+     */
+    private Vigente cargar() {
+        int partes = partes();
+        if (indice < 0 || indice >= partes) {
+            throw new IllegalStateException("recomendador.particion.indice fuera de rango: " + indice);
+        }
+        for (int intento = 1; intento <= INTENTOS_CARGA; intento++) {
+            long sello = ultimoCambio();
+            FragmentoLocal.Constructor constructor = new FragmentoLocal.Constructor(indice, partes);
+            long despuesDe = Long.MIN_VALUE;
+            while (true) {
+                List<FragmentoLeido> pagina = peliculaRepository.leerFragmento(indice, partes, despuesDe, lote);
+                pagina.forEach(constructor::agregar);
+                if (pagina.size() < lote) {
+                    break;
+                }
+                despuesDe = pagina.get(pagina.size() - 1).getPeliculaId();
+            }
+            if (ultimoCambio() == sello) {
+                FragmentoLocal local = constructor.construir();
+                log.info("Fragmento {}/{} cargado: {} películas, {} vecinas de otras instancias, {} aristas ({} cortadas)",
+                    indice, partes, local.propios(), local.cantidad() - local.propios(),
+                    local.cantidadAristas(), local.aristasCortadas());
+                return new Vigente(sello, local);
+            }
+            log.info("Neo4j cambió durante la carga del fragmento {} (intento {}); se vuelve a leer", indice, intento);
+        }
+        throw new IllegalStateException("Neo4j cambió durante " + INTENTOS_CARGA
+            + " cargas seguidas del fragmento " + indice);
+    }
+
+    private long ultimoCambio() {
+        Long sello = peliculaRepository.ultimoCambio();
+        return sello != null ? sello : 0L;
+    }
+
+    // ============================================
+    // PASOS LOCALES
+    // ============================================
+
+    /**
+     * Una ronda: solo se recorre lo que mejoran las semillas nuevas
+     * COMPLEJIDAD: O((V' + E') log V_f), V' / E' = películas y aristas que mejoran
+     * (más O(V_f) la primera ronda de la consulta)
+     */
+    public RespuestaFragmento explorar(SolicitudFragmento solicitud) {
+        Vigente plan = verificar(solicitud);
+        FragmentoLocal local = plan.local();
+        ExploracionLocal estado = exploracion(solicitud, plan);
+
+        int[] origenes = new int[solicitud.getSemillas().size()];
+        double[] iniciales = new double[origenes.length];
+        int k = 0;
+        for (Map.Entry<Long, Double> semilla : solicitud.getSemillas().entrySet()) {
+            int u = local.indice(semilla.getKey());
+            if (u >= 0 && local.propio(u) && semilla.getValue() != null) {
+                origenes[k] = u;
+                iniciales[k++] = semilla.getValue();
+            }
+        }
+        double limite = solicitud.getProfundidad() != null ? solicitud.getProfundidad() : Double.POSITIVE_INFINITY;
+        double cota = solicitud.getCota() != null ? solicitud.getCota() : Double.POSITIVE_INFINITY;
+        int destino = destinoPropio(local, solicitud.getDestino());
+
+        RespuestaFragmento respuesta = new RespuestaFragmento();
+        respuesta.setParte(indice);
+        respuesta.setSello(plan.sello());
+        synchronized (estado) {
+            algoritmoDijkstra.avanzar(estado, Arrays.copyOf(origenes, k), Arrays.copyOf(iniciales, k),
+                limite, cota, destino, solicitud.isSaltos());
+            for (int m = 0; m < estado.mejorados().tamaño(); m++) {
+                int w = estado.mejorados().valor(m);
+                respuesta.getFrontera().add(new AristaParticion(
+                    local.id(estado.padre(w)), local.id(w), estado.distancia(w)));
+            }
+            if (destino >= 0 && estado.alcanzada(destino)) {
+                respuesta.setDistanciaDestino(estado.distancia(destino));
+            }
+        }
+        return respuesta;
+    }
+
+    /**
+     * Películas propias alcanzadas por la consulta (peliculaId -> distancia), de la
+     * más cercana a la más lejana; con limite, solo las "limite" primeras
+     * COMPLEJIDAD: O(V_f + V' log V')
+     */
+    public Map<Long, Double> distancias(SolicitudFragmento solicitud) {
+        Vigente plan = verificar(solicitud);
+        FragmentoLocal local = plan.local();
+        ExploracionLocal estado = exploracion(solicitud, plan);
+        Map<Long, Double> distancias = new LinkedHashMap<>();
+        synchronized (estado) {
+            IntStream.range(0, local.propios())
+                .filter(estado::alcanzada)
+                .boxed()
+                .sorted(Comparator.<Integer>comparingDouble(estado::distancia).thenComparingLong(local::id))
+                .limit(solicitud.getLimite() != null ? Math.max(solicitud.getLimite(), 0) : Long.MAX_VALUE)
+                .forEach(u -> distancias.put(local.id(u), estado.distancia(u)));
+        }
+        return distancias;
+    }
+
+    /**
+     * IDs del camino dentro del fragmento: de la semilla de la que cuelga hasta el destino
+     * Vacío si el destino no es propio o no se alcanzó
+     */
+    public List<Long> camino(SolicitudFragmento solicitud) {
+        Vigente plan = verificar(solicitud);
+        FragmentoLocal local = plan.local();
+        ExploracionLocal estado = exploracion(solicitud, plan);
+        int destino = destinoPropio(local, solicitud.getDestino());
+        List<Long> camino = new ArrayList<>();
+        synchronized (estado) {
+            if (destino >= 0 && estado.alcanzada(destino)) {
+                for (int u : estado.camino(destino)) {
+                    camino.add(local.id(u));
+                }
+            }
+        }
+        return camino;
+    }
+
+    /**
+     * Películas propias con esos IDs (las que no son propias se omiten)
+     * COMPLEJIDAD: O(k)
+     */
+    public List<Pelicula> peliculas(List<Long> ids) {
+        FragmentoLocal local = vigente().local();
+        List<Pelicula> peliculas = new ArrayList<>();
+        for (Long id : ids) {
+            int u = local.indice(id);
+            if (u >= 0 && local.propio(u)) {
+                peliculas.add(local.pelicula(u));
+            }
+        }
+        return peliculas;
+    }
+
+    public void cerrar(String consulta) {
+        exploraciones.remove(consulta);
+    }
+
+    /**
+     * Bosque de expansión mínimo de las aristas INTERNAS (Kruskal) + aristas cortadas
+     * que salen de películas propias (cada arista cortada la informa solo su origen)
+     * COMPLEJIDAD: O(V_f + E_f log E_f)
+     */
+    public List<AristaParticion> bosque(Long sello, Integer partes) {
+        SolicitudFragmento solicitud = new SolicitudFragmento();
+        solicitud.setSello(sello);
+        solicitud.setPartes(partes);
+        FragmentoLocal local = verificar(solicitud).local();
+
+        List<AristaParticion> aristas = new ArrayList<>();
+        int[] origenes = new int[local.cantidadAristas()];
+        for (int u = 0; u < local.propios(); u++) {
+            for (int a = local.primeraSalida(u); a < local.finSalida(u); a++) {
+                origenes[a] = u;
+                if (!local.propio(local.destino(a))) {
+                    aristas.add(new AristaParticion(local.id(u), local.id(local.destino(a)), local.peso(a)));
+                }
+            }
+        }
+
+        int[] internas = IntStream.range(0, local.cantidadAristas())
+            .filter(a -> local.propio(local.destino(a)))
+            .boxed()
+            .sorted(Comparator.comparingDouble(local::peso))
+            .mapToInt(Integer::intValue)
+            .toArray();
+        int[] representante = new int[local.propios()];
+        for (int u = 0; u < representante.length; u++) {
+            representante[u] = u;
+        }
+        for (int a : internas) {
+            int ru = buscar(representante, origenes[a]);
+            int rv = buscar(representante, local.destino(a));
+            if (ru != rv) {
+                representante[ru] = rv;
+                aristas.add(new AristaParticion(local.id(origenes[a]), local.id(local.destino(a)), local.peso(a)));
+            }
+        }
+        return aristas;
+    }
+
+    public ResumenFragmento resumen() {
+        Vigente plan = vigente();
+        FragmentoLocal local = plan.local();
+        return new ResumenFragmento(indice, local.partes(), plan.sello(), local.huella(), local.propios(),
+            local.cantidad() - local.propios(), (long) local.cantidadAristas(), local.aristasCortadas());
+    }
+
+    private static int buscar(int[] representante, int v) {
+        while (representante[v] != v) {
+            representante[v] = representante[representante[v]];  // compresión a la mitad
+            v = representante[v];
+        }
+        return v;
+    }
+
+    private static int destinoPropio(FragmentoLocal local, Long destino) {
+        int u = local.indice(destino);
+        return u >= 0 && local.propio(u) ? u : -1;
+    }
+
+    private Vigente verificar(SolicitudFragmento solicitud) {
+        Vigente plan = vigente();
+        if (solicitud.getPartes() != null && solicitud.getPartes() != plan.local().partes()) {
+            throw new IllegalStateException("El coordinador reparte en " + solicitud.getPartes()
+                + " instancias y la instancia " + indice + " en " + plan.local().partes());
+        }
+        if (solicitud.getSello() != null && solicitud.getSello() != plan.sello()) {
+            throw new IllegalStateException("La instancia " + indice + " cargó su fragmento con el sello "
+                + plan.sello() + " y el coordinador con " + solicitud.getSello()
+                + ": los fragmentos no son de la misma versión de Neo4j (recargar)");
+        }
+        return plan;
+    }
+
+    /**
+     * Estado de la consulta en esta instancia: se crea con la primera ronda y una
+     * ronda posterior sin estado (vencido o descartado al recargar) se rechaza
+     */
+    private ExploracionLocal exploracion(SolicitudFragmento solicitud, Vigente plan) {
+        if (solicitud.getConsulta() == null) {
+            throw new IllegalArgumentException("Falta el identificador de la consulta");
+        }
+        long limite = System.currentTimeMillis() - vencimiento;
+        exploraciones.values().removeIf(exploracion -> exploracion.usadaEn() < limite);
+
+        ExploracionLocal estado = solicitud.isPrimera()
+            ? exploraciones.computeIfAbsent(solicitud.getConsulta(), consulta -> new ExploracionLocal(plan.local()))
+            : exploraciones.get(solicitud.getConsulta());
+        if (estado == null || estado.fragmento() != plan.local()) {
+            throw new IllegalStateException("La consulta " + solicitud.getConsulta()
+                + " no está abierta en la instancia " + indice + " (venció o se recargó el fragmento)");
+        }
+        return estado;
+    }
+}
@@ -0,0 +1,163 @@
+package com.peliculas.recomendador.service;
+
+import com.peliculas.recomendador.algorithm.AlgoritmoContraccion;
+import com.peliculas.recomendador.algorithm.AlgoritmoDijkstra;
+import com.peliculas.recomendador.model.ArbolCaminos;
+import com.peliculas.recomendador.model.GrafoPeliculas;
+import com.peliculas.recomendador.model.JerarquiaContraccion;
+import com.peliculas.recomendador.model.Pelicula;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * ÍNDICE DE CONTRACCIÓN (Contraction Hierarchies) del catálogo, opcional
+ * Habilitado con recomendador.caminos.contraccion=true
+ *
+ * - Depende SOLO de las aristas SIMILAR_A: los cambios de rating no lo invalidan
+ * - Tras una carga completa (importación) se arma en SEGUNDO PLANO
+ * - Mientras no está listo, las consultas usan Dijkstra sobre el grafo en memoria
+ *   (nunca esperan al preprocesamiento)
+ */
+@Component
+public class IndiceContraccion implements OyenteCatalogo {
+
+    @Autowired
+    private CatalogoPeliculas catalogo;
+
+    @Autowired
+    private AlgoritmoContraccion algoritmoContraccion;
+
+    @Autowired
+    private AlgoritmoDijkstra algoritmoDijkstra;
+
+    @Value("${recomendador.caminos.contraccion:false}")
+    private boolean habilitado;
+
+    private final ExecutorService constructor = Executors.newSingleThreadExecutor(tarea -> {
+        Thread hilo = new Thread(tarea, "indice-contraccion");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    // Cambios de aristas (altas / bajas de películas y similitudes); la jerarquía vale para una generación
+    private volatile long generacion;
+    private volatile long generacionEnConstruccion = -1;
+    private volatile Construida construida;
+
+    private record Construida(long generacion, JerarquiaContraccion jerarquia) {
+    }
+
+    @PostConstruct
+    void registrarse() {
+        if (habilitado) {
+            catalogo.registrarOyente(this);
+        }
+    }
+
+    @PreDestroy
+    void detener() {
+        constructor.shutdownNow();
+    }
+
+    public boolean habilitado() {
+        return habilitado;
+    }
+
+    /**
+     * Camino más corto entre dos películas: por la jerarquía si está lista para
+     * la versión actual de las aristas, si no por Dijkstra sobre el grafo en memoria
+     */
+    public List<Pelicula> caminoMasCorto(Long peliculaInicio, Long peliculaFin) {
+        JerarquiaContraccion jerarquia = obtenerJerarquia();
+        if (jerarquia != null) {
+            return algoritmoContraccion.caminoMasCorto(jerarquia, peliculaInicio, peliculaFin);
+        }
+
+        GrafoPeliculas grafo = catalogo.obtenerGrafo();
+        List<Pelicula> resultado = new ArrayList<>();
+        int origen = grafo.indice(peliculaInicio);
+        int destino = grafo.indice(peliculaFin);
+        if (origen < 0 || destino < 0) {
+            return resultado;
+        }
+        ArbolCaminos arbol = algoritmoDijkstra.arbolHacia(grafo, origen, new int[]{destino});
+        for (int indice : arbol.camino(destino)) {
+            resultado.add(grafo.pelicula(indice));
+        }
+        return resultado;
+    }
+
+    /**
+     * Jerarquía vigente, o null si todavía se está armando (se pide en segundo plano)
+     */
+    public JerarquiaContraccion obtenerJerarquia() {
+        catalogo.asegurarCargado();
+        Construida actual = construida;
+        if (actual != null && actual.generacion() == generacion) {
+            return actual.jerarquia();
+        }
+        programarConstruccion();
+        return null;
+    }
+
+    private synchronized void programarConstruccion() {
+        long pedida = generacion;
+        if (generacionEnConstruccion == pedida) {
+            return;  // ya hay una construcción en curso para esta generación
+        }
+        generacionEnConstruccion = pedida;
+        constructor.execute(() -> {
+            // El grafo leído después de "pedida" es igual o más nuevo: a lo sumo se rearma otra vez
+            try {
+                GrafoPeliculas grafo = catalogo.obtenerGrafo();
+                construida = new Construida(pedida, algoritmoContraccion.construir(grafo));
+            } catch (RuntimeException e) {
+                generacionEnConstruccion = -1;  // la próxima consulta lo reintenta
+                throw e;
+            }
+        });
+    }
+
+    private void aristasCambiaron() {
+        generacion++;
+    }
+
+    // ============================================
+    // CAMBIOS DEL CATÁLOGO
+    // ============================================
+
+    @Override
+    public void catalogoCargado(Collection<Pelicula> peliculas) {
+        aristasCambiaron();
+        programarConstruccion();  // importación: se arma sin esperar a la primera consulta
+    }
+
+    @Override
+    public void peliculaAgregada(Pelicula pelicula) {
+        aristasCambiaron();
+    }
+
+    @Override
+    public void peliculaEliminada(Pelicula pelicula) {
+        aristasCambiaron();
+    }
+
+    @Override
+    public void ratingActualizado(Pelicula pelicula, Double ratingAnterior) {
+        // Las aristas no cambian: la jerarquía sigue valiendo
+    }
+
+    @Override
+    public void similitudActualizada(Pelicula origen, Pelicula destino, Double pesoAnterior) {
+        aristasCambiaron();  // se rearma en segundo plano con la próxima consulta
+    }
+}
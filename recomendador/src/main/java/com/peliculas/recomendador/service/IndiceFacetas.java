@@ -0,0 +1,265 @@
+package com.peliculas.recomendador.service;
+
+import com.peliculas.recomendador.algorithm.SeleccionTopK;
+import com.peliculas.recomendador.model.BitmapComprimido;
+import com.peliculas.recomendador.model.FiltroPeliculas;
+import com.peliculas.recomendador.model.GrafoPeliculas;
+import com.peliculas.recomendador.model.Pelicula;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * ÍNDICE DE FACETAS con bitmaps comprimidos sobre los índices densos del catálogo
+ *
+ * FACETAS:
+ * - Género: un bitmap por género
+ * - Año: cubetas de 1 año
+ * - Duración: cubetas de 10 minutos
+ * - Rating: cubetas de 0.5
+ *
+ * CONSULTA: AND / OR de bitmaps + top-k por rating sobre el resultado
+ * - Las cubetas completamente dentro del rango se unen tal cual
+ * - En las cubetas del BORDE se revisa el valor exacto de cada película
+ *
+ * Se arma una vez por versión del catálogo: O(n × g)
+ * Contra Neo4j: sin viajes a la base por página del buscador
+ */
+@Component
+public class IndiceFacetas {
+
+    @Autowired
+    private CatalogoPeliculas catalogo;
+
+    private volatile Facetas facetas;
+
+    /**
+     * Películas que cumplen el filtro, las de mejor rating primero
+     * COMPLEJIDAD: O(operaciones de bitmap + R log k), R = películas que cumplen
+     */
+    public List<Pelicula> filtrar(FiltroPeliculas filtro) {
+        Facetas actuales = obtenerFacetas();
+        int[] candidatas = actuales.coincidencias(filtro).aArreglo();
+
+        double[] ratings = new double[candidatas.length];
+        for (int i = 0; i < candidatas.length; i++) {
+            double rating = actuales.ratings.valores[candidatas[i]];
+            ratings[i] = Double.isNaN(rating) ? Double.NEGATIVE_INFINITY : rating;  // sin rating: al final
+        }
+
+        List<Pelicula> resultado = new ArrayList<>();
+        for (int indice : SeleccionTopK.mayores(ratings, filtro.getLimite())) {
+            resultado.add(actuales.grafo.pelicula(candidatas[indice]));
+        }
+        return resultado;
+    }
+
+    /**
+     * Cantidad de películas que cumplen el filtro (para paginar)
+     */
+    public int contar(FiltroPeliculas filtro) {
+        return obtenerFacetas().coincidencias(filtro).cardinalidad();
+    }
+
+    /**
+     * Bitmap de índices densos (de GrafoPeliculas) que cumplen el filtro
+     * Puede ser un bitmap del propio índice: NO modificarlo
+     */
+    public BitmapComprimido coincidencias(FiltroPeliculas filtro) {
+        return obtenerFacetas().coincidencias(filtro);
+    }
+
+    private Facetas obtenerFacetas() {
+        GrafoPeliculas grafo = catalogo.obtenerGrafo();
+        Facetas actuales = facetas;
+        if (actuales != null && actuales.grafo == grafo) {
+            return actuales;
+        }
+
+        synchronized (this) {
+            if (facetas == null || facetas.grafo != grafo) {
+                facetas = new Facetas(grafo);
+            }
+            return facetas;
+        }
+    }
+
+    // ============================================
+    // FACETAS DE UNA VERSIÓN DEL CATÁLOGO
+    // ============================================
+
+    private static final class Facetas {
+
+        private final GrafoPeliculas grafo;
+        private final BitmapComprimido[] porGenero;
+        private final FacetaRango años;
+        private final FacetaRango duraciones;
+        private final FacetaRango ratings;
+
+        Facetas(GrafoPeliculas grafo) {
+            this.grafo = grafo;
+            int n = grafo.cantidad();
+
+            porGenero = new BitmapComprimido[grafo.cantidadGeneros()];
+            for (int i = 0; i < n; i++) {
+                for (int genero = grafo.siguienteGenero(i, 0); genero >= 0; genero = grafo.siguienteGenero(i, genero + 1)) {
+                    if (porGenero[genero] == null) {
+                        porGenero[genero] = new BitmapComprimido();
+                    }
+                    porGenero[genero].agregar(i);
+                }
+            }
+
+            años = new FacetaRango(grafo, 1, p -> valor(p.getAño()));
+            duraciones = new FacetaRango(grafo, 10, p -> valor(p.getDuracion()));
+            ratings = new FacetaRango(grafo, 0.5, p -> valor(p.getPromedioRating()));
+        }
+
+        BitmapComprimido coincidencias(FiltroPeliculas filtro) {
+            BitmapComprimido resultado = null;
+
+            List<String> generos = filtro.getGeneros();
+            if (generos != null && !generos.isEmpty()) {
+                resultado = filtro.isTodosLosGeneros() ? todosLosGeneros(generos) : algunGenero(generos);
+            }
+
+            resultado = intersectar(resultado, años.rango(valor(filtro.getAñoMin()), valor(filtro.getAñoMax())));
+            resultado = intersectar(resultado, duraciones.rango(valor(filtro.getDuracionMin()), valor(filtro.getDuracionMax())));
+            resultado = intersectar(resultado, ratings.rango(valor(filtro.getRatingMin()), valor(filtro.getRatingMax())));
+
+            // Sin restricciones: todo el catálogo
+            return resultado != null ? resultado : BitmapComprimido.rango(0, grafo.cantidad());
+        }
+
+        private BitmapComprimido todosLosGeneros(List<String> generos) {
+            BitmapComprimido resultado = null;
+            for (String genero : generos) {
+                BitmapComprimido bitmap = bitmapDeGenero(genero);
+                if (bitmap == null) {
+                    return new BitmapComprimido();  // género desconocido: nadie lo tiene
+                }
+                resultado = intersectar(resultado, bitmap);
+            }
+            return resultado;
+        }
+
+        private BitmapComprimido algunGenero(List<String> generos) {
+            List<BitmapComprimido> bitmaps = new ArrayList<>();
+            for (String genero : generos) {
+                BitmapComprimido bitmap = bitmapDeGenero(genero);
+                if (bitmap != null) {
+                    bitmaps.add(bitmap);
+                }
+            }
+            return BitmapComprimido.unionDe(bitmaps);
+        }
+
+        private BitmapComprimido bitmapDeGenero(String genero) {
+            int id = grafo.diccionario().idDe(genero);
+            return id >= 0 && id < porGenero.length ? porGenero[id] : null;
+        }
+
+        private static BitmapComprimido intersectar(BitmapComprimido actual, BitmapComprimido otro) {
+            if (otro == null) {
+                return actual;
+            }
+            return actual == null ? otro : actual.and(otro);
+        }
+    }
+
+    /**
+     * Faceta numérica dividida en cubetas de ancho fijo
+     * Las películas sin valor (NaN) no entran en ninguna cubeta
+     */
+    private static final class FacetaRango {
+
+        private final double ancho;
+        private final double base;
+        private final double[] valores;
+        private final BitmapComprimido[] cubetas;
+
+        FacetaRango(GrafoPeliculas grafo, double ancho, Function<Pelicula, Double> atributo) {
+            int n = grafo.cantidad();
+            this.ancho = ancho;
+            this.valores = new double[n];
+
+            double minimo = Double.POSITIVE_INFINITY;
+            double maximo = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < n; i++) {
+                valores[i] = atributo.apply(grafo.pelicula(i));
+                if (!Double.isNaN(valores[i])) {
+                    minimo = Math.min(minimo, valores[i]);
+                    maximo = Math.max(maximo, valores[i]);
+                }
+            }
+
+            if (minimo > maximo) {
+                this.base = 0;
+                this.cubetas = new BitmapComprimido[0];
+                return;
+            }
+
+            this.base = Math.floor(minimo / ancho) * ancho;
+            this.cubetas = new BitmapComprimido[cubeta(maximo) + 1];
+            for (int i = 0; i < n; i++) {
+                if (!Double.isNaN(valores[i])) {
+                    int c = cubeta(valores[i]);
+                    if (cubetas[c] == null) {
+                        cubetas[c] = new BitmapComprimido();
+                    }
+                    cubetas[c].agregar(i);
+                }
+            }
+        }
+
+        /**
+         * Películas con valor en [minimo, maximo]; null si no hay restricción
+         * COMPLEJIDAD: O(cubetas del rango) uniones + revisión de las 2 cubetas del borde
+         */
+        BitmapComprimido rango(double minimo, double maximo) {
+            if (Double.isNaN(minimo) && Double.isNaN(maximo)) {
+                return null;
+            }
+            double desde = Double.isNaN(minimo) ? Double.NEGATIVE_INFINITY : minimo;
+            double hasta = Double.isNaN(maximo) ? Double.POSITIVE_INFINITY : maximo;
+            if (desde > hasta || cubetas.length == 0) {
+                return new BitmapComprimido();
+            }
+
+            int primera = Math.max(0, desde == Double.NEGATIVE_INFINITY ? 0 : cubeta(desde));
+            int ultima = Math.min(cubetas.length - 1, hasta == Double.POSITIVE_INFINITY ? cubetas.length - 1 : cubeta(hasta));
+
+            List<BitmapComprimido> partes = new ArrayList<>();
+            for (int c = primera; c <= ultima; c++) {
+                if (cubetas[c] == null) {
+                    continue;
+                }
+                double inicioCubeta = base + c * ancho;
+                boolean completa = inicioCubeta >= desde && inicioCubeta + ancho <= hasta;
+                partes.add(completa ? cubetas[c] : filtrarCubeta(cubetas[c], desde, hasta));
+            }
+            return BitmapComprimido.unionDe(partes);
+        }
+
+        private BitmapComprimido filtrarCubeta(BitmapComprimido cubeta, double desde, double hasta) {
+            BitmapComprimido resultado = new BitmapComprimido();
+            cubeta.paraCada(i -> {
+                if (valores[i] >= desde && valores[i] <= hasta) {
+                    resultado.agregar(i);
+                }
+            });
+            return resultado;
+        }
+
+        private int cubeta(double valor) {
+            return (int) Math.floor((valor - base) / ancho);
+        }
+    }
+
+    private static double valor(Number numero) {
+        return numero != null ? numero.doubleValue() : Double.NaN;
+    }
+}
@@ -0,0 +1,466 @@
+package com.peliculas.recomendador.service;
+
+import com.peliculas.recomendador.model.Actor;
+import com.peliculas.recomendador.model.Genero;
+import com.peliculas.recomendador.model.Pelicula;
+import com.peliculas.recomendador.model.RelacionSimilitud;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.CRC32;
+
+/**
+ * INSTANTÁNEA BINARIA del catálogo en disco (recomendador.instantanea.archivo)
+ * Se escribe tras cada carga completa desde Neo4j (y, con sincronización, cuando
+ * esta se pone al día) y se abre al arrancar con un archivo MAPEADO EN MEMORIA:
+ * la instancia responde en segundos y se pone al día con Neo4j en segundo plano
+ *
+ * FORMATO (little-endian, secciones alineadas a 8 bytes):
+ * - Cabecera de 64 bytes: mágico, versión del formato, sello del registro de
+ *   cambios, n películas, m similitudes, g géneros, a actores, largo y CRC32 del
+ *   contenido
+ * - Columnas de atributos: ids, ratings (NaN = sin valor), años y duraciones
+ *   (MIN_VALUE = sin valor), títulos (largo + UTF-8, -1 = sin título)
+ * - Diccionario de géneros (largo + UTF-8) y géneros de cada película en CSR
+ * - Diccionario de actores y actores de cada película en CSR (igual que géneros)
+ * - Adyacencia SIMILAR_A en CSR: inicio por película, destino (índice), peso y
+ *   géneros comunes
+ *
+ * Otra versión del formato, un archivo truncado o un CRC distinto = no hay
+ * instantánea (se carga desde Neo4j como siempre)
+ * Se escribe en un temporal y se reemplaza con un MOVE atómico; si la escritura
+ * falla se registra, se borra el temporal y queda la instantánea anterior
+ */
+@Component
+public class InstantaneaCatalogo {
+
+    private static final Logger log = LoggerFactory.getLogger(InstantaneaCatalogo.class);
+
+    private static final long MAGICO = 0x50454C49534E4150L;  // "PELISNAP"
+    private static final int FORMATO = 2;
+    private static final int CABECERA = 64;
+
+    @Value("${recomendador.instantanea.archivo:}")
+    private String archivo;
+
+    private final ExecutorService escritor = Executors.newSingleThreadExecutor(tarea -> {
+        Thread hilo = new Thread(tarea, "instantanea-catalogo");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    /**
+     * Películas leídas de la instantánea y sello del registro de cambios de Neo4j
+     * hasta el que llegan
+     */
+    public record Contenido(List<Pelicula> peliculas, long ultimoCambio) {
+    }
+
+    @PreDestroy
+    void detener() {
+        escritor.shutdown();
+    }
+
+    public boolean habilitada() {
+        return archivo != null && !archivo.isBlank();
+    }
+
+    // ============================================
+    // LECTURA
+    // ============================================
+
+    /**
+     * Abre la instantánea, o null si no hay una válida
+     * COMPLEJIDAD: O(n + m) lecturas en bloque desde el archivo mapeado
+     */
+    public Contenido leer() {
+        if (!habilitada() || !Files.isRegularFile(Path.of(archivo))) {
+            return null;
+        }
+        try (FileChannel canal = FileChannel.open(Path.of(archivo), StandardOpenOption.READ)) {
+            long tamaño = canal.size();
+            if (tamaño < CABECERA || tamaño > Integer.MAX_VALUE) {
+                return null;
+            }
+            MappedByteBuffer mapa = canal.map(FileChannel.MapMode.READ_ONLY, 0, tamaño);
+            mapa.order(ByteOrder.LITTLE_ENDIAN);
+            return decodificar(mapa);
+        } catch (IOException | RuntimeException e) {
+            return null;  // ilegible: se carga desde Neo4j
+        }
+    }
+
+    private static Contenido decodificar(ByteBuffer mapa) {
+        // ========================================
+        // CABECERA
+        // ========================================
+        if (mapa.getLong(0) != MAGICO || mapa.getInt(8) != FORMATO) {
+            return null;
+        }
+        long ultimoCambio = mapa.getLong(16);
+        int n = mapa.getInt(24);
+        int m = mapa.getInt(28);
+        int g = mapa.getInt(32);
+        int cantidadActores = mapa.getInt(36);
+        long largo = mapa.getLong(40);
+        long crcEsperado = mapa.getLong(48);
+        if (CABECERA + largo != mapa.capacity()) {
+            return null;  // truncado
+        }
+        CRC32 crc = new CRC32();
+        crc.update(mapa.slice(CABECERA, (int) largo));
+        if (crc.getValue() != crcEsperado) {
+            return null;
+        }
+
+        Lector lector = new Lector(mapa, CABECERA);
+
+        // ========================================
+        // COLUMNAS DE ATRIBUTOS
+        // ========================================
+        long[] ids = lector.longs(n);
+        double[] ratings = lector.doubles(n);
+        int[] años = lector.ints(n);
+        int[] duraciones = lector.ints(n);
+        List<Pelicula> peliculas = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            peliculas.add(new Pelicula(ids[i], lector.texto(),
+                años[i] != Integer.MIN_VALUE ? años[i] : null,
+                !Double.isNaN(ratings[i]) ? ratings[i] : null,
+                duraciones[i] != Integer.MIN_VALUE ? duraciones[i] : null));
+        }
+        lector.alinear();
+
+        // ========================================
+        // GÉNEROS: diccionario + CSR película -> géneros
+        // ========================================
+        Genero[] generos = new Genero[g];
+        for (int k = 0; k < g; k++) {
+            generos[k] = new Genero(lector.texto());  // una instancia por género, compartida
+        }
+        lector.alinear();
+        int[] inicioGeneros = lector.ints(n + 1);
+        int[] generosDe = lector.ints(inicioGeneros[n]);
+        for (int i = 0; i < n; i++) {
+            for (int k = inicioGeneros[i]; k < inicioGeneros[i + 1]; k++) {
+                peliculas.get(i).getGeneros().add(generos[generosDe[k]]);
+            }
+        }
+        lector.alinear();
+
+        // ========================================
+        // ACTORES: diccionario + CSR película -> actores
+        // ========================================
+        Actor[] actores = new Actor[cantidadActores];
+        for (int k = 0; k < cantidadActores; k++) {
+            actores[k] = new Actor(lector.texto());
+        }
+        lector.alinear();
+        int[] inicioActores = lector.ints(n + 1);
+        int[] actoresDe = lector.ints(inicioActores[n]);
+        for (int i = 0; i < n; i++) {
+            for (int k = inicioActores[i]; k < inicioActores[i + 1]; k++) {
+                peliculas.get(i).getActores().add(actores[actoresDe[k]]);
+            }
+        }
+
+        // ========================================
+        // ADYACENCIA SIMILAR_A (CSR)
+        // ========================================
+        int[] inicioSalida = lector.ints(n + 1);
+        int[] destinos = lector.ints(m);
+        lector.alinear();
+        double[] pesos = lector.doubles(m);
+        int[] comunes = lector.ints(m);
+        for (int i = 0; i < n; i++) {
+            Pelicula pelicula = peliculas.get(i);
+            for (int a = inicioSalida[i]; a < inicioSalida[i + 1]; a++) {
+                pelicula.getPeliculasSimilares().add(new RelacionSimilitud(
+                    !Double.isNaN(pesos[a]) ? pesos[a] : null,
+                    comunes[a] != Integer.MIN_VALUE ? comunes[a] : null,
+                    peliculas.get(destinos[a])));
+            }
+        }
+        return new Contenido(peliculas, ultimoCambio);
+    }
+
+    // ============================================
+    // ESCRITURA
+    // ============================================
+
+    /**
+     * Escribe la instantánea en segundo plano (no demora la carga)
+     * Las películas no deben cambiar de lista; sus similitudes se reemplazan
+     * (no se modifican), así que leerlas mientras tanto es seguro
+     * Un error de escritura (disco lleno, permisos) solo se registra: el
+     * catálogo en memoria sigue sirviendo y la próxima carga vuelve a intentar
+     */
+    public void guardarEnSegundoPlano(List<Pelicula> peliculas, long ultimoCambio) {
+        if (habilitada()) {
+            escritor.execute(() -> {
+                try {
+                    guardar(peliculas, ultimoCambio);
+                } catch (RuntimeException e) {
+                    log.warn("No se pudo escribir la instantánea {}: {}", archivo, e.toString());
+                }
+            });
+        }
+    }
+
+    /**
+     * COMPLEJIDAD: O(n + m) y una escritura secuencial del archivo
+     */
+    public void guardar(List<Pelicula> peliculas, long ultimoCambio) {
+        int n = peliculas.size();
+        Map<Long, Integer> indices = new HashMap<>(n * 2);
+        for (int i = 0; i < n; i++) {
+            indices.put(peliculas.get(i).getPeliculaId(), i);
+        }
+
+        // Géneros y similitudes de la versión que se está leyendo (hacia fuera del catálogo se descartan)
+        Map<String, Integer> diccionario = new LinkedHashMap<>();
+        int[] inicioGeneros = new int[n + 1];
+        List<Integer> generosDe = new ArrayList<>();
+        Map<String, Integer> diccionarioActores = new LinkedHashMap<>();
+        int[] inicioActores = new int[n + 1];
+        List<Integer> actoresDe = new ArrayList<>();
+        int[] inicioSalida = new int[n + 1];
+        List<RelacionSimilitud> relaciones = new ArrayList<>();
+        List<Integer> destinos = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            Pelicula pelicula = peliculas.get(i);
+            if (pelicula.getGeneros() != null) {
+                for (Genero genero : pelicula.getGeneros()) {
+                    generosDe.add(diccionario.computeIfAbsent(genero.getNombre(), nombre -> diccionario.size()));
+                }
+            }
+            inicioGeneros[i + 1] = generosDe.size();
+            if (pelicula.getActores() != null) {
+                for (Actor actor : pelicula.getActores()) {
+                    actoresDe.add(diccionarioActores.computeIfAbsent(actor.getNombre(),
+                        nombre -> diccionarioActores.size()));
+                }
+            }
+            inicioActores[i + 1] = actoresDe.size();
+            if (pelicula.getPeliculasSimilares() != null) {
+                for (RelacionSimilitud relacion : pelicula.getPeliculasSimilares()) {
+                    Integer destino = relacion.getPeliculaDestino() != null
+                        ? indices.get(relacion.getPeliculaDestino().getPeliculaId())
+                        : null;
+                    if (destino != null) {
+                        relaciones.add(relacion);
+                        destinos.add(destino);
+                    }
+                }
+            }
+            inicioSalida[i + 1] = relaciones.size();
+        }
+        int m = relaciones.size();
+
+        Escritor salida = new Escritor();
+        for (Pelicula pelicula : peliculas) {
+            salida.asegurar(8).putLong(pelicula.getPeliculaId());
+        }
+        for (Pelicula pelicula : peliculas) {
+            salida.asegurar(8).putDouble(pelicula.getPromedioRating() != null ? pelicula.getPromedioRating() : Double.NaN);
+        }
+        for (Pelicula pelicula : peliculas) {
+            salida.asegurar(4).putInt(pelicula.getAño() != null ? pelicula.getAño() : Integer.MIN_VALUE);
+        }
+        for (Pelicula pelicula : peliculas) {
+            salida.asegurar(4).putInt(pelicula.getDuracion() != null ? pelicula.getDuracion() : Integer.MIN_VALUE);
+        }
+        for (Pelicula pelicula : peliculas) {
+            salida.texto(pelicula.getTitulo());
+        }
+        salida.alinear();
+        for (String nombre : diccionario.keySet()) {
+            salida.texto(nombre);
+        }
+        salida.alinear();
+        for (int inicio : inicioGeneros) {
+            salida.asegurar(4).putInt(inicio);
+        }
+        for (int genero : generosDe) {
+            salida.asegurar(4).putInt(genero);
+        }
+        salida.alinear();
+        for (String nombre : diccionarioActores.keySet()) {
+            salida.texto(nombre);
+        }
+        salida.alinear();
+        for (int inicio : inicioActores) {
+            salida.asegurar(4).putInt(inicio);
+        }
+        for (int actor : actoresDe) {
+            salida.asegurar(4).putInt(actor);
+        }
+        for (int inicio : inicioSalida) {
+            salida.asegurar(4).putInt(inicio);
+        }
+        for (int destino : destinos) {
+            salida.asegurar(4).putInt(destino);
+        }
+        salida.alinear();
+        for (RelacionSimilitud relacion : relaciones) {
+            salida.asegurar(8).putDouble(relacion.getPeso() != null ? relacion.getPeso() : Double.NaN);
+        }
+        for (RelacionSimilitud relacion : relaciones) {
+            salida.asegurar(4).putInt(relacion.getGenerosComunes() != null ? relacion.getGenerosComunes() : Integer.MIN_VALUE);
+        }
+
+        ByteBuffer contenido = salida.buffer.flip();
+        CRC32 crc = new CRC32();
+        crc.update(contenido.duplicate());
+
+        ByteBuffer cabecera = ByteBuffer.allocate(CABECERA).order(ByteOrder.LITTLE_ENDIAN);
+        cabecera.putLong(0, MAGICO);
+        cabecera.putInt(8, FORMATO);
+        cabecera.putLong(16, ultimoCambio);
+        cabecera.putInt(24, n);
+        cabecera.putInt(28, m);
+        cabecera.putInt(32, diccionario.size());
+        cabecera.putInt(36, diccionarioActores.size());
+        cabecera.putLong(40, contenido.remaining());
+        cabecera.putLong(48, crc.getValue());
+
+        // Temporal en el mismo directorio + move atómico: nunca queda un archivo a medias
+        Path destino = Path.of(archivo).toAbsolutePath();
+        Path temporal = null;
+        try {
+            Files.createDirectories(destino.getParent());
+            temporal = Files.createTempFile(destino.getParent(), destino.getFileName().toString(), ".tmp");
+            try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.WRITE)) {
+                while (cabecera.hasRemaining()) {
+                    canal.write(cabecera);
+                }
+                while (contenido.hasRemaining()) {
+                    canal.write(contenido);
+                }
+                canal.force(true);
+            }
+            Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            temporal = null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            borrar(temporal);
+        }
+    }
+
+    private static void borrar(Path temporal) {
+        if (temporal == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(temporal);
+        } catch (IOException e) {
+            log.warn("No se pudo borrar el temporal {}: {}", temporal, e.toString());
+        }
+    }
+
+    /**
+     * Lectura secuencial de secciones; los arreglos se copian en bloque
+     */
+    private static final class Lector {
+
+        private final ByteBuffer buffer;
+        private int posicion;
+
+        Lector(ByteBuffer buffer, int posicion) {
+            this.buffer = buffer;
+            this.posicion = posicion;
+        }
+
+        long[] longs(int cantidad) {
+            long[] valores = new long[cantidad];
+            buffer.slice(posicion, cantidad * 8).order(ByteOrder.LITTLE_ENDIAN).asLongBuffer().get(valores);
+            posicion += cantidad * 8;
+            return valores;
+        }
+
+        double[] doubles(int cantidad) {
+            double[] valores = new double[cantidad];
+            buffer.slice(posicion, cantidad * 8).order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer().get(valores);
+            posicion += cantidad * 8;
+            return valores;
+        }
+
+        int[] ints(int cantidad) {
+            int[] valores = new int[cantidad];
+            buffer.slice(posicion, cantidad * 4).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().get(valores);
+            posicion += cantidad * 4;
+            return valores;
+        }
+
+        String texto() {
+            int largo = buffer.getInt(posicion);
+            posicion += 4;
+            if (largo < 0) {
+                return null;
+            }
+            byte[] bytes = new byte[largo];
+            buffer.get(posicion, bytes);
+            posicion += largo;
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        void alinear() {
+            posicion = (posicion + 7) & ~7;
+        }
+    }
+
+    /**
+     * Buffer en memoria que crece al doble
+     */
+    private static final class Escritor {
+
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+
+        ByteBuffer asegurar(int bytes) {
+            if (buffer.remaining() < bytes) {
+                ByteBuffer mayor = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes))
+                    .order(ByteOrder.LITTLE_ENDIAN);
+                mayor.put(buffer.flip());
+                buffer = mayor;
+            }
+            return buffer;
+        }
+
+        void texto(String texto) {
+            if (texto == null) {
+                asegurar(4).putInt(-1);
+                return;
+            }
+            byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+            asegurar(4 + bytes.length).putInt(bytes.length).put(bytes);
+        }
+
+        void alinear() {
+            while (buffer.position() % 8 != 0) {
+                asegurar(1).put((byte) 0);
+            }
+        }
+    }
+}
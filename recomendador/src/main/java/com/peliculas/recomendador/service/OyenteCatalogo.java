@@ -0,0 +1,41 @@
+package com.peliculas.recomendador.service;
+
+import com.peliculas.recomendador.model.Pelicula;
+
+import java.util.Collection;
+
+/**
+ * Recibe los cambios del catálogo en memoria para mantener estructuras derivadas
+ * (estadísticas, índices) de forma INCREMENTAL, sin recorrer todo el catálogo
+ *
+ * Los métodos se invocan con el catálogo bloqueado, en el orden de los cambios
+ */
+public interface OyenteCatalogo {
+
+    /**
+     * Carga completa (o recarga): reemplaza todo el estado derivado
+     */
+    void catalogoCargado(Collection<Pelicula> peliculas);
+
+    /**
+     * Película nueva en el catálogo
+     */
+    void peliculaAgregada(Pelicula pelicula);
+
+    /**
+     * Película que deja el catálogo (o que se reemplaza por una versión nueva)
+     */
+    void peliculaEliminada(Pelicula pelicula);
+
+    /**
+     * La película ya tiene el rating nuevo; se informa el anterior
+     */
+    void ratingActualizado(Pelicula pelicula, Double ratingAnterior);
+
+    /**
+     * Cambió la similitud origen -> destino (alta, nuevo peso o baja)
+     * El origen ya tiene la relación nueva (ninguna si se eliminó) y el grafo del
+     * catálogo ya la refleja; se informa el peso anterior (null si no existía)
+     */
+    void similitudActualizada(Pelicula origen, Pelicula destino, Double pesoAnterior);
+}
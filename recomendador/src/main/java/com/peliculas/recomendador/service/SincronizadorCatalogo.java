@@ -0,0 +1,235 @@
+package com.peliculas.recomendador.service;
+
+import com.peliculas.recomendador.model.Actor;
+import com.peliculas.recomendador.model.CambioCatalogo;
+import com.peliculas.recomendador.model.Genero;
+import com.peliculas.recomendador.model.Pelicula;
+import com.peliculas.recomendador.model.PeliculaLeida;
+import com.peliculas.recomendador.model.RelacionSimilitud;
+import com.peliculas.recomendador.repository.PeliculaRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SINCRONIZACIÓN INCREMENTAL del catálogo en memoria con Neo4j
+ * Habilitada con recomendador.sincronizacion.habilitada=true (por defecto no)
+ * Al habilitarse crea, si faltan, los índices sobre actualizadoEn de :Pelicula y
+ * :PeliculaEliminada: cada intervalo es una búsqueda por rango en el índice
+ *
+ * Cada intervalo lee el REGISTRO DE CAMBIOS (películas con actualizadoEn y lápidas
+ * :PeliculaEliminada, ver PeliculaRepository.cambiosDesde) a partir de una MARCA
+ * y aplica solo esos cambios (CatalogoPeliculas.sincronizarPelicula / quitarPelicula)
+ * - La marca arranca en el sello leído antes de la última carga completa
+ * - Se relee un MARGEN hacia atrás: una transacción que selló antes pero confirmó
+ *   después no se pierde; lo ya aplicado se compara y no se vuelve a avisar
+ * - Lotes de "lote" cambios con paginación por (sello, id)
+ * - Las películas cambiadas se leen PLANAS (PeliculaRepository.leerPeliculas): sus
+ *   propiedades, géneros, actores y similitudes salientes, sin seguir relaciones
+ * - Con cambios aplicados, la instantánea en disco se reescribe al ponerse al día
+ *   (a lo sumo una vez cada recomendador.instantanea.intervalo-ms)
+ *
+ * COMPLEJIDAD: O(cambios) por intervalo, contra O(V + E) y el doble de memoria
+ * de una recarga completa
+ */
+@Component
+public class SincronizadorCatalogo implements OyenteCatalogo {
+
+    private static final Logger log = LoggerFactory.getLogger(SincronizadorCatalogo.class);
+
+    @Autowired
+    private CatalogoPeliculas catalogo;
+
+    @Autowired
+    private PeliculaRepository peliculaRepository;
+
+    @Value("${recomendador.sincronizacion.habilitada:false}")
+    private boolean habilitada;
+
+    @Value("${recomendador.sincronizacion.margen-ms:5000}")
+    private long margen;
+
+    @Value("${recomendador.sincronizacion.lote:500}")
+    private int lote;
+
+    @Value("${recomendador.instantanea.intervalo-ms:600000}")
+    private long intervaloInstantanea;
+
+    // Último sello aplicado; el próximo intervalo lee desde (marca - margen)
+    private volatile long marca;
+
+    // Cambios aplicados que la instantánea en disco todavía no tiene
+    // (volatile y sin candado: catalogoCargado llega con el candado del catálogo tomado)
+    private volatile boolean instantaneaPendiente;
+    private volatile long ultimaInstantanea = System.currentTimeMillis();
+
+    @PostConstruct
+    void registrarse() {
+        if (habilitada) {
+            crearIndices();
+            catalogo.registrarOyente(this);
+        }
+    }
+
+    /**
+     * Si Neo4j no responde al arrancar se sigue igual (sincroniza sin índices)
+     * y el aviso queda en el log
+     */
+    private void crearIndices() {
+        try {
+            peliculaRepository.crearIndiceCambiosPeliculas();
+            peliculaRepository.crearIndiceCambiosEliminadas();
+        } catch (RuntimeException e) {
+            log.warn("No se pudieron crear los índices de actualizadoEn: cada intervalo recorrerá todas las películas", e);
+        }
+    }
+
+    /**
+     * Un intervalo de sincronización (no corre hasta que el catálogo se cargó)
+     * Si Neo4j falla el error queda en el log del scheduler y la marca no avanza:
+     * el próximo intervalo reintenta desde el último lote aplicado
+     */
+    @Scheduled(fixedDelayString = "${recomendador.sincronizacion.intervalo-ms:2000}")
+    public void sincronizar() {
+        if (habilitada && catalogo.cargado()) {
+            aplicarDesde(marca - margen);
+            guardarSiCorresponde();
+        }
+    }
+
+    /**
+     * Al día con Neo4j (el último lote vino incompleto): si hubo cambios desde la
+     * última instantánea y ya pasó el intervalo, se reescribe sellada en la marca
+     * Sin esto un reinicio releería todo lo sincronizado desde la última carga completa
+     */
+    private void guardarSiCorresponde() {
+        long ahora = System.currentTimeMillis();
+        if (instantaneaPendiente && ahora - ultimaInstantanea >= intervaloInstantanea) {
+            catalogo.guardarInstantanea(marca);
+            instantaneaPendiente = false;
+            ultimaInstantanea = ahora;
+        }
+    }
+
+    /**
+     * Lee y aplica todos los cambios posteriores a "desde", de a un lote
+     * @return cantidad de películas que realmente cambiaron en memoria
+     */
+    synchronized int aplicarDesde(long desde) {
+        int aplicados = 0;
+        long despuesDe = Long.MIN_VALUE;
+        while (true) {
+            List<CambioCatalogo> cambios = peliculaRepository.cambiosDesde(desde, despuesDe, lote);
+            if (cambios.isEmpty()) {
+                return aplicados;
+            }
+
+            // Una sola lectura PLANA para las películas vivas del lote
+            List<Long> vivas = new ArrayList<>();
+            for (CambioCatalogo cambio : cambios) {
+                if (!Boolean.TRUE.equals(cambio.getEliminada())) {
+                    vivas.add(cambio.getPeliculaId());
+                }
+            }
+            Map<Long, Pelicula> leidas = new HashMap<>();
+            if (!vivas.isEmpty()) {
+                for (PeliculaLeida leida : peliculaRepository.leerPeliculas(vivas)) {
+                    leidas.put(leida.getPeliculaId(), pelicula(leida));
+                }
+            }
+
+            for (CambioCatalogo cambio : cambios) {
+                Pelicula leida = leidas.get(cambio.getPeliculaId());
+                boolean cambiada;
+                if (!Boolean.TRUE.equals(cambio.getEliminada())) {
+                    // Sin película: se borró después de sellarse
+                    cambiada = leida != null
+                        ? catalogo.sincronizarPelicula(leida)
+                        : catalogo.quitarPelicula(cambio.getPeliculaId());
+                } else {
+                    // Una lápida vieja no borra una película que se volvió a crear
+                    cambiada = leida == null && catalogo.quitarPelicula(cambio.getPeliculaId());
+                }
+                if (cambiada) {
+                    aplicados++;
+                    instantaneaPendiente = true;
+                }
+            }
+
+            CambioCatalogo ultimo = cambios.get(cambios.size() - 1);
+            desde = ultimo.getActualizadoEn();
+            despuesDe = ultimo.getPeliculaId();
+            marca = Math.max(marca, desde);
+            if (cambios.size() < lote) {
+                return aplicados;
+            }
+        }
+    }
+
+    /**
+     * Película en memoria a partir de la lectura plana; los destinos de sus
+     * similitudes son las películas del catálogo (o solo el id si no están)
+     * COMPLEJIDAD: O(géneros + actores + similitudes)
+     */
+    private Pelicula pelicula(PeliculaLeida leida) {
+        Pelicula pelicula = new Pelicula(leida.getPeliculaId(), leida.getTitulo(), leida.getAño(),
+            leida.getPromedioRating(), leida.getDuracion());
+        for (String genero : leida.getGeneros()) {
+            pelicula.getGeneros().add(new Genero(genero));
+        }
+        for (String actor : leida.getActores()) {
+            pelicula.getActores().add(new Actor(actor));
+        }
+        for (int k = 0; k < leida.getDestinos().size(); k++) {
+            Long idDestino = leida.getDestinos().get(k);
+            Pelicula destino = catalogo.obtenerPelicula(idDestino);
+            if (destino == null) {
+                destino = new Pelicula(idDestino, null, null, null, null);
+            }
+            pelicula.getPeliculasSimilares().add(new RelacionSimilitud(
+                leida.getPesos().get(k), leida.getGenerosComunes().get(k), destino));
+        }
+        return pelicula;
+    }
+
+    // ============================================
+    // CAMBIOS DEL CATÁLOGO
+    // ============================================
+
+    @Override
+    public void catalogoCargado(Collection<Pelicula> peliculas) {
+        marca = catalogo.ultimoCambioCargado();  // la carga completa ya incluye todo hasta ahí
+        instantaneaPendiente = false;  // y escribe su propia instantánea
+        ultimaInstantanea = System.currentTimeMillis();
+    }
+
+    @Override
+    public void peliculaAgregada(Pelicula pelicula) {
+        // Cambio propio o ya sincronizado: la marca no depende de él
+    }
+
+    @Override
+    public void peliculaEliminada(Pelicula pelicula) {
+        // Ídem
+    }
+
+    @Override
+    public void ratingActualizado(Pelicula pelicula, Double ratingAnterior) {
+        // Ídem
+    }
+
+    @Override
+    public void similitudActualizada(Pelicula origen, Pelicula destino, Double pesoAnterior) {
+        // Ídem
+    }
+}
@@ -0,0 +1,188 @@
+package com.peliculas.recomendador;
+
+import com.peliculas.recomendador.model.AdyacenciaComprimida;
+import com.peliculas.recomendador.model.DiccionarioGeneros;
+import com.peliculas.recomendador.model.FragmentoLeido;
+import com.peliculas.recomendador.model.FragmentoLocal;
+import com.peliculas.recomendador.model.Genero;
+import com.peliculas.recomendador.model.GrafoPeliculas;
+import com.peliculas.recomendador.model.Pelicula;
+import com.peliculas.recomendador.model.RelacionSimilitud;
+import com.peliculas.recomendador.repository.PeliculaRepository;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Catálogos chicos al azar para comparar los algoritmos contra una referencia simple
+ * - Ids 1..n; similitudes al azar (con lazos y aristas paralelas), pesos en [0, 1]
+ * - Algunas películas sin rating, sin géneros o sin similitudes
+ */
+public final class CatalogosAleatorios {
+
+    private static final String[] GENEROS = {"Drama", "Comedia", "Terror", "Acción", "Animación"};
+
+    private CatalogosAleatorios() {
+    }
+
+    public static List<Pelicula> peliculas(Random azar, int cantidad, int gradoMaximo) {
+        List<Pelicula> peliculas = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            Double rating = azar.nextInt(10) == 0 ? null : azar.nextInt(100) / 10.0;
+            Pelicula pelicula = new Pelicula((long) i + 1, "Película " + (i + 1),
+                1950 + azar.nextInt(70), rating, 60 + azar.nextInt(120));
+            for (String genero : GENEROS) {
+                if (azar.nextInt(3) == 0) {
+                    pelicula.getGeneros().add(new Genero(genero));
+                }
+            }
+            peliculas.add(pelicula);
+        }
+        for (Pelicula pelicula : peliculas) {
+            int grado = azar.nextInt(gradoMaximo + 1);
+            for (int k = 0; k < grado; k++) {
+                Pelicula destino = peliculas.get(azar.nextInt(cantidad));
+                pelicula.getPeliculasSimilares().add(new RelacionSimilitud(azar.nextInt(101) / 100.0, 1, destino));
+            }
+        }
+        return peliculas;
+    }
+
+    /**
+     * Pesos llevados a la grilla de AdyacenciaComprimida sobre [0, 1] (nivel / 65535),
+     * con una similitud de peso 0 y otra de peso 1 para fijar el rango:
+     * la adyacencia comprimida no pierde nada y se puede comparar con el CSR
+     */
+    public static List<Pelicula> cuantizadas(List<Pelicula> peliculas) {
+        int niveles = AdyacenciaComprimida.NIVELES - 1;
+        for (Pelicula pelicula : peliculas) {
+            Set<RelacionSimilitud> redondeadas = new HashSet<>();  // el peso entra en el hashCode
+            for (RelacionSimilitud relacion : pelicula.getPeliculasSimilares()) {
+                redondeadas.add(new RelacionSimilitud(Math.round(relacion.getPeso() * niveles) / (double) niveles,
+                    relacion.getGenerosComunes(), relacion.getPeliculaDestino()));
+            }
+            pelicula.setPeliculasSimilares(redondeadas);
+        }
+        if (peliculas.size() >= 2) {
+            peliculas.get(0).getPeliculasSimilares().add(new RelacionSimilitud(0.0, 0, peliculas.get(1)));
+            peliculas.get(1).getPeliculasSimilares().add(new RelacionSimilitud(1.0, 0, peliculas.get(0)));
+        }
+        return peliculas;
+    }
+
+    /**
+     * Catálogo fijo para casos borde: 1 → 2 sin peso (costo 10), 1 → 3 dos veces
+     * (pesos 0.1 y 0.9, costos 5 y 1), autociclo 2 → 2 y 3 → 4 (costo 2)
+     */
+    public static List<Pelicula> bordes() {
+        Pelicula uno = new Pelicula(1L, "Uno", 2000, 7.0, 100);
+        Pelicula dos = new Pelicula(2L, "Dos", 2001, 6.0, 90);
+        Pelicula tres = new Pelicula(3L, "Tres", 2002, 5.0, 80);
+        Pelicula cuatro = new Pelicula(4L, "Cuatro", 2003, 4.0, 70);
+        uno.getGeneros().add(new Genero("Drama"));
+        dos.getGeneros().add(new Genero("Drama"));
+        uno.getPeliculasSimilares().add(new RelacionSimilitud(null, null, dos));
+        uno.getPeliculasSimilares().add(new RelacionSimilitud(0.1, 0, tres));
+        uno.getPeliculasSimilares().add(new RelacionSimilitud(0.9, 0, tres));
+        dos.getPeliculasSimilares().add(new RelacionSimilitud(0.5, 1, dos));
+        tres.getPeliculasSimilares().add(new RelacionSimilitud(0.4, 0, cuatro));
+        return new ArrayList<>(List.of(uno, dos, tres, cuatro));
+    }
+
+    public static GrafoPeliculas grafo(List<Pelicula> peliculas) {
+        return GrafoPeliculas.construir(peliculas, new DiccionarioGeneros(), 1);
+    }
+
+    /**
+     * Repositorio que responde leerFragmento sobre el catálogo en memoria, con un
+     * último cambio fijo
+     */
+    public static PeliculaRepository repositorio(List<Pelicula> peliculas, long ultimoCambio) {
+        PeliculaRepository repositorio = Mockito.mock(PeliculaRepository.class);
+        Mockito.when(repositorio.leerFragmento(Mockito.anyInt(), Mockito.anyInt(), Mockito.anyLong(), Mockito.anyInt()))
+            .thenAnswer(llamada -> fragmento(peliculas, llamada.getArgument(0), llamada.getArgument(1),
+                llamada.getArgument(2), llamada.getArgument(3)));
+        Mockito.when(repositorio.ultimoCambio()).thenReturn(ultimoCambio);
+        return repositorio;
+    }
+
+    /**
+     * Como PeliculaRepository.leerFragmento: una página de las películas de la parte,
+     * en orden de ID, con sus similitudes salientes y los orígenes de las entrantes
+     */
+    public static List<FragmentoLeido> fragmento(List<Pelicula> peliculas, int parte, int partes,
+                                                 long despuesDe, int limite) {
+        Map<Long, List<Long>> origenes = new HashMap<>();
+        for (Pelicula pelicula : peliculas) {
+            for (RelacionSimilitud relacion : pelicula.getPeliculasSimilares()) {
+                origenes.computeIfAbsent(relacion.getPeliculaDestino().getPeliculaId(), id -> new ArrayList<>())
+                    .add(pelicula.getPeliculaId());
+            }
+        }
+        return peliculas.stream()
+            .filter(p -> p.getPeliculaId() > despuesDe && FragmentoLocal.dueña(p.getPeliculaId(), partes) == parte)
+            .sorted(Comparator.comparing(Pelicula::getPeliculaId))
+            .limit(limite)
+            .map(p -> {
+                FragmentoLeido leida = new FragmentoLeido();
+                leida.setPeliculaId(p.getPeliculaId());
+                leida.setTitulo(p.getTitulo());
+                leida.setAño(p.getAño());
+                leida.setPromedioRating(p.getPromedioRating());
+                leida.setDuracion(p.getDuracion());
+                p.getGeneros().forEach(g -> leida.getGeneros().add(g.getNombre()));
+                p.getActores().forEach(a -> leida.getActores().add(a.getNombre()));
+                for (RelacionSimilitud relacion : p.getPeliculasSimilares()) {
+                    leida.getDestinos().add(relacion.getPeliculaDestino().getPeliculaId());
+                    leida.getPesos().add(relacion.getPeso());
+                }
+                leida.setOrigenes(origenes.getOrDefault(p.getPeliculaId(), List.of()));
+                return leida;
+            })
+            .toList();
+    }
+
+    /**
+     * Como AdyacenciaComprimida.de, con pesos sobre [0, 1] y otro lote de transposición
+     */
+    public static AdyacenciaComprimida comprimida(GrafoPeliculas grafo, int loteTransposicion) {
+        AdyacenciaComprimida.Constructor constructor = new AdyacenciaComprimida.Constructor(grafo.cantidad(), 0.0, 1.0)
+            .loteTransposicion(loteTransposicion);
+        for (int v = 0; v < grafo.cantidad(); v++) {
+            int grado = grafo.finSalida(v) - grafo.primeraSalida(v);
+            int[] destinos = new int[grado];
+            double[] pesos = new double[grado];
+            for (int k = 0; k < grado; k++) {
+                destinos[k] = grafo.destino(grafo.primeraSalida(v) + k);
+                pesos[k] = grafo.peso(grafo.primeraSalida(v) + k);
+            }
+            constructor.agregar(v, destinos, pesos, grado);
+        }
+        return constructor.armar();
+    }
+
+    /**
+     * Costo de un camino por las aristas más baratas entre nodos consecutivos
+     * (infinito si falta alguna arista)
+     */
+    public static double costo(GrafoPeliculas grafo, int[] camino) {
+        double total = 0;
+        for (int k = 0; k + 1 < camino.length; k++) {
+            double mejor = Double.POSITIVE_INFINITY;
+            for (int a = grafo.primeraSalida(camino[k]); a < grafo.finSalida(camino[k]); a++) {
+                if (grafo.destino(a) == camino[k + 1]) {
+                    mejor = Math.min(mejor, grafo.costo(a));
+                }
+            }
+            total += mejor;
+        }
+        return total;
+    }
+}
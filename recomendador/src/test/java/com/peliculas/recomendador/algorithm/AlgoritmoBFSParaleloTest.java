@@ -0,0 +1,78 @@
+package com.peliculas.recomendador.algorithm;
+
+import com.peliculas.recomendador.CatalogosAleatorios;
+import com.peliculas.recomendador.model.GrafoPeliculas;
+import com.peliculas.recomendador.model.Pelicula;
+import com.peliculas.recomendador.model.PeliculaDistancia;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * BFS paralelo por niveles contra el BFS secuencial de AlgoritmoBusqueda
+ */
+class AlgoritmoBFSParaleloTest {
+
+    private final AlgoritmoBFSParalelo algoritmoBFSParalelo = new AlgoritmoBFSParalelo();
+    private final AlgoritmoBusqueda algoritmoBusqueda = new AlgoritmoBusqueda();
+
+    @Test
+    void nivelesComoBfsSecuencial() {
+        Random azar = new Random(36);
+        int[] topes = {AlgoritmoBusqueda.SIN_TOPE, 1, 5};
+        for (int g = 0; g < 30; g++) {
+            // Algunos grafos pasan las 4096 películas por tarea y cambian a bottom-up
+            int n = 1 + azar.nextInt(g % 5 == 0 ? 9000 : 200);
+            GrafoPeliculas grafo = CatalogosAleatorios.grafo(CatalogosAleatorios.peliculas(azar, n, 1 + g % 4));
+            int origen = azar.nextInt(n);
+            Long id = grafo.pelicula(origen).getPeliculaId();
+            int profundidad = 1 + azar.nextInt(6);
+            int maxPorGenero = topes[g % topes.length];
+            String caso = "grafo " + g + ", profundidad " + profundidad + ", maxPorGenero " + maxPorGenero;
+
+            Map<Long, Integer> esperado = new HashMap<>();
+            for (PeliculaDistancia encontrada : algoritmoBusqueda.bfs(grafo, id, profundidad,
+                    AlgoritmoBusqueda.SIN_TOPE, maxPorGenero)) {
+                esperado.put(encontrada.getPelicula().getPeliculaId(), encontrada.getDistancia());
+            }
+
+            int[] niveles = algoritmoBFSParalelo.niveles(grafo, origen, profundidad, maxPorGenero);
+            assertEquals(0, niveles[origen], caso);
+            Map<Long, Integer> obtenido = new HashMap<>();
+            for (int v = 0; v < n; v++) {
+                if (v != origen && niveles[v] >= 0) {
+                    obtenido.put(grafo.pelicula(v).getPeliculaId(), niveles[v]);
+                }
+            }
+            assertEquals(esperado, obtenido, caso);
+
+            // relacionadas: las más cercanas primero, cortando en el límite
+            int limite = 1 + azar.nextInt(Math.max(1, esperado.size()));
+            List<Pelicula> relacionadas = algoritmoBFSParalelo.relacionadas(grafo, id, profundidad, limite, maxPorGenero);
+            assertEquals(Math.min(limite, esperado.size()), relacionadas.size(), caso);
+            Set<Long> vistas = new HashSet<>();
+            int anterior = 1;
+            for (Pelicula pelicula : relacionadas) {
+                int nivel = esperado.get(pelicula.getPeliculaId());
+                assertTrue(nivel >= anterior, caso);
+                assertTrue(vistas.add(pelicula.getPeliculaId()), caso);
+                anterior = nivel;
+            }
+        }
+    }
+
+    @Test
+    void origenDesconocidoOLimiteCero() {
+        GrafoPeliculas grafo = CatalogosAleatorios.grafo(CatalogosAleatorios.peliculas(new Random(1), 20, 3));
+        assertTrue(algoritmoBFSParalelo.relacionadas(grafo, 999L, 3, 10, AlgoritmoBusqueda.SIN_TOPE).isEmpty());
+        assertTrue(algoritmoBFSParalelo.relacionadas(grafo, 1L, 3, 0, AlgoritmoBusqueda.SIN_TOPE).isEmpty());
+    }
+}
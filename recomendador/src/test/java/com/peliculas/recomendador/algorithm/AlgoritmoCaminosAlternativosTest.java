@@ -0,0 +1,159 @@
+package com.peliculas.recomendador.algorithm;
+
+import com.peliculas.recomendador.CatalogosAleatorios;
+import com.peliculas.recomendador.model.CaminoPeliculas;
+import com.peliculas.recomendador.model.GrafoPeliculas;
+import com.peliculas.recomendador.model.Pelicula;
+import com.peliculas.recomendador.model.RelacionSimilitud;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Yen contra la enumeración por fuerza bruta de todos los caminos sin ciclos
+ */
+class AlgoritmoCaminosAlternativosTest {
+
+    private final AlgoritmoCaminosAlternativos algoritmo = new AlgoritmoCaminosAlternativos();
+
+    @Test
+    void distanciasComoFuerzaBruta() {
+        Random azar = new Random(42);
+        for (int g = 0; g < 200; g++) {
+            int n = 2 + azar.nextInt(7);
+            GrafoPeliculas grafo = CatalogosAleatorios.grafo(CatalogosAleatorios.peliculas(azar, n, 3));
+            int origen = azar.nextInt(n);
+            int destino = azar.nextInt(n);
+            int k = 1 + azar.nextInt(8);
+
+            List<Double> todas = fuerzaBruta(grafo, origen, destino);
+            List<CaminoPeliculas> caminos = algoritmo.kCaminosMasCortos(grafo,
+                grafo.pelicula(origen).getPeliculaId(), grafo.pelicula(destino).getPeliculaId(), k);
+
+            String caso = "grafo " + g + ", " + origen + " -> " + destino + ", k = " + k;
+            assertEquals(Math.min(k, todas.size()), caminos.size(), caso);
+            Set<List<Long>> distintos = new HashSet<>();
+            for (int c = 0; c < caminos.size(); c++) {
+                CaminoPeliculas camino = caminos.get(c);
+                int[] nodos = nodos(grafo, camino);
+                assertEquals(origen, nodos[0], caso);
+                assertEquals(destino, nodos[nodos.length - 1], caso);
+                assertEquals(todas.get(c), camino.getDistancia(), 1e-9, caso + ", camino " + c);
+                assertEquals(CatalogosAleatorios.costo(grafo, nodos), camino.getDistancia(), 1e-9, caso);
+
+                Set<Integer> visitados = new HashSet<>();
+                for (int nodo : nodos) {
+                    assertTrue(visitados.add(nodo), caso + ": camino con ciclo");
+                }
+                List<Long> ids = new ArrayList<>();
+                for (Pelicula pelicula : camino.getPeliculas()) {
+                    ids.add(pelicula.getPeliculaId());
+                }
+                assertTrue(distintos.add(ids), caso + ": camino repetido");
+            }
+        }
+    }
+
+    @Test
+    void acotaK() {
+        // Grafo completo de 7 nodos: 326 caminos sin ciclos entre dos nodos
+        Random azar = new Random(7);
+        List<Pelicula> peliculas = CatalogosAleatorios.peliculas(azar, 7, 0);
+        for (Pelicula pelicula : peliculas) {
+            for (Pelicula otra : peliculas) {
+                if (otra != pelicula) {
+                    pelicula.getPeliculasSimilares().add(new RelacionSimilitud(
+                        0.1 + azar.nextInt(90) / 100.0, 1, otra));
+                }
+            }
+        }
+        GrafoPeliculas grafo = CatalogosAleatorios.grafo(peliculas);
+
+        assertEquals(AlgoritmoCaminosAlternativos.MAXIMO_CAMINOS,
+            algoritmo.kCaminosMasCortos(grafo, 1L, 7L, 1_000_000).size());
+        assertEquals(0, algoritmo.kCaminosMasCortos(grafo, 1L, 7L, 0).size());
+    }
+
+    @Test
+    void casosBorde() {
+        GrafoPeliculas grafo = CatalogosAleatorios.grafo(CatalogosAleatorios.bordes());
+
+        // Las dos aristas 1 → 3 dan UN camino, por la más liviana; el autociclo no forma caminos
+        List<CaminoPeliculas> caminos = algoritmo.kCaminosMasCortos(grafo, 1L, 4L, 5);
+        assertEquals(1, caminos.size());
+        assertEquals(List.of(1L, 3L, 4L), ids(caminos.get(0)));
+        assertEquals(3.0, caminos.get(0).getDistancia(), 1e-9);
+
+        // Sin peso = costo 10
+        caminos = algoritmo.kCaminosMasCortos(grafo, 1L, 2L, 5);
+        assertEquals(1, caminos.size());
+        assertEquals(10.0, caminos.get(0).getDistancia(), 1e-9);
+
+        caminos = algoritmo.kCaminosMasCortos(grafo, 2L, 2L, 5);
+        assertEquals(1, caminos.size());
+        assertEquals(List.of(2L), ids(caminos.get(0)));
+        assertEquals(0.0, caminos.get(0).getDistancia(), 1e-9);
+
+        assertTrue(algoritmo.kCaminosMasCortos(grafo, 4L, 1L, 5).isEmpty());
+        assertTrue(algoritmo.kCaminosMasCortos(grafo, 99L, 1L, 5).isEmpty());
+        assertTrue(algoritmo.kCaminosMasCortos(grafo, 1L, 99L, 5).isEmpty());
+        assertTrue(algoritmo.kCaminosMasCortos(grafo, 1L, 4L, -1).isEmpty());
+        assertTrue(algoritmo.kCaminosMasCortos(CatalogosAleatorios.grafo(List.of()), 1L, 2L, 5).isEmpty());
+    }
+
+    private static List<Long> ids(CaminoPeliculas camino) {
+        return camino.getPeliculas().stream().map(Pelicula::getPeliculaId).toList();
+    }
+
+    private static int[] nodos(GrafoPeliculas grafo, CaminoPeliculas camino) {
+        int[] nodos = new int[camino.getPeliculas().size()];
+        for (int i = 0; i < nodos.length; i++) {
+            nodos[i] = grafo.indice(camino.getPeliculas().get(i).getPeliculaId());
+        }
+        return nodos;
+    }
+
+    /**
+     * Distancias de TODOS los caminos sin ciclos de origen a destino, ordenadas
+     */
+    private static List<Double> fuerzaBruta(GrafoPeliculas grafo, int origen, int destino) {
+        List<Double> distancias = new ArrayList<>();
+        List<Integer> camino = new ArrayList<>();
+        camino.add(origen);
+        extender(grafo, camino, new boolean[grafo.cantidad()], destino, distancias);
+        Collections.sort(distancias);
+        return distancias;
+    }
+
+    private static void extender(GrafoPeliculas grafo, List<Integer> camino, boolean[] enCamino,
+                                 int destino, List<Double> distancias) {
+        int ultimo = camino.get(camino.size() - 1);
+        if (ultimo == destino) {
+            double distancia = CatalogosAleatorios.costo(grafo,
+                camino.stream().mapToInt(Integer::intValue).toArray());
+            if (distancia < Double.POSITIVE_INFINITY) {
+                distancias.add(distancia);
+            }
+            return;
+        }
+        enCamino[ultimo] = true;
+        Set<Integer> siguientes = new HashSet<>();
+        for (int a = grafo.primeraSalida(ultimo); a < grafo.finSalida(ultimo); a++) {
+            int v = grafo.destino(a);
+            if (!enCamino[v] && siguientes.add(v)) {
+                camino.add(v);
+                extender(grafo, camino, enCamino, destino, distancias);
+                camino.remove(camino.size() - 1);
+            }
+        }
+        enCamino[ultimo] = false;
+    }
+}
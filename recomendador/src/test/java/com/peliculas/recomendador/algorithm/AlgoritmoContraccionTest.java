@@ -0,0 +1,86 @@
+package com.peliculas.recomendador.algorithm;
+
+import com.peliculas.recomendador.CatalogosAleatorios;
+import com.peliculas.recomendador.model.ArbolCaminos;
+import com.peliculas.recomendador.model.GrafoPeliculas;
+import com.peliculas.recomendador.model.JerarquiaContraccion;
+import com.peliculas.recomendador.model.Pelicula;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Contraction Hierarchies contra Dijkstra sobre el mismo grafo
+ */
+class AlgoritmoContraccionTest {
+
+    private final AlgoritmoContraccion algoritmoContraccion = new AlgoritmoContraccion();
+    private final AlgoritmoDijkstra algoritmoDijkstra = new AlgoritmoDijkstra();
+
+    @Test
+    void caminosComoDijkstraEnGrafosRalos() {
+        comparar(new Random(41), 150, 4, 60);
+    }
+
+    @Test
+    void caminosComoDijkstraConTodoEnElNucleo() {
+        // Grado promedio inicial > GRADO_NUCLEO: no se contrae nada
+        comparar(new Random(42), 60, 50, 20);
+    }
+
+    @Test
+    void casosBorde() {
+        GrafoPeliculas grafo = CatalogosAleatorios.grafo(CatalogosAleatorios.bordes());
+        JerarquiaContraccion jerarquia = algoritmoContraccion.construir(grafo);
+
+        // Sin peso = 0, la paralela más liviana, el autociclo no cambia nada
+        assertEquals(List.of(1L, 3L, 4L), ids(algoritmoContraccion.caminoMasCorto(jerarquia, 1L, 4L)));
+        assertEquals(List.of(1L, 2L), ids(algoritmoContraccion.caminoMasCorto(jerarquia, 1L, 2L)));
+        assertEquals(List.of(2L), ids(algoritmoContraccion.caminoMasCorto(jerarquia, 2L, 2L)));
+        assertEquals(3.0, CatalogosAleatorios.costo(grafo,
+            algoritmoContraccion.camino(jerarquia, grafo.indice(1L), grafo.indice(4L))), 1e-9);
+        assertTrue(algoritmoContraccion.caminoMasCorto(jerarquia, 4L, 1L).isEmpty());
+        assertTrue(algoritmoContraccion.caminoMasCorto(jerarquia, 2L, 3L).isEmpty());
+
+        // ID desconocido
+        assertTrue(algoritmoContraccion.caminoMasCorto(jerarquia, 99L, 1L).isEmpty());
+        assertTrue(algoritmoContraccion.caminoMasCorto(jerarquia, 1L, 99L).isEmpty());
+
+        // Grafo vacío
+        JerarquiaContraccion vacia = algoritmoContraccion.construir(CatalogosAleatorios.grafo(List.of()));
+        assertEquals(0, vacia.cantidad());
+        assertTrue(algoritmoContraccion.caminoMasCorto(vacia, 1L, 2L).isEmpty());
+    }
+
+    private void comparar(Random azar, int maximoPeliculas, int gradoMaximo, int grafos) {
+        for (int g = 0; g < grafos; g++) {
+            int n = 2 + azar.nextInt(maximoPeliculas - 1);
+            GrafoPeliculas grafo = CatalogosAleatorios.grafo(CatalogosAleatorios.peliculas(azar, n, gradoMaximo));
+            JerarquiaContraccion jerarquia = algoritmoContraccion.construir(grafo);
+
+            for (int consulta = 0; consulta < 30; consulta++) {
+                int origen = azar.nextInt(n);
+                int destino = azar.nextInt(n);
+                ArbolCaminos arbol = algoritmoDijkstra.arbolHacia(grafo, origen, new int[]{destino});
+                int[] camino = algoritmoContraccion.camino(jerarquia, origen, destino);
+
+                if (!arbol.alcanzado(destino)) {
+                    assertEquals(0, camino.length, "sin camino " + origen + " -> " + destino);
+                    continue;
+                }
+                assertEquals(origen, camino[0]);
+                assertEquals(destino, camino[camino.length - 1]);
+                assertEquals(arbol.distancia(destino), CatalogosAleatorios.costo(grafo, camino), 1e-9,
+                    "costo " + origen + " -> " + destino);
+            }
+        }
+    }
+
+    private static List<Long> ids(List<Pelicula> peliculas) {
+        return peliculas.stream().map(Pelicula::getPeliculaId).toList();
+    }
+}
@@ -0,0 +1,74 @@
+package com.peliculas.recomendador.algorithm;
+
+import com.peliculas.recomendador.CatalogosAleatorios;
+import com.peliculas.recomendador.model.ArbolCaminos;
+import com.peliculas.recomendador.model.GrafoPeliculas;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Delta-stepping paralelo contra Dijkstra secuencial
+ */
+class AlgoritmoDeltaSteppingTest {
+
+    private final AlgoritmoDeltaStepping algoritmoDeltaStepping = new AlgoritmoDeltaStepping();
+    private final AlgoritmoDijkstra algoritmoDijkstra = new AlgoritmoDijkstra();
+
+    @Test
+    void distanciasComoDijkstraConDistintosDelta() {
+        Random azar = new Random(42);
+        double[] deltas = {0.05, 0.5, 1.0, 5.0, 1000.0};
+        for (int g = 0; g < 40; g++) {
+            // Algunos grafos pasan los NODOS_POR_TAREA: las cubetas se reparten en varias tareas
+            int n = 1 + azar.nextInt(g % 4 == 0 ? 3000 : 200);
+            GrafoPeliculas grafo = CatalogosAleatorios.grafo(CatalogosAleatorios.peliculas(azar, n, 5));
+            int origen = azar.nextInt(n);
+            ArbolCaminos arbol = algoritmoDijkstra.arbolHacia(grafo, origen, new int[0]);
+
+            comparar(arbol, algoritmoDeltaStepping.distancias(grafo, origen), "Δ por defecto");
+            for (double delta : deltas) {
+                comparar(arbol, algoritmoDeltaStepping.distancias(grafo, origen, delta), "Δ = " + delta);
+            }
+        }
+    }
+
+    @Test
+    void casosBorde() {
+        // Sin peso = costo 10, la paralela más liviana (costo 1), el autociclo no cambia nada
+        GrafoPeliculas grafo = CatalogosAleatorios.grafo(CatalogosAleatorios.bordes());
+        double infinito = Double.POSITIVE_INFINITY;
+        for (double delta : new double[]{0.5, 3.0, 100.0}) {
+            assertArrayEquals(new double[]{0.0, 10.0, 1.0, 3.0},
+                algoritmoDeltaStepping.distancias(grafo, grafo.indice(1L), delta), 1e-9, "Δ = " + delta);
+            assertArrayEquals(new double[]{infinito, 0.0, infinito, infinito},
+                algoritmoDeltaStepping.distancias(grafo, grafo.indice(2L), delta), 1e-9, "Δ = " + delta);
+        }
+        // Costos 10, 5, 1, 1 / 0.6 (autociclo) y 2
+        assertEquals((10.0 + 5.0 + 1.0 + 1.0 / 0.6 + 2.0) / 5, algoritmoDeltaStepping.deltaPorDefecto(grafo), 1e-9);
+
+        // Sin aristas: Δ = 1 y solo el origen es alcanzable
+        GrafoPeliculas aislada = CatalogosAleatorios.grafo(CatalogosAleatorios.peliculas(new Random(1), 1, 0));
+        assertEquals(1.0, algoritmoDeltaStepping.deltaPorDefecto(aislada));
+        assertArrayEquals(new double[]{0.0}, algoritmoDeltaStepping.distancias(aislada, 0), 0.0);
+        assertEquals(1.0, algoritmoDeltaStepping.deltaPorDefecto(CatalogosAleatorios.grafo(List.of())));
+    }
+
+    @Test
+    void rechazaDeltaInvalido() {
+        GrafoPeliculas grafo = CatalogosAleatorios.grafo(CatalogosAleatorios.peliculas(new Random(1), 5, 2));
+        assertThrows(IllegalArgumentException.class, () -> algoritmoDeltaStepping.distancias(grafo, 0, 0.0));
+        assertThrows(IllegalArgumentException.class, () -> algoritmoDeltaStepping.distancias(grafo, 0, Double.NaN));
+    }
+
+    private static void comparar(ArbolCaminos arbol, double[] distancias, String caso) {
+        for (int v = 0; v < distancias.length; v++) {
+            assertEquals(arbol.distancia(v), distancias[v], 1e-9, caso + ", nodo " + v);
+        }
+    }
+}
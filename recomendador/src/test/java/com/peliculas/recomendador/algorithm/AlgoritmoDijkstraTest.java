@@ -0,0 +1,230 @@
+package com.peliculas.recomendador.algorithm;
+
+import com.peliculas.recomendador.CatalogosAleatorios;
+import com.peliculas.recomendador.model.ArbolCaminos;
+import com.peliculas.recomendador.model.GrafoPeliculas;
+import com.peliculas.recomendador.model.Pelicula;
+import com.peliculas.recomendador.model.RelacionSimilitud;
+import com.peliculas.recomendador.model.SemillaPonderada;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.IntPredicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Reparación del árbol de caminos contra un Dijkstra desde cero sobre el grafo cambiado
+ * Multi-origen contra un Dijkstra por semilla
+ */
+class AlgoritmoDijkstraTest {
+
+    private final AlgoritmoDijkstra algoritmo = new AlgoritmoDijkstra();
+
+    @Test
+    void repararArbolComoDijkstraDeNuevo() {
+        Random azar = new Random(42);
+        for (int g = 0; g < 60; g++) {
+            int n = 2 + azar.nextInt(g % 5 == 0 ? 500 : 40);
+            GrafoPeliculas grafo = CatalogosAleatorios.grafo(CatalogosAleatorios.peliculas(azar, n, 4));
+            int origen = azar.nextInt(n);
+            ArbolCaminos arbol = algoritmo.arbolHacia(grafo, origen, new int[0]);
+
+            // Cambios encadenados: cada reparación parte del árbol reparado anterior
+            for (int c = 0; c < 30; c++) {
+                int desde;
+                int hasta;
+                if (azar.nextBoolean()) {
+                    // Arista del árbol: sube de peso, baja o se elimina
+                    hasta = azar.nextInt(n);
+                    desde = arbol.padre(hasta);
+                    if (desde < 0) {
+                        continue;
+                    }
+                } else {
+                    desde = azar.nextInt(n);
+                    hasta = azar.nextInt(n);
+                }
+                Double peso = azar.nextInt(4) == 0 ? null : azar.nextInt(101) / 100.0;
+
+                grafo = grafo.conSimilitud(desde, hasta, peso, c + 2);
+                arbol = algoritmo.repararArbol(grafo, arbol, desde, hasta);
+                comparar(grafo, arbol, algoritmo.arbolHacia(grafo, origen, new int[0]),
+                    "grafo " + g + ", cambio " + c + ": " + desde + " -> " + hasta + " = " + peso);
+            }
+        }
+    }
+
+    @Test
+    void repararArbolCasosBorde() {
+        GrafoPeliculas grafo = CatalogosAleatorios.grafo(CatalogosAleatorios.bordes());
+        int uno = grafo.indice(1L);
+        int dos = grafo.indice(2L);
+        int tres = grafo.indice(3L);
+        int cuatro = grafo.indice(4L);
+        ArbolCaminos arbol = algoritmo.arbolHacia(grafo, uno, new int[0]);
+        assertEquals(3.0, arbol.distancia(cuatro), 1e-9);
+
+        // Autociclo: cambia el grafo, no el árbol
+        grafo = grafo.conSimilitud(dos, dos, 0.9, 2);
+        arbol = algoritmo.repararArbol(grafo, arbol, dos, dos);
+        comparar(grafo, arbol, algoritmo.arbolHacia(grafo, uno, new int[0]), "autociclo 2 -> 2");
+
+        // Las dos paralelas 1 -> 3 se van juntas: 3 y 4 quedan sin camino
+        grafo = grafo.conSimilitud(uno, tres, null, 3);
+        arbol = algoritmo.repararArbol(grafo, arbol, uno, tres);
+        comparar(grafo, arbol, algoritmo.arbolHacia(grafo, uno, new int[0]), "sin 1 -> 3");
+        assertTrue(!arbol.alcanzado(tres) && !arbol.alcanzado(cuatro));
+
+        // Vuelve por 2, que seguía colgando de la similitud sin peso (costo 10)
+        grafo = grafo.conSimilitud(dos, tres, 0.4, 4);
+        arbol = algoritmo.repararArbol(grafo, arbol, dos, tres);
+        comparar(grafo, arbol, algoritmo.arbolHacia(grafo, uno, new int[0]), "2 -> 3 = 0.4");
+        assertEquals(14.0, arbol.distancia(cuatro), 1e-9);
+
+        // Quitar una similitud que no existe
+        grafo = grafo.conSimilitud(cuatro, uno, null, 5);
+        arbol = algoritmo.repararArbol(grafo, arbol, cuatro, uno);
+        comparar(grafo, arbol, algoritmo.arbolHacia(grafo, uno, new int[0]), "sin 4 -> 1");
+    }
+
+    @Test
+    void multiplesComoUnDijkstraPorSemilla() {
+        Random azar = new Random(39);
+        for (int g = 0; g < 40; g++) {
+            int n = 1 + azar.nextInt(g % 5 == 0 ? 400 : 40);
+            List<Pelicula> peliculas = CatalogosAleatorios.peliculas(azar, n, 1 + g % 4);
+            GrafoPeliculas grafo = CatalogosAleatorios.grafo(peliculas);
+
+            List<SemillaPonderada> semillas = new ArrayList<>();
+            for (int k = 0; k <= azar.nextInt(4); k++) {
+                Double peso = azar.nextInt(5) == 0 ? null : azar.nextInt(121) / 100.0 - 0.1;  // fuera de [0, 1] se recorta
+                semillas.add(new SemillaPonderada(1L + azar.nextInt(n), peso));
+            }
+            semillas.add(new SemillaPonderada(999_999L, 1.0));  // desconocida: se ignora
+            semillas.add(null);
+            int cantidad = 1 + azar.nextInt(n + 2);
+            String caso = "grafo " + g + ", semillas " + semillas + ", n " + cantidad;
+
+            // Sin restringir: se filtra el resultado, no el recorrido
+            IntPredicate filtro = v -> grafo.pelicula(v).getPeliculaId() % 3 != 0;
+            compararCercanas(grafo, algoritmo.topNCercanasMultiples(grafo, semillas, cantidad, v -> true, false),
+                distanciasPorSemilla(grafo, semillas), semillas, v -> true, cantidad, caso);
+            compararCercanas(grafo, algoritmo.topNCercanasMultiples(grafo, semillas, cantidad, filtro, false),
+                distanciasPorSemilla(grafo, semillas), semillas, filtro, cantidad, caso + ", filtrado");
+
+            // Restringido: la referencia es el grafo sin las películas que no cumplen
+            GrafoPeliculas restringido = CatalogosAleatorios.grafo(sinLasQueNoCumplen(peliculas, semillas));
+            compararCercanas(grafo, algoritmo.topNCercanasMultiples(grafo, semillas, cantidad, filtro, true),
+                distanciasPorSemilla(restringido, semillas), semillas, filtro, cantidad, caso + ", restringido");
+        }
+    }
+
+    @Test
+    void multiplesSinSemillas() {
+        GrafoPeliculas grafo = CatalogosAleatorios.grafo(CatalogosAleatorios.peliculas(new Random(1), 10, 2));
+        assertTrue(algoritmo.topNCercanasMultiples(grafo, null, 5, v -> true, false).isEmpty());
+        assertTrue(algoritmo.topNCercanasMultiples(grafo, List.of(), 5, v -> true, false).isEmpty());
+        assertTrue(algoritmo.topNCercanasMultiples(grafo, List.of(new SemillaPonderada(99L, 1.0)), 5, v -> true, false).isEmpty());
+        assertTrue(algoritmo.topNCercanasMultiples(grafo, List.of(new SemillaPonderada(1L, 1.0)), 0, v -> true, false).isEmpty());
+    }
+
+    /**
+     * Distancia de cada película (por ID) a la semilla más cercana: un Dijkstra por
+     * semilla, con la distancia inicial según su peso
+     */
+    private Map<Long, Double> distanciasPorSemilla(GrafoPeliculas recorrido, List<SemillaPonderada> semillas) {
+        Map<Long, Double> distancias = new HashMap<>();
+        for (SemillaPonderada semilla : semillas) {
+            if (semilla == null || recorrido.indice(semilla.getPeliculaId()) < 0) {
+                continue;
+            }
+            double peso = semilla.getPeso() != null ? Math.max(0.0, Math.min(1.0, semilla.getPeso())) : 1.0;
+            double inicial = 1.0 / (peso + 0.1) - 1.0 / 1.1;
+            ArbolCaminos arbol = algoritmo.arbolHacia(recorrido, recorrido.indice(semilla.getPeliculaId()), new int[0]);
+            for (int v = 0; v < recorrido.cantidad(); v++) {
+                if (arbol.alcanzado(v)) {
+                    distancias.merge(recorrido.pelicula(v).getPeliculaId(), inicial + arbol.distancia(v), Math::min);
+                }
+            }
+        }
+        return distancias;
+    }
+
+    /**
+     * Las n más cercanas que cumplen, sin las semillas; los empates pueden salir en
+     * cualquier orden, así que se comparan las distancias en orden
+     */
+    private static void compararCercanas(GrafoPeliculas grafo, List<Pelicula> obtenidas, Map<Long, Double> distancias,
+                                         List<SemillaPonderada> semillas, IntPredicate filtro, int n, String caso) {
+        Set<Long> ids = new HashSet<>();
+        semillas.stream().filter(s -> s != null).forEach(s -> ids.add(s.getPeliculaId()));
+        double[] esperadas = distancias.entrySet().stream()
+            .filter(e -> !ids.contains(e.getKey()) && filtro.test(grafo.indice(e.getKey())))
+            .mapToDouble(Map.Entry::getValue)
+            .sorted()
+            .limit(n)
+            .toArray();
+
+        assertEquals(esperadas.length, obtenidas.size(), caso);
+        Set<Long> vistas = new HashSet<>();
+        for (int k = 0; k < obtenidas.size(); k++) {
+            Long id = obtenidas.get(k).getPeliculaId();
+            assertTrue(vistas.add(id), caso);
+            assertTrue(!ids.contains(id) && filtro.test(grafo.indice(id)), caso + ", película " + id);
+            assertEquals(esperadas[k], distancias.get(id), 1e-9, caso + ", posición " + k);
+        }
+    }
+
+    /**
+     * Copia del catálogo con las semillas y las películas que cumplen el filtro;
+     * solo quedan las similitudes HACIA películas que cumplen
+     */
+    private static List<Pelicula> sinLasQueNoCumplen(List<Pelicula> peliculas, List<SemillaPonderada> semillas) {
+        Set<Long> semillaIds = new HashSet<>();
+        semillas.stream().filter(s -> s != null).forEach(s -> semillaIds.add(s.getPeliculaId()));
+        Map<Long, Pelicula> copias = new HashMap<>();
+        for (Pelicula pelicula : peliculas) {
+            long id = pelicula.getPeliculaId();
+            if (id % 3 != 0 || semillaIds.contains(id)) {
+                copias.put(id, new Pelicula(id, pelicula.getTitulo(), pelicula.getAño(),
+                    pelicula.getPromedioRating(), pelicula.getDuracion()));
+            }
+        }
+        for (Pelicula pelicula : peliculas) {
+            Pelicula copia = copias.get(pelicula.getPeliculaId());
+            if (copia == null) {
+                continue;
+            }
+            for (RelacionSimilitud relacion : pelicula.getPeliculasSimilares()) {
+                long destino = relacion.getPeliculaDestino().getPeliculaId();
+                if (destino % 3 != 0) {
+                    copia.getPeliculasSimilares().add(new RelacionSimilitud(relacion.getPeso(),
+                        relacion.getGenerosComunes(), copias.get(destino)));
+                }
+            }
+        }
+        return new ArrayList<>(copias.values());
+    }
+
+    private static void comparar(GrafoPeliculas grafo, ArbolCaminos reparado, ArbolCaminos esperado, String caso) {
+        for (int v = 0; v < grafo.cantidad(); v++) {
+            assertEquals(esperado.distancia(v), reparado.distancia(v), 1e-9, caso + ", nodo " + v);
+            int padre = reparado.padre(v);
+            if (padre >= 0) {
+                // El padre tiene que ser coherente con la distancia (no un resto del árbol viejo)
+                double porElPadre = reparado.distancia(padre) + CatalogosAleatorios.costo(grafo, new int[]{padre, v});
+                assertEquals(reparado.distancia(v), porElPadre, 1e-9, caso + ", padre de " + v);
+            } else {
+                assertTrue(v == reparado.origen() || !reparado.alcanzado(v), caso + ", nodo sin padre " + v);
+            }
+        }
+    }
+}
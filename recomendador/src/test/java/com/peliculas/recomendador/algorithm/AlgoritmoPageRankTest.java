@@ -0,0 +1,109 @@
+package com.peliculas.recomendador.algorithm;
+
+import com.peliculas.recomendador.CatalogosAleatorios;
+import com.peliculas.recomendador.model.GrafoPeliculas;
+import com.peliculas.recomendador.model.PeliculaPuntaje;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Forward push contra la iteración de potencias del PageRank personalizado
+ */
+class AlgoritmoPageRankTest {
+
+    private final AlgoritmoPageRank algoritmoPageRank = new AlgoritmoPageRank();
+
+    @Test
+    void puntajesComoIteracionDePotencias() {
+        Random azar = new Random(38);
+        for (int g = 0; g < 30; g++) {
+            int n = 1 + azar.nextInt(200);
+            GrafoPeliculas grafo = CatalogosAleatorios.grafo(CatalogosAleatorios.peliculas(azar, n, 1 + g % 5));
+            List<Long> semillas = new ArrayList<>();
+            for (int k = 0; k <= azar.nextInt(3); k++) {
+                semillas.add(1L + azar.nextInt(n));
+            }
+            semillas.add(999_999L);  // desconocida: se ignora
+            String caso = "grafo " + g + ", semillas " + semillas;
+            double[] exacto = potencias(grafo, semillas);
+
+            Set<Integer> devueltas = new HashSet<>();
+            double anterior = Double.POSITIVE_INFINITY;
+            for (PeliculaPuntaje puntaje : algoritmoPageRank.recomendar(grafo, semillas, n, 1e-10)) {
+                int v = grafo.indice(puntaje.getPelicula().getPeliculaId());
+                assertEquals(exacto[v], puntaje.getPuntaje(), 1e-6, caso + ", nodo " + v);
+                assertTrue(puntaje.getPuntaje() <= anterior, caso);
+                assertTrue(devueltas.add(v), caso);
+                anterior = puntaje.getPuntaje();
+            }
+            // Con n = todas, falta solo lo que no es alcanzable (o es semilla)
+            for (int v = 0; v < grafo.cantidad(); v++) {
+                if (!devueltas.contains(v) && !semillas.contains(grafo.pelicula(v).getPeliculaId())) {
+                    assertEquals(0.0, exacto[v], 1e-6, caso + ", nodo " + v);
+                }
+            }
+
+            // Los arreglos de trabajo se reutilizan: repetir da lo mismo
+            assertEquals(algoritmoPageRank.recomendar(grafo, semillas, 5, 1e-4),
+                algoritmoPageRank.recomendar(grafo, semillas, 5, 1e-4), caso);
+        }
+    }
+
+    @Test
+    void casosBorde() {
+        GrafoPeliculas grafo = CatalogosAleatorios.grafo(CatalogosAleatorios.peliculas(new Random(1), 10, 2));
+        assertTrue(algoritmoPageRank.recomendar(grafo, List.of(999L), 5, 1e-4).isEmpty());
+        assertTrue(algoritmoPageRank.recomendar(grafo, List.of(1L), 0, 1e-4).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> algoritmoPageRank.recomendar(grafo, List.of(1L), 5, 0.0));
+        assertThrows(IllegalArgumentException.class, () -> algoritmoPageRank.recomendar(grafo, List.of(1L), 5, 1.0));
+    }
+
+    /**
+     * pi = ALFA × s + (1 - ALFA) × pi × P, con P por pesos (uniforme si todos son 0)
+     * y reinicio a las semillas desde los nodos sin salida
+     */
+    private static double[] potencias(GrafoPeliculas grafo, List<Long> semillas) {
+        int n = grafo.cantidad();
+        int[] origenes = semillas.stream().mapToInt(grafo::indice).filter(i -> i >= 0).distinct().toArray();
+        double[] reinicio = new double[n];
+        for (int origen : origenes) {
+            reinicio[origen] = 1.0 / origenes.length;
+        }
+        double[] pi = reinicio.clone();
+        for (int iteracion = 0; iteracion < 400; iteracion++) {
+            double[] siguiente = new double[n];
+            for (int v = 0; v < n; v++) {
+                siguiente[v] = AlgoritmoPageRank.ALFA * reinicio[v];
+            }
+            for (int u = 0; u < n; u++) {
+                double masa = (1 - AlgoritmoPageRank.ALFA) * pi[u];
+                int grado = grafo.finSalida(u) - grafo.primeraSalida(u);
+                if (grado == 0) {
+                    for (int v = 0; v < n; v++) {
+                        siguiente[v] += masa * reinicio[v];
+                    }
+                    continue;
+                }
+                double pesoTotal = 0;
+                for (int a = grafo.primeraSalida(u); a < grafo.finSalida(u); a++) {
+                    pesoTotal += grafo.peso(a);
+                }
+                for (int a = grafo.primeraSalida(u); a < grafo.finSalida(u); a++) {
+                    double fraccion = pesoTotal > 0 ? grafo.peso(a) / pesoTotal : 1.0 / grado;
+                    siguiente[grafo.destino(a)] += masa * fraccion;
+                }
+            }
+            pi = siguiente;
+        }
+        return pi;
+    }
+}
@@ -0,0 +1,151 @@
+package com.peliculas.recomendador.algorithm;
+
+import com.peliculas.recomendador.CatalogosAleatorios;
+import com.peliculas.recomendador.model.AdyacenciaComprimida;
+import com.peliculas.recomendador.model.ArbolCaminos;
+import com.peliculas.recomendador.model.AristasBosque;
+import com.peliculas.recomendador.model.GrafoPeliculas;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Dijkstra, BFS y Kruskal sobre la adyacencia comprimida contra los mismos recorridos
+ * sobre el CSR (pesos en la grilla de cuantización: los resultados tienen que coincidir)
+ */
+class AlgoritmosComprimidosTest {
+
+    private final AlgoritmoDijkstra algoritmoDijkstra = new AlgoritmoDijkstra();
+    private final AlgoritmoBusqueda algoritmoBusqueda = new AlgoritmoBusqueda();
+    private final AlgoritmoKruskal algoritmoKruskal = new AlgoritmoKruskal();
+
+    @Test
+    void dijkstraComoSobreElCsr() {
+        Random azar = new Random(42);
+        for (int g = 0; g < 40; g++) {
+            int n = 1 + azar.nextInt(g % 4 == 0 ? 2000 : 80);
+            GrafoPeliculas grafo = grafo(azar, n);
+            AdyacenciaComprimida adyacencia = CatalogosAleatorios.comprimida(grafo, 1 + azar.nextInt(100));
+            int origen = azar.nextInt(n);
+
+            ArbolCaminos esperado = algoritmoDijkstra.arbolHacia(grafo, origen, new int[0]);
+            ArbolCaminos comprimido = algoritmoDijkstra.arbolHacia(adyacencia, origen, new int[0]);
+            for (int v = 0; v < n; v++) {
+                assertEquals(esperado.distancia(v), comprimido.distancia(v), 1e-9, "grafo " + g + ", nodo " + v);
+            }
+        }
+    }
+
+    @Test
+    void bfsComoSobreElCsr() {
+        Random azar = new Random(7);
+        for (int g = 0; g < 40; g++) {
+            int n = 1 + azar.nextInt(g % 4 == 0 ? 2000 : 80);
+            GrafoPeliculas grafo = grafo(azar, n);
+            AdyacenciaComprimida adyacencia = CatalogosAleatorios.comprimida(grafo, 1 + azar.nextInt(100));
+            int origen = azar.nextInt(n);
+            int profundidad = azar.nextInt(6);
+
+            assertArrayEquals(niveles(grafo, origen, profundidad),
+                algoritmoBusqueda.niveles(adyacencia, origen, profundidad), "grafo " + g);
+        }
+    }
+
+    @Test
+    void kruskalComoSobreElCsrConCualquierLote() {
+        Random azar = new Random(3);
+        // Lotes chicos: niveles repartidos en varias bandas y bandas de un solo nivel cortado
+        int[] lotes = {1, 2, 7, 100, Integer.MAX_VALUE};
+        for (int g = 0; g < 40; g++) {
+            int n = 1 + azar.nextInt(g % 4 == 0 ? 1000 : 80);
+            GrafoPeliculas grafo = grafo(azar, n);
+            AdyacenciaComprimida adyacencia = CatalogosAleatorios.comprimida(grafo, AdyacenciaComprimida.LOTE_ARISTAS);
+            double[] esperado = kruskal(grafo);
+
+            for (int lote : lotes) {
+                AristasBosque bosque = algoritmoKruskal.bosqueExpansionMinimo(adyacencia, lote);
+                String caso = "grafo " + g + ", lote " + lote;
+                assertEquals((int) esperado[0], bosque.cantidad(), caso);
+                assertEquals(esperado[1], bosque.pesoTotal(), 1e-9, caso);
+            }
+        }
+        assertThrows(IllegalArgumentException.class, () -> algoritmoKruskal.bosqueExpansionMinimo(
+            CatalogosAleatorios.comprimida(grafo(azar, 3), 1), 0));
+    }
+
+    private static GrafoPeliculas grafo(Random azar, int n) {
+        return CatalogosAleatorios.grafo(CatalogosAleatorios.cuantizadas(CatalogosAleatorios.peliculas(azar, n, 4)));
+    }
+
+    /**
+     * BFS de referencia sobre el CSR: SIMILAR_A en cualquier sentido
+     */
+    private static int[] niveles(GrafoPeliculas grafo, int origen, int profundidad) {
+        int[] niveles = new int[grafo.cantidad()];
+        Arrays.fill(niveles, -1);
+        int[] cola = new int[grafo.cantidad()];
+        int fin = 0;
+        cola[fin++] = origen;
+        niveles[origen] = 0;
+        for (int frente = 0; frente < fin; frente++) {
+            int actual = cola[frente];
+            if (niveles[actual] == profundidad) {
+                continue;
+            }
+            for (int a = grafo.primeraSalida(actual); a < grafo.finSalida(actual); a++) {
+                if (niveles[grafo.destino(a)] < 0) {
+                    niveles[grafo.destino(a)] = niveles[actual] + 1;
+                    cola[fin++] = grafo.destino(a);
+                }
+            }
+            for (int e = grafo.primeraEntrada(actual); e < grafo.finEntrada(actual); e++) {
+                if (niveles[grafo.origen(e)] < 0) {
+                    niveles[grafo.origen(e)] = niveles[actual] + 1;
+                    cola[fin++] = grafo.origen(e);
+                }
+            }
+        }
+        return niveles;
+    }
+
+    /**
+     * Kruskal de referencia sobre el CSR (sin dirección): {aristas, peso total}
+     */
+    private static double[] kruskal(GrafoPeliculas grafo) {
+        int n = grafo.cantidad();
+        int[] origenes = new int[grafo.cantidadAristas()];
+        for (int v = 0; v < n; v++) {
+            for (int a = grafo.primeraSalida(v); a < grafo.finSalida(v); a++) {
+                origenes[a] = v;
+            }
+        }
+        int[] representante = IntStream.range(0, n).toArray();
+        int aristas = 0;
+        double total = 0;
+        for (int a : IntStream.range(0, grafo.cantidadAristas()).boxed()
+                .sorted(Comparator.comparingDouble(grafo::peso)).mapToInt(Integer::intValue).toArray()) {
+            int ru = buscar(representante, origenes[a]);
+            int rv = buscar(representante, grafo.destino(a));
+            if (ru != rv) {
+                representante[ru] = rv;
+                aristas++;
+                total += grafo.peso(a);
+            }
+        }
+        return new double[]{aristas, total};
+    }
+
+    private static int buscar(int[] representante, int v) {
+        while (representante[v] != v) {
+            v = representante[v];
+        }
+        return v;
+    }
+}
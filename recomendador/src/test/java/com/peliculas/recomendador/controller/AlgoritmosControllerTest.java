@@ -0,0 +1,131 @@
+package com.peliculas.recomendador.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.peliculas.recomendador.CatalogosAleatorios;
+import com.peliculas.recomendador.algorithm.AlgoritmoDeltaStepping;
+import com.peliculas.recomendador.algorithm.AlgoritmoDijkstra;
+import com.peliculas.recomendador.model.ArbolCaminos;
+import com.peliculas.recomendador.model.GrafoPeliculas;
+import com.peliculas.recomendador.model.OrdenLocalidad;
+import com.peliculas.recomendador.model.ParPeliculas;
+import com.peliculas.recomendador.model.ResultadoCamino;
+import com.peliculas.recomendador.repository.PeliculaRepository;
+import com.peliculas.recomendador.service.CaminosEnLote;
+import com.peliculas.recomendador.service.CatalogoPeliculas;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Caminos por lotes (POST /api/algoritmos/dijkstra/caminos): una línea NDJSON por
+ * par, con la distancia y el camino de un Dijkstra por par
+ */
+class AlgoritmosControllerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void caminosEnLoteComoNdjson() throws IOException {
+        Random azar = new Random(40);
+        CatalogoPeliculas catalogo = new CatalogoPeliculas();
+        ReflectionTestUtils.setField(catalogo, "peliculaRepository", Mockito.mock(PeliculaRepository.class));
+        ReflectionTestUtils.setField(catalogo, "reordenamiento", OrdenLocalidad.Estrategia.RCM);
+        catalogo.reemplazarTodo(CatalogosAleatorios.peliculas(azar, 120, 2));
+        GrafoPeliculas grafo = catalogo.obtenerGrafo();
+        AlgoritmosController controlador = controlador(catalogo);
+
+        // Orígenes repetidos (un solo Dijkstra por grupo), pares repetidos y películas desconocidas
+        List<ParPeliculas> pares = new ArrayList<>();
+        for (int k = 0; k < 200; k++) {
+            pares.add(new ParPeliculas(1L + azar.nextInt(10), 1L + azar.nextInt(120)));
+        }
+        pares.add(new ParPeliculas(5L, 5L));
+        pares.add(new ParPeliculas(999L, 1L));
+        pares.add(new ParPeliculas(1L, 999L));
+
+        ResponseEntity<StreamingResponseBody> respuesta = controlador.dijkstraCaminosEnLote(pares);
+        assertEquals(MediaType.APPLICATION_NDJSON, respuesta.getHeaders().getContentType());
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        respuesta.getBody().writeTo(salida);
+        String cuerpo = salida.toString(StandardCharsets.UTF_8);
+        assertTrue(cuerpo.endsWith("\n"));
+
+        // Los resultados llegan en cualquier orden: se cuentan por par
+        Map<ParPeliculas, Integer> pendientes = new HashMap<>();
+        pares.forEach(par -> pendientes.merge(par, 1, Integer::sum));
+        AlgoritmoDijkstra dijkstra = new AlgoritmoDijkstra();
+        String[] lineas = cuerpo.split("\n");
+        assertEquals(pares.size(), lineas.length);
+        for (String linea : lineas) {
+            ResultadoCamino resultado = objectMapper.readValue(linea, ResultadoCamino.class);
+            ParPeliculas par = new ParPeliculas(resultado.getIdInicio(), resultado.getIdFin());
+            assertTrue(pendientes.merge(par, -1, Integer::sum) >= 0, linea);
+
+            int inicio = grafo.indice(par.getIdInicio());
+            int fin = grafo.indice(par.getIdFin());
+            ArbolCaminos arbol = inicio >= 0 ? dijkstra.arbolHacia(grafo, inicio, new int[0]) : null;
+            if (arbol == null || fin < 0 || !arbol.alcanzado(fin)) {
+                assertNull(resultado.getDistancia(), linea);
+                assertTrue(resultado.getCamino().isEmpty(), linea);
+                continue;
+            }
+            int[] camino = resultado.getCamino().stream().mapToInt(grafo::indice).toArray();
+            assertEquals(inicio, camino[0], linea);
+            assertEquals(fin, camino[camino.length - 1], linea);
+            assertEquals(arbol.distancia(fin), resultado.getDistancia(), 1e-9, linea);
+            assertEquals(arbol.distancia(fin), CatalogosAleatorios.costo(grafo, camino), 1e-9, linea);
+        }
+        assertTrue(pendientes.values().stream().allMatch(quedan -> quedan == 0));
+    }
+
+    @Test
+    void loteVacioSinLineas() throws IOException {
+        AlgoritmosController controlador = controlador(new CatalogoPeliculas());
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        controlador.dijkstraCaminosEnLote(List.of()).getBody().writeTo(salida);
+        assertEquals(0, salida.size());
+    }
+
+    @Test
+    void distanciasEnParaleloPorId() {
+        CatalogoPeliculas catalogo = new CatalogoPeliculas();
+        ReflectionTestUtils.setField(catalogo, "peliculaRepository", Mockito.mock(PeliculaRepository.class));
+        ReflectionTestUtils.setField(catalogo, "reordenamiento", OrdenLocalidad.Estrategia.RCM);
+        catalogo.reemplazarTodo(CatalogosAleatorios.bordes());
+        AlgoritmosController controlador = controlador(catalogo);
+        ReflectionTestUtils.setField(controlador, "catalogo", catalogo);
+        ReflectionTestUtils.setField(controlador, "algoritmoDeltaStepping", new AlgoritmoDeltaStepping());
+
+        // Solo las alcanzables, por ID aunque el catálogo esté renumerado
+        assertEquals(Map.of(1L, 0.0, 2L, 10.0, 3L, 1.0, 4L, 3.0), controlador.dijkstraDistancias(1L, true, null));
+        assertEquals(Map.of(1L, 0.0, 2L, 10.0, 3L, 1.0, 4L, 3.0), controlador.dijkstraDistancias(1L, true, 0.5));
+        assertEquals(Map.of(2L, 0.0), controlador.dijkstraDistancias(2L, true, null));
+        assertTrue(controlador.dijkstraDistancias(99L, true, null).isEmpty());
+    }
+
+    private AlgoritmosController controlador(CatalogoPeliculas catalogo) {
+        CaminosEnLote caminosEnLote = new CaminosEnLote();
+        ReflectionTestUtils.setField(caminosEnLote, "catalogo", catalogo);
+        ReflectionTestUtils.setField(caminosEnLote, "algoritmoDijkstra", new AlgoritmoDijkstra());
+        AlgoritmosController controlador = new AlgoritmosController();
+        ReflectionTestUtils.setField(controlador, "caminosEnLote", caminosEnLote);
+        ReflectionTestUtils.setField(controlador, "objectMapper", objectMapper);
+        return controlador;
+    }
+}
@@ -0,0 +1,191 @@
+package com.peliculas.recomendador.controller;
+
+import com.peliculas.recomendador.CatalogosAleatorios;
+import com.peliculas.recomendador.algorithm.AlgoritmoDijkstra;
+import com.peliculas.recomendador.model.ArbolCaminos;
+import com.peliculas.recomendador.model.GrafoPeliculas;
+import com.peliculas.recomendador.model.Pelicula;
+import com.peliculas.recomendador.model.PeliculaDistancia;
+import com.peliculas.recomendador.model.ResultadoMST;
+import com.peliculas.recomendador.repository.PeliculaRepository;
+import com.peliculas.recomendador.service.ClienteFragmentos;
+import com.peliculas.recomendador.service.CoordinadorParticion;
+import com.peliculas.recomendador.service.FragmentoGrafo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.context.PropertyPlaceholderAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactoryAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Dos instancias reales en puertos al azar, cada una con su fragmento, que se
+ * piden los pasos locales por HTTP (SolicitudFragmento / RespuestaFragmento en JSON)
+ * Las consultas a cualquiera de las dos dan lo mismo que el grafo completo
+ */
+class ParticionControllerTest {
+
+    private final List<ConfigurableApplicationContext> contextos = new ArrayList<>();
+
+    @AfterEach
+    void cerrar() {
+        contextos.forEach(ConfigurableApplicationContext::close);
+    }
+
+    @Test
+    void dosInstanciasPorHttp() {
+        List<Pelicula> peliculas = CatalogosAleatorios.peliculas(new Random(50), 60, 3);
+        GrafoPeliculas grafo = CatalogosAleatorios.grafo(peliculas);
+        Instancia.repositorio = CatalogosAleatorios.repositorio(peliculas, 7L);
+
+        List<String> urls = List.of("http://localhost:" + puertoLibre(), "http://localhost:" + puertoLibre());
+        for (int p = 0; p < urls.size(); p++) {
+            contextos.add(new SpringApplicationBuilder(Instancia.class)
+                .web(WebApplicationType.SERVLET)
+                .run("--server.port=" + urls.get(p).substring(urls.get(p).lastIndexOf(':') + 1),
+                    "--recomendador.particion.instancias=" + String.join(",", urls),
+                    "--recomendador.particion.indice=" + p,
+                    "--recomendador.particion.lote=7"));
+        }
+
+        RestClient cliente = RestClient.create();
+        Map<String, Object> plan = cliente.get().uri(urls.get(0) + "/api/particion/plan")
+            .retrieve()
+            .body(new ParameterizedTypeReference<Map<String, Object>>() {
+            });
+        assertEquals(true, plan.get("consistente"));
+        assertEquals(List.of(30, 30), plan.get("peliculasPorInstancia"));
+
+        AlgoritmoDijkstra dijkstra = new AlgoritmoDijkstra();
+        for (long origen = 1; origen <= 60; origen += 7) {
+            String url = urls.get((int) (origen % 2 == 0 ? 1 : 0));  // coordina una instancia que no es la dueña
+            String caso = "origen " + origen + " por " + url;
+            ArbolCaminos arbol = dijkstra.arbolHacia(grafo, grafo.indice(origen), new int[0]);
+
+            Map<Long, Double> distancias = cliente.get().uri(url + "/api/particion/dijkstra/distancias/" + origen)
+                .retrieve()
+                .body(new ParameterizedTypeReference<Map<Long, Double>>() {
+                });
+            int alcanzadas = 0;
+            for (int v = 0; v < grafo.cantidad(); v++) {
+                if (arbol.alcanzado(v)) {
+                    alcanzadas++;
+                    Long id = grafo.pelicula(v).getPeliculaId();
+                    assertEquals(arbol.distancia(v), distancias.get(id), 1e-9, caso + ", película " + id);
+                }
+            }
+            assertEquals(alcanzadas, distancias.size(), caso);
+
+            long destino = 61 - origen;
+            int d = grafo.indice(destino);
+            List<Pelicula> camino = cliente.get().uri(url + "/api/particion/dijkstra/camino/" + origen + "/" + destino)
+                .retrieve()
+                .body(new ParameterizedTypeReference<List<Pelicula>>() {
+                });
+            if (!arbol.alcanzado(d)) {
+                assertTrue(camino.isEmpty(), caso + ", destino " + destino);
+            } else {
+                int[] indices = camino.stream().mapToInt(p -> grafo.indice(p.getPeliculaId())).toArray();
+                assertEquals(destino, (long) camino.get(camino.size() - 1).getPeliculaId(), caso + ", destino " + destino);
+                assertEquals(arbol.distancia(d), CatalogosAleatorios.costo(grafo, indices), 1e-9, caso + ", destino " + destino);
+            }
+
+            List<PeliculaDistancia> niveles = cliente.get().uri(url + "/api/particion/bfs/" + origen + "?profundidad=2&limite=5")
+                .retrieve()
+                .body(new ParameterizedTypeReference<List<PeliculaDistancia>>() {
+                });
+            assertTrue(niveles.size() <= 5, caso);
+            for (int k = 1; k < niveles.size(); k++) {
+                assertTrue(niveles.get(k - 1).getDistancia() <= niveles.get(k).getDistancia(), caso);
+            }
+        }
+
+        ResultadoMST particionado = cliente.get().uri(urls.get(1) + "/api/particion/kruskal/mst")
+            .retrieve()
+            .body(ResultadoMST.class);
+        assertEquals(bosque(grafo), particionado.getPesoTotal(), 1e-9);
+    }
+
+    /**
+     * Una instancia: controlador de partición y sus servicios, con el repositorio en memoria
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ImportAutoConfiguration({PropertyPlaceholderAutoConfiguration.class, ServletWebServerFactoryAutoConfiguration.class,
+        DispatcherServletAutoConfiguration.class, WebMvcAutoConfiguration.class,
+        HttpMessageConvertersAutoConfiguration.class, JacksonAutoConfiguration.class})
+    @Import({ParticionController.class, FragmentoGrafo.class, CoordinadorParticion.class,
+        ClienteFragmentos.class, AlgoritmoDijkstra.class})
+    static class Instancia {
+
+        static PeliculaRepository repositorio;
+
+        @Bean
+        PeliculaRepository peliculaRepository() {
+            return repositorio;
+        }
+    }
+
+    private static int puertoLibre() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Peso del bosque de expansión mínimo del grafo completo (Kruskal simple)
+     */
+    private static double bosque(GrafoPeliculas grafo) {
+        List<int[]> aristas = new ArrayList<>();
+        for (int u = 0; u < grafo.cantidad(); u++) {
+            for (int a = grafo.primeraSalida(u); a < grafo.finSalida(u); a++) {
+                aristas.add(new int[]{u, a});
+            }
+        }
+        aristas.sort((x, y) -> Double.compare(grafo.peso(x[1]), grafo.peso(y[1])));
+        int[] representante = new int[grafo.cantidad()];
+        for (int v = 0; v < representante.length; v++) {
+            representante[v] = v;
+        }
+        double total = 0;
+        for (int[] arista : aristas) {
+            int ru = raiz(representante, arista[0]);
+            int rv = raiz(representante, grafo.destino(arista[1]));
+            if (ru != rv) {
+                representante[ru] = rv;
+                total += grafo.peso(arista[1]);
+            }
+        }
+        return total;
+    }
+
+    private static int raiz(int[] representante, int v) {
+        while (representante[v] != v) {
+            v = representante[v];
+        }
+        return v;
+    }
+}
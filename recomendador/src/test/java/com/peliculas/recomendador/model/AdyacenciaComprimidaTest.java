@@ -0,0 +1,89 @@
+package com.peliculas.recomendador.model;
+
+import com.peliculas.recomendador.CatalogosAleatorios;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Decodificación de la adyacencia comprimida contra el CSR de GrafoPeliculas
+ * Cada arista se compara como (vecino, nivel): con pesos en la grilla no hay pérdida
+ */
+class AdyacenciaComprimidaTest {
+
+    @Test
+    void listasComoElCsr() {
+        Random azar = new Random(42);
+        int[] lotes = {1, 3, 50, AdyacenciaComprimida.LOTE_ARISTAS};
+        for (int g = 0; g < 40; g++) {
+            int n = 1 + azar.nextInt(g % 4 == 0 ? 2000 : 60);
+            GrafoPeliculas grafo = CatalogosAleatorios.grafo(
+                CatalogosAleatorios.cuantizadas(CatalogosAleatorios.peliculas(azar, n, 6)));
+            // El lote de transposición solo cambia cuántas pasadas hace armar()
+            int lote = lotes[g % lotes.length];
+            AdyacenciaComprimida adyacencia = CatalogosAleatorios.comprimida(grafo, lote);
+            AdyacenciaComprimida.Cursor cursor = adyacencia.cursor();
+
+            assertEquals(grafo.cantidad(), adyacencia.cantidad());
+            assertEquals(grafo.cantidadAristas(), adyacencia.cantidadAristas());
+            for (int v = 0; v < n; v++) {
+                String caso = "grafo " + g + " (lote " + lote + "), nodo " + v;
+
+                List<Long> esperadas = new ArrayList<>();
+                for (int a = grafo.primeraSalida(v); a < grafo.finSalida(v); a++) {
+                    esperadas.add(clave(grafo.destino(a), grafo.peso(a)));
+                }
+                List<Long> leidas = new ArrayList<>();
+                for (cursor.salientes(v); cursor.siguiente(); ) {
+                    leidas.add((long) cursor.vecino() << 16 | cursor.nivel());
+                    assertEquals(adyacencia.costoDeNivel(cursor.nivel()), cursor.costo(), 0.0, caso);
+                }
+                assertEquals(ordenadas(esperadas), leidas, caso + ", salientes");
+                assertEquals(esperadas.size(), adyacencia.gradoSalida(v), caso);
+
+                esperadas.clear();
+                for (int e = grafo.primeraEntrada(v); e < grafo.finEntrada(v); e++) {
+                    esperadas.add(clave(grafo.origen(e), grafo.pesoEntrante(e)));
+                }
+                leidas.clear();
+                for (cursor.entrantes(v); cursor.siguiente(); ) {
+                    leidas.add((long) cursor.vecino() << 16 | cursor.nivel());
+                }
+                assertEquals(ordenadas(esperadas), leidas, caso + ", entrantes");
+                assertEquals(esperadas.size(), adyacencia.gradoEntrada(v), caso);
+            }
+            assertTrue(adyacencia.bytes() > 0);
+        }
+    }
+
+    @Test
+    void rechazaListasFueraDeFormato() {
+        AdyacenciaComprimida.Constructor constructor = new AdyacenciaComprimida.Constructor(3, 0.0, 1.0);
+        constructor.agregar(1, new int[]{0}, new double[]{0.5}, 1);
+        assertThrows(IllegalArgumentException.class,
+            () -> constructor.agregar(0, new int[]{2}, new double[]{0.5}, 1));
+        assertThrows(IllegalArgumentException.class,
+            () -> constructor.agregar(2, new int[]{3}, new double[]{0.5}, 1));
+        assertThrows(IllegalArgumentException.class,
+            () -> constructor.agregar(2, new int[]{0}, new double[]{1.5}, 1));
+        assertThrows(IllegalArgumentException.class,
+            () -> constructor.agregar(2, new int[0], new double[0], AdyacenciaComprimida.MAXIMO_GRADO + 1));
+        assertThrows(IllegalArgumentException.class, () -> constructor.loteTransposicion(0));
+    }
+
+    private static long clave(int vecino, double peso) {
+        return (long) vecino << 16 | Math.round(peso * (AdyacenciaComprimida.NIVELES - 1));
+    }
+
+    private static List<Long> ordenadas(List<Long> claves) {
+        Collections.sort(claves);
+        return claves;
+    }
+}
@@ -0,0 +1,146 @@
+package com.peliculas.recomendador.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Renumeraciones RCM y GRADO: siempre una permutación válida, con la propiedad
+ * que promete cada estrategia
+ */
+class OrdenLocalidadTest {
+
+    @Test
+    void permutacionValida() {
+        Random azar = new Random(48);
+        for (int g = 0; g < 60; g++) {
+            // Sin aristas, con lazos, aristas paralelas, aislados y varias componentes
+            int n = azar.nextInt(g % 6 == 0 ? 3000 : 50);
+            int aristas = n == 0 ? 0 : azar.nextInt(3 * n + 1);
+            int[][] csr = noDirigido(n, azar, aristas);
+            for (OrdenLocalidad.Estrategia estrategia : OrdenLocalidad.Estrategia.values()) {
+                String caso = "grafo " + g + " (" + n + " nodos, " + aristas + " aristas), " + estrategia;
+                int[] orden = OrdenLocalidad.calcular(estrategia, n, csr[0], csr[1]);
+
+                assertEquals(n, orden.length, caso);
+                boolean[] usado = new boolean[n];
+                for (int v : orden) {
+                    assertTrue(v >= 0 && v < n && !usado[v], caso + ", nodo " + v);
+                    usado[v] = true;
+                }
+
+                if (estrategia == OrdenLocalidad.Estrategia.GRADO) {
+                    for (int k = 1; k < n; k++) {
+                        int antes = grado(csr[0], orden[k - 1]);
+                        int ahora = grado(csr[0], orden[k]);
+                        assertTrue(antes > ahora || (antes == ahora && orden[k - 1] < orden[k]), caso + ", posición " + k);
+                    }
+                }
+                if (estrategia == OrdenLocalidad.Estrategia.RCM) {
+                    // Cada componente queda en un bloque contiguo
+                    int[] componente = componentes(n, csr[0], csr[1]);
+                    boolean[] cerrada = new boolean[n];
+                    for (int k = 1; k < n; k++) {
+                        int anterior = componente[orden[k - 1]];
+                        int actual = componente[orden[k]];
+                        if (anterior != actual) {
+                            cerrada[anterior] = true;
+                            assertTrue(!cerrada[actual], caso + ", componente " + actual);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void rcmDejaUnCaminoConAnchoDeBandaUno() {
+        // Camino 0 - 1 - ... - n-1 con los índices mezclados
+        int n = 500;
+        List<Integer> mezcla = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            mezcla.add(i);
+        }
+        Collections.shuffle(mezcla, new Random(48));
+        List<int[]> pares = new ArrayList<>();
+        for (int i = 0; i + 1 < n; i++) {
+            pares.add(new int[]{mezcla.get(i), mezcla.get(i + 1)});
+        }
+        int[][] csr = csr(n, pares);
+
+        int[] orden = OrdenLocalidad.calcular(OrdenLocalidad.Estrategia.RCM, n, csr[0], csr[1]);
+        int[] posicion = new int[n];
+        for (int k = 0; k < n; k++) {
+            posicion[orden[k]] = k;
+        }
+        for (int[] par : pares) {
+            assertEquals(1, Math.abs(posicion[par[0]] - posicion[par[1]]));
+        }
+    }
+
+    private static int[][] noDirigido(int n, Random azar, int aristas) {
+        List<int[]> pares = new ArrayList<>();
+        for (int k = 0; k < aristas; k++) {
+            pares.add(new int[]{azar.nextInt(n), azar.nextInt(n)});
+        }
+        return csr(n, pares);
+    }
+
+    /**
+     * CSR no dirigido: cada par aparece en ambos extremos (un lazo, dos veces en el mismo)
+     */
+    private static int[][] csr(int n, List<int[]> pares) {
+        int[] inicio = new int[n + 1];
+        for (int[] par : pares) {
+            inicio[par[0] + 1]++;
+            inicio[par[1] + 1]++;
+        }
+        for (int v = 0; v < n; v++) {
+            inicio[v + 1] += inicio[v];
+        }
+        int[] vecinos = new int[2 * pares.size()];
+        int[] siguiente = inicio.clone();
+        for (int[] par : pares) {
+            vecinos[siguiente[par[0]]++] = par[1];
+            vecinos[siguiente[par[1]]++] = par[0];
+        }
+        return new int[][]{inicio, vecinos};
+    }
+
+    private static int[] componentes(int n, int[] inicio, int[] vecinos) {
+        int[] componente = new int[n];
+        Arrays.fill(componente, -1);
+        int[] pila = new int[n];
+        int cantidad = 0;
+        for (int s = 0; s < n; s++) {
+            if (componente[s] >= 0) {
+                continue;
+            }
+            int tope = 0;
+            pila[tope++] = s;
+            componente[s] = cantidad;
+            while (tope > 0) {
+                int v = pila[--tope];
+                for (int a = inicio[v]; a < inicio[v + 1]; a++) {
+                    if (componente[vecinos[a]] < 0) {
+                        componente[vecinos[a]] = cantidad;
+                        pila[tope++] = vecinos[a];
+                    }
+                }
+            }
+            cantidad++;
+        }
+        return componente;
+    }
+
+    private static int grado(int[] inicio, int v) {
+        return inicio[v + 1] - inicio[v];
+    }
+}
@@ -0,0 +1,143 @@
+package com.peliculas.recomendador.service;
+
+import com.peliculas.recomendador.CatalogosAleatorios;
+import com.peliculas.recomendador.model.Arista;
+import com.peliculas.recomendador.model.OrdenLocalidad;
+import com.peliculas.recomendador.model.Pelicula;
+import com.peliculas.recomendador.model.RelacionSimilitud;
+import com.peliculas.recomendador.model.ResultadoMST;
+import com.peliculas.recomendador.repository.PeliculaRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Bosque incremental contra Kruskal rearmado desde cero después de cada cambio
+ */
+class BosqueExpansionMinimaTest {
+
+    @Test
+    void incrementalComoKruskalDeNuevo() {
+        Random azar = new Random(42);
+        for (int g = 0; g < 40; g++) {
+            int n = 2 + azar.nextInt(g % 5 == 0 ? 400 : 30);
+            List<Pelicula> peliculas = CatalogosAleatorios.peliculas(azar, n, 3);
+            CatalogoPeliculas catalogo = catalogo();
+            BosqueExpansionMinima bosque = bosque(catalogo);
+            ReflectionTestUtils.invokeMethod(bosque, "registrarse");
+            catalogo.reemplazarTodo(peliculas);
+            bosque.resultado();  // armado: los cambios siguientes son incrementales
+
+            for (int c = 0; c < 40; c++) {
+                long origen = 1 + azar.nextInt(n);
+                long destino = 1 + azar.nextInt(n);
+                if (origen == destino) {
+                    continue;
+                }
+                if (azar.nextInt(4) == 0) {
+                    catalogo.eliminarSimilitud(origen, destino);
+                } else {
+                    catalogo.actualizarSimilitud(origen, destino, azar.nextInt(101) / 100.0);
+                }
+
+                String caso = "catálogo " + g + ", cambio " + c + ": " + origen + " -> " + destino;
+                ResultadoMST incremental = bosque.resultado();
+                ResultadoMST rearmado = bosque(catalogo).resultado();
+                assertEquals(rearmado.getNumeroAristas(), incremental.getNumeroAristas(), caso);
+                assertEquals(rearmado.getNumeroNodos(), incremental.getNumeroNodos(), caso);
+                assertEquals(rearmado.getPesoTotal(), incremental.getPesoTotal(), 1e-9, caso);
+                for (Arista arista : incremental.getAristas()) {
+                    assertEquals(menorPeso(arista.getOrigen(), arista.getDestino()), arista.getPeso(), 1e-9,
+                        caso + ", arista " + arista.getOrigen().getPeliculaId() + " - " + arista.getDestino().getPeliculaId());
+                }
+            }
+        }
+    }
+
+    @Test
+    void casosBorde() {
+        CatalogoPeliculas catalogo = catalogo();
+        BosqueExpansionMinima bosque = bosque(catalogo);
+        ReflectionTestUtils.invokeMethod(bosque, "registrarse");
+        catalogo.reemplazarTodo(CatalogosAleatorios.bordes());
+
+        // 1 - 2 sin peso (= 0), 1 - 3 por la paralela más liviana, 3 - 4; el autociclo no entra
+        ResultadoMST inicial = bosque.resultado();
+        assertEquals(3, (int) inicial.getNumeroAristas());
+        assertEquals(0.5, inicial.getPesoTotal(), 1e-9);
+        assertEquals(4, (int) inicial.getNumeroNodos());
+
+        // Actualizar una de las paralelas las reemplaza a las dos
+        catalogo.actualizarSimilitud(1L, 3L, 0.7);
+        comparar(bosque, catalogo, 3, 1.1, "1 -> 3 = 0.7");
+
+        // Eliminar la similitud sin peso deja a 2 aislada (solo con su autociclo)
+        catalogo.eliminarSimilitud(1L, 2L);
+        comparar(bosque, catalogo, 2, 1.1, "sin 1 -> 2");
+
+        // Nada que cambiar: similitud inexistente, película desconocida, autociclo o peso nulo
+        catalogo.eliminarSimilitud(4L, 1L);
+        assertNull(catalogo.actualizarSimilitud(99L, 1L, 0.5));
+        assertNull(catalogo.eliminarSimilitud(1L, 99L));
+        assertThrows(IllegalArgumentException.class, () -> catalogo.actualizarSimilitud(2L, 2L, 0.5));
+        assertThrows(IllegalArgumentException.class, () -> catalogo.actualizarSimilitud(1L, 2L, null));
+        comparar(bosque, catalogo, 2, 1.1, "sin cambios");
+
+        // Catálogo vacío
+        CatalogoPeliculas vacio = catalogo();
+        vacio.reemplazarTodo(List.of());
+        ResultadoMST nada = bosque(vacio).resultado();
+        assertEquals(0, (int) nada.getNumeroAristas());
+        assertTrue(nada.getAristas().isEmpty());
+    }
+
+    private static void comparar(BosqueExpansionMinima bosque, CatalogoPeliculas catalogo,
+                                 int aristas, double pesoTotal, String caso) {
+        ResultadoMST incremental = bosque.resultado();
+        ResultadoMST rearmado = bosque(catalogo).resultado();
+        assertEquals(aristas, (int) incremental.getNumeroAristas(), caso);
+        assertEquals(pesoTotal, incremental.getPesoTotal(), 1e-9, caso);
+        assertEquals(rearmado.getNumeroAristas(), incremental.getNumeroAristas(), caso);
+        assertEquals(rearmado.getNumeroNodos(), incremental.getNumeroNodos(), caso);
+        assertEquals(rearmado.getPesoTotal(), incremental.getPesoTotal(), 1e-9, caso);
+    }
+
+    private static CatalogoPeliculas catalogo() {
+        CatalogoPeliculas catalogo = new CatalogoPeliculas();
+        ReflectionTestUtils.setField(catalogo, "peliculaRepository", Mockito.mock(PeliculaRepository.class));
+        ReflectionTestUtils.setField(catalogo, "reordenamiento", OrdenLocalidad.Estrategia.RCM);
+        return catalogo;
+    }
+
+    private static BosqueExpansionMinima bosque(CatalogoPeliculas catalogo) {
+        BosqueExpansionMinima bosque = new BosqueExpansionMinima();
+        ReflectionTestUtils.setField(bosque, "catalogo", catalogo);
+        return bosque;
+    }
+
+    /**
+     * Menor peso entre dos películas en cualquiera de los dos sentidos
+     */
+    private static double menorPeso(Pelicula a, Pelicula b) {
+        double minimo = Double.POSITIVE_INFINITY;
+        for (RelacionSimilitud relacion : a.getPeliculasSimilares()) {
+            if (relacion.getPeliculaDestino() == b) {
+                minimo = Math.min(minimo, relacion.getPeso());
+            }
+        }
+        for (RelacionSimilitud relacion : b.getPeliculasSimilares()) {
+            if (relacion.getPeliculaDestino() == a) {
+                minimo = Math.min(minimo, relacion.getPeso());
+            }
+        }
+        return minimo;
+    }
+}
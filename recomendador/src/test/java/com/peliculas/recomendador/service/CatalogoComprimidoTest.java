@@ -0,0 +1,169 @@
+package com.peliculas.recomendador.service;
+
+import com.peliculas.recomendador.CatalogosAleatorios;
+import com.peliculas.recomendador.algorithm.AlgoritmoBusqueda;
+import com.peliculas.recomendador.algorithm.AlgoritmoDijkstra;
+import com.peliculas.recomendador.algorithm.AlgoritmoKruskal;
+import com.peliculas.recomendador.controller.ComprimidoController;
+import com.peliculas.recomendador.model.ArbolCaminos;
+import com.peliculas.recomendador.model.GrafoPeliculas;
+import com.peliculas.recomendador.model.Pelicula;
+import com.peliculas.recomendador.model.RangoPesos;
+import com.peliculas.recomendador.model.RelacionSimilitud;
+import com.peliculas.recomendador.model.ResultadoCamino;
+import com.peliculas.recomendador.model.SimilaresLeidos;
+import com.peliculas.recomendador.repository.PeliculaRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+/**
+ * Carga por páginas de la adyacencia comprimida contra el grafo armado con las mismas películas
+ */
+class CatalogoComprimidoTest {
+
+    private final AlgoritmoDijkstra algoritmoDijkstra = new AlgoritmoDijkstra();
+
+    @Test
+    void cargaComoElGrafoEnMemoria() {
+        Random azar = new Random(42);
+        for (int c = 0; c < 20; c++) {
+            int n = 2 + azar.nextInt(c % 4 == 0 ? 1500 : 60);
+            List<Pelicula> todas = CatalogosAleatorios.cuantizadas(CatalogosAleatorios.peliculas(azar, n, 5));
+            // Huecos en los IDs: las similitudes hacia películas que ya no están se descartan
+            List<Pelicula> peliculas = new ArrayList<>();
+            for (Pelicula pelicula : todas) {
+                if (pelicula.getPeliculaId() <= 2 || azar.nextInt(5) != 0) {
+                    peliculas.add(pelicula);
+                }
+            }
+            GrafoPeliculas grafo = CatalogosAleatorios.grafo(peliculas);
+
+            int lote = 1 + azar.nextInt(20);
+            CatalogoComprimido.Cargada cargada = catalogo(peliculas, lote, 1 + azar.nextInt(50)).obtener();
+            String caso = "catálogo " + c + ", lote " + lote;
+            assertEquals(grafo.cantidad(), cargada.adyacencia().cantidad(), caso);
+            assertEquals(grafo.cantidadAristas(), cargada.adyacencia().cantidadAristas(), caso);
+            for (int i = 0; i < grafo.cantidad(); i++) {
+                assertEquals((long) grafo.pelicula(i).getPeliculaId(), cargada.id(i), caso);
+                assertEquals(i, cargada.indice(grafo.pelicula(i).getPeliculaId()), caso);
+            }
+
+            int origen = azar.nextInt(grafo.cantidad());
+            ArbolCaminos esperado = algoritmoDijkstra.arbolHacia(grafo, origen, new int[0]);
+            ArbolCaminos cargado = algoritmoDijkstra.arbolHacia(cargada.adyacencia(), origen, new int[0]);
+            for (int v = 0; v < grafo.cantidad(); v++) {
+                assertEquals(esperado.distancia(v), cargado.distancia(v), 1e-9, caso + ", nodo " + v);
+            }
+        }
+    }
+
+    @Test
+    void casosBorde() {
+        // Pesos sin cuantizar: las distancias coinciden salvo la grilla de 1 / 65535
+        ComprimidoController controlador = controlador(catalogo(CatalogosAleatorios.bordes(), 2, 1));
+        Map<String, Object> resumen = controlador.resumen();
+        assertEquals(4, ((Number) resumen.get("peliculas")).intValue());
+        assertEquals(5, ((Number) resumen.get("aristas")).intValue());  // con el autociclo y las dos paralelas
+
+        // Sin peso = costo 10, la paralela más liviana, el autociclo no cambia nada
+        ResultadoCamino camino = controlador.dijkstraCamino(1L, 4L);
+        assertEquals(List.of(1L, 3L, 4L), camino.getCamino());
+        assertEquals(3.0, camino.getDistancia(), 1e-3);
+        assertEquals(10.0, controlador.dijkstraCamino(1L, 2L).getDistancia(), 1e-3);
+        assertEquals(List.of(2L), controlador.dijkstraCamino(2L, 2L).getCamino());
+        assertNull(controlador.dijkstraCamino(4L, 1L).getDistancia());
+        assertEquals(Map.of(1L, 1, 3L, 2, 4L, 3), controlador.bfs(2L, 3, 10));
+        assertEquals(0.5, (double) controlador.kruskalMST(10).get("pesoTotal"), 1e-3);
+        assertEquals(3, ((Number) controlador.kruskalMST(10).get("numeroAristas")).intValue());
+
+        // ID desconocido
+        assertNull(controlador.dijkstraCamino(99L, 1L).getDistancia());
+        assertTrue(controlador.dijkstraCamino(1L, 99L).getCamino().isEmpty());
+        assertTrue(controlador.bfs(99L, 3, 10).isEmpty());
+
+        // Catálogo vacío: sin similitudes, el rango viene con los dos extremos null
+        CatalogoComprimido vacio = catalogo(List.of(), 2, 1);
+        PeliculaRepository repositorio = (PeliculaRepository) ReflectionTestUtils.getField(vacio, "peliculaRepository");
+        when(repositorio.rangoPesosSimilitud()).thenReturn(new RangoPesos(null, null));
+        controlador = controlador(vacio);
+        assertEquals(0, ((Number) controlador.resumen().get("peliculas")).intValue());
+        assertEquals(0, ((Number) controlador.kruskalMST(10).get("numeroAristas")).intValue());
+        assertTrue(controlador.bfs(1L, 3, 10).isEmpty());
+        assertEquals(-1, vacio.obtener().indice(null));
+    }
+
+    @Test
+    void deshabilitadoNoCarga() {
+        CatalogoComprimido catalogo = new CatalogoComprimido();
+        ReflectionTestUtils.setField(catalogo, "peliculaRepository", Mockito.mock(PeliculaRepository.class));
+        assertThrows(IllegalStateException.class, catalogo::obtener);
+    }
+
+    /**
+     * Catálogo sobre un repositorio que pagina la lista dada como lo haría Neo4j
+     */
+    private static CatalogoComprimido catalogo(List<Pelicula> peliculas, int lote, int loteTransposicion) {
+        PeliculaRepository repositorio = Mockito.mock(PeliculaRepository.class);
+        when(repositorio.idsDesde(anyLong(), anyInt())).thenAnswer(invocacion -> {
+            List<Long> ids = new ArrayList<>();
+            for (Pelicula pelicula : pagina(peliculas, invocacion.getArgument(0), invocacion.getArgument(1))) {
+                ids.add(pelicula.getPeliculaId());
+            }
+            return ids;
+        });
+        when(repositorio.similaresDesde(anyLong(), anyInt())).thenAnswer(invocacion -> {
+            List<SimilaresLeidos> leidos = new ArrayList<>();
+            for (Pelicula pelicula : pagina(peliculas, invocacion.getArgument(0), invocacion.getArgument(1))) {
+                SimilaresLeidos similares = new SimilaresLeidos();
+                similares.setPeliculaId(pelicula.getPeliculaId());
+                for (RelacionSimilitud relacion : pelicula.getPeliculasSimilares()) {
+                    similares.getDestinos().add(relacion.getPeliculaDestino().getPeliculaId());
+                    similares.getPesos().add(relacion.getPeso());
+                }
+                leidos.add(similares);
+            }
+            return leidos;
+        });
+        when(repositorio.rangoPesosSimilitud()).thenReturn(new RangoPesos(0.0, 1.0));
+
+        CatalogoComprimido catalogo = new CatalogoComprimido();
+        ReflectionTestUtils.setField(catalogo, "peliculaRepository", repositorio);
+        ReflectionTestUtils.setField(catalogo, "habilitado", true);
+        ReflectionTestUtils.setField(catalogo, "lote", lote);
+        ReflectionTestUtils.setField(catalogo, "loteTransposicion", loteTransposicion);
+        return catalogo;
+    }
+
+    private static ComprimidoController controlador(CatalogoComprimido catalogo) {
+        ComprimidoController controlador = new ComprimidoController();
+        ReflectionTestUtils.setField(controlador, "catalogoComprimido", catalogo);
+        ReflectionTestUtils.setField(controlador, "algoritmoDijkstra", new AlgoritmoDijkstra());
+        ReflectionTestUtils.setField(controlador, "algoritmoBusqueda", new AlgoritmoBusqueda());
+        ReflectionTestUtils.setField(controlador, "algoritmoKruskal", new AlgoritmoKruskal());
+        return controlador;
+    }
+
+    private static List<Pelicula> pagina(List<Pelicula> peliculas, long despuesDe, int limite) {
+        List<Pelicula> pagina = new ArrayList<>();
+        for (Pelicula pelicula : peliculas) {
+            if (pelicula.getPeliculaId() > despuesDe && pagina.size() < limite) {
+                pagina.add(pelicula);
+            }
+        }
+        return pagina;
+    }
+}
@@ -0,0 +1,85 @@
+package com.peliculas.recomendador.service;
+
+import com.peliculas.recomendador.model.Actor;
+import com.peliculas.recomendador.model.Genero;
+import com.peliculas.recomendador.model.GrafoPeliculas;
+import com.peliculas.recomendador.model.OrdenLocalidad;
+import com.peliculas.recomendador.model.Pelicula;
+import com.peliculas.recomendador.model.RelacionSimilitud;
+import com.peliculas.recomendador.repository.PeliculaRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Alta y cambio de películas: las relaciones que ya tenían sobreviven
+ */
+class CatalogoPeliculasTest {
+
+    @Test
+    void cambioConservaRelaciones() {
+        PeliculaRepository repositorio = Mockito.mock(PeliculaRepository.class);
+        CatalogoPeliculas catalogo = catalogo(repositorio);
+        Pelicula uno = new Pelicula(1L, "Uno", 2000, 7.0, 100);
+        Pelicula dos = new Pelicula(2L, "Dos", 2001, 6.0, 90);
+        uno.getGeneros().add(new Genero("Drama"));
+        uno.getActores().add(new Actor("Ana"));
+        uno.getPeliculasSimilares().add(new RelacionSimilitud(0.5, 1, dos));
+        dos.getPeliculasSimilares().add(new RelacionSimilitud(0.3, 1, uno));
+        catalogo.reemplazarTodo(List.of(uno, dos));
+
+        // Cuerpo sin similitudes ni actores: solo propiedades y un género más
+        Pelicula cambio = new Pelicula(1L, "Uno (versión extendida)", 2000, 8.0, 130);
+        cambio.getGeneros().add(new Genero("Comedia"));
+        Pelicula guardada = catalogo.guardarPelicula(cambio);
+
+        verify(repositorio, never()).save(any());
+        verify(repositorio).guardarPropiedades(1L, "Uno (versión extendida)", 2000, 8.0, 130,
+            List.of("Comedia"), List.of());
+        assertEquals(guardada, catalogo.obtenerPelicula(1L));
+        assertEquals("Uno (versión extendida)", catalogo.obtenerPelicula(1L).getTitulo());
+        assertEquals(8.0, catalogo.obtenerPelicula(1L).getPromedioRating(), 0.0);
+        assertEquals(Set.of("Drama", "Comedia"),
+            guardada.getGeneros().stream().map(Genero::getNombre).collect(Collectors.toSet()));
+        assertEquals(Set.of("Ana"), guardada.getActores().stream().map(Actor::getNombre).collect(Collectors.toSet()));
+        assertEquals(1, guardada.getPeliculasSimilares().size());
+
+        GrafoPeliculas grafo = catalogo.obtenerGrafo();
+        int v1 = grafo.indice(1L);
+        int v2 = grafo.indice(2L);
+        assertEquals(1, grafo.finSalida(v1) - grafo.primeraSalida(v1));
+        assertEquals(v2, grafo.destino(grafo.primeraSalida(v1)));
+        assertEquals(0.5, grafo.peso(grafo.primeraSalida(v1)), 0.0);
+        assertEquals(v1, grafo.destino(grafo.primeraSalida(v2)));
+    }
+
+    @Test
+    void altaSinRelacionesYSinId() {
+        PeliculaRepository repositorio = Mockito.mock(PeliculaRepository.class);
+        CatalogoPeliculas catalogo = catalogo(repositorio);
+        catalogo.reemplazarTodo(List.of(new Pelicula(1L, "Uno", 2000, 7.0, 100)));
+
+        catalogo.guardarPelicula(new Pelicula(2L, "Dos", 2001, null, null));
+        assertEquals(2, catalogo.obtenerGrafo().cantidad());
+        assertEquals(0, catalogo.obtenerGrafo().cantidadAristas());
+        assertThrows(IllegalArgumentException.class,
+            () -> catalogo.guardarPelicula(new Pelicula(null, "Sin id", 2001, 5.0, 90)));
+    }
+
+    private static CatalogoPeliculas catalogo(PeliculaRepository repositorio) {
+        CatalogoPeliculas catalogo = new CatalogoPeliculas();
+        ReflectionTestUtils.setField(catalogo, "peliculaRepository", repositorio);
+        ReflectionTestUtils.setField(catalogo, "reordenamiento", OrdenLocalidad.Estrategia.RCM);
+        return catalogo;
+    }
+}
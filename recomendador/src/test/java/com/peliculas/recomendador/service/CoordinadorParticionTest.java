@@ -0,0 +1,304 @@
+package com.peliculas.recomendador.service;
+
+import com.peliculas.recomendador.CatalogosAleatorios;
+import com.peliculas.recomendador.algorithm.AlgoritmoDijkstra;
+import com.peliculas.recomendador.model.ArbolCaminos;
+import com.peliculas.recomendador.model.AristaParticion;
+import com.peliculas.recomendador.model.Genero;
+import com.peliculas.recomendador.model.GrafoPeliculas;
+import com.peliculas.recomendador.model.OrdenLocalidad;
+import com.peliculas.recomendador.model.Pelicula;
+import com.peliculas.recomendador.model.PeliculaDistancia;
+import com.peliculas.recomendador.model.RelacionSimilitud;
+import com.peliculas.recomendador.model.RespuestaFragmento;
+import com.peliculas.recomendador.model.ResultadoMST;
+import com.peliculas.recomendador.model.ResumenFragmento;
+import com.peliculas.recomendador.model.SolicitudFragmento;
+import com.peliculas.recomendador.repository.PeliculaRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Consultas coordinadas entre 2 a 4 instancias (los pasos remotos se piden
+ * directamente al FragmentoGrafo de cada una) contra las del grafo completo
+ * Cada fragmento se lee del repositorio por páginas chicas, como de Neo4j
+ */
+class CoordinadorParticionTest {
+
+    @Test
+    void particionadoComoGrafoCompleto() {
+        Random azar = new Random(50);
+        AlgoritmoDijkstra dijkstra = new AlgoritmoDijkstra();
+        for (int g = 0; g < 30; g++) {
+            int n = 2 + azar.nextInt(g % 5 == 0 ? 300 : 40);
+            int partes = 2 + g % 3;
+            List<Pelicula> peliculas = CatalogosAleatorios.peliculas(azar, n, 3);
+            CatalogoPeliculas catalogo = catalogo();
+            catalogo.reemplazarTodo(peliculas);
+            GrafoPeliculas grafo = catalogo.obtenerGrafo();
+            List<FragmentoGrafo> fragmentos = fragmentos(CatalogosAleatorios.repositorio(peliculas, 7L), partes);
+            CoordinadorParticion coordinador = instancias(fragmentos).get(azar.nextInt(partes));
+
+            for (int c = 0; c < 5; c++) {
+                long origen = 1 + azar.nextInt(n);
+                String caso = "catálogo " + g + " (" + partes + " instancias), origen " + origen;
+                ArbolCaminos arbol = dijkstra.arbolHacia(grafo, grafo.indice(origen), new int[0]);
+
+                Map<Long, Double> distancias = coordinador.distancias(origen);
+                int alcanzadas = 0;
+                for (int v = 0; v < grafo.cantidad(); v++) {
+                    if (arbol.alcanzado(v)) {
+                        alcanzadas++;
+                        Long id = grafo.pelicula(v).getPeliculaId();
+                        assertEquals(arbol.distancia(v), distancias.get(id), 1e-9, caso + ", película " + id);
+                    }
+                }
+                assertEquals(alcanzadas, distancias.size(), caso);
+
+                long destino = 1 + azar.nextInt(n);
+                int d = grafo.indice(destino);
+                List<Pelicula> camino = coordinador.camino(origen, destino);
+                if (!arbol.alcanzado(d)) {
+                    assertTrue(camino.isEmpty(), caso + ", destino " + destino);
+                } else {
+                    int[] indices = camino.stream().mapToInt(p -> grafo.indice(p.getPeliculaId())).toArray();
+                    assertEquals(origen, (long) camino.get(0).getPeliculaId(), caso + ", destino " + destino);
+                    assertEquals(destino, (long) camino.get(camino.size() - 1).getPeliculaId(), caso + ", destino " + destino);
+                    assertEquals(arbol.distancia(d), CatalogosAleatorios.costo(grafo, indices), 1e-9,
+                        caso + ", destino " + destino);
+                }
+
+                int profundidad = 1 + azar.nextInt(4);
+                Map<Long, Integer> niveles = new HashMap<>();
+                for (PeliculaDistancia encontrada : coordinador.niveles(origen, profundidad, n)) {
+                    niveles.put(encontrada.getPelicula().getPeliculaId(), encontrada.getDistancia());
+                }
+                assertEquals(niveles(grafo, grafo.indice(origen), profundidad), niveles, caso + ", profundidad " + profundidad);
+            }
+
+            String caso = "catálogo " + g + " (" + partes + " instancias)";
+            int propias = fragmentos.stream().mapToInt(f -> f.resumen().getPeliculas()).sum();
+            assertEquals(n, propias, caso);
+            ResultadoMST particionado = coordinador.arbolExpansionMinimo();
+            ResultadoMST completo = bosque(catalogo).resultado();
+            assertEquals(completo.getNumeroAristas(), particionado.getNumeroAristas(), caso);
+            assertEquals(completo.getPesoTotal(), particionado.getPesoTotal(), 1e-9, caso);
+        }
+    }
+
+    @Test
+    void fragmentosDeVersionesDistintasSeRechazan() {
+        List<Pelicula> peliculas = CatalogosAleatorios.peliculas(new Random(7), 40, 3);
+        List<FragmentoGrafo> fragmentos = fragmentos(CatalogosAleatorios.repositorio(peliculas, 7L), 2);
+        // La instancia 1 se cargó después de un cambio en Neo4j
+        ReflectionTestUtils.setField(fragmentos.get(1), "peliculaRepository", CatalogosAleatorios.repositorio(peliculas, 8L));
+        CoordinadorParticion coordinador = instancias(fragmentos).get(0);
+
+        assertEquals(false, coordinador.resumen().get("consistente"));
+        assertThrows(IllegalStateException.class, () -> coordinador.arbolExpansionMinimo());
+        assertThrows(IllegalStateException.class, () -> coordinador.distancias(3L));
+
+        // Tras recargar con la misma versión vuelve a responder
+        ReflectionTestUtils.setField(fragmentos.get(0), "peliculaRepository", CatalogosAleatorios.repositorio(peliculas, 8L));
+        assertEquals(true, coordinador.recargar().get("consistente"));
+        assertEquals(0.0, coordinador.distancias(3L).get(3L), 0.0);
+    }
+
+    /**
+     * 1, 3 en la instancia 1 y 2, 4 en la 0:
+     * 1 -> 2 sin peso (costo 10), 1 -> 3 dos veces (0.1 y 0.9: costo 1), 2 -> 2, 3 -> 4 (0.4: costo 2)
+     */
+    @Test
+    void casosBorde() {
+        Pelicula uno = new Pelicula(1L, "Uno", 2000, 7.0, 100);
+        Pelicula dos = new Pelicula(2L, "Dos", 2001, 6.0, 90);
+        Pelicula tres = new Pelicula(3L, "Tres", 2002, 5.0, 80);
+        Pelicula cuatro = new Pelicula(4L, "Cuatro", 2003, 4.0, 70);
+        uno.getGeneros().add(new Genero("Drama"));
+        dos.getGeneros().add(new Genero("Drama"));
+        uno.getPeliculasSimilares().add(new RelacionSimilitud(null, null, dos));
+        uno.getPeliculasSimilares().add(new RelacionSimilitud(0.1, 0, tres));
+        uno.getPeliculasSimilares().add(new RelacionSimilitud(0.9, 0, tres));
+        dos.getPeliculasSimilares().add(new RelacionSimilitud(0.5, 1, dos));
+        tres.getPeliculasSimilares().add(new RelacionSimilitud(0.4, 0, cuatro));
+        List<FragmentoGrafo> fragmentos = fragmentos(
+            CatalogosAleatorios.repositorio(List.of(uno, dos, tres, cuatro), 7L), 2);
+        CoordinadorParticion coordinador = instancias(fragmentos).get(0);
+
+        assertEquals(Map.of(1L, 0.0, 2L, 10.0, 3L, 1.0, 4L, 3.0), coordinador.distancias(1L));
+        assertEquals(List.of(1L, 3L, 4L), ids(coordinador.camino(1L, 4L)));
+        assertEquals(List.of(1L, 2L), ids(coordinador.camino(1L, 2L)));
+        assertEquals(List.of(2L), ids(coordinador.camino(2L, 2L)));
+        assertTrue(coordinador.camino(4L, 1L).isEmpty());  // solo en el sentido de la similitud
+
+        // El autociclo no cuenta como vecino; el BFS va en cualquier sentido
+        List<PeliculaDistancia> niveles = coordinador.niveles(2L, 3, 10);
+        assertEquals(List.of(1L, 3L, 4L), niveles.stream().map(n -> n.getPelicula().getPeliculaId()).toList());
+        assertEquals(List.of(1, 2, 3), niveles.stream().map(PeliculaDistancia::getDistancia).toList());
+        assertEquals(List.of(1L), coordinador.niveles(2L, 1, 10).stream().map(n -> n.getPelicula().getPeliculaId()).toList());
+
+        // Bosque: 1 - 2 (sin peso = 0), 1 - 3 (la paralela más liviana) y 3 - 4
+        ResultadoMST bosque = coordinador.arbolExpansionMinimo();
+        assertEquals(3, (int) bosque.getNumeroAristas());
+        assertEquals(0.5, bosque.getPesoTotal(), 1e-9);
+        assertEquals(4, (int) bosque.getNumeroNodos());
+        assertEquals(1, (int) bosque.getAristas().get(0).getGenerosComunes());
+
+        // ID desconocido: nada, sin error
+        assertTrue(coordinador.distancias(99L).isEmpty());
+        assertTrue(coordinador.camino(1L, 99L).isEmpty());
+        assertTrue(coordinador.camino(99L, 1L).isEmpty());
+        assertTrue(coordinador.niveles(99L, 3, 10).isEmpty());
+
+        // Catálogo vacío
+        CoordinadorParticion vacio = instancias(fragmentos(CatalogosAleatorios.repositorio(List.of(), 1L), 3)).get(2);
+        assertTrue(vacio.distancias(1L).isEmpty());
+        assertTrue(vacio.camino(1L, 2L).isEmpty());
+        assertTrue(vacio.niveles(1L, 3, 10).isEmpty());
+        assertEquals(0, (int) vacio.arbolExpansionMinimo().getNumeroAristas());
+        assertEquals(List.of(0, 0, 0), vacio.resumen().get("peliculasPorInstancia"));
+    }
+
+    /**
+     * Fragmentos de cada instancia, leídos del repositorio de a 7 películas
+     */
+    static List<FragmentoGrafo> fragmentos(PeliculaRepository repositorio, int partes) {
+        List<String> urls = new ArrayList<>();
+        for (int p = 0; p < partes; p++) {
+            urls.add("http://instancia-" + p);
+        }
+        List<FragmentoGrafo> fragmentos = new ArrayList<>();
+        for (int p = 0; p < partes; p++) {
+            FragmentoGrafo fragmento = new FragmentoGrafo();
+            ReflectionTestUtils.setField(fragmento, "peliculaRepository", repositorio);
+            ReflectionTestUtils.setField(fragmento, "algoritmoDijkstra", new AlgoritmoDijkstra());
+            ReflectionTestUtils.setField(fragmento, "instancias", String.join(",", urls));
+            ReflectionTestUtils.setField(fragmento, "indice", p);
+            ReflectionTestUtils.setField(fragmento, "lote", 7);
+            ReflectionTestUtils.setField(fragmento, "vencimiento", 60_000L);
+            fragmentos.add(fragmento);
+        }
+        return fragmentos;
+    }
+
+    /**
+     * Un coordinador por instancia; los pasos de las demás van directo a su fragmento
+     */
+    static List<CoordinadorParticion> instancias(List<FragmentoGrafo> fragmentos) {
+        Map<String, FragmentoGrafo> porUrl = new HashMap<>();
+        for (FragmentoGrafo fragmento : fragmentos) {
+            porUrl.put(fragmento.instancias().get(fragmento.indice()), fragmento);
+        }
+        ClienteFragmentos clientes = new ClienteFragmentos() {
+            @Override
+            public RespuestaFragmento explorar(String url, SolicitudFragmento solicitud) {
+                return porUrl.get(url).explorar(solicitud);
+            }
+
+            @Override
+            public Map<Long, Double> distancias(String url, SolicitudFragmento solicitud) {
+                return porUrl.get(url).distancias(solicitud);
+            }
+
+            @Override
+            public List<Long> camino(String url, SolicitudFragmento solicitud) {
+                return porUrl.get(url).camino(solicitud);
+            }
+
+            @Override
+            public List<Pelicula> peliculas(String url, List<Long> ids) {
+                return porUrl.get(url).peliculas(ids);
+            }
+
+            @Override
+            public void cerrar(String url, String consulta) {
+                porUrl.get(url).cerrar(consulta);
+            }
+
+            @Override
+            public List<AristaParticion> bosque(String url, long sello, int partes) {
+                return porUrl.get(url).bosque(sello, partes);
+            }
+
+            @Override
+            public ResumenFragmento resumen(String url) {
+                return porUrl.get(url).resumen();
+            }
+
+            @Override
+            public ResumenFragmento recargar(String url) {
+                return porUrl.get(url).recargar();
+            }
+        };
+        List<CoordinadorParticion> coordinadores = new ArrayList<>();
+        for (FragmentoGrafo fragmento : fragmentos) {
+            CoordinadorParticion coordinador = new CoordinadorParticion();
+            ReflectionTestUtils.setField(coordinador, "fragmento", fragmento);
+            ReflectionTestUtils.setField(coordinador, "clientes", clientes);
+            coordinadores.add(coordinador);
+        }
+        return coordinadores;
+    }
+
+    private static List<Long> ids(List<Pelicula> peliculas) {
+        return peliculas.stream().map(Pelicula::getPeliculaId).toList();
+    }
+
+    private static CatalogoPeliculas catalogo() {
+        CatalogoPeliculas catalogo = new CatalogoPeliculas();
+        ReflectionTestUtils.setField(catalogo, "peliculaRepository", Mockito.mock(PeliculaRepository.class));
+        ReflectionTestUtils.setField(catalogo, "reordenamiento", OrdenLocalidad.Estrategia.RCM);
+        return catalogo;
+    }
+
+    private static BosqueExpansionMinima bosque(CatalogoPeliculas catalogo) {
+        BosqueExpansionMinima bosque = new BosqueExpansionMinima();
+        ReflectionTestUtils.setField(bosque, "catalogo", catalogo);
+        return bosque;
+    }
+
+    /**
+     * BFS por SIMILAR_A en cualquier sentido hasta la profundidad, sin el origen
+     */
+    private static Map<Long, Integer> niveles(GrafoPeliculas grafo, int origen, int profundidad) {
+        int[] niveles = new int[grafo.cantidad()];
+        Arrays.fill(niveles, -1);
+        niveles[origen] = 0;
+        ArrayDeque<Integer> cola = new ArrayDeque<>(List.of(origen));
+        Map<Long, Integer> resultado = new HashMap<>();
+        while (!cola.isEmpty()) {
+            int v = cola.poll();
+            if (niveles[v] >= profundidad) {
+                continue;
+            }
+            List<Integer> vecinos = new ArrayList<>();
+            for (int a = grafo.primeraSalida(v); a < grafo.finSalida(v); a++) {
+                vecinos.add(grafo.destino(a));
+            }
+            for (int e = grafo.primeraEntrada(v); e < grafo.finEntrada(v); e++) {
+                vecinos.add(grafo.origen(e));
+            }
+            for (int w : vecinos) {
+                if (niveles[w] < 0) {
+                    niveles[w] = niveles[v] + 1;
+                    resultado.put(grafo.pelicula(w).getPeliculaId(), niveles[w]);
+                    cola.add(w);
+                }
+            }
+        }
+        return resultado;
+    }
+}
@@ -0,0 +1,155 @@
+package com.peliculas.recomendador.service;
+
+import com.peliculas.recomendador.model.Actor;
+import com.peliculas.recomendador.model.Genero;
+import com.peliculas.recomendador.model.Pelicula;
+import com.peliculas.recomendador.model.RelacionSimilitud;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Escritura y lectura de la instantánea binaria: ida y vuelta, CRC y archivos a medias
+ */
+class InstantaneaCatalogoTest {
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    void idaYVuelta() {
+        InstantaneaCatalogo instantanea = instantanea(directorio.resolve("catalogo.bin"));
+        instantanea.guardar(peliculas(), 1234L);
+
+        InstantaneaCatalogo.Contenido contenido = instantanea.leer();
+        assertNotNull(contenido);
+        assertEquals(1234L, contenido.ultimoCambio());
+        assertEquals(3, contenido.peliculas().size());
+
+        Pelicula uno = contenido.peliculas().get(0);
+        assertEquals(1L, (long) uno.getPeliculaId());
+        assertEquals("Uno", uno.getTitulo());
+        assertEquals(2000, (int) uno.getAño());
+        assertEquals(7.5, uno.getPromedioRating(), 0.0);
+        assertEquals(100, (int) uno.getDuracion());
+        assertEquals(Set.of("Drama", "Comedia"), nombres(uno.getGeneros().stream().map(Genero::getNombre)));
+        assertEquals(Set.of("Ana", "Beto"), nombres(uno.getActores().stream().map(Actor::getNombre)));
+
+        // La similitud hacia una película fuera del catálogo no se guarda
+        assertEquals(2, uno.getPeliculasSimilares().size());
+        RelacionSimilitud haciaDos = hacia(uno, 2L);
+        assertSame(contenido.peliculas().get(1), haciaDos.getPeliculaDestino());
+        assertEquals(0.8, haciaDos.getPeso(), 0.0);
+        assertEquals(2, (int) haciaDos.getGenerosComunes());
+        RelacionSimilitud haciaTres = hacia(uno, 3L);
+        assertSame(contenido.peliculas().get(2), haciaTres.getPeliculaDestino());
+        assertNull(haciaTres.getPeso());
+        assertNull(haciaTres.getGenerosComunes());
+
+        // Sin valor sigue siendo sin valor; el autociclo se conserva
+        Pelicula tres = contenido.peliculas().get(2);
+        assertNull(tres.getTitulo());
+        assertNull(tres.getAño());
+        assertNull(tres.getPromedioRating());
+        assertNull(tres.getDuracion());
+        assertEquals(0, tres.getGeneros().size());
+        assertEquals(Set.of("Ana"), nombres(tres.getActores().stream().map(Actor::getNombre)));
+        assertSame(tres, hacia(tres, 3L).getPeliculaDestino());
+
+        // Un género compartido es la misma instancia en ambas películas
+        Pelicula dos = contenido.peliculas().get(1);
+        Genero dramaUno = uno.getGeneros().stream().filter(g -> g.getNombre().equals("Drama")).findFirst().orElseThrow();
+        assertSame(dramaUno, dos.getGeneros().iterator().next());
+    }
+
+    @Test
+    void crcDistintoOTruncadoNoSeLee() throws IOException {
+        Path archivo = directorio.resolve("catalogo.bin");
+        InstantaneaCatalogo instantanea = instantanea(archivo);
+        instantanea.guardar(peliculas(), 1L);
+        byte[] original = Files.readAllBytes(archivo);
+
+        byte[] alterado = original.clone();
+        alterado[alterado.length - 1] ^= 1;  // un bit del contenido, la cabecera intacta
+        Files.write(archivo, alterado);
+        assertNull(instantanea.leer());
+
+        Files.write(archivo, Arrays.copyOf(original, original.length - 8));
+        assertNull(instantanea.leer());
+
+        Files.write(archivo, original);
+        assertNotNull(instantanea.leer());
+    }
+
+    @Test
+    void escrituraFallidaNoDejaTemporales() throws IOException {
+        // El destino es un directorio con contenido: el move final falla
+        Path destino = directorio.resolve("catalogo.bin");
+        Files.createDirectories(destino);
+        Files.writeString(destino.resolve("ocupado"), "x");
+        InstantaneaCatalogo instantanea = instantanea(destino);
+
+        assertThrows(UncheckedIOException.class, () -> instantanea.guardar(peliculas(), 1L));
+        try (Stream<Path> archivos = Files.list(directorio)) {
+            assertEquals(List.of(destino), archivos.collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    void sinArchivoNoHayInstantanea() {
+        assertNull(instantanea(directorio.resolve("no-existe.bin")).leer());
+        assertNull(new InstantaneaCatalogo().leer());
+    }
+
+    private static InstantaneaCatalogo instantanea(Path archivo) {
+        InstantaneaCatalogo instantanea = new InstantaneaCatalogo();
+        ReflectionTestUtils.setField(instantanea, "archivo", archivo.toString());
+        return instantanea;
+    }
+
+    private static List<Pelicula> peliculas() {
+        Pelicula uno = new Pelicula(1L, "Uno", 2000, 7.5, 100);
+        Pelicula dos = new Pelicula(2L, "Dos ñandú", 1999, 6.0, 95);
+        Pelicula tres = new Pelicula(3L, null, null, null, null);
+        Pelicula fuera = new Pelicula(99L, "Fuera", 2010, 5.0, 90);
+        Genero drama = new Genero("Drama");
+        uno.getGeneros().add(drama);
+        uno.getGeneros().add(new Genero("Comedia"));
+        dos.getGeneros().add(drama);
+        uno.getActores().add(new Actor("Ana"));
+        uno.getActores().add(new Actor("Beto"));
+        tres.getActores().add(new Actor("Ana"));
+        uno.getPeliculasSimilares().add(new RelacionSimilitud(0.8, 2, dos));
+        uno.getPeliculasSimilares().add(new RelacionSimilitud(null, null, tres));
+        uno.getPeliculasSimilares().add(new RelacionSimilitud(0.9, 1, fuera));
+        tres.getPeliculasSimilares().add(new RelacionSimilitud(0.1, 0, tres));
+        return List.of(uno, dos, tres);
+    }
+
+    private static RelacionSimilitud hacia(Pelicula origen, long destino) {
+        return origen.getPeliculasSimilares().stream()
+            .filter(relacion -> relacion.getPeliculaDestino().getPeliculaId() == destino)
+            .findFirst()
+            .orElseThrow();
+    }
+
+    private static Set<String> nombres(Stream<String> nombres) {
+        return nombres.collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,87 @@
+package com.peliculas.recomendador.service;
+
+import com.peliculas.recomendador.model.Actor;
+import com.peliculas.recomendador.model.CambioCatalogo;
+import com.peliculas.recomendador.model.Genero;
+import com.peliculas.recomendador.model.GrafoPeliculas;
+import com.peliculas.recomendador.model.OrdenLocalidad;
+import com.peliculas.recomendador.model.Pelicula;
+import com.peliculas.recomendador.model.PeliculaLeida;
+import com.peliculas.recomendador.model.RelacionSimilitud;
+import com.peliculas.recomendador.repository.PeliculaRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+/**
+ * Un lote del registro de cambios aplicado desde la lectura plana de Neo4j
+ */
+class SincronizadorCatalogoTest {
+
+    @Test
+    void aplicaLecturaPlanaYLapidas() {
+        PeliculaRepository repositorio = Mockito.mock(PeliculaRepository.class);
+        CatalogoPeliculas catalogo = new CatalogoPeliculas();
+        ReflectionTestUtils.setField(catalogo, "peliculaRepository", repositorio);
+        ReflectionTestUtils.setField(catalogo, "reordenamiento", OrdenLocalidad.Estrategia.RCM);
+
+        Pelicula uno = new Pelicula(1L, "Uno", 2000, 7.0, 100);
+        Pelicula dos = new Pelicula(2L, "Dos", 2001, 6.0, 90);
+        Pelicula tres = new Pelicula(3L, "Tres", 2002, 5.0, 80);
+        uno.getGeneros().add(new Genero("Drama"));
+        uno.getActores().add(new Actor("Ana"));
+        uno.getPeliculasSimilares().add(new RelacionSimilitud(0.5, 1, dos));
+        uno.getPeliculasSimilares().add(new RelacionSimilitud(0.2, 0, tres));
+        catalogo.reemplazarTodo(List.of(uno, dos, tres));
+
+        // 1 cambió (géneros y similitudes; una hacia una película fuera del catálogo,
+        // sin peso), 3 se borró
+        when(repositorio.cambiosDesde(anyLong(), anyLong(), anyInt())).thenReturn(List.of(
+            new CambioCatalogo(1L, 100L, false), new CambioCatalogo(3L, 100L, true)));
+        when(repositorio.leerPeliculas(any())).thenReturn(List.of(new PeliculaLeida(1L, "Uno", 2000, 7.0, 100,
+            List.of("Drama", "Comedia"), List.of("Ana"),
+            List.of(2L, 4L), Arrays.asList(0.9, null), Arrays.asList(1, null))));
+
+        SincronizadorCatalogo sincronizador = new SincronizadorCatalogo();
+        ReflectionTestUtils.setField(sincronizador, "catalogo", catalogo);
+        ReflectionTestUtils.setField(sincronizador, "peliculaRepository", repositorio);
+        ReflectionTestUtils.setField(sincronizador, "lote", 500);
+        assertEquals(2, sincronizador.aplicarDesde(0));
+
+        Pelicula leida = catalogo.obtenerPelicula(1L);
+        assertNull(catalogo.obtenerPelicula(3L));
+        assertEquals(Set.of("Drama", "Comedia"),
+            leida.getGeneros().stream().map(Genero::getNombre).collect(Collectors.toSet()));
+        assertEquals(Set.of("Ana"), leida.getActores().stream().map(Actor::getNombre).collect(Collectors.toSet()));
+        assertEquals(2, leida.getPeliculasSimilares().size());
+        for (RelacionSimilitud relacion : leida.getPeliculasSimilares()) {
+            if (relacion.getPeliculaDestino().getPeliculaId() == 2L) {
+                assertSame(dos, relacion.getPeliculaDestino());  // el destino es la película del catálogo
+                assertEquals(0.9, relacion.getPeso(), 0.0);
+            } else {
+                assertEquals(4L, (long) relacion.getPeliculaDestino().getPeliculaId());
+                assertNull(relacion.getPeso());
+            }
+        }
+
+        GrafoPeliculas grafo = catalogo.obtenerGrafo();
+        assertEquals(2, grafo.cantidad());
+        int origen = grafo.indice(1L);
+        assertEquals(1, grafo.finSalida(origen) - grafo.primeraSalida(origen));
+        assertEquals(grafo.indice(2L), grafo.destino(grafo.primeraSalida(origen)));
+        assertEquals(0.9, grafo.peso(grafo.primeraSalida(origen)), 0.0);
+    }
+}